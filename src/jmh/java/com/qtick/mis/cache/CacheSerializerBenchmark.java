@@ -0,0 +1,107 @@
+package com.qtick.mis.cache;
+
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
+import com.qtick.mis.dto.dashboard.TopServiceDto;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON and compact binary cache serializers on typical dashboard values.
+ * Run with {@code ./gradlew jmh}; the serialize results report the encoded
+ * size as the {@code bytes} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    @Param({"json", "smile"})
+    public String codec;
+
+    @Param({"summary", "topServices"})
+    public String payload;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("json".equals(codec)) {
+            GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+            json.configure(mapper -> mapper.registerModule(new JavaTimeModule()));
+            serializer = json;
+        } else {
+            serializer = new CompactCacheSerializer(1024);
+        }
+        value = "summary".equals(payload) ? summary() : topServices(50);
+        encoded = serializer.serialize(new StaleWhileRevalidateCache.Stamped(value, System.currentTimeMillis()));
+    }
+
+    /**
+     * Size of the last encoded value, reported next to the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long bytes;
+    }
+
+    @Benchmark
+    public byte[] serialize(EncodedSize size) {
+        byte[] bytes = serializer.serialize(new StaleWhileRevalidateCache.Stamped(value, 0L));
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static DashboardSummaryDto summary() {
+        DashboardSummaryDto summary = new DashboardSummaryDto(new BigDecimal("125430.50"), new BigDecimal("118200.00"),
+                412, new BigDecimal("304.44"), 37, 120, 9, 388, 154);
+        summary.setPeriodStart(LocalDate.of(2024, 3, 1));
+        summary.setPeriodEnd(LocalDate.of(2024, 3, 31));
+        summary.setGrossSalesDelta(new BigDecimal("12.40"));
+        summary.setNetSalesDelta(new BigDecimal("10.95"));
+        summary.setBillsDelta(new BigDecimal("-3.10"));
+        summary.setAvgBillDelta(new BigDecimal("15.98"));
+        return summary;
+    }
+
+    private static List<TopServiceDto> topServices(int count) {
+        List<TopServiceDto> services = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TopServiceDto service = new TopServiceDto((long) i, "Service " + i,
+                    new BigDecimal("25000.00").subtract(BigDecimal.valueOf(i * 311L)), 80 - i, new BigDecimal("3.25"));
+            service.setRank(i + 1);
+            services.add(service);
+        }
+        return services;
+    }
+}
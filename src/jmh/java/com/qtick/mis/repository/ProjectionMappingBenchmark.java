@@ -0,0 +1,114 @@
+package com.qtick.mis.repository;
+
+import com.qtick.mis.repository.projection.BranchDayBills;
+import com.qtick.mis.repository.projection.BranchDayLeads;
+import com.qtick.mis.repository.projection.DailyKpis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares mapping per-day-and-branch aggregate rows into {@link DailyKpis}
+ * from positional {@code Object[]} rows, with the casts and conversions the
+ * services used to need, against mapping from typed projection records.
+ * Run with {@code ./gradlew jmh}; add {@code -prof gc} to the JMH arguments
+ * to see the allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionMappingBenchmark {
+
+    @Param({"90", "3650"})
+    public int rows;
+
+    private List<Object[]> billArrays;
+    private List<Object[]> leadArrays;
+    private List<BranchDayBills> billRecords;
+    private List<BranchDayLeads> leadRecords;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        billArrays = new ArrayList<>(rows);
+        leadArrays = new ArrayList<>(rows);
+        billRecords = new ArrayList<>(rows);
+        leadRecords = new ArrayList<>(rows);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            LocalDate day = start.plusDays(i / 10);
+            Long branchId = 200L + i % 10;
+            BigDecimal gross = BigDecimal.valueOf(1000 + i, 2);
+            BigDecimal net = BigDecimal.valueOf(900 + i, 2);
+            long bills = i % 7 + 1;
+            // Native and DATE() grouped rows came back as java.sql.Date
+            billArrays.add(new Object[]{Date.valueOf(day), branchId, gross, net, bills});
+            leadArrays.add(new Object[]{Date.valueOf(day), branchId, 1L, 3L, 0L});
+            billRecords.add(new BranchDayBills(day, branchId, gross, net, bills));
+            leadRecords.add(new BranchDayLeads(day, branchId, 1L, 3L, 0L));
+        }
+    }
+
+    @Benchmark
+    public Map<LocalDate, Map<Long, DailyKpis>> objectArrays() {
+        Map<LocalDate, Map<Long, DailyKpis>> kpis = new HashMap<>();
+        for (Object[] row : billArrays) {
+            kpis.computeIfAbsent(toLocalDate(row[0]), day -> new HashMap<>())
+                .compute((Long) row[1], (branchId, day) -> (day != null ? day : DailyKpis.empty(branchId))
+                    .withBills(toBigDecimal(row[2]), toBigDecimal(row[3]), ((Number) row[4]).intValue()));
+        }
+        for (Object[] row : leadArrays) {
+            kpis.computeIfAbsent(toLocalDate(row[0]), day -> new HashMap<>())
+                .compute((Long) row[1], (branchId, day) -> (day != null ? day : DailyKpis.empty(branchId))
+                    .withLeads(((Number) row[2]).intValue(), ((Number) row[3]).intValue(), ((Number) row[4]).intValue()));
+        }
+        return kpis;
+    }
+
+    @Benchmark
+    public Map<LocalDate, Map<Long, DailyKpis>> records() {
+        Map<LocalDate, Map<Long, DailyKpis>> kpis = new HashMap<>();
+        for (BranchDayBills row : billRecords) {
+            kpis.computeIfAbsent(row.day(), day -> new HashMap<>())
+                .compute(row.branchId(), (branchId, day) -> (day != null ? day : DailyKpis.empty(branchId))
+                    .withBills(row.grossSales(), row.netSales(), row.bills().intValue()));
+        }
+        for (BranchDayLeads row : leadRecords) {
+            kpis.computeIfAbsent(row.day(), day -> new HashMap<>())
+                .compute(row.branchId(), (branchId, day) -> (day != null ? day : DailyKpis.empty(branchId))
+                    .withLeads(row.newLeads().intValue(), row.totalLeads().intValue(), row.missedLeads().intValue()));
+        }
+        return kpis;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
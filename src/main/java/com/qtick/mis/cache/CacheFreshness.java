@@ -0,0 +1,40 @@
+package com.qtick.mis.cache;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Instant;
+
+/**
+ * Request-scoped lower bound on the write time of cached values a request may use.
+ * Set when the request knows its data changed at a given time, so that a
+ * {@link StaleWhileRevalidateCache} recomputes entries written before it instead
+ * of serving them. Outside a web request no bound applies.
+ */
+public final class CacheFreshness {
+
+    private static final String ATTRIBUTE = CacheFreshness.class.getName() + ".requiredSince";
+
+    private CacheFreshness() {
+    }
+
+    /**
+     * Requires cached values used by the current request to be written at or after the given time.
+     *
+     * @param since the earliest acceptable write time
+     */
+    public static void requireSince(Instant since) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, since, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Gets the earliest acceptable write time for the current request, or {@code null} if any is acceptable.
+     */
+    public static Instant requiredSince() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null ? (Instant) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+    }
+}
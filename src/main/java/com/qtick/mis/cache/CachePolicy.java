@@ -0,0 +1,20 @@
+package com.qtick.mis.cache;
+
+import java.time.Duration;
+
+/**
+ * Freshness policy of one cache, configured under {@code app.cache.policies.<cache-name>}.
+ *
+ * @param softTtl age after which a value is served stale while one refresh runs in the background,
+ *                or {@code null} to refresh only on expiry
+ * @param hardTtl age after which a value is dropped and must be recomputed by the caller
+ */
+public record CachePolicy(Duration softTtl, Duration hardTtl) {
+
+    /**
+     * Whether stale values are served while being refreshed.
+     */
+    public boolean isStaleWhileRevalidate() {
+        return softTtl != null && hardTtl != null && softTtl.compareTo(hardTtl) < 0;
+    }
+}
@@ -0,0 +1,187 @@
+package com.qtick.mis.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis value serializer writing Jackson Smile, a binary JSON encoding, behind a
+ * three-byte header: a magic byte, the schema version and flags. Smile shares
+ * repeated property names and strings, so type hints and DTO field names are
+ * written once per value. Payloads above a threshold are deflated.
+ * <p>
+ * Values written with another schema version, or by another codec, read as a
+ * cache miss rather than failing. Bump {@link #SCHEMA_VERSION} when a cached
+ * type changes incompatibly. Type hints are only resolved to this
+ * application's classes and the JDK value and collection types listed in
+ * {@link #JDK_TYPES}; a value naming any other class fails to read.
+ */
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    /**
+     * Version of the cached value layout; also part of the Redis key prefix.
+     */
+    public static final int SCHEMA_VERSION = 1;
+
+    static final byte MAGIC = 0x51;
+    static final byte FLAG_DEFLATED = 0x01;
+    private static final int HEADER_LENGTH = 3;
+
+    /**
+     * JDK types the cached DTOs are built from. Immutable and unmodifiable collections
+     * are matched by their enclosing factory class instead, as their classes are private.
+     */
+    static final Set<Class<?>> JDK_TYPES = Set.of(
+            Boolean.class, Short.class, Integer.class, Long.class, Float.class, Double.class, String.class,
+            BigDecimal.class, BigInteger.class,
+            LocalDate.class, LocalDateTime.class, LocalTime.class, Instant.class, OffsetDateTime.class,
+            ZonedDateTime.class, YearMonth.class, Duration.class, DayOfWeek.class,
+            ArrayList.class, LinkedList.class, HashSet.class, LinkedHashSet.class, TreeSet.class,
+            HashMap.class, LinkedHashMap.class, TreeMap.class);
+
+    private final ObjectMapper mapper;
+    private final int compressionThreshold;
+
+    /**
+     * @param compressionThreshold payload size in bytes above which values are deflated
+     */
+    public CompactCacheSerializer(int compressionThreshold) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        this.mapper = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                // Tolerate fields removed by a newer deploy within the same schema version
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.mapper.activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("com.qtick.mis.")
+                        .allowIfSubType("java.util.ImmutableCollections$")
+                        .allowIfSubType("java.util.Collections$")
+                        .allowIfSubType(new BasicPolymorphicTypeValidator.TypeMatcher() {
+                            @Override
+                            public boolean match(MapperConfig<?> config, Class<?> clazz) {
+                                return JDK_TYPES.contains(clazz);
+                            }
+                        })
+                        .build(),
+                ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] payload;
+        try {
+            payload = mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value: " + e.getMessage(), e);
+        }
+
+        byte flags = 0;
+        if (payload.length > compressionThreshold) {
+            payload = deflate(payload);
+            flags |= FLAG_DEFLATED;
+        }
+
+        byte[] bytes = new byte[HEADER_LENGTH + payload.length];
+        bytes[0] = MAGIC;
+        bytes[1] = (byte) SCHEMA_VERSION;
+        bytes[2] = flags;
+        System.arraycopy(payload, 0, bytes, HEADER_LENGTH, payload.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < HEADER_LENGTH || bytes[0] != MAGIC || bytes[1] != (byte) SCHEMA_VERSION) {
+            // Empty, foreign or written by another schema version: a miss
+            return null;
+        }
+        byte[] payload = Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+        if ((bytes[2] & FLAG_DEFLATED) != 0) {
+            payload = inflate(payload);
+        }
+        try {
+            return mapper.readValue(payload, Object.class);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read cache value: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] payload) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && inflater.needsInput()) {
+                    throw new SerializationException("Truncated compressed cache value");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
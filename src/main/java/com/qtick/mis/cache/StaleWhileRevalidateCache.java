@@ -0,0 +1,187 @@
+package com.qtick.mis.cache;
+
+import com.qtick.mis.datasource.ReplicaReadContextHolder;
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link Cache} decorator serving values past their soft TTL while a single
+ * background refresh recomputes them. Values are stored with their write time;
+ * the delegate's own expiry acts as the hard TTL. Only loads through
+ * {@link #get(Object, Callable)}, as made by {@code @Cacheable(sync = true)},
+ * can refresh; concurrent loads of a missing key on this node share one call.
+ * Values written before the request's {@link CacheFreshness} bound are treated
+ * as missing. Refreshes run with the tenant context and replica read marker of
+ * the request that found the value stale.
+ */
+public class StaleWhileRevalidateCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleWhileRevalidateCache.class);
+
+    /**
+     * A cached value with the time it was computed.
+     *
+     * @param value the cached value
+     * @param writtenAt epoch milliseconds of the write
+     */
+    public record Stamped(Object value, long writtenAt) {
+    }
+
+    private final Cache delegate;
+    private final Duration softTtl;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public StaleWhileRevalidateCache(Cache delegate, Duration softTtl, Executor refreshExecutor, Clock clock) {
+        this.delegate = delegate;
+        this.softTtl = softTtl;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Stamped stamped = lookup(key);
+        return stamped != null ? new SimpleValueWrapper(stamped.value()) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Stamped stamped = lookup(key);
+        Object value = stamped != null ? stamped.value() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Stamped stamped = lookup(key);
+        Instant requiredSince = CacheFreshness.requiredSince();
+        if (stamped == null || (requiredSince != null && stamped.writtenAt() < requiredSince.toEpochMilli())) {
+            return (T) loadShared(key, valueLoader);
+        }
+        if (clock.millis() - stamped.writtenAt() >= softTtl.toMillis()) {
+            refreshInBackground(key, valueLoader);
+        }
+        return (T) stamped.value();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value != null ? new Stamped(value, clock.millis()) : null);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    /**
+     * Gets the cache this decorator stores into.
+     */
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    private Stamped lookup(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        return wrapper != null && wrapper.get() instanceof Stamped stamped ? stamped : null;
+    }
+
+    /**
+     * Loads a missing value on the calling thread; other callers for the same key wait for it.
+     */
+    private Object loadShared(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            Object value = valueLoader.call();
+            put(key, value);
+            load.complete(value);
+            return value;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * Starts a refresh of a stale value unless one is already running on this node.
+     */
+    private void refreshInBackground(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> refresh = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, refresh) != null) {
+            return;
+        }
+        TenantContext context = TenantContextHolder.getContext();
+        boolean replicaReads = ReplicaReadContextHolder.isEnabled();
+        try {
+            refreshExecutor.execute(() -> {
+                TenantContextHolder.setContext(context);
+                if (replicaReads) {
+                    ReplicaReadContextHolder.enable();
+                }
+                try {
+                    Object value = valueLoader.call();
+                    put(key, value);
+                    refresh.complete(value);
+                } catch (Exception e) {
+                    // Keep serving the stale value until the hard TTL
+                    logger.warn("Background refresh of {} in cache {} failed", key, getName(), e);
+                    refresh.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, refresh);
+                    TenantContextHolder.clearContext();
+                    ReplicaReadContextHolder.clear();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, refresh);
+            logger.warn("Could not schedule refresh of {} in cache {}", key, getName(), e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.qtick.mis.cache;
+
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import org.springframework.cache.interceptor.KeyGenerator;
+
+import java.lang.reflect.Method;
+import java.util.StringJoiner;
+
+/**
+ * Generates cache keys namespaced by the current tenant, in the form
+ * {@code bizId:method:arg1:arg2...}. Service methods read the tenant from the
+ * context rather than taking it as a parameter, so the default key generator
+ * would share entries between tenants.
+ */
+public class TenantKeyGenerator implements KeyGenerator {
+
+    /**
+     * Key segment used when no tenant context is set.
+     */
+    static final String NO_TENANT = "_";
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        StringJoiner key = new StringJoiner(":");
+        key.add(tenantPrefix());
+        key.add(method.getName());
+        for (Object param : params) {
+            key.add(String.valueOf(param));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Gets the key prefix shared by all entries of a tenant.
+     */
+    public static String tenantPrefix(Long bizId) {
+        return bizId != null ? bizId.toString() : NO_TENANT;
+    }
+
+    private static String tenantPrefix() {
+        TenantContext context = TenantContextHolder.getContext();
+        return tenantPrefix(context != null ? context.getBizId() : null);
+    }
+}
@@ -0,0 +1,275 @@
+package com.qtick.mis.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link Cache} reading through a bounded in-process L1 to a shared L2.
+ * Values found in L2 are copied into L1, so repeated reads on a node skip the
+ * network hop and deserialization. Writes go to both tiers; every eviction is
+ * reported to the {@link InvalidationPublisher} so other nodes can drop their
+ * L1 copies. Keys are expected to start with the tenant prefix produced by
+ * {@link TenantKeyGenerator}. Concurrent loads of one key on a node share a
+ * single load, while loads of other keys proceed in parallel.
+ */
+public class TwoTierCache implements Cache {
+
+    /**
+     * What an invalidation removes.
+     */
+    public enum Scope {
+        KEY, TENANT, ALL
+    }
+
+    /**
+     * Receives the evictions made on this node.
+     */
+    @FunctionalInterface
+    public interface InvalidationPublisher {
+
+        /**
+         * @param cacheName the cache the entries were evicted from
+         * @param scope what was evicted
+         * @param key the key for {@link Scope#KEY}, the tenant prefix for {@link Scope#TENANT}, otherwise {@code null}
+         */
+        void publish(String cacheName, Scope scope, String key);
+    }
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache remote;
+    private final InvalidationPublisher publisher;
+    private final StringRedisTemplate redisTemplate;
+    private final Map<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local,
+                        Cache remote, InvalidationPublisher publisher) {
+        this(name, local, remote, publisher, null);
+    }
+
+    /**
+     * @param redisTemplate connection used to read several keys of a Redis L2 in one round trip,
+     *                      or {@code null} to read them one by one
+     */
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local,
+                        Cache remote, InvalidationPublisher publisher, StringRedisTemplate redisTemplate) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(key, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    /**
+     * Reads several keys at once: L1 first, then the keys it misses from a Redis L2
+     * with a single MGET. Values found in L2 are copied into L1.
+     *
+     * @param keys the keys to read
+     * @return the values found by key; keys without a value are absent
+     */
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>(local.getAllPresent(keys));
+        List<?> missing = keys.stream().filter(key -> !found.containsKey(key)).toList();
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Cache target = remote instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : remote;
+        if (redisTemplate != null && target instanceof RedisCache redisCache) {
+            RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+            String keyPrefix = config.getKeyPrefixFor(name);
+            byte[][] rawKeys = missing.stream()
+                    .map(key -> ByteUtils.getBytes(config.getKeySerializationPair().write(keyPrefix + key)))
+                    .toArray(byte[][]::new);
+            List<byte[]> rawValues = redisTemplate.execute(
+                    (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+            for (int i = 0; rawValues != null && i < missing.size(); i++) {
+                Object value = rawValues.get(i) != null
+                        ? config.getValueSerializationPair().read(ByteBuffer.wrap(rawValues.get(i)))
+                        : null;
+                if (value != null) {
+                    found.put(missing.get(i), value);
+                    local.put(missing.get(i), value);
+                }
+            }
+        } else {
+            for (Object key : missing) {
+                ValueWrapper wrapper = get(key);
+                if (wrapper != null && wrapper.get() != null) {
+                    found.put(key, wrapper.get());
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return (T) value;
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            try {
+                return (T) inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            value = load(key, valueLoader);
+            load.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    /**
+     * Reads a key from L2, or computes and stores it in both tiers on a miss.
+     */
+    private Object load(Object key, Callable<?> valueLoader) {
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(key, wrapper.get());
+            return wrapper.get();
+        }
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            local.put(key, value);
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key);
+        publisher.publish(name, Scope.KEY, key.toString());
+    }
+
+    /**
+     * Evicts immediately from both tiers, even inside a transaction, unlike {@link #evict}
+     * on a transaction-aware L2.
+     */
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        local.invalidate(key);
+        publisher.publish(name, Scope.KEY, key.toString());
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        publisher.publish(name, Scope.ALL, null);
+    }
+
+    /**
+     * Evicts every entry of a tenant from both tiers.
+     *
+     * @param bizId the tenant whose entries are evicted
+     */
+    public void evictTenant(Long bizId) {
+        String prefix = TenantKeyGenerator.tenantPrefix(bizId) + ":";
+        Cache target = remote instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : remote;
+        if (target instanceof RedisCache redisCache) {
+            String keyPrefix = redisCache.getCacheConfiguration().getKeyPrefixFor(name);
+            redisCache.getNativeCache().clean(name, (keyPrefix + prefix + "*").getBytes(StandardCharsets.UTF_8));
+        } else if (target.getNativeCache() instanceof Map<?, ?> map) {
+            map.keySet().removeIf(key -> key.toString().startsWith(prefix));
+        }
+        invalidateLocal(Scope.TENANT, prefix);
+        publisher.publish(name, Scope.TENANT, prefix);
+    }
+
+    /**
+     * Drops L1 entries only, as requested by another node.
+     *
+     * @param scope what to drop
+     * @param key the key or tenant prefix, ignored for {@link Scope#ALL}
+     */
+    public void invalidateLocal(Scope scope, String key) {
+        switch (scope) {
+            case KEY -> local.invalidate(key);
+            case TENANT -> local.asMap().keySet().removeIf(cached -> cached.toString().startsWith(key));
+            case ALL -> local.invalidateAll();
+        }
+    }
+}
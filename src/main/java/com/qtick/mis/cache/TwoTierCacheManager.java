@@ -0,0 +1,166 @@
+package com.qtick.mis.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qtick.mis.event.DashboardDataChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@link CacheManager} placing a Caffeine L1 in front of every cache of a
+ * Redis-backed L2 manager. Evictions are broadcast on a Redis pub/sub channel
+ * as {@code nodeId|scope|cacheName|key}; every other node drops the matching
+ * L1 entries when it receives them. L1 entries also expire after a short
+ * lifetime, which bounds staleness if a message is lost. Caches whose
+ * {@link CachePolicy} has a soft TTL are wrapped in a
+ * {@link StaleWhileRevalidateCache}.
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long maxWeight;
+    private final Duration localTtl;
+    private final Map<String, CachePolicy> policies;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Cache> exposed = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private Set<String> keyInvalidatedCaches = Set.of();
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate,
+                               String channel, long maxWeight, Duration localTtl,
+                               Map<String, CachePolicy> policies) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.maxWeight = maxWeight;
+        this.localTtl = localTtl;
+        this.policies = policies;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = exposed.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return exposed.computeIfAbsent(name, key -> {
+            TwoTierCache twoTier = new TwoTierCache(key, newLocalCache(), remote, this::publish, redisTemplate);
+            caches.put(key, twoTier);
+            CachePolicy policy = policies.get(key);
+            return policy != null && policy.isStaleWhileRevalidate()
+                    ? new StaleWhileRevalidateCache(twoTier, policy.softTtl(), refreshExecutor, Clock.systemUTC())
+                    : twoTier;
+        });
+    }
+
+    /**
+     * Names caches whose owners evict changed entries key by key, which
+     * {@link #onDashboardDataChanged} then leaves alone.
+     */
+    public void setKeyInvalidatedCaches(Set<String> cacheNames) {
+        this.keyInvalidatedCaches = Set.copyOf(cacheNames);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return List.copyOf(exposed.keySet());
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Evicts a tenant's entries from every range-keyed cache when its dashboard data changes.
+     */
+    @EventListener
+    public void onDashboardDataChanged(DashboardDataChangedEvent event) {
+        caches.forEach((name, cache) -> {
+            if (!keyInvalidatedCaches.contains(name)) {
+                cache.evictTenant(event.bizId());
+            }
+        });
+    }
+
+    /**
+     * Applies an invalidation broadcast by another node to the local tier.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.invalidateLocal(TwoTierCache.Scope.valueOf(parts[1]), parts.length == 4 ? parts[3] : null);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring malformed cache invalidation: {}", parts[1]);
+        }
+    }
+
+    private void publish(String cacheName, TwoTierCache.Scope scope, String key) {
+        String message = nodeId + "|" + scope + "|" + cacheName + (key != null ? "|" + key : "");
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the L1 lifetime
+            logger.warn("Failed to broadcast cache invalidation for {}", cacheName, e);
+        }
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> newLocalCache() {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Object key, Object value) -> weigh(value))
+                .expireAfterWrite(localTtl)
+                .build();
+    }
+
+    /**
+     * Approximate weight of a cached value: one per object, plus one per element of a collection.
+     */
+    static int weigh(Object value) {
+        if (value instanceof StaleWhileRevalidateCache.Stamped stamped) {
+            return weigh(stamped.value());
+        }
+        if (value instanceof Collection<?> collection) {
+            return 1 + collection.size();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return 1 + map.size();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Caching infrastructure.
+ * Contains the two-tier cache manager layering an in-process cache over Redis
+ * and the tenant-scoped key generator used by cached service methods.
+ */
+package com.qtick.mis.cache;
@@ -1,13 +1,17 @@
 package com.qtick.mis.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Main application configuration class.
@@ -15,6 +19,7 @@ import java.util.concurrent.Executor;
  */
 @Configuration
 @EnableAsync
+@EnableScheduling
 @EnableJpaRepositories(basePackages = "com.qtick.mis.repository.jpa")
 @EnableMongoRepositories(basePackages = "com.qtick.mis.repository.mongo")
 public class ApplicationConfig {
@@ -32,4 +37,35 @@ public class ApplicationConfig {
         executor.initialize();
         return executor;
     }
+    
+    /**
+     * Configure the scheduler running the {@code @Scheduled} jobs. Several threads
+     * keep a long snapshot backfill from delaying the rollup, heartbeat, warm-up
+     * and replica lag check jobs.
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${app.scheduling.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("qtick-scheduler-");
+        scheduler.initialize();
+        return scheduler;
+    }
+    
+    /**
+     * Configure the bounded worker pool for snapshot materialization.
+     * When all workers are busy the materializer's scheduler thread runs the next
+     * tenant itself, which throttles submission instead of queueing every tenant at once.
+     */
+    @Bean(name = "snapshotExecutor")
+    public Executor snapshotExecutor(@Value("${app.snapshots.materializer.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("qtick-snapshot-");
+        executor.initialize();
+        return executor;
+    }
 }
\ No newline at end of file
@@ -1,22 +1,45 @@
 package com.qtick.mis.config;
 
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.qtick.mis.cache.CachePolicy;
+import com.qtick.mis.cache.CompactCacheSerializer;
+import com.qtick.mis.cache.TenantKeyGenerator;
+import com.qtick.mis.cache.TwoTierCacheManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Cache configuration for Redis-based caching.
- * Enables caching only when Redis is configured.
+ * Enables caching only when Redis is configured. Redis is the shared L2 tier;
+ * each node keeps a bounded in-process L1 in front of it, kept coherent by
+ * invalidations broadcast over Redis pub/sub. Per-cache soft and hard TTLs
+ * are configured under {@code app.cache.policies}. Values are written with the
+ * compact binary codec unless {@code app.cache.codec.format} is {@code json}.
  */
 @Configuration
 @EnableCaching
@@ -24,21 +47,109 @@ import java.time.Duration;
 public class CacheConfig {
 
     /**
-     * Configure Redis cache manager with appropriate serialization and TTL settings.
+     * Caches of dashboard reads, whose data is refreshed within minutes.
+     */
+    public static final String TRENDS = "dashboard-trends";
+    public static final String TOP_SERVICES = "dashboard-top-services";
+    public static final String TOP_STAFF = "dashboard-top-staff";
+    public static final String BUSINESS_VIEW_COUNT = "dashboard-business-view-count";
+
+    /**
+     * Per-day summary KPIs, evicted day by day when their data changes.
+     */
+    public static final String DAY_BUCKETS = "dashboard-day-buckets";
+
+    private static final int CLEAR_SCAN_BATCH = 1000;
+
+    /**
+     * Configure the two-tier cache manager over a Redis cache manager.
+     */
+    @Bean
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                            StringRedisTemplate redisTemplate,
+                                            @Value("${app.cache.invalidation-channel:mis:cache:invalidate}") String channel,
+                                            @Value("${app.cache.l1.max-weight:100000}") long maxWeight,
+                                            @Value("${app.cache.l1.ttl:PT1M}") Duration localTtl,
+                                            @Value("${app.cache.codec.format:smile}") String codec,
+                                            @Value("${app.cache.codec.compression-threshold:1024}") int compressionThreshold,
+                                            Environment environment) {
+        Map<String, CachePolicy> policies = Binder.get(environment)
+                .bind("app.cache.policies", Bindable.mapOf(String.class, CachePolicy.class))
+                .orElse(Map.of());
+        TwoTierCacheManager manager = new TwoTierCacheManager(
+                redisCacheManager(redisConnectionFactory, policies, codec, compressionThreshold),
+                redisTemplate, channel, maxWeight, localTtl, policies);
+        manager.setKeyInvalidatedCaches(Set.of(DAY_BUCKETS));
+        return manager;
+    }
+
+    /**
+     * Subscribe the cache manager to invalidations broadcast by other nodes.
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory redisConnectionFactory, TwoTierCacheManager cacheManager,
+            @Value("${app.cache.invalidation-channel:mis:cache:invalidate}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(channel));
+        return container;
+    }
+
+    /**
+     * Key generator namespacing cache keys by the current tenant.
+     */
+    @Bean
+    public KeyGenerator tenantKeyGenerator() {
+        return new TenantKeyGenerator();
+    }
+
+    /**
+     * Configure Redis cache manager with appropriate serialization and TTL settings.
+     */
+    private CacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory,
+                                           Map<String, CachePolicy> policies,
+                                           String codec, int compressionThreshold) {
+        RedisSerializer<Object> serializer;
+        String keyPrefix;
+        if ("json".equals(codec)) {
+            GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+            // Cached DTOs carry java.time fields
+            json.configure(mapper -> mapper.registerModule(new JavaTimeModule()));
+            serializer = json;
+            keyPrefix = "";
+        } else {
+            serializer = new CompactCacheSerializer(compressionThreshold);
+            // Nodes on different value layouts, as during a rolling deploy, use separate keys
+            keyPrefix = "v" + CompactCacheSerializer.SCHEMA_VERSION + ":";
+        }
+
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30)) // Default TTL of 30 minutes
+                .prefixCacheNameWith(keyPrefix)
                 .serializeKeysWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                        .fromSerializer(serializer))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(redisConnectionFactory)
+        // Redis expiry enforces each cache's hard TTL
+        Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
+        policies.forEach((name, policy) -> {
+            if (policy.hardTtl() != null) {
+                cacheConfigs.put(name, config.entryTtl(policy.hardTtl()));
+            }
+        });
+
+        // Tenant and cache clears walk the keyspace with SCAN rather than blocking Redis with KEYS
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(
+                redisConnectionFactory, BatchStrategies.scan(CLEAR_SCAN_BATCH));
+        RedisCacheManager manager = RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(config)
+                .withInitialCacheConfigurations(cacheConfigs)
                 .transactionAware()
                 .build();
+        manager.afterPropertiesSet();
+        return manager;
     }
-}
\ No newline at end of file
+}
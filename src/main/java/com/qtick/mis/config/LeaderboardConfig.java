@@ -0,0 +1,44 @@
+package com.qtick.mis.config;
+
+import com.qtick.mis.service.InMemoryStaffLeaderboard;
+import com.qtick.mis.service.RedisStaffLeaderboard;
+import com.qtick.mis.service.StaffLeaderboard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Leaderboard storage configuration.
+ * Uses Redis sorted sets when Redis caching is configured, so all instances
+ * share one leaderboard, and an in-process skip list otherwise.
+ */
+@Configuration
+public class LeaderboardConfig {
+
+    /**
+     * Redis-backed staff leaderboard; days expire after the retention period
+     * and are reloaded after the closed-day TTL.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public StaffLeaderboard redisStaffLeaderboard(StringRedisTemplate redisTemplate,
+                                                  @Value("${app.leaderboard.retention:P400D}") Duration retention,
+                                                  @Value("${app.leaderboard.closed-day-ttl:PT1H}") Duration closedDayTtl) {
+        return new RedisStaffLeaderboard(redisTemplate, retention, closedDayTtl);
+    }
+
+    /**
+     * In-memory staff leaderboard holding a bounded number of tenant-days.
+     */
+    @Bean
+    @ConditionalOnExpression("'${spring.cache.type:}' != 'redis'")
+    public StaffLeaderboard inMemoryStaffLeaderboard(@Value("${app.leaderboard.in-memory.max-days:100000}") int maxDays,
+                                                     @Value("${app.leaderboard.closed-day-ttl:PT1H}") Duration closedDayTtl) {
+        return new InMemoryStaffLeaderboard(maxDays, closedDayTtl);
+    }
+}
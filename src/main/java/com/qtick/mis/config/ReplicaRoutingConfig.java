@@ -0,0 +1,109 @@
+package com.qtick.mis.config;
+
+import com.qtick.mis.datasource.ReplicaLagMonitor;
+import com.qtick.mis.datasource.ReplicaNode;
+import com.qtick.mis.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replica routing configuration.
+ * Enabled by {@code spring.datasource.replicas.enabled}; replaces the single
+ * Hikari pool with a primary pool and one pool per replica listed under
+ * {@code spring.datasource.replicas.nodes}. Every pool takes the
+ * {@code spring.datasource.hikari} settings; replica pools are further
+ * configured under {@code spring.datasource.replicas.hikari}. Each pool
+ * publishes Hikari metrics tagged with its pool name.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingConfig.class);
+
+    /**
+     * Replica pools with their lag monitor.
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties,
+                                               Environment environment,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${spring.datasource.replicas.max-lag:PT5S}") Duration maxLag,
+                                               @Value("${spring.datasource.replicas.lag-query:SHOW REPLICA STATUS}") String lagQuery) {
+        Binder binder = Binder.get(environment);
+        List<ReplicaNode> nodes = binder.bind("spring.datasource.replicas.nodes", Bindable.listOf(ReplicaNode.class))
+                .orElse(List.of());
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReplicaNode node = nodes.get(i);
+            if (node.url() == null || node.url().isBlank()) {
+                continue;
+            }
+            String name = node.name() != null ? node.name() : "replica-" + (i + 1);
+            HikariDataSource replica = pool(properties, binder, meterRegistry, name);
+            replica.setJdbcUrl(node.url());
+            if (node.username() != null) {
+                replica.setUsername(node.username());
+            }
+            if (node.password() != null) {
+                replica.setPassword(node.password());
+            }
+            binder.bind("spring.datasource.replicas.hikari", Bindable.ofInstance(replica));
+            replica.setReadOnly(true);
+            replicas.put(name, replica);
+        }
+        if (replicas.isEmpty()) {
+            logger.warn("Replica routing is enabled but no replica is configured; all reads use the primary");
+        }
+        return new ReplicaLagMonitor(replicas, maxLag, lagQuery, meterRegistry);
+    }
+
+    /**
+     * Routing data source over the primary pool and the replica pools.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             Environment environment,
+                                                             MeterRegistry meterRegistry,
+                                                             ReplicaLagMonitor replicaLagMonitor) {
+        HikariDataSource primary = pool(properties, Binder.get(environment), meterRegistry, "primary");
+        return new ReplicaRoutingDataSource(primary, replicaLagMonitor, meterRegistry);
+    }
+
+    /**
+     * The application data source; connections are fetched on first use, once
+     * the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder,
+                                         MeterRegistry meterRegistry, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+}
@@ -0,0 +1,37 @@
+package com.qtick.mis.config;
+
+import com.qtick.mis.service.InMemoryTenantAccessTracker;
+import com.qtick.mis.service.RedisTenantAccessTracker;
+import com.qtick.mis.service.TenantAccessTracker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Tenant access tracking configuration.
+ * Uses Redis when Redis caching is configured, so all instances share the
+ * access statistics and they survive deploys, and process memory otherwise.
+ */
+@Configuration
+public class TenantAccessConfig {
+
+    /**
+     * Redis-backed tenant access tracker.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public TenantAccessTracker redisTenantAccessTracker(StringRedisTemplate redisTemplate) {
+        return new RedisTenantAccessTracker(redisTemplate);
+    }
+
+    /**
+     * In-memory tenant access tracker of this instance.
+     */
+    @Bean
+    @ConditionalOnExpression("'${spring.cache.type:}' != 'redis'")
+    public TenantAccessTracker inMemoryTenantAccessTracker() {
+        return new InMemoryTenantAccessTracker();
+    }
+}
@@ -17,12 +17,17 @@ import java.util.TimeZone;
 @Configuration
 public class TimezoneConfig {
 
+    /**
+     * Zone of the application, and of tenants whose timezone is not known.
+     */
+    public static final ZoneId APPLICATION_ZONE = ZoneId.of("Asia/Singapore");
+
     /**
      * Set the default timezone for the JVM to Asia/Singapore.
      */
     @PostConstruct
     public void init() {
-        TimeZone.setDefault(TimeZone.getTimeZone(ZoneId.of("Asia/Singapore")));
+        TimeZone.setDefault(TimeZone.getTimeZone(APPLICATION_ZONE));
     }
 
     /**
@@ -33,7 +38,7 @@ public class TimezoneConfig {
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
-        mapper.setTimeZone(TimeZone.getTimeZone(ZoneId.of("Asia/Singapore")));
+        mapper.setTimeZone(TimeZone.getTimeZone(APPLICATION_ZONE));
         return mapper;
     }
 }
\ No newline at end of file
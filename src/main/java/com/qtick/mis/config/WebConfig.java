@@ -1,10 +1,16 @@
 package com.qtick.mis.config;
 
+import com.qtick.mis.controller.DashboardAccessInterceptor;
+import com.qtick.mis.controller.DashboardController;
+import com.qtick.mis.controller.ReplicaReadInterceptor;
+import com.qtick.mis.service.TenantAccessTracker;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
@@ -15,6 +21,9 @@ import java.util.List;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private TenantAccessTracker tenantAccessTracker;
+
     /**
      * Configure CORS for cross-origin requests.
      */
@@ -24,6 +33,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("*")
                 .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(DashboardController.NEXT_CURSOR_HEADER)
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -38,4 +48,16 @@ public class WebConfig implements WebMvcConfigurer {
         resolver.setMaxPageSize(100); // Maximum page size of 100
         resolvers.add(resolver);
     }
-}
\ No newline at end of file
+
+    /**
+     * Track dashboard use per tenant for cache warm-up, and let dashboard and
+     * export reads go to a replica.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new DashboardAccessInterceptor(tenantAccessTracker))
+                .addPathPatterns("/api/dashboard/**");
+        registry.addInterceptor(new ReplicaReadInterceptor())
+                .addPathPatterns("/api/dashboard/**", "/api/export/**");
+    }
+}
@@ -0,0 +1,26 @@
+package com.qtick.mis.controller;
+
+import com.qtick.mis.security.TenantContextHolder;
+import com.qtick.mis.service.TenantAccessTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Records each dashboard request in the {@link TenantAccessTracker}, which
+ * orders tenants and predicts their opening times for cache warm-up.
+ */
+public class DashboardAccessInterceptor implements HandlerInterceptor {
+
+    private final TenantAccessTracker accessTracker;
+
+    public DashboardAccessInterceptor(TenantAccessTracker accessTracker) {
+        this.accessTracker = accessTracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        accessTracker.record(TenantContextHolder.getContext());
+        return true;
+    }
+}
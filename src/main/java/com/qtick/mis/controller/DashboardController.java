@@ -1,46 +1,101 @@
 package com.qtick.mis.controller;
 
 import com.qtick.mis.dto.dashboard.*;
+import com.qtick.mis.exception.InvalidCursorException;
+import com.qtick.mis.repository.KeysetCursor;
+import com.qtick.mis.service.DashboardBatchService;
+import com.qtick.mis.service.DashboardLiveStream;
 import com.qtick.mis.service.DashboardService;
+import com.qtick.mis.service.DashboardWatermarkService;
+import com.qtick.mis.service.RequestCoalescer;
+import com.qtick.mis.service.SummaryField;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 /**
  * REST controller for dashboard related endpoints.
+ * Summary, trend and ranking responses carry an ETag derived from the data
+ * watermark of their range; a matching If-None-Match is answered with 304
+ * before any aggregation runs. The batch endpoint computes several widgets
+ * of the page in one request, and the stream endpoint pushes today's summary
+ * as it changes.
  */
 @RestController
 @RequestMapping("/api/dashboard")
 public class DashboardController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private DashboardWatermarkService watermarkService;
+
+    @Autowired
+    private DashboardBatchService dashboardBatchService;
+
+    @Autowired
+    private DashboardLiveStream dashboardLiveStream;
+
     /**
      * Get dashboard summary for a period and optional comparison period.
+     * {@code fields} selects the KPIs to compute; by default all are returned.
      */
     @GetMapping("/summary")
     public DashboardSummaryDto getSummary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate comparisonStartDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate comparisonEndDate) {
-        return dashboardService.getSummary(startDate, endDate, comparisonStartDate, comparisonEndDate);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate comparisonEndDate,
+            @RequestParam(required = false) List<String> fields,
+            WebRequest webRequest) {
+        Set<SummaryField> selected = SummaryField.parse(fields);
+        boolean compared = comparisonStartDate != null && comparisonEndDate != null;
+        LocalDate from = compared && comparisonStartDate.isBefore(startDate) ? comparisonStartDate : startDate;
+        LocalDate to = compared && comparisonEndDate.isAfter(endDate) ? comparisonEndDate : endDate;
+        if (notModified(webRequest, "summary", from, to, startDate, endDate, comparisonStartDate, comparisonEndDate,
+                        selected)) {
+            return null;
+        }
+        return requestCoalescer.execute("summary",
+                () -> dashboardService.getSummary(startDate, endDate, comparisonStartDate, comparisonEndDate, selected),
+                startDate, endDate, comparisonStartDate, comparisonEndDate, selected);
     }
 
     /**
-     * Get trend data for a given metric and period.
+     * Get trend data for one or more metrics and a period.
      */
     @GetMapping("/trends")
     public List<TrendDataDto> getTrends(
-            @RequestParam String metric,
+            @RequestParam List<String> metric,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam String period) {
-        return dashboardService.getTrends(metric, startDate, endDate, period);
+            @RequestParam String period,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "trends", startDate, endDate, metric, period)) {
+            return null;
+        }
+        return requestCoalescer.execute("trends",
+                () -> dashboardService.getTrends(metric, startDate, endDate, period),
+                metric, startDate, endDate, period);
     }
 
     /**
@@ -51,8 +106,14 @@ public class DashboardController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false, defaultValue = "revenue") String sortBy,
-            @RequestParam(required = false, defaultValue = "5") Integer limit) {
-        return dashboardService.getTopServices(startDate, endDate, sortBy, limit);
+            @RequestParam(required = false, defaultValue = "5") Integer limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "topServices", startDate, endDate, sortBy, limit)) {
+            return null;
+        }
+        return requestCoalescer.execute("topServices",
+                () -> dashboardService.getTopServices(startDate, endDate, sortBy, limit),
+                startDate, endDate, sortBy, limit);
     }
 
     /**
@@ -63,18 +124,39 @@ public class DashboardController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false, defaultValue = "revenue") String sortBy,
-            @RequestParam(required = false, defaultValue = "5") Integer limit) {
-        return dashboardService.getTopStaff(startDate, endDate, sortBy, limit);
+            @RequestParam(required = false, defaultValue = "5") Integer limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "topStaff", startDate, endDate, sortBy, limit)) {
+            return null;
+        }
+        return requestCoalescer.execute("topStaff",
+                () -> dashboardService.getTopStaff(startDate, endDate, sortBy, limit),
+                startDate, endDate, sortBy, limit);
     }
 
     /**
-     * Get business details and daily job statistics for clients of a given type.
+     * Get business details and daily job statistics for a page of clients of a given type.
+     * With {@code cursor} (empty for the first page) pages are read by keyset and the
+     * cursor of the next page is returned in the {@value #NEXT_CURSOR_HEADER} header;
+     * otherwise {@code page} and {@code size} select an offset page.
      */
     @GetMapping("/business-details")
-    public List<BusinessDetailsDto> getBusinessDetails(
+    public ResponseEntity<List<BusinessDetailsDto>> getBusinessDetails(
             @RequestParam String businessType,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return dashboardService.getBusinessDetails(businessType, date);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            Pageable pageable) {
+        if (cursor == null) {
+            return ResponseEntity.ok(dashboardService.getBusinessDetails(businessType, date, pageable));
+        }
+        Window<BusinessDetailsDto> window =
+                dashboardService.getBusinessDetailsAfter(businessType, date, cursor, pageable.getPageSize());
+        String next = KeysetCursor.next(window);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (next != null) {
+            response.header(NEXT_CURSOR_HEADER, next);
+        }
+        return response.body(window.getContent());
     }
 
     /**
@@ -84,7 +166,43 @@ public class DashboardController {
     public BusinessViewCountDto getBusinessViewCount(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        return dashboardService.getBusinessViewCount(startDate, endDate);
+        return requestCoalescer.execute("businessViewCount",
+                () -> dashboardService.getBusinessViewCount(startDate, endDate),
+                startDate, endDate);
+    }
+
+    /**
+     * Compute several widgets of the dashboard page in one request, each with its own result or error.
+     */
+    @PostMapping("/batch")
+    public DashboardBatchResponseDto getBatch(@Valid @RequestBody DashboardBatchRequestDto request) {
+        return new DashboardBatchResponseDto(dashboardBatchService.execute(request.getWidgets()));
     }
-}
 
+    /**
+     * Stream today's summary as Server-Sent Events: a full "summary" event, then "delta"
+     * events carrying only the KPIs that changed.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getStream() {
+        return dashboardLiveStream.subscribe();
+    }
+
+    /**
+     * Answers a stale or tampered keyset cursor with 400, so the client restarts from the first page.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidCursor(InvalidCursorException e) {
+        return ResponseEntity.badRequest()
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    /**
+     * Sets the response ETag from the range's data watermark and checks it against If-None-Match.
+     */
+    private boolean notModified(WebRequest webRequest, String operation,
+                                LocalDate startDate, LocalDate endDate, Object... params) {
+        String etag = watermarkService.etag(operation, startDate, endDate, params);
+        return etag != null && webRequest.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,87 @@
+package com.qtick.mis.controller;
+
+import com.qtick.mis.service.ExportFormat;
+import com.qtick.mis.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * REST controller for exporting bills, appointments and clients as CSV or NDJSON.
+ * Rows are written straight to the response output stream while they are read,
+ * with no content length, so the response is sent chunked.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    /**
+     * Export bills with their items for a period.
+     */
+    @GetMapping("/bills")
+    public void exportBills(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        checkRange(startDate, endDate);
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        prepare(response, exportFormat, "bills-" + startDate + "-" + endDate);
+        exportService.exportBills(startDate, endDate, exportFormat, response.getOutputStream());
+    }
+
+    /**
+     * Export appointments for a period.
+     */
+    @GetMapping("/appointments")
+    public void exportAppointments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        checkRange(startDate, endDate);
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        prepare(response, exportFormat, "appointments-" + startDate + "-" + endDate);
+        exportService.exportAppointments(startDate, endDate, exportFormat, response.getOutputStream());
+    }
+
+    /**
+     * Export all clients.
+     */
+    @GetMapping("/clients")
+    public void exportClients(
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        prepare(response, exportFormat, "clients");
+        exportService.exportClients(exportFormat, response.getOutputStream());
+    }
+
+    private static void checkRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+    }
+
+    private static void prepare(HttpServletResponse response, ExportFormat format, String name) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension())
+                .build()
+                .toString());
+    }
+}
@@ -0,0 +1,29 @@
+package com.qtick.mis.controller;
+
+import com.qtick.mis.datasource.ReplicaReadContextHolder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Marks dashboard and export requests as allowed to read from a replica,
+ * so their analytics queries stay off the primary used by billing.
+ */
+public class ReplicaReadInterceptor implements AsyncHandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReplicaReadContextHolder.enable();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReplicaReadContextHolder.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaReadContextHolder.clear();
+    }
+}
@@ -0,0 +1,156 @@
+package com.qtick.mis.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls the replication lag of each read replica and keeps the list of
+ * replicas whose lag is within the threshold. A replica whose lag is unknown,
+ * because replication is stopped, not configured or the check failed, counts
+ * as lagging.
+ * Until the first check every replica counts as lagging, and so does every
+ * replica once the last check is older than the threshold, since a stalled
+ * check says nothing about the current lag. The check interval should
+ * therefore be shorter than the threshold.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String LAG_GAUGE_NAME = "datasource.replica.lag";
+
+    private final Map<String, DataSource> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final Clock clock;
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private volatile List<String> healthyReplicas = List.of();
+    private volatile Instant checkedAt;
+
+    /**
+     * @param replicas replica pools by name
+     * @param maxLag   largest lag at which a replica is still read from
+     * @param lagQuery query returning the replica status, such as {@code SHOW REPLICA STATUS}
+     */
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, Duration maxLag, String lagQuery,
+                             MeterRegistry meterRegistry) {
+        this(replicas, maxLag, lagQuery, meterRegistry, Clock.systemUTC());
+    }
+
+    ReplicaLagMonitor(Map<String, DataSource> replicas, Duration maxLag, String lagQuery,
+                      MeterRegistry meterRegistry, Clock clock) {
+        this.clock = clock;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        for (String name : this.replicas.keySet()) {
+            Gauge.builder(LAG_GAUGE_NAME, lagSeconds, lags -> lags.getOrDefault(name, Double.NaN))
+                 .tag("replica", name)
+                 .baseUnit("seconds")
+                 .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Measures the lag of every replica.
+     */
+    @Scheduled(fixedDelayString = "${spring.datasource.replicas.lag-check-interval:PT2S}")
+    public void check() {
+        // The lags are as old as the start of the check
+        Instant startedAt = clock.instant();
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            String name = replica.getKey();
+            Double lag = measure(name, replica.getValue());
+            lagSeconds.put(name, lag != null ? lag : Double.NaN);
+            boolean withinThreshold = lag != null && lag * 1000 <= maxLag.toMillis();
+            if (withinThreshold) {
+                healthy.add(name);
+            }
+            if (withinThreshold != healthyReplicas.contains(name)) {
+                if (withinThreshold) {
+                    logger.info("Replica {} is back within the lag threshold, lag: {}s", name, lag);
+                } else {
+                    logger.warn("Replica {} exceeds the lag threshold of {}, lag: {}s; reading from the primary",
+                            name, maxLag, lag);
+                }
+            }
+        }
+        healthyReplicas = List.copyOf(healthy);
+        checkedAt = startedAt;
+    }
+
+    /**
+     * Gets the names of the replicas within the lag threshold at the last check,
+     * or none once that check is older than the threshold.
+     */
+    public List<String> getHealthyReplicas() {
+        Instant lastCheck = checkedAt;
+        if (lastCheck == null || lastCheck.plus(maxLag).isBefore(clock.instant())) {
+            return List.of();
+        }
+        return healthyReplicas;
+    }
+
+    /**
+     * Gets a replica pool by name.
+     */
+    public DataSource getReplica(String name) {
+        return replicas.get(name);
+    }
+
+    @Override
+    public void close() {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close replica pool", e);
+                }
+            }
+        }
+    }
+
+    private Double measure(String name, DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet status = statement.executeQuery(lagQuery)) {
+            // A server without replication configured, such as a misconfigured or promoted replica, may be stale
+            if (!status.next()) {
+                return null;
+            }
+            Object lag = status.getObject(lagColumn(status));
+            return lag instanceof Number number ? number.doubleValue() : null;
+        } catch (SQLException e) {
+            logger.warn("Failed to check the lag of replica {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private static int lagColumn(ResultSet status) throws SQLException {
+        try {
+            return status.findColumn("Seconds_Behind_Source");
+        } catch (SQLException e) {
+            // MySQL before 8.0.22
+            return status.findColumn("Seconds_Behind_Master");
+        }
+    }
+}
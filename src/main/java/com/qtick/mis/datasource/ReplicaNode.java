@@ -0,0 +1,12 @@
+package com.qtick.mis.datasource;
+
+/**
+ * One read replica, configured under {@code spring.datasource.replicas.nodes}.
+ *
+ * @param name     pool name, used as the metrics tag; defaults to {@code replica-<n>}
+ * @param url      JDBC URL; a blank URL leaves the replica out
+ * @param username user name, or {@code null} to use the primary's
+ * @param password password, or {@code null} to use the primary's
+ */
+public record ReplicaNode(String name, String url, String username, String password) {
+}
@@ -0,0 +1,35 @@
+package com.qtick.mis.datasource;
+
+/**
+ * Thread-local marker for work that may read from a replica outside a
+ * transaction, such as dashboard and export requests. Read-write
+ * transactions still go to the primary while the marker is set.
+ */
+public final class ReplicaReadContextHolder {
+
+    private static final ThreadLocal<Boolean> holder = new ThreadLocal<>();
+
+    private ReplicaReadContextHolder() {
+    }
+
+    /**
+     * Marks the current thread as allowed to read from a replica.
+     */
+    public static void enable() {
+        holder.set(Boolean.TRUE);
+    }
+
+    /**
+     * Whether the current thread is allowed to read from a replica.
+     */
+    public static boolean isEnabled() {
+        return Boolean.TRUE.equals(holder.get());
+    }
+
+    /**
+     * Clears the marker of the current thread.
+     */
+    public static void clear() {
+        holder.remove();
+    }
+}
@@ -0,0 +1,109 @@
+package com.qtick.mis.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source that hands out replica connections for read-only work and
+ * primary connections for everything else. Work is read-only inside a
+ * read-only transaction, or outside any transaction on a thread marked by
+ * {@link ReplicaReadContextHolder}. Replicas within the lag threshold are
+ * used in turn; when none is, reads fall back to the primary.
+ * <p>
+ * Transactions decide their read-only flag after the transaction manager
+ * asks for a connection, so this data source must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String ROUTE_COUNTER_NAME = "datasource.route";
+
+    private final DataSource primary;
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagMonitor = lagMonitor;
+        this.primaryRoutes = Counter.builder(ROUTE_COUNTER_NAME).tag("route", "primary").register(meterRegistry);
+        this.replicaRoutes = Counter.builder(ROUTE_COUNTER_NAME).tag("route", "replica").register(meterRegistry);
+        this.fallbackRoutes = Counter.builder(ROUTE_COUNTER_NAME).tag("route", "primary-fallback").register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return determineTarget().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTarget().getConnection(username, password);
+    }
+
+    /**
+     * Unwraps to the primary pool, so pool metadata and health checks see the primary.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    @Override
+    public void close() {
+        if (primary instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close primary pool", e);
+            }
+        }
+    }
+
+    DataSource determineTarget() {
+        if (!isReadOnly()) {
+            primaryRoutes.increment();
+            return primary;
+        }
+        List<String> healthy = lagMonitor.getHealthyReplicas();
+        if (healthy.isEmpty()) {
+            fallbackRoutes.increment();
+            return primary;
+        }
+        replicaRoutes.increment();
+        return lagMonitor.getReplica(healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size())));
+    }
+
+    private static boolean isReadOnly() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return true;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+        return ReplicaReadContextHolder.isEnabled();
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * JDBC data source routing.
+ * Contains the data source that sends read-only work to MySQL read replicas
+ * while they are within the lag threshold, and the primary otherwise.
+ */
+package com.qtick.mis.datasource;
@@ -23,7 +23,8 @@ import java.util.Map;
 @CompoundIndexes({
     @CompoundIndex(name = "idx_snapshot_biz_date", def = "{'bizId': 1, 'snapshotDate': -1}"),
     @CompoundIndex(name = "idx_snapshot_biz_period", def = "{'bizId': 1, 'period': 1, 'snapshotDate': -1}"),
-    @CompoundIndex(name = "idx_snapshot_branch", def = "{'bizId': 1, 'branchId': 1, 'snapshotDate': -1}")
+    @CompoundIndex(name = "idx_snapshot_branch", def = "{'bizId': 1, 'branchId': 1, 'snapshotDate': -1}"),
+    @CompoundIndex(name = "uk_snapshot_scope", def = "{'bizId': 1, 'branchId': 1, 'period': 1, 'snapshotDate': 1}", unique = true)
 })
 public class DashboardSnapshot {
 
@@ -0,0 +1,121 @@
+package com.qtick.mis.document;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * MongoDB document tracking how far a background aggregation job has progressed for a tenant.
+ * The watermark is the last business date that has been fully materialized. A run
+ * claims the tenant until its lease expires, so instances do not process it at the
+ * same time, and records up to when source changes were scanned for rewinds.
+ */
+@Document(collection = "materialization_watermarks")
+@CompoundIndex(name = "uk_watermark_job_biz", def = "{'job': 1, 'bizId': 1}", unique = true)
+public class MaterializationWatermark {
+
+    @Id
+    private String id;
+
+    private String job;
+
+    private Long bizId;
+
+    private LocalDate watermarkDate;
+
+    private LocalDateTime updatedAt;
+
+    private String claimedBy;
+
+    private Instant claimedUntil;
+
+    private LocalDateTime changesScannedAt;
+
+    // Constructors
+    public MaterializationWatermark() {}
+
+    public MaterializationWatermark(String job, Long bizId, LocalDate watermarkDate) {
+        this.id = job + ":" + bizId;
+        this.job = job;
+        this.bizId = bizId;
+        this.watermarkDate = watermarkDate;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    public void setJob(String job) {
+        this.job = job;
+    }
+
+    public Long getBizId() {
+        return bizId;
+    }
+
+    public void setBizId(Long bizId) {
+        this.bizId = bizId;
+    }
+
+    public LocalDate getWatermarkDate() {
+        return watermarkDate;
+    }
+
+    public void setWatermarkDate(LocalDate watermarkDate) {
+        this.watermarkDate = watermarkDate;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public Instant getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(Instant claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+
+    public LocalDateTime getChangesScannedAt() {
+        return changesScannedAt;
+    }
+
+    public void setChangesScannedAt(LocalDateTime changesScannedAt) {
+        this.changesScannedAt = changesScannedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "MaterializationWatermark{" +
+                "job='" + job + '\'' +
+                ", bizId=" + bizId +
+                ", watermarkDate=" + watermarkDate +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package com.qtick.mis.dto.dashboard;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Widgets of a dashboard page, computed together by one batch request.
+ */
+public class DashboardBatchRequestDto {
+    
+    @NotEmpty
+    @Size(max = 20)
+    private List<@Valid WidgetSpecDto> widgets;
+    
+    // Constructors
+    public DashboardBatchRequestDto() {}
+    
+    public DashboardBatchRequestDto(List<WidgetSpecDto> widgets) {
+        this.widgets = widgets;
+    }
+    
+    // Getters and Setters
+    public List<WidgetSpecDto> getWidgets() { return widgets; }
+    public void setWidgets(List<WidgetSpecDto> widgets) { this.widgets = widgets; }
+}
@@ -0,0 +1,22 @@
+package com.qtick.mis.dto.dashboard;
+
+import java.util.List;
+
+/**
+ * Results of a batch request, in the order of the requested widgets.
+ */
+public class DashboardBatchResponseDto {
+    
+    private List<WidgetResultDto> widgets;
+    
+    // Constructors
+    public DashboardBatchResponseDto() {}
+    
+    public DashboardBatchResponseDto(List<WidgetResultDto> widgets) {
+        this.widgets = widgets;
+    }
+    
+    // Getters and Setters
+    public List<WidgetResultDto> getWidgets() { return widgets; }
+    public void setWidgets(List<WidgetResultDto> widgets) { this.widgets = widgets; }
+}
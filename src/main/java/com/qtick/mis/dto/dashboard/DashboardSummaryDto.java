@@ -1,9 +1,11 @@
 package com.qtick.mis.dto.dashboard;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class DashboardSummaryDto {
     
     @NotNull
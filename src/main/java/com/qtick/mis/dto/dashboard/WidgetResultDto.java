@@ -0,0 +1,41 @@
+package com.qtick.mis.dto.dashboard;
+
+/**
+ * Outcome of one widget of a batch request: its data, or an HTTP-style
+ * status and message when that widget alone failed.
+ */
+public class WidgetResultDto {
+    
+    private String id;
+    private String type;
+    private int status;
+    private Object data;
+    private String error;
+    
+    // Constructors
+    public WidgetResultDto() {}
+    
+    public WidgetResultDto(String id, String type, int status, Object data, String error) {
+        this.id = id;
+        this.type = type;
+        this.status = status;
+        this.data = data;
+        this.error = error;
+    }
+    
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+    
+    public Object getData() { return data; }
+    public void setData(Object data) { this.data = data; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
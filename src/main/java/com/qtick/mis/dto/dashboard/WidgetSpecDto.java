@@ -0,0 +1,77 @@
+package com.qtick.mis.dto.dashboard;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One widget of a dashboard batch request. The type names the single-widget
+ * endpoint (summary, trends, top-services, top-staff or business-view-count)
+ * and the other fields are that endpoint's parameters.
+ */
+public class WidgetSpecDto {
+    
+    @NotNull
+    private String id;
+    
+    @NotNull
+    private String type;
+    
+    @NotNull
+    private LocalDate startDate;
+    
+    @NotNull
+    private LocalDate endDate;
+    
+    private LocalDate comparisonStartDate;
+    private LocalDate comparisonEndDate;
+    private List<String> metrics;
+    private List<String> fields;
+    private String period;
+    private String sortBy;
+    private Integer limit;
+    
+    // Constructors
+    public WidgetSpecDto() {}
+    
+    public WidgetSpecDto(String id, String type, LocalDate startDate, LocalDate endDate) {
+        this.id = id;
+        this.type = type;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+    
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    
+    public LocalDate getComparisonStartDate() { return comparisonStartDate; }
+    public void setComparisonStartDate(LocalDate comparisonStartDate) { this.comparisonStartDate = comparisonStartDate; }
+    
+    public LocalDate getComparisonEndDate() { return comparisonEndDate; }
+    public void setComparisonEndDate(LocalDate comparisonEndDate) { this.comparisonEndDate = comparisonEndDate; }
+    
+    public List<String> getMetrics() { return metrics; }
+    public void setMetrics(List<String> metrics) { this.metrics = metrics; }
+    
+    public List<String> getFields() { return fields; }
+    public void setFields(List<String> fields) { this.fields = fields; }
+    
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+    
+    public String getSortBy() { return sortBy; }
+    public void setSortBy(String sortBy) { this.sortBy = sortBy; }
+    
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+}
@@ -1,9 +1,11 @@
 package com.qtick.mis.entity;
 
+import com.qtick.mis.event.DashboardDataChangeListener;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -12,11 +14,15 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "appointments", indexes = {
     @Index(name = "idx_appointment_biz_date", columnList = "bizId, appointmentDate"),
+    @Index(name = "idx_appointment_biz_date_updated", columnList = "bizId, appointmentDate, updatedOn"),
+    @Index(name = "idx_appointment_biz_updated_date", columnList = "bizId, updatedOn, appointmentDate"),
     @Index(name = "idx_appointment_client", columnList = "client_id"),
     @Index(name = "idx_appointment_staff", columnList = "staffId"),
+    @Index(name = "idx_appointment_biz_staff_date", columnList = "bizId, staffId, appointmentDate"),
     @Index(name = "idx_appointment_status", columnList = "status"),
     @Index(name = "idx_appointment_branch", columnList = "branchId")
 })
+@EntityListeners(DashboardDataChangeListener.class)
 public class Appointment {
 
     @Id
@@ -81,6 +87,13 @@ public class Appointment {
     @Column(nullable = false)
     private LocalDateTime updatedOn;
 
+    /**
+     * Business date as last read from or written to the database, so that moving
+     * the row to another day also invalidates the day it left.
+     */
+    @Transient
+    private LocalDate persistedDashboardDate;
+
     // Constructors
     public Appointment() {}
 
@@ -261,6 +274,14 @@ public class Appointment {
         this.updatedOn = updatedOn;
     }
 
+    public LocalDate getPersistedDashboardDate() {
+        return persistedDashboardDate;
+    }
+
+    public void setPersistedDashboardDate(LocalDate persistedDashboardDate) {
+        this.persistedDashboardDate = persistedDashboardDate;
+    }
+
     // Helper methods
     public void checkIn() {
         this.checkedInAt = LocalDateTime.now();
@@ -1,6 +1,8 @@
 package com.qtick.mis.entity;
 
+import com.qtick.mis.event.DashboardDataChangeListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,17 +14,28 @@ import java.util.List;
 
 /**
  * Entity representing a bill/invoice for services provided to a client.
+ * Items and payments are lists, which Hibernate cannot fetch-join together,
+ * so each has its own entity graph; lazily loaded ones are batch-fetched for
+ * up to a full page of bills at once.
  */
 @Entity
+@NamedEntityGraph(name = Bill.GRAPH_ITEMS, attributeNodes = @NamedAttributeNode("items"))
+@NamedEntityGraph(name = Bill.GRAPH_PAYMENTS, attributeNodes = @NamedAttributeNode("payments"))
 @Table(name = "bills", indexes = {
     @Index(name = "idx_bill_biz_date", columnList = "bizId, billDate"),
+    @Index(name = "idx_bill_biz_date_updated", columnList = "bizId, billDate, updatedOn"),
+    @Index(name = "idx_bill_biz_updated_date", columnList = "bizId, updatedOn, billDate"),
     @Index(name = "idx_bill_client", columnList = "client_id"),
     @Index(name = "idx_bill_branch", columnList = "branchId"),
     @Index(name = "idx_bill_status", columnList = "status"),
     @Index(name = "idx_bill_created", columnList = "createdOn")
 })
+@EntityListeners(DashboardDataChangeListener.class)
 public class Bill {
 
+    public static final String GRAPH_ITEMS = "Bill.items";
+    public static final String GRAPH_PAYMENTS = "Bill.payments";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -89,11 +102,20 @@ public class Bill {
     @Column(nullable = false)
     private LocalDateTime updatedOn;
 
+    /**
+     * Business date as last read from or written to the database, so that moving
+     * the row to another day also invalidates the day it left.
+     */
+    @Transient
+    private LocalDate persistedDashboardDate;
+
     // Relationships
     @OneToMany(mappedBy = "bill", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<BillItem> items = new ArrayList<>();
 
     @OneToMany(mappedBy = "bill", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<BillPayment> payments = new ArrayList<>();
 
     // Constructors
@@ -278,6 +300,14 @@ public class Bill {
         this.updatedOn = updatedOn;
     }
 
+    public LocalDate getPersistedDashboardDate() {
+        return persistedDashboardDate;
+    }
+
+    public void setPersistedDashboardDate(LocalDate persistedDashboardDate) {
+        this.persistedDashboardDate = persistedDashboardDate;
+    }
+
     public List<BillItem> getItems() {
         return items;
     }
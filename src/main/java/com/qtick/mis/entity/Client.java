@@ -1,6 +1,7 @@
 package com.qtick.mis.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,17 +13,28 @@ import java.util.List;
 /**
  * Entity representing a client/customer in the system.
  * Contains master data and relationships to bills, appointments, etc.
+ * Each relationship has its own entity graph and is batch-fetched for up to
+ * a full page of clients at once.
  */
 @Entity
+@NamedEntityGraph(name = Client.GRAPH_BILLS, attributeNodes = @NamedAttributeNode("bills"))
+@NamedEntityGraph(name = Client.GRAPH_APPOINTMENTS, attributeNodes = @NamedAttributeNode("appointments"))
+@NamedEntityGraph(name = Client.GRAPH_POINTS_TRANSACTIONS, attributeNodes = @NamedAttributeNode("pointsTransactions"))
 @Table(name = "clients", indexes = {
     @Index(name = "idx_client_biz", columnList = "bizId"),
     @Index(name = "idx_client_phone", columnList = "phone"),
     @Index(name = "idx_client_email", columnList = "email"),
     @Index(name = "idx_client_created", columnList = "createdOn"),
-    @Index(name = "idx_client_name", columnList = "name")
+    @Index(name = "idx_client_biz_created_updated", columnList = "bizId, createdOn, updatedOn"),
+    @Index(name = "idx_client_name", columnList = "name"),
+    @Index(name = "idx_client_biz_type_visit", columnList = "bizId, businessType, lastVisitDate")
 })
 public class Client {
 
+    public static final String GRAPH_BILLS = "Client.bills";
+    public static final String GRAPH_APPOINTMENTS = "Client.appointments";
+    public static final String GRAPH_POINTS_TRANSACTIONS = "Client.pointsTransactions";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long custId;
@@ -95,12 +107,15 @@ public class Client {
 
     // Relationships
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<Bill> bills = new ArrayList<>();
 
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<Appointment> appointments = new ArrayList<>();
 
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<PointsTransaction> pointsTransactions = new ArrayList<>();
 
     // Constructors
@@ -0,0 +1,80 @@
+package com.qtick.mis.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity recording when rows last left a tenant-day of dashboard data, either
+ * deleted or moved to another day. Deleted rows leave no update time behind,
+ * so the dashboard watermark reads this table alongside the source tables.
+ * Rows for bills, appointments, enquiries and clients are written by the
+ * services that own those tables; this service writes the days it deletes
+ * service revenue rows from.
+ */
+@Entity
+@Table(name = "dashboard_removals", indexes = {
+    @Index(name = "idx_removal_biz_removed", columnList = "bizId, removedOn, dataDate")
+})
+@IdClass(DashboardRemoval.Key.class)
+public class DashboardRemoval {
+
+    @Id
+    private Long bizId;
+
+    @Id
+    private LocalDate dataDate;
+
+    @Column(nullable = false)
+    private LocalDateTime removedOn;
+
+    // Constructors
+    public DashboardRemoval() {}
+
+    public DashboardRemoval(Long bizId, LocalDate dataDate, LocalDateTime removedOn) {
+        this.bizId = bizId;
+        this.dataDate = dataDate;
+        this.removedOn = removedOn;
+    }
+
+    // Getters and Setters
+    public Long getBizId() { return bizId; }
+    public void setBizId(Long bizId) { this.bizId = bizId; }
+
+    public LocalDate getDataDate() { return dataDate; }
+    public void setDataDate(LocalDate dataDate) { this.dataDate = dataDate; }
+
+    public LocalDateTime getRemovedOn() { return removedOn; }
+    public void setRemovedOn(LocalDateTime removedOn) { this.removedOn = removedOn; }
+
+    /**
+     * Primary key: one row per tenant and day.
+     */
+    public static class Key implements Serializable {
+
+        private Long bizId;
+        private LocalDate dataDate;
+
+        public Key() {}
+
+        public Key(Long bizId, LocalDate dataDate) {
+            this.bizId = bizId;
+            this.dataDate = dataDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(bizId, key.bizId) && Objects.equals(dataDate, key.dataDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bizId, dataDate);
+        }
+    }
+}
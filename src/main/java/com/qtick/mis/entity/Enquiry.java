@@ -1,6 +1,8 @@
 package com.qtick.mis.entity;
 
+import com.qtick.mis.event.DashboardDataChangeListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,17 +13,25 @@ import java.util.List;
 /**
  * Entity representing an enquiry in the sales pipeline.
  * Tracks leads from initial contact through to closure.
+ * Threads have an entity graph and are batch-fetched for up to a full page
+ * of enquiries at once.
  */
 @Entity
+@NamedEntityGraph(name = Enquiry.GRAPH_THREADS, attributeNodes = @NamedAttributeNode("threads"))
 @Table(name = "enquiries", indexes = {
     @Index(name = "idx_enquiry_biz_stage", columnList = "bizId, stage"),
     @Index(name = "idx_enquiry_biz_created", columnList = "bizId, createdOn"),
+    @Index(name = "idx_enquiry_biz_created_updated", columnList = "bizId, createdOn, updatedOn"),
+    @Index(name = "idx_enquiry_biz_updated_created", columnList = "bizId, updatedOn, createdOn"),
     @Index(name = "idx_enquiry_stage_touch", columnList = "stage, lastTouchDate"),
     @Index(name = "idx_enquiry_assignee", columnList = "assigneeId"),
     @Index(name = "idx_enquiry_customer", columnList = "custId")
 })
+@EntityListeners(DashboardDataChangeListener.class)
 public class Enquiry {
 
+    public static final String GRAPH_THREADS = "Enquiry.threads";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -82,6 +92,7 @@ public class Enquiry {
     private LocalDateTime updatedOn;
 
     @OneToMany(mappedBy = "enquiry", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<EnquiryThread> threads = new ArrayList<>();
 
     // Constructors
@@ -0,0 +1,130 @@
+package com.qtick.mis.event;
+
+import com.qtick.mis.entity.Appointment;
+import com.qtick.mis.entity.Bill;
+import com.qtick.mis.entity.Enquiry;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * JPA entity listener publishing a {@link DashboardDataChangedEvent} for the
+ * business date of every written bill, appointment and enquiry. Inside a
+ * transaction the distinct events are published once it commits, so readers
+ * reloading an evicted day see the new rows; a rolled back transaction
+ * publishes nothing. When an update moves a bill or appointment to another
+ * day, the day it left is reported as well, using the date recorded when the
+ * row was loaded.
+ */
+@Component
+public class DashboardDataChangeListener {
+
+    private static final Object PENDING_EVENTS = DashboardDataChangeListener.class.getName() + ".pending";
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Records the business date the row was read with.
+     */
+    @PostLoad
+    public void onLoad(Object entity) {
+        DashboardDataChangedEvent event = eventFor(entity);
+        if (event != null) {
+            setPersistedDate(entity, event.date());
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        DashboardDataChangedEvent event = eventFor(entity);
+        if (event == null) {
+            return;
+        }
+        LocalDate previous = persistedDate(entity);
+        setPersistedDate(entity, event.date());
+
+        publish(event);
+        if (previous != null && !previous.equals(event.date())) {
+            publish(new DashboardDataChangedEvent(event.bizId(), previous));
+        }
+    }
+
+    private void publish(DashboardDataChangedEvent event) {
+        if (eventPublisher == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(event);
+            return;
+        }
+        pendingEvents().add(event);
+    }
+
+    /**
+     * Events of the current transaction, published after it commits.
+     */
+    @SuppressWarnings("unchecked")
+    private Set<DashboardDataChangedEvent> pendingEvents() {
+        Set<DashboardDataChangedEvent> pending =
+                (Set<DashboardDataChangedEvent>) TransactionSynchronizationManager.getResource(PENDING_EVENTS);
+        if (pending == null) {
+            Set<DashboardDataChangedEvent> events = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_EVENTS, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    events.forEach(eventPublisher::publishEvent);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_EVENTS);
+                }
+            });
+            pending = events;
+        }
+        return pending;
+    }
+
+    private static LocalDate persistedDate(Object entity) {
+        return switch (entity) {
+            case Bill bill -> bill.getPersistedDashboardDate();
+            case Appointment appointment -> appointment.getPersistedDashboardDate();
+            default -> null;
+        };
+    }
+
+    private static void setPersistedDate(Object entity, LocalDate date) {
+        switch (entity) {
+            case Bill bill -> bill.setPersistedDashboardDate(date);
+            case Appointment appointment -> appointment.setPersistedDashboardDate(date);
+            default -> {
+            }
+        }
+    }
+
+    static DashboardDataChangedEvent eventFor(Object entity) {
+        return switch (entity) {
+            case Bill bill when bill.getBillDate() != null ->
+                    new DashboardDataChangedEvent(bill.getBizId(), bill.getBillDate());
+            case Appointment appointment when appointment.getAppointmentDate() != null ->
+                    new DashboardDataChangedEvent(appointment.getBizId(), appointment.getAppointmentDate().toLocalDate());
+            case Enquiry enquiry when enquiry.getCreatedOn() != null ->
+                    new DashboardDataChangedEvent(enquiry.getBizId(), enquiry.getCreatedOn().toLocalDate());
+            default -> null;
+        };
+    }
+}
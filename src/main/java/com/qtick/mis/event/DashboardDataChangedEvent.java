@@ -0,0 +1,13 @@
+package com.qtick.mis.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when data behind dashboard figures changes after the fact,
+ * for example a late bill edit, so that cached results can be invalidated.
+ *
+ * @param bizId the business whose data changed
+ * @param date the business date that changed, or {@code null} when any date may be affected
+ */
+public record DashboardDataChangedEvent(Long bizId, LocalDate date) {
+}
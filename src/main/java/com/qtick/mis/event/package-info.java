@@ -0,0 +1,5 @@
+/**
+ * Application events exchanged between components.
+ * Contains events signalling changes to data behind dashboard aggregates.
+ */
+package com.qtick.mis.event;
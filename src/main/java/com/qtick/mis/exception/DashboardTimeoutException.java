@@ -0,0 +1,30 @@
+package com.qtick.mis.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when dashboard aggregation does not complete within its per-request deadline.
+ * Answered with 504, like a batch widget that misses the deadline.
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class DashboardTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String kpi;
+
+    public DashboardTimeoutException(String kpi, Throwable cause) {
+        super("Dashboard KPI '" + kpi + "' did not complete before the request deadline", cause);
+        this.kpi = kpi;
+    }
+
+    /**
+     * Gets the name of the KPI that was being awaited when the deadline expired.
+     *
+     * @return the KPI name
+     */
+    public String getKpi() {
+        return kpi;
+    }
+}
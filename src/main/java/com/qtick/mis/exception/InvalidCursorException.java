@@ -0,0 +1,19 @@
+package com.qtick.mis.exception;
+
+/**
+ * Thrown when a keyset cursor sent by a client is malformed, tampered with or
+ * no longer matches the page it is used for. Answered with 400, as the client
+ * has to restart from the first page.
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException() {
+        super("Invalid cursor");
+    }
+
+    public InvalidCursorException(Throwable cause) {
+        super("Invalid cursor", cause);
+    }
+}
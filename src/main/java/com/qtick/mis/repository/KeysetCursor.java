@@ -0,0 +1,134 @@
+package com.qtick.mis.repository;
+
+import com.qtick.mis.exception.InvalidCursorException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque cursor for keyset (seek) pagination. A cursor encodes the sort key
+ * values of the last row of a page, so the next page is read with a range
+ * predicate on an index instead of skipping rows, and costs the same however
+ * deep it is. Only types used by sort keys are supported.
+ */
+public final class KeysetCursor {
+
+    private static final char FIELD_SEPARATOR = '\u001f';
+    private static final char KEY_SEPARATOR = '\u001e';
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Encodes the sort keys of the last row of a page.
+     *
+     * @param keys sort property names and values, in sort order; values may be {@code null}
+     * @return the cursor
+     */
+    public static String encode(Map<String, ?> keys) {
+        StringBuilder encoded = new StringBuilder();
+        for (Map.Entry<String, ?> key : keys.entrySet()) {
+            if (!encoded.isEmpty()) {
+                encoded.append(KEY_SEPARATOR);
+            }
+            Object value = key.getValue();
+            encoded.append(key.getKey()).append(FIELD_SEPARATOR)
+                   .append(tag(value)).append(FIELD_SEPARATOR)
+                   .append(value != null ? value.toString() : "");
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                     .encodeToString(encoded.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the sort keys of a cursor.
+     *
+     * @param cursor a cursor produced by {@link #encode}
+     * @return sort property names and values, in sort order
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    public static Map<String, Object> decode(String cursor) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            for (String key : decoded.split(String.valueOf(KEY_SEPARATOR), -1)) {
+                String[] fields = key.split(String.valueOf(FIELD_SEPARATOR), -1);
+                if (fields.length != 3 || fields[0].isEmpty()) {
+                    throw new InvalidCursorException();
+                }
+                keys.put(fields[0], value(fields[1], fields[2]));
+            }
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(e);
+        }
+        return keys;
+    }
+
+    /**
+     * Gets the scroll position to continue from.
+     *
+     * @param cursor a cursor, or {@code null} or blank for the first page
+     * @return the keyset position
+     */
+    public static KeysetScrollPosition position(String cursor) {
+        return cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(decode(cursor));
+    }
+
+    /**
+     * Gets the cursor of the page after a window.
+     *
+     * @return the cursor, or {@code null} when the window is the last page
+     */
+    public static String next(Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        return encode(((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys());
+    }
+
+    private static char tag(Object value) {
+        if (value == null) {
+            return '0';
+        } else if (value instanceof Long) {
+            return 'L';
+        } else if (value instanceof Integer) {
+            return 'I';
+        } else if (value instanceof String) {
+            return 'S';
+        } else if (value instanceof LocalDate) {
+            return 'D';
+        } else if (value instanceof LocalDateTime) {
+            return 'T';
+        } else if (value instanceof Instant) {
+            return 'N';
+        } else if (value instanceof BigDecimal) {
+            return 'B';
+        }
+        throw new IllegalArgumentException("Unsupported cursor key type: " + value.getClass().getName());
+    }
+
+    private static Object value(String tag, String value) {
+        return switch (tag) {
+            case "0" -> null;
+            case "L" -> Long.valueOf(value);
+            case "I" -> Integer.valueOf(value);
+            case "S" -> value;
+            case "D" -> LocalDate.parse(value);
+            case "T" -> LocalDateTime.parse(value);
+            case "N" -> Instant.parse(value);
+            case "B" -> new BigDecimal(value);
+            default -> throw new InvalidCursorException();
+        };
+    }
+}
@@ -3,16 +3,31 @@ package com.qtick.mis.repository.jpa;
 import com.qtick.mis.entity.Appointment;
 import com.qtick.mis.entity.AppointmentStatus;
 import com.qtick.mis.entity.AppointmentType;
+import com.qtick.mis.repository.projection.BranchAppointments;
+import com.qtick.mis.repository.projection.BranchDayCount;
+import com.qtick.mis.repository.projection.ClientServiceAppointments;
+import com.qtick.mis.repository.projection.GroupCount;
+import com.qtick.mis.repository.projection.NamedCount;
+import com.qtick.mis.repository.projection.UtilizationStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Appointment entity with scheduling queries.
@@ -46,6 +61,28 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     Page<Appointment> findByBizIdAndStaffIdOrderByAppointmentDateDesc(Long bizId, Long staffId, Pageable pageable);
 
+    /**
+     * Keyset variant of {@link #findByBizIdAndStaffIdOrderByAppointmentDateDesc(Long, Long, Pageable)}:
+     * reads the appointments after the position without a count query, so every page costs the same.
+     */
+    Window<Appointment> findByBizIdAndStaffIdOrderByAppointmentDateDescIdDesc(Long bizId, Long staffId,
+                                                                              ScrollPosition position, Limit limit);
+
+    /**
+     * Streams the appointments of a time range for export, as rows of appointment and client ID.
+     * The stream must be consumed and closed inside a transaction.
+     */
+    @Query("SELECT a, a.client.custId FROM Appointment a " +
+           "WHERE a.bizId = :bizId AND a.appointmentDate >= :startDate AND a.appointmentDate < :endDate " +
+           "ORDER BY a.appointmentDate, a.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BillRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamByBizIdAndAppointmentDateRange(@Param("bizId") Long bizId,
+                                                          @Param("startDate") LocalDateTime startDate,
+                                                          @Param("endDate") LocalDateTime endDate);
+
     List<Appointment> findByBizIdAndStaffIdAndStatusOrderByAppointmentDateDesc(Long bizId, Long staffId, AppointmentStatus status);
 
     // Branch filtering
@@ -113,43 +150,43 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate")
     Long getTotalAppointmentCount(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT a.status, COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.status")
-    List<Object[]> countAppointmentsByStatus(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(a.status, COUNT(a)) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.status")
+    List<GroupCount<AppointmentStatus>> countAppointmentsByStatus(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT a.appointmentType, COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.appointmentType")
-    List<Object[]> countAppointmentsByType(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(a.appointmentType, COUNT(a)) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.appointmentType")
+    List<GroupCount<AppointmentType>> countAppointmentsByType(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     // Staff utilization analytics
-    @Query("SELECT a.staffId, a.staffName, COUNT(a), AVG(a.durationMinutes) FROM Appointment a WHERE a.bizId = :bizId AND a.staffId IS NOT NULL AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.staffId, a.staffName ORDER BY COUNT(a) DESC")
-    List<Object[]> getStaffUtilizationAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.UtilizationStats(a.staffId, a.staffName, COUNT(a), AVG(a.durationMinutes)) FROM Appointment a WHERE a.bizId = :bizId AND a.staffId IS NOT NULL AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.staffId, a.staffName ORDER BY COUNT(a) DESC")
+    List<UtilizationStats> getStaffUtilizationAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT a.staffId, a.staffName, COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.staffId IS NOT NULL AND a.status = 'COMPLETED' AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.staffId, a.staffName ORDER BY COUNT(a) DESC")
-    List<Object[]> getStaffCompletedAppointments(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.NamedCount(a.staffId, a.staffName, COUNT(a)) FROM Appointment a WHERE a.bizId = :bizId AND a.staffId IS NOT NULL AND a.status = 'COMPLETED' AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.staffId, a.staffName ORDER BY COUNT(a) DESC")
+    List<NamedCount> getStaffCompletedAppointments(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     // Service analytics
-    @Query("SELECT a.serviceId, a.serviceName, COUNT(a), AVG(a.durationMinutes) FROM Appointment a WHERE a.bizId = :bizId AND a.serviceId IS NOT NULL AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.serviceId, a.serviceName ORDER BY COUNT(a) DESC")
-    List<Object[]> getServiceUtilizationAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.UtilizationStats(a.serviceId, a.serviceName, COUNT(a), AVG(a.durationMinutes)) FROM Appointment a WHERE a.bizId = :bizId AND a.serviceId IS NOT NULL AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.serviceId, a.serviceName ORDER BY COUNT(a) DESC")
+    List<UtilizationStats> getServiceUtilizationAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     // Time-based analytics
-    @Query("SELECT DATE(a.appointmentDate), COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY DATE(a.appointmentDate) ORDER BY DATE(a.appointmentDate)")
-    List<Object[]> countAppointmentsByDate(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(CAST(a.appointmentDate AS LocalDate), COUNT(a)) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY CAST(a.appointmentDate AS LocalDate) ORDER BY CAST(a.appointmentDate AS LocalDate)")
+    List<GroupCount<LocalDate>> countAppointmentsByDate(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT HOUR(a.appointmentDate), COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY HOUR(a.appointmentDate) ORDER BY HOUR(a.appointmentDate)")
-    List<Object[]> countAppointmentsByHour(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(HOUR(a.appointmentDate), COUNT(a)) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY HOUR(a.appointmentDate) ORDER BY HOUR(a.appointmentDate)")
+    List<GroupCount<Integer>> countAppointmentsByHour(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT DAYOFWEEK(a.appointmentDate), COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY DAYOFWEEK(a.appointmentDate) ORDER BY DAYOFWEEK(a.appointmentDate)")
-    List<Object[]> countAppointmentsByDayOfWeek(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(DAYOFWEEK(a.appointmentDate), COUNT(a)) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY DAYOFWEEK(a.appointmentDate) ORDER BY DAYOFWEEK(a.appointmentDate)")
+    List<GroupCount<Integer>> countAppointmentsByDayOfWeek(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     // Branch analytics
-    @Query("SELECT a.branchId, COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.branchId IS NOT NULL AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.branchId ORDER BY COUNT(a) DESC")
-    List<Object[]> countAppointmentsByBranch(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(a.branchId, COUNT(a)) FROM Appointment a WHERE a.bizId = :bizId AND a.branchId IS NOT NULL AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.branchId ORDER BY COUNT(a) DESC")
+    List<GroupCount<Long>> countAppointmentsByBranch(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     // Client analytics
     @Query("SELECT COUNT(DISTINCT a.client.custId) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate")
     Long getUniqueClientCount(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT a.client.custId, a.client.name, COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.client.custId, a.client.name ORDER BY COUNT(a) DESC")
-    List<Object[]> getTopClientsByAppointmentCount(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Pageable pageable);
+    @Query("SELECT new com.qtick.mis.repository.projection.NamedCount(a.client.custId, a.client.name, COUNT(a)) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.client.custId, a.client.name ORDER BY COUNT(a) DESC")
+    List<NamedCount> getTopClientsByAppointmentCount(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Pageable pageable);
 
     // No-show and cancellation analytics
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.status = 'NO_SHOW' AND a.appointmentDate BETWEEN :startDate AND :endDate")
@@ -159,8 +196,8 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     Long getCancellationCount(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     // Booking source analytics
-    @Query("SELECT a.bookingSource, COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.bookingSource IS NOT NULL AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.bookingSource")
-    List<Object[]> countAppointmentsByBookingSource(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(a.bookingSource, COUNT(a)) FROM Appointment a WHERE a.bizId = :bizId AND a.bookingSource IS NOT NULL AND a.appointmentDate BETWEEN :startDate AND :endDate GROUP BY a.bookingSource")
+    List<GroupCount<String>> countAppointmentsByBookingSource(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     // Availability and scheduling conflicts
     @Query("SELECT a FROM Appointment a WHERE a.bizId = :bizId AND a.staffId = :staffId AND a.status IN ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS') AND " +
@@ -174,9 +211,6 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT a FROM Appointment a WHERE a.bizId = :bizId ORDER BY a.createdOn DESC")
     List<Appointment> findRecentAppointments(@Param("bizId") Long bizId, Pageable pageable);
 
-    // Walk-in appointments
-    List<Appointment> findByBizIdAndAppointmentTypeOrderByAppointmentDateDesc(Long bizId, AppointmentType appointmentType);
-
     // Validation queries
     boolean existsByIdAndBizId(Long id, Long bizId);
 
@@ -189,4 +223,49 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     @Query("SELECT a FROM Appointment a JOIN a.client c WHERE a.bizId = :bizId AND c.businessType = :businessType AND DATE(a.appointmentDate) = DATE(:date) ORDER BY a.appointmentDate DESC")
     List<Appointment> findAppointmentsByBusinessTypeOnDate(@Param("bizId") Long bizId, @Param("businessType") String businessType, @Param("date") LocalDateTime date);
-}
\ No newline at end of file
+
+    // Dashboard service methods
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate >= :startDate AND a.appointmentDate < :endDate")
+    Integer countByBizIdAndDateRange(@Param("bizId") Long bizId,
+                                   @Param("startDate") LocalDateTime startDate,
+                                   @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * The count of {@link #countByBizIdAndDateRange} per day and branch.
+     */
+    @Query("SELECT new com.qtick.mis.repository.projection.BranchDayCount(" +
+           "CAST(a.appointmentDate AS LocalDate), a.branchId, COUNT(a)) " +
+           "FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate >= :startDate AND a.appointmentDate < :endDate " +
+           "GROUP BY CAST(a.appointmentDate AS LocalDate), a.branchId")
+    List<BranchDayCount> countByDayAndBranch(@Param("bizId") Long bizId,
+                                             @Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate);
+
+    // Snapshot materialization queries
+    @Query("SELECT new com.qtick.mis.repository.projection.BranchAppointments(a.branchId, COUNT(a), " +
+           "COALESCE(SUM(CASE WHEN a.appointmentType = 'WALK_IN' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN a.status = 'COMPLETED' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN a.status = 'CANCELLED' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN a.status = 'NO_SHOW' THEN 1 ELSE 0 END), 0)) " +
+           "FROM Appointment a WHERE a.bizId = :bizId AND a.appointmentDate >= :startDate AND a.appointmentDate < :endDate " +
+           "GROUP BY a.branchId")
+    List<BranchAppointments> summarizeByBranch(@Param("bizId") Long bizId,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+
+    // Business details queries, grouped by client so one query serves a whole page of clients
+    @Query("SELECT new com.qtick.mis.repository.projection.ClientServiceAppointments(" +
+           "a.client.custId, a.serviceId, a.serviceName, COUNT(a), " +
+           "COALESCE(SUM(CASE WHEN a.appointmentType = 'WALK_IN' THEN 1 ELSE 0 END), 0)) " +
+           "FROM Appointment a WHERE a.bizId = :bizId AND a.client.custId IN :custIds " +
+           "AND a.appointmentDate >= :startDate AND a.appointmentDate < :endDate " +
+           "GROUP BY a.client.custId, a.serviceId, a.serviceName")
+    List<ClientServiceAppointments> findServiceBreakdownByClients(@Param("bizId") Long bizId,
+                                                                  @Param("custIds") Collection<Long> custIds,
+                                                                  @Param("startDate") LocalDateTime startDate,
+                                                                  @Param("endDate") LocalDateTime endDate);
+
+    // Snapshot rewinds: the earliest appointment changed after a point in time
+    @Query("SELECT MIN(a.appointmentDate) FROM Appointment a WHERE a.bizId = :bizId AND a.updatedOn > :since")
+    LocalDateTime findFirstAppointmentDateUpdatedAfter(@Param("bizId") Long bizId, @Param("since") LocalDateTime since);
+}
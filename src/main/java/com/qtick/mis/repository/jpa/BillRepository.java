@@ -3,18 +3,43 @@ package com.qtick.mis.repository.jpa;
 import com.qtick.mis.entity.Bill;
 import com.qtick.mis.entity.BillStatus;
 import com.qtick.mis.entity.PaymentMode;
+import com.qtick.mis.repository.projection.BranchBills;
+import com.qtick.mis.repository.projection.BranchDayBills;
+import com.qtick.mis.repository.projection.BranchSales;
+import com.qtick.mis.repository.projection.BranchServiceRevenue;
+import com.qtick.mis.repository.projection.BranchStaffRevenue;
+import com.qtick.mis.repository.projection.ClientBills;
+import com.qtick.mis.repository.projection.ClientSales;
+import com.qtick.mis.repository.projection.ClientServiceBills;
+import com.qtick.mis.repository.projection.DayStaffRevenue;
+import com.qtick.mis.repository.projection.GroupCount;
+import com.qtick.mis.repository.projection.GroupSales;
+import com.qtick.mis.repository.projection.MonthlySales;
+import com.qtick.mis.repository.projection.StaffSales;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Bill entity with date range and client filtering.
@@ -23,6 +48,11 @@ import java.util.Optional;
 @Repository
 public interface BillRepository extends JpaRepository<Bill, Long> {
 
+    /**
+     * Rows fetched per round trip by export streams.
+     */
+    String EXPORT_FETCH_SIZE = "1000";
+
     // Basic tenant-aware queries
     List<Bill> findByBizIdOrderByBillDateDesc(Long bizId);
 
@@ -30,6 +60,57 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
 
     Page<Bill> findByBizIdOrderByBillDateDesc(Long bizId, Pageable pageable);
 
+    /**
+     * Keyset variant of {@link #findByBizIdOrderByBillDateDesc(Long, Pageable)}: reads the bills
+     * after the position without a count query, so every page costs the same.
+     */
+    Window<Bill> findByBizIdOrderByBillDateDescIdDesc(Long bizId, ScrollPosition position, Limit limit);
+
+    /**
+     * Gets one page of a tenant's bills, newest first, with their items and payments loaded.
+     * Costs three queries whatever the page size: the IDs of the page, the bills with their
+     * items, and the same bills with their payments.
+     */
+    @Transactional(readOnly = true)
+    default List<Bill> findPageWithItemsAndPaymentsByBizId(Long bizId, Pageable pageable) {
+        List<Long> ids = findIdsByBizIdOrderByBillDateDesc(bizId, pageable);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Bill> bills = new HashMap<>();
+        for (Bill bill : findWithItemsByIdIn(ids)) {
+            bills.put(bill.getId(), bill);
+        }
+        // Fills the payments of the bills already in the persistence context
+        findWithPaymentsByIdIn(ids);
+        return ids.stream().map(bills::get).toList();
+    }
+
+    @Query("SELECT b.id FROM Bill b WHERE b.bizId = :bizId ORDER BY b.billDate DESC, b.id DESC")
+    List<Long> findIdsByBizIdOrderByBillDateDesc(@Param("bizId") Long bizId, Pageable pageable);
+
+    @EntityGraph(Bill.GRAPH_ITEMS)
+    List<Bill> findWithItemsByIdIn(Collection<Long> ids);
+
+    @EntityGraph(Bill.GRAPH_PAYMENTS)
+    List<Bill> findWithPaymentsByIdIn(Collection<Long> ids);
+
+    /**
+     * Streams the bills of a date range with their items for export, as rows of bill, item and
+     * client ID ordered by bill. A bill without items has one row with a null item. The stream
+     * must be consumed and closed inside a transaction.
+     */
+    @Query("SELECT b, i, b.client.custId FROM Bill b LEFT JOIN b.items i " +
+           "WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY b.billDate, b.id, i.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamWithItemsByBizIdAndBillDateBetween(@Param("bizId") Long bizId,
+                                                             @Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+
     // Bill number queries
     Optional<Bill> findByBizIdAndBillNumber(Long bizId, String billNumber);
 
@@ -131,39 +212,39 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
     BigDecimal getTotalOutstandingAmount(@Param("bizId") Long bizId);
 
     // Status-based analytics
-    @Query("SELECT b.status, COUNT(b) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.status")
-    List<Object[]> countBillsByStatus(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(b.status, COUNT(b)) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.status")
+    List<GroupCount<BillStatus>> countBillsByStatus(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT b.paymentMode, COUNT(b), SUM(b.netAmount) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate AND b.paymentMode IS NOT NULL GROUP BY b.paymentMode")
-    List<Object[]> getPaymentModeAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupSales(b.paymentMode, COUNT(b), SUM(b.netAmount)) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate AND b.paymentMode IS NOT NULL GROUP BY b.paymentMode")
+    List<GroupSales<PaymentMode>> getPaymentModeAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     // Time-based analytics
-    @Query("SELECT b.billDate, COUNT(b), SUM(b.netAmount) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.billDate ORDER BY b.billDate")
-    List<Object[]> getDailySalesAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupSales(b.billDate, COUNT(b), SUM(b.netAmount)) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.billDate ORDER BY b.billDate")
+    List<GroupSales<LocalDate>> getDailySalesAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT YEAR(b.billDate), MONTH(b.billDate), COUNT(b), SUM(b.netAmount) FROM Bill b WHERE b.bizId = :bizId AND b.billDate >= :startDate GROUP BY YEAR(b.billDate), MONTH(b.billDate) ORDER BY YEAR(b.billDate), MONTH(b.billDate)")
-    List<Object[]> getMonthlySalesAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.MonthlySales(YEAR(b.billDate), MONTH(b.billDate), COUNT(b), SUM(b.netAmount)) FROM Bill b WHERE b.bizId = :bizId AND b.billDate >= :startDate GROUP BY YEAR(b.billDate), MONTH(b.billDate) ORDER BY YEAR(b.billDate), MONTH(b.billDate)")
+    List<MonthlySales> getMonthlySalesAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate);
 
-    @Query("SELECT HOUR(b.createdOn), COUNT(b), SUM(b.netAmount) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate GROUP BY HOUR(b.createdOn) ORDER BY HOUR(b.createdOn)")
-    List<Object[]> getHourlySalesAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupSales(HOUR(b.createdOn), COUNT(b), SUM(b.netAmount)) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate GROUP BY HOUR(b.createdOn) ORDER BY HOUR(b.createdOn)")
+    List<GroupSales<Integer>> getHourlySalesAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     // Staff performance analytics
-    @Query("SELECT b.staffId, b.staffName, COUNT(b), SUM(b.netAmount), AVG(b.netAmount) FROM Bill b WHERE b.bizId = :bizId AND b.staffId IS NOT NULL AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.staffId, b.staffName ORDER BY SUM(b.netAmount) DESC")
-    List<Object[]> getStaffPerformanceAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.StaffSales(b.staffId, b.staffName, COUNT(b), SUM(b.netAmount), AVG(b.netAmount)) FROM Bill b WHERE b.bizId = :bizId AND b.staffId IS NOT NULL AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.staffId, b.staffName ORDER BY SUM(b.netAmount) DESC")
+    List<StaffSales> getStaffPerformanceAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     // Branch performance analytics
-    @Query("SELECT b.branchId, COUNT(b), SUM(b.netAmount), AVG(b.netAmount) FROM Bill b WHERE b.bizId = :bizId AND b.branchId IS NOT NULL AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.branchId ORDER BY SUM(b.netAmount) DESC")
-    List<Object[]> getBranchPerformanceAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.BranchSales(b.branchId, COUNT(b), SUM(b.netAmount), AVG(b.netAmount)) FROM Bill b WHERE b.bizId = :bizId AND b.branchId IS NOT NULL AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.branchId ORDER BY SUM(b.netAmount) DESC")
+    List<BranchSales> getBranchPerformanceAnalytics(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     // Client analytics
     @Query("SELECT COUNT(DISTINCT b.client.custId) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate")
     Long getUniqueClientCount(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT b.client.custId, b.client.name, COUNT(b), SUM(b.netAmount) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.client.custId, b.client.name ORDER BY SUM(b.netAmount) DESC")
-    List<Object[]> getTopClientsByRevenue(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+    @Query("SELECT new com.qtick.mis.repository.projection.ClientSales(b.client.custId, b.client.name, COUNT(b), SUM(b.netAmount)) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.client.custId, b.client.name ORDER BY SUM(b.netAmount) DESC")
+    List<ClientSales> getTopClientsByRevenue(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
 
-    @Query("SELECT b.client.custId, b.client.name, COUNT(b), SUM(b.netAmount) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.client.custId, b.client.name ORDER BY COUNT(b) DESC")
-    List<Object[]> getTopClientsByBillCount(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+    @Query("SELECT new com.qtick.mis.repository.projection.ClientSales(b.client.custId, b.client.name, COUNT(b), SUM(b.netAmount)) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate GROUP BY b.client.custId, b.client.name ORDER BY COUNT(b) DESC")
+    List<ClientSales> getTopClientsByBillCount(@Param("bizId") Long bizId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
 
     // Outstanding bills queries
     List<Bill> findByBizIdAndStatusInOrderByBillDateAsc(Long bizId, List<BillStatus> statuses);
@@ -191,39 +272,113 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
     // Additional methods for DashboardService
     @Query("SELECT COALESCE(SUM(b.grossAmount), 0) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate")
     BigDecimal sumTotalAmountByBizIdAndDateRange(@Param("bizId") Long bizId, 
-                                               @Param("startDate") LocalDateTime startDate, 
-                                               @Param("endDate") LocalDateTime endDate);
+                                               @Param("startDate") LocalDate startDate, 
+                                               @Param("endDate") LocalDate endDate);
     
     @Query("SELECT COALESCE(SUM(b.paidAmount), 0) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate")
     BigDecimal sumPaidAmountByBizIdAndDateRange(@Param("bizId") Long bizId, 
-                                              @Param("startDate") LocalDateTime startDate, 
-                                              @Param("endDate") LocalDateTime endDate);
+                                              @Param("startDate") LocalDate startDate, 
+                                              @Param("endDate") LocalDate endDate);
     
     @Query("SELECT COUNT(b) FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate")
     Integer countByBizIdAndDateRange(@Param("bizId") Long bizId, 
-                                   @Param("startDate") LocalDateTime startDate, 
-                                   @Param("endDate") LocalDateTime endDate);
+                                   @Param("startDate") LocalDate startDate, 
+                                   @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Gross sales, paid amount and bill count per day and branch in one scan,
+     * matching {@link #sumTotalAmountByBizIdAndDateRange}, {@link #sumPaidAmountByBizIdAndDateRange}
+     * and {@link #countByBizIdAndDateRange}.
+     */
+    @Query("SELECT new com.qtick.mis.repository.projection.BranchDayBills(" +
+           "b.billDate, b.branchId, COALESCE(SUM(b.grossAmount), 0), COALESCE(SUM(b.paidAmount), 0), COUNT(b)) " +
+           "FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY b.billDate, b.branchId")
+    List<BranchDayBills> summarizeKpisByDayAndBranch(@Param("bizId") Long bizId,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
     
-    @Query("SELECT bi.serviceId, 'Service Name', SUM(bi.totalPrice), COUNT(bi) " +
+    // Business details queries, grouped by client so one query serves a whole page of clients
+    @Query("SELECT new com.qtick.mis.repository.projection.ClientBills(" +
+           "b.client.custId, COUNT(b), COALESCE(SUM(b.grossAmount), 0)) " +
+           "FROM Bill b WHERE b.bizId = :bizId AND b.client.custId IN :custIds AND b.billDate = :date " +
+           "GROUP BY b.client.custId")
+    List<ClientBills> summarizeByClientsOnDate(@Param("bizId") Long bizId,
+                                               @Param("custIds") Collection<Long> custIds,
+                                               @Param("date") LocalDate date);
+    
+    @Query("SELECT new com.qtick.mis.repository.projection.ClientServiceBills(" +
+           "b.client.custId, bi.serviceId, bi.serviceName, COUNT(DISTINCT b.id), COALESCE(SUM(bi.totalAmount), 0)) " +
+           "FROM BillItem bi JOIN bi.bill b " +
+           "WHERE b.bizId = :bizId AND b.client.custId IN :custIds AND b.billDate = :date " +
+           "GROUP BY b.client.custId, bi.serviceId, bi.serviceName")
+    List<ClientServiceBills> findServiceBreakdownByClients(@Param("bizId") Long bizId,
+                                                           @Param("custIds") Collection<Long> custIds,
+                                                           @Param("date") LocalDate date);
+    
+    // Snapshot materialization queries, grouped by branch
+    @Query("SELECT new com.qtick.mis.repository.projection.BranchBills(" +
+           "b.branchId, COALESCE(SUM(b.grossAmount), 0), COALESCE(SUM(b.paidAmount), 0), COUNT(b), " +
+           "COALESCE(SUM(b.discountAmount), 0), COALESCE(SUM(b.taxAmount), 0), COUNT(DISTINCT b.client.custId)) " +
+           "FROM Bill b WHERE b.bizId = :bizId AND b.billDate = :date GROUP BY b.branchId")
+    List<BranchBills> summarizeByBranchOnDate(@Param("bizId") Long bizId, @Param("date") LocalDate date);
+    
+    @Query("SELECT new com.qtick.mis.repository.projection.BranchServiceRevenue(" +
+           "b.branchId, bi.serviceId, bi.serviceName, SUM(bi.totalAmount), COUNT(bi)) " +
            "FROM BillItem bi JOIN bi.bill b " +
            "WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate " +
-           "GROUP BY bi.serviceId " +
-           "ORDER BY SUM(bi.totalPrice) DESC")
-    List<Object[]> findTopServicesByRevenue(@Param("bizId") Long bizId, 
-                                          @Param("startDate") LocalDateTime startDate, 
-                                          @Param("endDate") LocalDateTime endDate, 
-                                          @Param("limit") Integer limit);
+           "GROUP BY b.branchId, bi.serviceId, bi.serviceName")
+    List<BranchServiceRevenue> sumServiceRevenueByBranch(@Param("bizId") Long bizId,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.qtick.mis.repository.projection.BranchStaffRevenue(" +
+           "b.branchId, b.staffId, b.staffName, SUM(b.netAmount), COUNT(b)) " +
+           "FROM Bill b WHERE b.bizId = :bizId AND b.staffId IS NOT NULL AND b.billDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY b.branchId, b.staffId, b.staffName")
+    List<BranchStaffRevenue> sumStaffRevenueByBranch(@Param("bizId") Long bizId,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+    
+    // Staff leaderboard loading, one row per day and staff member
+    @Query("SELECT new com.qtick.mis.repository.projection.DayStaffRevenue(" +
+           "b.billDate, b.staffId, b.staffName, SUM(b.netAmount), COUNT(b)) " +
+           "FROM Bill b WHERE b.bizId = :bizId AND b.billDate BETWEEN :startDate AND :endDate AND b.staffId IS NOT NULL " +
+           "GROUP BY b.billDate, b.staffId, b.staffName")
+    List<DayStaffRevenue> sumStaffRevenueByDay(@Param("bizId") Long bizId,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+    
+    // Service revenue history: the tenant's first business day with bills
+    @Query("SELECT MIN(b.billDate) FROM Bill b WHERE b.bizId = :bizId")
+    LocalDate findFirstBillDate(@Param("bizId") Long bizId);
+
+    // Snapshot rewinds: the earliest business day with bills changed, or removed, after a point in time
+    @Query("SELECT MIN(b.billDate) FROM Bill b WHERE b.bizId = :bizId AND b.updatedOn > :since")
+    LocalDate findFirstBillDateUpdatedAfter(@Param("bizId") Long bizId, @Param("since") LocalDateTime since);
+    
+    @Query("SELECT MIN(r.dataDate) FROM DashboardRemoval r WHERE r.bizId = :bizId AND r.removedOn > :since")
+    LocalDate findFirstRemovalDateAfter(@Param("bizId") Long bizId, @Param("since") LocalDateTime since);
     
-    @Query("SELECT 'Service Name', " +
-           "COUNT(CASE WHEN 'APPOINTMENT' = 'APPOINTMENT' THEN 1 END), " +
-           "COUNT(CASE WHEN 'WALK_IN' = 'WALK_IN' THEN 1 END), " +
-           "COUNT(bi), SUM(bi.totalPrice) " +
-           "FROM BillItem bi " +
-           "JOIN bi.bill b " +
-           "WHERE b.bizId = :bizId AND b.client.custId = :custId AND b.billDate BETWEEN :startDate AND :endDate " +
-           "GROUP BY bi.serviceId")
-    List<Object[]> findServiceBreakdownByClient(@Param("bizId") Long bizId, 
-                                              @Param("custId") Long custId,
-                                              @Param("startDate") LocalDateTime startDate, 
-                                              @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+    // Dashboard watermark: latest change to any row feeding the dashboard figures of a range,
+    // including rows removed from it; each branch is answered from a covering index
+    @Query(value = "SELECT MAX(t.changed) FROM (" +
+                   "SELECT MAX(updated_on) AS changed FROM bills " +
+                   "WHERE biz_id = :bizId AND bill_date BETWEEN :startDate AND :endDate " +
+                   "UNION ALL SELECT MAX(updated_on) FROM service_daily_revenue " +
+                   "WHERE biz_id = :bizId AND revenue_date BETWEEN :startDate AND :endDate " +
+                   "UNION ALL SELECT MAX(updated_on) FROM appointments " +
+                   "WHERE biz_id = :bizId AND appointment_date >= :start AND appointment_date < :end " +
+                   "UNION ALL SELECT MAX(updated_on) FROM enquiries " +
+                   "WHERE biz_id = :bizId AND created_on >= :start AND created_on < :end " +
+                   "UNION ALL SELECT MAX(updated_on) FROM clients " +
+                   "WHERE biz_id = :bizId AND created_on >= :start AND created_on < :end " +
+                   "UNION ALL SELECT MAX(removed_on) FROM dashboard_removals " +
+                   "WHERE biz_id = :bizId AND data_date BETWEEN :startDate AND :endDate) t",
+           nativeQuery = true)
+    LocalDateTime findLatestChangeInRange(@Param("bizId") Long bizId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end);
+}
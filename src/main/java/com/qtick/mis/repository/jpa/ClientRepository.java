@@ -2,16 +2,24 @@ package com.qtick.mis.repository.jpa;
 
 import com.qtick.mis.entity.Client;
 import com.qtick.mis.entity.ClientStatus;
+import com.qtick.mis.repository.projection.GroupCount;
+import com.qtick.mis.repository.projection.MonthlyCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Client entity with search and filtering capabilities.
@@ -27,6 +35,16 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
 
     Page<Client> findByBizIdOrderByCreatedOnDesc(Long bizId, Pageable pageable);
 
+    /**
+     * Streams all clients of a business for export. The stream must be consumed and closed
+     * inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BillRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Client> streamByBizIdOrderByCustId(Long bizId);
+
     // Status filtering
     List<Client> findByBizIdAndStatusOrderByCreatedOnDesc(Long bizId, ClientStatus status);
 
@@ -100,11 +118,11 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     @Query("SELECT COUNT(c) FROM Client c WHERE c.bizId = :bizId AND c.lastVisitDate >= :startDate")
     Long countReturningClients(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
 
-    @Query("SELECT c.businessType, COUNT(c) FROM Client c WHERE c.bizId = :bizId AND c.businessType IS NOT NULL GROUP BY c.businessType")
-    List<Object[]> countClientsByBusinessType(@Param("bizId") Long bizId);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(c.businessType, COUNT(c)) FROM Client c WHERE c.bizId = :bizId AND c.businessType IS NOT NULL GROUP BY c.businessType")
+    List<GroupCount<String>> countClientsByBusinessType(@Param("bizId") Long bizId);
 
-    @Query("SELECT c.preferredChannel, COUNT(c) FROM Client c WHERE c.bizId = :bizId AND c.preferredChannel IS NOT NULL GROUP BY c.preferredChannel")
-    List<Object[]> countClientsByPreferredChannel(@Param("bizId") Long bizId);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(c.preferredChannel, COUNT(c)) FROM Client c WHERE c.bizId = :bizId AND c.preferredChannel IS NOT NULL GROUP BY c.preferredChannel")
+    List<GroupCount<String>> countClientsByPreferredChannel(@Param("bizId") Long bizId);
 
     // Loyalty analytics
     @Query("SELECT AVG(c.loyaltyPoints) FROM Client c WHERE c.bizId = :bizId AND c.status = 'ACTIVE'")
@@ -117,18 +135,18 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     Long countClientsByPointsRange(@Param("bizId") Long bizId, @Param("minPoints") Integer minPoints, @Param("maxPoints") Integer maxPoints);
 
     // Time-based analytics
-    @Query("SELECT DATE(c.createdOn), COUNT(c) FROM Client c WHERE c.bizId = :bizId AND c.createdOn >= :startDate GROUP BY DATE(c.createdOn) ORDER BY DATE(c.createdOn)")
-    List<Object[]> countClientsByDate(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(CAST(c.createdOn AS LocalDate), COUNT(c)) FROM Client c WHERE c.bizId = :bizId AND c.createdOn >= :startDate GROUP BY CAST(c.createdOn AS LocalDate) ORDER BY CAST(c.createdOn AS LocalDate)")
+    List<GroupCount<LocalDate>> countClientsByDate(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
 
-    @Query("SELECT YEAR(c.createdOn), MONTH(c.createdOn), COUNT(c) FROM Client c WHERE c.bizId = :bizId AND c.createdOn >= :startDate GROUP BY YEAR(c.createdOn), MONTH(c.createdOn) ORDER BY YEAR(c.createdOn), MONTH(c.createdOn)")
-    List<Object[]> countClientsByMonth(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.MonthlyCount(YEAR(c.createdOn), MONTH(c.createdOn), COUNT(c)) FROM Client c WHERE c.bizId = :bizId AND c.createdOn >= :startDate GROUP BY YEAR(c.createdOn), MONTH(c.createdOn) ORDER BY YEAR(c.createdOn), MONTH(c.createdOn)")
+    List<MonthlyCount> countClientsByMonth(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
 
     // Geographic analytics
-    @Query("SELECT c.city, COUNT(c) FROM Client c WHERE c.bizId = :bizId AND c.city IS NOT NULL GROUP BY c.city ORDER BY COUNT(c) DESC")
-    List<Object[]> countClientsByCity(@Param("bizId") Long bizId);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(c.city, COUNT(c)) FROM Client c WHERE c.bizId = :bizId AND c.city IS NOT NULL GROUP BY c.city ORDER BY COUNT(c) DESC")
+    List<GroupCount<String>> countClientsByCity(@Param("bizId") Long bizId);
 
-    @Query("SELECT c.state, COUNT(c) FROM Client c WHERE c.bizId = :bizId AND c.state IS NOT NULL GROUP BY c.state ORDER BY COUNT(c) DESC")
-    List<Object[]> countClientsByState(@Param("bizId") Long bizId);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(c.state, COUNT(c)) FROM Client c WHERE c.bizId = :bizId AND c.state IS NOT NULL GROUP BY c.state ORDER BY COUNT(c) DESC")
+    List<GroupCount<String>> countClientsByState(@Param("bizId") Long bizId);
 
     // Client engagement queries
     @Query("SELECT c FROM Client c WHERE c.bizId = :bizId AND c.lastVisitDate IS NULL ORDER BY c.createdOn DESC")
@@ -173,6 +191,33 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     @Query("SELECT c FROM Client c WHERE c.bizId = :bizId AND c.businessType = :businessType ORDER BY c.lastVisitDate DESC")
     List<Client> findBusinessClientsByType(@Param("bizId") Long bizId, @Param("businessType") String businessType);
 
+    @Query("SELECT c FROM Client c WHERE c.bizId = :bizId AND c.businessType = :businessType " +
+           "ORDER BY c.lastVisitDate DESC, c.custId")
+    List<Client> findBusinessClientsByType(@Param("bizId") Long bizId, @Param("businessType") String businessType, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #findBusinessClientsByType(Long, String, Pageable)}: the clients after
+     * the one with the given last visit and ID, in the same order. Nulls sort low, so clients that
+     * never visited come last.
+     */
+    @Query("SELECT c FROM Client c WHERE c.bizId = :bizId AND c.businessType = :businessType " +
+           "AND (c.lastVisitDate < :lastVisitDate OR (c.lastVisitDate = :lastVisitDate AND c.custId > :custId) " +
+           "OR c.lastVisitDate IS NULL) " +
+           "ORDER BY c.lastVisitDate DESC, c.custId")
+    List<Client> findBusinessClientsByTypeAfter(@Param("bizId") Long bizId, @Param("businessType") String businessType,
+                                                @Param("lastVisitDate") LocalDateTime lastVisitDate,
+                                                @Param("custId") Long custId, Limit limit);
+
+    /**
+     * Keyset variant of {@link #findBusinessClientsByType(Long, String, Pageable)} for positions
+     * among the clients that never visited, ordered by ID.
+     */
+    @Query("SELECT c FROM Client c WHERE c.bizId = :bizId AND c.businessType = :businessType " +
+           "AND c.lastVisitDate IS NULL AND c.custId > :custId ORDER BY c.custId")
+    List<Client> findNeverVisitedBusinessClientsByTypeAfter(@Param("bizId") Long bizId,
+                                                            @Param("businessType") String businessType,
+                                                            @Param("custId") Long custId, Limit limit);
+
     @Query("SELECT c FROM Client c LEFT JOIN c.bills b WHERE c.bizId = :bizId AND c.businessType = :businessType " +
            "AND DATE(b.billDate) = DATE(:date) GROUP BY c ORDER BY c.businessName")
     List<Client> findBusinessClientsWithBillsOnDate(@Param("bizId") Long bizId, @Param("businessType") String businessType, @Param("date") LocalDateTime date);
@@ -180,4 +225,26 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     @Query("SELECT c FROM Client c LEFT JOIN c.appointments a WHERE c.bizId = :bizId AND c.businessType = :businessType " +
            "AND DATE(a.appointmentDate) = DATE(:date) GROUP BY c ORDER BY c.businessName")
     List<Client> findBusinessClientsWithAppointmentsOnDate(@Param("bizId") Long bizId, @Param("businessType") String businessType, @Param("date") LocalDateTime date);
-}
\ No newline at end of file
+
+    // Dashboard service methods
+    @Query("SELECT COUNT(DISTINCT b.client.custId) FROM Bill b WHERE b.bizId = :bizId " +
+           "AND b.billDate BETWEEN :startDate AND :endDate " +
+           "AND EXISTS (SELECT 1 FROM Bill p WHERE p.bizId = :bizId AND p.client = b.client AND p.billDate < :startDate)")
+    Integer countReturningCustomersByBizIdAndDateRange(@Param("bizId") Long bizId,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+
+    // Snapshot materialization queries
+    @Query("SELECT DISTINCT c.bizId FROM Client c")
+    List<Long> findDistinctBizIds();
+
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(b.branchId, COUNT(DISTINCT b.client.custId)) FROM Bill b WHERE b.bizId = :bizId AND b.billDate = :date " +
+           "AND EXISTS (SELECT 1 FROM Bill p WHERE p.bizId = :bizId AND p.client = b.client AND p.billDate < :date) " +
+           "GROUP BY b.branchId")
+    List<GroupCount<Long>> countReturningCustomersByBranchOnDate(@Param("bizId") Long bizId, @Param("date") LocalDate date);
+
+    @Query("SELECT COUNT(c) FROM Client c WHERE c.bizId = :bizId AND c.createdOn >= :startDate AND c.createdOn < :endDate")
+    Long countNewClientsBetween(@Param("bizId") Long bizId,
+                                @Param("startDate") LocalDateTime startDate,
+                                @Param("endDate") LocalDateTime endDate);
+}
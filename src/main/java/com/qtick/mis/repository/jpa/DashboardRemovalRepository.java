@@ -0,0 +1,29 @@
+package com.qtick.mis.repository.jpa;
+
+import com.qtick.mis.entity.DashboardRemoval;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for DashboardRemoval entities.
+ * Records the tenant-days this service deletes aggregate rows from.
+ */
+@Repository
+public interface DashboardRemovalRepository extends JpaRepository<DashboardRemoval, DashboardRemoval.Key> {
+
+    // Insert of a removal, or a later removal time for a day already recorded
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_removals (biz_id, data_date, removed_on) " +
+                   "VALUES (:bizId, :dataDate, :removedOn) " +
+                   "ON DUPLICATE KEY UPDATE removed_on = VALUES(removed_on)",
+           nativeQuery = true)
+    int recordRemoval(@Param("bizId") Long bizId,
+                      @Param("dataDate") LocalDate dataDate,
+                      @Param("removedOn") LocalDateTime removedOn);
+}
@@ -1,26 +1,65 @@
 package com.qtick.mis.repository.jpa;
 
 import com.qtick.mis.entity.DayQReport;
+import com.qtick.mis.repository.projection.GroupCount;
+import com.qtick.mis.repository.projection.QueueStats;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface DayQReportRepository extends JpaRepository<DayQReport, Long> {
 
-    @Query("SELECT SUM(r.served), SUM(r.sales), SUM(r.netSales), SUM(r.queued), SUM(r.missed), SUM(r.leftQ), SUM(r.cancelled), SUM(r.peeped) " +
+    @Query("SELECT new com.qtick.mis.repository.projection.QueueStats(" +
+            "COALESCE(SUM(r.served), 0), COALESCE(SUM(r.sales), 0.0), COALESCE(SUM(r.netSales), 0.0), " +
+            "COALESCE(SUM(r.queued), 0), COALESCE(SUM(r.missed), 0), COALESCE(SUM(r.leftQ), 0), " +
+            "COALESCE(SUM(r.cancelled), 0), COALESCE(SUM(r.peeped), 0)) " +
             "FROM DayQReport r WHERE r.bizId = :bizId AND r.periodType = :periodType AND r.periodId BETWEEN :startPeriod AND :endPeriod")
-    Object[] aggregateStats(@Param("bizId") Long bizId,
-                            @Param("periodType") String periodType,
-                            @Param("startPeriod") Integer startPeriod,
-                            @Param("endPeriod") Integer endPeriod);
-
-    @Query("SELECT r.periodId, SUM(r.peeped) FROM DayQReport r WHERE r.bizId = :bizId AND r.periodType = :periodType AND r.periodId BETWEEN :startPeriod AND :endPeriod GROUP BY r.periodId ORDER BY r.periodId")
-    List<Object[]> findDailyViewCounts(@Param("bizId") Long bizId,
-                                       @Param("periodType") String periodType,
-                                       @Param("startPeriod") Integer startPeriod,
-                                       @Param("endPeriod") Integer endPeriod);
+    QueueStats aggregateStats(@Param("bizId") Long bizId,
+                              @Param("periodType") String periodType,
+                              @Param("startPeriod") Integer startPeriod,
+                              @Param("endPeriod") Integer endPeriod);
+
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(r.periodId, SUM(r.peeped)) FROM DayQReport r WHERE r.bizId = :bizId AND r.periodType = :periodType AND r.periodId BETWEEN :startPeriod AND :endPeriod GROUP BY r.periodId ORDER BY r.periodId")
+    List<GroupCount<Integer>> findDailyViewCounts(@Param("bizId") Long bizId,
+                                                  @Param("periodType") String periodType,
+                                                  @Param("startPeriod") Integer startPeriod,
+                                                  @Param("endPeriod") Integer endPeriod);
+
+    /**
+     * Sums day, month and year rows in one query; callers pass period IDs that do not overlap.
+     */
+    @Query("SELECT new com.qtick.mis.repository.projection.QueueStats(" +
+            "COALESCE(SUM(r.served), 0), COALESCE(SUM(r.sales), 0.0), COALESCE(SUM(r.netSales), 0.0), " +
+            "COALESCE(SUM(r.queued), 0), COALESCE(SUM(r.missed), 0), COALESCE(SUM(r.leftQ), 0), " +
+            "COALESCE(SUM(r.cancelled), 0), COALESCE(SUM(r.peeped), 0)) " +
+            "FROM DayQReport r WHERE r.bizId = :bizId AND (" +
+            "(r.periodType = 'D' AND r.periodId IN :dayIds) OR " +
+            "(r.periodType = 'M' AND r.periodId IN :monthIds) OR " +
+            "(r.periodType = 'Y' AND r.periodId IN :yearIds))")
+    QueueStats sumAcrossPeriods(@Param("bizId") Long bizId,
+                                @Param("dayIds") Collection<Integer> dayIds,
+                                @Param("monthIds") Collection<Integer> monthIds,
+                                @Param("yearIds") Collection<Integer> yearIds);
+
+    // Rollups of day rows into month and year rows, for all tenants at once
+    @Modifying
+    @Query("DELETE FROM DayQReport r WHERE r.periodType = :periodType AND r.periodId = :periodId")
+    int deleteByPeriod(@Param("periodType") String periodType, @Param("periodId") Integer periodId);
+
+    @Modifying
+    @Query("INSERT INTO DayQReport (bizId, periodId, periodType, served, sales, netSales, queued, missed, leftQ, cancelled, peeped) " +
+            "SELECT r.bizId, :periodId, :periodType, CAST(SUM(r.served) AS Integer), SUM(r.sales), SUM(r.netSales), " +
+            "CAST(SUM(r.queued) AS Integer), CAST(SUM(r.missed) AS Integer), CAST(SUM(r.leftQ) AS Integer), " +
+            "CAST(SUM(r.cancelled) AS Integer), CAST(SUM(r.peeped) AS Integer) " +
+            "FROM DayQReport r WHERE r.periodType = 'D' AND r.periodId BETWEEN :startDay AND :endDay GROUP BY r.bizId")
+    int insertRollup(@Param("periodType") String periodType,
+                     @Param("periodId") Integer periodId,
+                     @Param("startDay") Integer startDay,
+                     @Param("endDay") Integer endDay);
 }
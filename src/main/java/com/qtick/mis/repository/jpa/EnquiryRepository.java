@@ -3,13 +3,18 @@ package com.qtick.mis.repository.jpa;
 import com.qtick.mis.entity.Enquiry;
 import com.qtick.mis.entity.EnquiryStage;
 import com.qtick.mis.entity.EnquiryStatus;
+import com.qtick.mis.repository.projection.BranchDayLeads;
+import com.qtick.mis.repository.projection.BranchLeads;
+import com.qtick.mis.repository.projection.GroupCount;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +31,12 @@ public interface EnquiryRepository extends JpaRepository<Enquiry, Long> {
 
     Optional<Enquiry> findByIdAndBizId(Long id, Long bizId);
 
+    /**
+     * Variant of {@link #findByIdAndBizId} that loads the threads in the same query.
+     */
+    @EntityGraph(Enquiry.GRAPH_THREADS)
+    Optional<Enquiry> findWithThreadsByIdAndBizId(Long id, Long bizId);
+
     Page<Enquiry> findByBizIdOrderByCreatedOnDesc(Long bizId, Pageable pageable);
 
     // Stage and status filtering
@@ -94,17 +105,17 @@ public interface EnquiryRepository extends JpaRepository<Enquiry, Long> {
     );
 
     // Pipeline analytics queries
-    @Query("SELECT e.stage, COUNT(e) FROM Enquiry e WHERE e.bizId = :bizId AND e.status = 'ACTIVE' GROUP BY e.stage")
-    List<Object[]> countEnquiriesByStage(@Param("bizId") Long bizId);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(e.stage, COUNT(e)) FROM Enquiry e WHERE e.bizId = :bizId AND e.status = 'ACTIVE' GROUP BY e.stage")
+    List<GroupCount<EnquiryStage>> countEnquiriesByStage(@Param("bizId") Long bizId);
 
-    @Query("SELECT e.source, COUNT(e) FROM Enquiry e WHERE e.bizId = :bizId AND e.createdOn >= :startDate GROUP BY e.source")
-    List<Object[]> countEnquiriesBySource(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(e.source, COUNT(e)) FROM Enquiry e WHERE e.bizId = :bizId AND e.createdOn >= :startDate GROUP BY e.source")
+    List<GroupCount<String>> countEnquiriesBySource(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
 
-    @Query("SELECT e.channel, COUNT(e) FROM Enquiry e WHERE e.bizId = :bizId AND e.createdOn >= :startDate GROUP BY e.channel")
-    List<Object[]> countEnquiriesByChannel(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(e.channel, COUNT(e)) FROM Enquiry e WHERE e.bizId = :bizId AND e.createdOn >= :startDate GROUP BY e.channel")
+    List<GroupCount<String>> countEnquiriesByChannel(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
 
-    @Query("SELECT e.assigneeId, COUNT(e) FROM Enquiry e WHERE e.bizId = :bizId AND e.assigneeId IS NOT NULL AND e.status = 'ACTIVE' GROUP BY e.assigneeId")
-    List<Object[]> countEnquiriesByAssignee(@Param("bizId") Long bizId);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(e.assigneeId, COUNT(e)) FROM Enquiry e WHERE e.bizId = :bizId AND e.assigneeId IS NOT NULL AND e.status = 'ACTIVE' GROUP BY e.assigneeId")
+    List<GroupCount<Long>> countEnquiriesByAssignee(@Param("bizId") Long bizId);
 
     // Conversion and performance metrics
     @Query("SELECT COUNT(e) FROM Enquiry e WHERE e.bizId = :bizId AND e.stage = 'CLOSED_WON' AND e.closureDate >= :startDate")
@@ -120,8 +131,8 @@ public interface EnquiryRepository extends JpaRepository<Enquiry, Long> {
     Long countMissedEnquiries(@Param("bizId") Long bizId, @Param("cutoffDate") LocalDateTime cutoffDate);
 
     // Branch-specific queries
-    @Query("SELECT e.stage, COUNT(e) FROM Enquiry e WHERE e.bizId = :bizId AND e.branchId = :branchId AND e.status = 'ACTIVE' GROUP BY e.stage")
-    List<Object[]> countEnquiriesByStageAndBranch(@Param("bizId") Long bizId, @Param("branchId") Long branchId);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(e.stage, COUNT(e)) FROM Enquiry e WHERE e.bizId = :bizId AND e.branchId = :branchId AND e.status = 'ACTIVE' GROUP BY e.stage")
+    List<GroupCount<EnquiryStage>> countEnquiriesByStageAndBranch(@Param("bizId") Long bizId, @Param("branchId") Long branchId);
 
     // Customer-related queries
     List<Enquiry> findByBizIdAndCustIdOrderByCreatedOnDesc(Long bizId, Long custId);
@@ -130,15 +141,15 @@ public interface EnquiryRepository extends JpaRepository<Enquiry, Long> {
     Long countUniqueCustomersWithEnquiries(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
 
     // Service-specific queries
-    @Query("SELECT e.srvcEnq, COUNT(e) FROM Enquiry e WHERE e.bizId = :bizId AND e.srvcEnq IS NOT NULL AND e.createdOn >= :startDate GROUP BY e.srvcEnq")
-    List<Object[]> countEnquiriesByService(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(e.srvcEnq, COUNT(e)) FROM Enquiry e WHERE e.bizId = :bizId AND e.srvcEnq IS NOT NULL AND e.createdOn >= :startDate GROUP BY e.srvcEnq")
+    List<GroupCount<Long>> countEnquiriesByService(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
 
     // Time-based analytics
-    @Query("SELECT DATE(e.createdOn), COUNT(e) FROM Enquiry e WHERE e.bizId = :bizId AND e.createdOn >= :startDate GROUP BY DATE(e.createdOn) ORDER BY DATE(e.createdOn)")
-    List<Object[]> countEnquiriesByDate(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(CAST(e.createdOn AS LocalDate), COUNT(e)) FROM Enquiry e WHERE e.bizId = :bizId AND e.createdOn >= :startDate GROUP BY CAST(e.createdOn AS LocalDate) ORDER BY CAST(e.createdOn AS LocalDate)")
+    List<GroupCount<LocalDate>> countEnquiriesByDate(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
 
-    @Query("SELECT HOUR(e.createdOn), COUNT(e) FROM Enquiry e WHERE e.bizId = :bizId AND e.createdOn >= :startDate GROUP BY HOUR(e.createdOn) ORDER BY HOUR(e.createdOn)")
-    List<Object[]> countEnquiriesByHour(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
+    @Query("SELECT new com.qtick.mis.repository.projection.GroupCount(HOUR(e.createdOn), COUNT(e)) FROM Enquiry e WHERE e.bizId = :bizId AND e.createdOn >= :startDate GROUP BY HOUR(e.createdOn) ORDER BY HOUR(e.createdOn)")
+    List<GroupCount<Integer>> countEnquiriesByHour(@Param("bizId") Long bizId, @Param("startDate") LocalDateTime startDate);
 
     // Bulk operations
     @Query("UPDATE Enquiry e SET e.assigneeId = :newAssigneeId WHERE e.bizId = :bizId AND e.assigneeId = :oldAssigneeId AND e.status = 'ACTIVE'")
@@ -166,4 +177,35 @@ public interface EnquiryRepository extends JpaRepository<Enquiry, Long> {
     Integer countMissedEnquiriesByBizIdAndDateRange(@Param("bizId") Long bizId, 
                                                   @Param("startDate") LocalDateTime startDate, 
                                                   @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+    
+    /**
+     * New, total and missed enquiry counts per day and branch in one scan,
+     * matching {@link #countNewEnquiriesByBizIdAndDateRange}, {@link #countByBizIdAndDateRange}
+     * and {@link #countMissedEnquiriesByBizIdAndDateRange}.
+     */
+    @Query("SELECT new com.qtick.mis.repository.projection.BranchDayLeads(" +
+           "CAST(e.createdOn AS LocalDate), e.branchId, " +
+           "COALESCE(SUM(CASE WHEN e.stage = 'NEW' THEN 1 ELSE 0 END), 0), " +
+           "COUNT(e), " +
+           "COALESCE(SUM(CASE WHEN e.status = 'MISSED' THEN 1 ELSE 0 END), 0)) " +
+           "FROM Enquiry e WHERE e.bizId = :bizId AND e.createdOn >= :startDate AND e.createdOn < :endDate " +
+           "GROUP BY CAST(e.createdOn AS LocalDate), e.branchId")
+    List<BranchDayLeads> summarizeKpisByDayAndBranch(@Param("bizId") Long bizId,
+                                                     @Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
+    
+    // Snapshot materialization queries
+    @Query("SELECT new com.qtick.mis.repository.projection.BranchLeads(e.branchId, " +
+           "COALESCE(SUM(CASE WHEN e.stage = 'NEW' THEN 1 ELSE 0 END), 0), " +
+           "COUNT(e), " +
+           "COALESCE(SUM(CASE WHEN e.status = 'MISSED' THEN 1 ELSE 0 END), 0)) " +
+           "FROM Enquiry e WHERE e.bizId = :bizId AND e.createdOn >= :startDate AND e.createdOn < :endDate " +
+           "GROUP BY e.branchId")
+    List<BranchLeads> summarizeByBranch(@Param("bizId") Long bizId,
+                                        @Param("startDate") LocalDateTime startDate,
+                                        @Param("endDate") LocalDateTime endDate);
+    
+    // Snapshot rewinds: the earliest enquiry changed after a point in time
+    @Query("SELECT MIN(e.createdOn) FROM Enquiry e WHERE e.bizId = :bizId AND e.updatedOn > :since")
+    LocalDateTime findFirstCreatedOnUpdatedAfter(@Param("bizId") Long bizId, @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,60 @@
+package com.qtick.mis.repository.jpa;
+
+import com.qtick.mis.entity.ServiceDailyRevenue;
+import com.qtick.mis.repository.projection.BranchServiceDay;
+import com.qtick.mis.repository.projection.TopServiceRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for the ServiceDailyRevenue aggregate.
+ * Provides the tenant-day rows read from bills and the service ranking read by the dashboard.
+ */
+@Repository
+public interface ServiceDailyRevenueRepository extends JpaRepository<ServiceDailyRevenue, Long> {
+
+    // Rebuild of one tenant-day
+    List<ServiceDailyRevenue> findByBizIdAndRevenueDate(Long bizId, LocalDate revenueDate);
+
+    @Query("SELECT new com.qtick.mis.repository.projection.BranchServiceDay(" +
+           "COALESCE(b.branchId, 0L), bi.serviceId, MAX(bi.serviceName), COALESCE(SUM(bi.totalAmount), 0), " +
+           "COUNT(bi), COUNT(DISTINCT b.client.custId)) " +
+           "FROM BillItem bi JOIN bi.bill b " +
+           "WHERE b.bizId = :bizId AND b.billDate = :date AND bi.serviceId IS NOT NULL " +
+           "GROUP BY COALESCE(b.branchId, 0L), bi.serviceId")
+    List<BranchServiceDay> summarizeBillsOnDate(@Param("bizId") Long bizId, @Param("date") LocalDate date);
+
+    // Insert of a rebuilt row, which updates the row instead if a concurrent rebuild inserted it first
+    @Modifying
+    @Query(value = "INSERT INTO service_daily_revenue " +
+                   "(biz_id, branch_id, revenue_date, service_id, service_name, revenue, jobs, visits, updated_on) " +
+                   "VALUES (:#{#row.bizId}, :#{#row.branchId}, :#{#row.revenueDate}, :#{#row.serviceId}, " +
+                   ":#{#row.serviceName}, :#{#row.revenue}, :#{#row.jobs}, :#{#row.visits}, :#{#row.updatedOn}) " +
+                   "ON DUPLICATE KEY UPDATE service_name = VALUES(service_name), revenue = VALUES(revenue), " +
+                   "jobs = VALUES(jobs), visits = VALUES(visits), updated_on = VALUES(updated_on)",
+           nativeQuery = true)
+    int upsert(@Param("row") ServiceDailyRevenue row);
+
+    // Dashboard ranking: service ID, name, revenue, jobs, visits and the revenue of all services in the range
+    @Query(value = "SELECT service_id AS serviceId, service_name AS serviceName, revenue, jobs, visits, " +
+                   "total_revenue AS totalRevenue FROM (" +
+                   "SELECT r.service_id, MAX(r.service_name) AS service_name, SUM(r.revenue) AS revenue, " +
+                   "SUM(r.jobs) AS jobs, SUM(r.visits) AS visits, SUM(SUM(r.revenue)) OVER () AS total_revenue " +
+                   "FROM service_daily_revenue r " +
+                   "WHERE r.biz_id = :bizId AND r.revenue_date BETWEEN :startDate AND :endDate " +
+                   "GROUP BY r.service_id) ranked " +
+                   "ORDER BY CASE WHEN :sortBy = 'jobs' THEN jobs ELSE revenue END DESC, service_id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<TopServiceRow> findTopServices(@Param("bizId") Long bizId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate,
+                                        @Param("sortBy") String sortBy,
+                                        @Param("limit") int limit);
+}
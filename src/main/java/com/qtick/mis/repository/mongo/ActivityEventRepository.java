@@ -1,8 +1,11 @@
 package com.qtick.mis.repository.mongo;
 
 import com.qtick.mis.document.ActivityEvent;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -23,6 +26,12 @@ public interface ActivityEventRepository extends MongoRepository<ActivityEvent,
 
     Page<ActivityEvent> findByBizIdOrderByCreatedAtDesc(Long bizId, Pageable pageable);
 
+    /**
+     * Keyset variant of {@link #findByBizIdOrderByCreatedAtDesc(Long, Pageable)}: reads the events
+     * after the position without a count query, so every page costs the same.
+     */
+    Window<ActivityEvent> findByBizIdOrderByCreatedAtDescIdDesc(Long bizId, ScrollPosition position, Limit limit);
+
     Optional<ActivityEvent> findByIdAndBizId(String id, Long bizId);
 
     // Entity-specific timeline queries
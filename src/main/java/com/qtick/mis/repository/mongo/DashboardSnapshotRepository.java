@@ -17,7 +17,7 @@ import java.util.Optional;
  * Provides methods for dashboard metrics retrieval, trend analysis, and performance optimization.
  */
 @Repository
-public interface DashboardSnapshotRepository extends MongoRepository<DashboardSnapshot, String> {
+public interface DashboardSnapshotRepository extends MongoRepository<DashboardSnapshot, String>, DashboardSnapshotRepositoryCustom {
 
     // Basic tenant-aware queries
     List<DashboardSnapshot> findByBizIdOrderBySnapshotDateDesc(Long bizId);
@@ -67,6 +67,11 @@ public interface DashboardSnapshotRepository extends MongoRepository<DashboardSn
     @Query("{ 'bizId': ?0, 'period': 'monthly', 'snapshotDate': { $gte: ?1, $lte: ?2 } }")
     List<DashboardSnapshot> findMonthlySnapshotsInRange(Long bizId, LocalDate startDate, LocalDate endDate);
 
+    // Tenant-level snapshots of every granularity for range composition
+    @Query(value = "{ 'bizId': ?0, 'branchId': null, 'period': { $in: ['daily', 'weekly', 'monthly'] }, 'snapshotDate': { $gte: ?1, $lte: ?2 } }",
+           fields = "{ 'topServices': 0, 'topStaff': 0, 'additionalMetrics': 0 }")
+    List<DashboardSnapshot> findTenantSnapshotsInRange(Long bizId, LocalDate startDate, LocalDate endDate);
+
     // Trend analysis queries
     @Query(value = "{ 'bizId': ?0, 'period': ?1, 'snapshotDate': { $gte: ?2, $lte: ?3 } }", 
            sort = "{ 'snapshotDate': 1 }")
@@ -166,6 +171,11 @@ public interface DashboardSnapshotRepository extends MongoRepository<DashboardSn
     @Query("{ 'bizId': ?0, 'updatedAt': { $gte: ?1 } }")
     List<DashboardSnapshot> findSnapshotsUpdatedSince(Long bizId, LocalDateTime since);
 
+    // Most recently updated snapshot of a range, reading only its update time
+    @Query(value = "{ 'bizId': ?0, 'snapshotDate': { $gte: ?1, $lte: ?2 } }",
+           fields = "{ 'updatedAt': 1 }", sort = "{ 'updatedAt': -1 }")
+    List<DashboardSnapshot> findLatestUpdatedInRange(Long bizId, LocalDate startDate, LocalDate endDate, Pageable pageable);
+
     @Query(value = "{ 'bizId': ?0, 'period': ?1, 'snapshotDate': { $gte: ?2 } }", 
            sort = "{ 'snapshotDate': -1 }")
     List<DashboardSnapshot> findSnapshotsSinceDate(Long bizId, String period, LocalDate sinceDate, Pageable pageable);
@@ -0,0 +1,42 @@
+package com.qtick.mis.repository.mongo;
+
+import com.qtick.mis.document.DashboardSnapshot;
+import com.qtick.mis.repository.projection.TrendBucket;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom aggregation queries and writes for DashboardSnapshot documents.
+ */
+public interface DashboardSnapshotRepositoryCustom {
+
+    /**
+     * Sums tenant-level daily snapshots into time buckets on the server.
+     * Buckets without snapshots are not returned.
+     *
+     * @param bizId the business ID
+     * @param startDate first day of the range, inclusive
+     * @param endDate last day of the range, inclusive
+     * @param granularity the bucket size
+     * @param fields the snapshot fields to sum
+     * @return one entry per non-empty bucket, in date order
+     */
+    List<TrendBucket> aggregateTrends(Long bizId, LocalDate startDate, LocalDate endDate,
+                                      TrendGranularity granularity, Collection<String> fields);
+
+    /**
+     * Inserts or replaces the snapshot with the same tenant, branch, date and
+     * period in one atomic upsert, keeping the creation time of a replaced one.
+     *
+     * @param snapshot the snapshot; its ID and timestamps are ignored
+     */
+    void upsertScope(DashboardSnapshot snapshot);
+
+    /**
+     * Creates the unique scope index the upsert relies on, for deployments that
+     * do not create indexes automatically.
+     */
+    void ensureScopeIndex();
+}
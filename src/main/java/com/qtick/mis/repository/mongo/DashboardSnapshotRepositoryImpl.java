@@ -0,0 +1,128 @@
+package com.qtick.mis.repository.mongo;
+
+import com.qtick.mis.document.DashboardSnapshot;
+import com.qtick.mis.repository.projection.TrendBucket;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregation-based implementation of {@link DashboardSnapshotRepositoryCustom}.
+ */
+public class DashboardSnapshotRepositoryImpl implements DashboardSnapshotRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<TrendBucket> aggregateTrends(Long bizId, LocalDate startDate, LocalDate endDate,
+                                             TrendGranularity granularity, Collection<String> fields) {
+        // LocalDate values are stored as midnight in the JVM zone, so bucket in that zone too
+        DateOperators.DateOperatorFactory snapshotDate = DateOperators.dateOf("snapshotDate")
+                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()));
+
+        ProjectionOperation project = switch (granularity) {
+            case DAY -> Aggregation.project(fields.toArray(String[]::new))
+                    .and(snapshotDate.year()).as("year")
+                    .and(snapshotDate.dayOfYear()).as("unit");
+            case WEEK -> Aggregation.project(fields.toArray(String[]::new))
+                    .and(snapshotDate.isoWeekYear()).as("year")
+                    .and(snapshotDate.isoWeek()).as("unit");
+            case MONTH -> Aggregation.project(fields.toArray(String[]::new))
+                    .and(snapshotDate.year()).as("year")
+                    .and(snapshotDate.month()).as("unit");
+        };
+
+        // Amounts may be stored as strings or decimals, so normalise before summing
+        GroupOperation group = Aggregation.group("year", "unit");
+        for (String field : fields) {
+            group = group.sum(ConvertOperators.valueOf(field).convertToDecimal()).as(field);
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("bizId").is(bizId)
+                        .and("branchId").is(null)
+                        .and("period").is("daily")
+                        .and("snapshotDate").gte(startDate).lte(endDate)),
+                project,
+                group,
+                Aggregation.sort(Sort.by("year", "unit")));
+
+        List<TrendBucket> buckets = new ArrayList<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, DashboardSnapshot.class, Document.class)) {
+            Document key = result.get("_id", Document.class);
+            Map<String, BigDecimal> totals = new LinkedHashMap<>();
+            for (String field : fields) {
+                totals.put(field, toBigDecimal(result.get(field)));
+            }
+            // $isoWeekYear yields a long on some server versions, the other operators an int
+            int year = ((Number) key.get("year")).intValue();
+            int unit = ((Number) key.get("unit")).intValue();
+            buckets.add(new TrendBucket(granularity.fromKey(year, unit), totals));
+        }
+        return buckets;
+    }
+
+    @Override
+    public void upsertScope(DashboardSnapshot snapshot) {
+        Document fields = new Document();
+        mongoTemplate.getConverter().write(snapshot, fields);
+
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update();
+        fields.forEach((field, value) -> {
+            if (!"_id".equals(field) && !"createdAt".equals(field) && !"updatedAt".equals(field)) {
+                update.set(field, value);
+            }
+        });
+        update.set("updatedAt", now).setOnInsert("createdAt", now);
+
+        Query scope = new Query(Criteria.where("bizId").is(snapshot.getBizId())
+                .and("branchId").is(snapshot.getBranchId())
+                .and("period").is(snapshot.getPeriod())
+                .and("snapshotDate").is(snapshot.getSnapshotDate()));
+        mongoTemplate.upsert(scope, update, DashboardSnapshot.class);
+    }
+
+    @Override
+    public void ensureScopeIndex() {
+        mongoTemplate.indexOps(DashboardSnapshot.class).ensureIndex(new Index()
+                .on("bizId", Sort.Direction.ASC)
+                .on("branchId", Sort.Direction.ASC)
+                .on("period", Sort.Direction.ASC)
+                .on("snapshotDate", Sort.Direction.ASC)
+                .unique()
+                .named("uk_snapshot_scope"));
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        return BigDecimal.ZERO;
+    }
+}
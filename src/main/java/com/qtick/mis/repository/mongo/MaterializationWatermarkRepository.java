@@ -0,0 +1,20 @@
+package com.qtick.mis.repository.mongo;
+
+import com.qtick.mis.document.MaterializationWatermark;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for MaterializationWatermark document.
+ * Provides per-job, per-tenant progress tracking for background aggregation.
+ * Watermarks are only changed through the conditional updates of
+ * {@link MaterializationWatermarkRepositoryCustom}.
+ */
+@Repository
+public interface MaterializationWatermarkRepository extends MongoRepository<MaterializationWatermark, String>,
+        MaterializationWatermarkRepositoryCustom {
+
+    Optional<MaterializationWatermark> findByJobAndBizId(String job, Long bizId);
+}
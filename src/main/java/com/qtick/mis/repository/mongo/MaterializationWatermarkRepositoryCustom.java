@@ -0,0 +1,69 @@
+package com.qtick.mis.repository.mongo;
+
+import com.qtick.mis.document.MaterializationWatermark;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Atomic watermark updates, so a job advancing a watermark and a rewind
+ * cannot overwrite each other, and instances running the same job claim
+ * each tenant before processing it.
+ */
+public interface MaterializationWatermarkRepositoryCustom {
+
+    /**
+     * Creates the watermark of a job and tenant if it does not exist yet.
+     *
+     * @param job the job name
+     * @param bizId the business ID
+     * @param initialDate the watermark of a new tenant
+     * @return the stored watermark date
+     */
+    LocalDate initialize(String job, Long bizId, LocalDate initialDate);
+
+    /**
+     * Moves the watermark forward only if it still has the expected value.
+     *
+     * @param job the job name
+     * @param bizId the business ID
+     * @param expectedDate the watermark the caller read
+     * @param newDate the new watermark
+     * @return whether the watermark was moved
+     */
+    boolean advance(String job, Long bizId, LocalDate expectedDate, LocalDate newDate);
+
+    /**
+     * Moves the watermark back to the day before a changed date, if it is at or after that date.
+     *
+     * @param job the job name
+     * @param bizId the business ID
+     * @param changedDate the first day to rebuild
+     * @return whether the watermark was moved
+     */
+    boolean rewind(String job, Long bizId, LocalDate changedDate);
+
+    /**
+     * Claims an existing watermark for one instance until a lease expires, unless
+     * another instance holds an unexpired claim.
+     *
+     * @param job the job name
+     * @param bizId the business ID
+     * @param owner the claiming instance
+     * @param lease how long the claim lasts if it is not released
+     * @return the claimed watermark, or empty if another instance holds it
+     */
+    Optional<MaterializationWatermark> claim(String job, Long bizId, String owner, Duration lease);
+
+    /**
+     * Releases a claim, if it is still held by the given instance.
+     */
+    void release(String job, Long bizId, String owner);
+
+    /**
+     * Records the time up to which source changes have been scanned for rewinds.
+     */
+    void markChangesScanned(String job, Long bizId, LocalDateTime scannedAt);
+}
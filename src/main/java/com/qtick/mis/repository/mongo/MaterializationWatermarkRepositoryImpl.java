@@ -0,0 +1,81 @@
+package com.qtick.mis.repository.mongo;
+
+import com.qtick.mis.document.MaterializationWatermark;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Conditional-update implementation of {@link MaterializationWatermarkRepositoryCustom}.
+ */
+public class MaterializationWatermarkRepositoryImpl implements MaterializationWatermarkRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public LocalDate initialize(String job, Long bizId, LocalDate initialDate) {
+        Update update = new Update()
+                .setOnInsert("_id", job + ":" + bizId)
+                .setOnInsert("watermarkDate", initialDate)
+                .setOnInsert("updatedAt", LocalDateTime.now());
+        MaterializationWatermark watermark = mongoTemplate.findAndModify(byJobAndBizId(job, bizId), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), MaterializationWatermark.class);
+        return watermark.getWatermarkDate();
+    }
+
+    @Override
+    public boolean advance(String job, Long bizId, LocalDate expectedDate, LocalDate newDate) {
+        Query query = byJobAndBizId(job, bizId).addCriteria(Criteria.where("watermarkDate").is(expectedDate));
+        return move(query, newDate);
+    }
+
+    @Override
+    public boolean rewind(String job, Long bizId, LocalDate changedDate) {
+        Query query = byJobAndBizId(job, bizId).addCriteria(Criteria.where("watermarkDate").gte(changedDate));
+        return move(query, changedDate.minusDays(1));
+    }
+
+    @Override
+    public Optional<MaterializationWatermark> claim(String job, Long bizId, String owner, Duration lease) {
+        Instant now = Instant.now();
+        Query query = byJobAndBizId(job, bizId).addCriteria(new Criteria().orOperator(
+                Criteria.where("claimedUntil").is(null),
+                Criteria.where("claimedUntil").lt(now),
+                Criteria.where("claimedBy").is(owner)));
+        Update update = new Update().set("claimedBy", owner).set("claimedUntil", now.plus(lease));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), MaterializationWatermark.class));
+    }
+
+    @Override
+    public void release(String job, Long bizId, String owner) {
+        Query query = byJobAndBizId(job, bizId).addCriteria(Criteria.where("claimedBy").is(owner));
+        mongoTemplate.updateFirst(query, new Update().unset("claimedBy").unset("claimedUntil"),
+                MaterializationWatermark.class);
+    }
+
+    @Override
+    public void markChangesScanned(String job, Long bizId, LocalDateTime scannedAt) {
+        mongoTemplate.updateFirst(byJobAndBizId(job, bizId), new Update().set("changesScannedAt", scannedAt),
+                MaterializationWatermark.class);
+    }
+
+    private boolean move(Query query, LocalDate newDate) {
+        Update update = new Update().set("watermarkDate", newDate).set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(query, update, MaterializationWatermark.class).getModifiedCount() > 0;
+    }
+
+    private static Query byJobAndBizId(String job, Long bizId) {
+        return new Query(Criteria.where("job").is(job).and("bizId").is(bizId));
+    }
+}
@@ -0,0 +1,93 @@
+package com.qtick.mis.repository.mongo;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+
+/**
+ * Bucket sizes for trend aggregation over daily snapshots.
+ * Weeks are ISO weeks starting on Monday; buckets are identified by their first day.
+ */
+public enum TrendGranularity {
+
+    DAY {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusDays(1);
+        }
+
+        @Override
+        LocalDate fromKey(int year, int unit) {
+            return LocalDate.ofYearDay(year, unit);
+        }
+    },
+    WEEK {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.with(DayOfWeek.MONDAY);
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusWeeks(1);
+        }
+
+        @Override
+        LocalDate fromKey(int year, int unit) {
+            return LocalDate.of(year, 1, 4)
+                    .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, unit)
+                    .with(DayOfWeek.MONDAY);
+        }
+    },
+    MONTH {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusMonths(1);
+        }
+
+        @Override
+        LocalDate fromKey(int year, int unit) {
+            return LocalDate.of(year, unit, 1);
+        }
+    };
+
+    /**
+     * Gets the first day of the bucket containing a date.
+     */
+    public abstract LocalDate bucketStart(LocalDate date);
+
+    /**
+     * Gets the first day of the bucket following the given one.
+     */
+    public abstract LocalDate next(LocalDate bucketStart);
+
+    /**
+     * Converts an aggregation group key of year and day, week or month back to a bucket start.
+     */
+    abstract LocalDate fromKey(int year, int unit);
+
+    /**
+     * Parses the period names accepted by the dashboard API.
+     *
+     * @param period daily, weekly or monthly, or day, week or month
+     * @return the matching granularity
+     */
+    public static TrendGranularity fromPeriod(String period) {
+        return switch (period == null ? "" : period.toLowerCase()) {
+            case "day", "daily" -> DAY;
+            case "week", "weekly" -> WEEK;
+            case "month", "monthly" -> MONTH;
+            default -> throw new IllegalArgumentException("Unsupported trend period: " + period);
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.qtick.mis.repository.projection;
+
+/**
+ * Appointment totals of one branch.
+ *
+ * @param branchId the branch, or {@code null} for appointments without a branch
+ * @param appointments all appointments
+ * @param walkIns walk-in appointments
+ * @param completed completed appointments
+ * @param cancelled cancelled appointments
+ * @param noShows no-shows
+ */
+public record BranchAppointments(Long branchId, Long appointments, Long walkIns, Long completed, Long cancelled, Long noShows) {
+}
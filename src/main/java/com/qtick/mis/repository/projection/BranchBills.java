@@ -0,0 +1,18 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bill totals of one branch, as stored in dashboard snapshots.
+ *
+ * @param branchId the branch, or {@code null} for bills without a branch
+ * @param grossSales sum of gross amounts
+ * @param netSales sum of paid amounts
+ * @param bills number of bills
+ * @param discounts sum of discounts
+ * @param tax sum of tax
+ * @param clients number of distinct clients
+ */
+public record BranchBills(Long branchId, BigDecimal grossSales, BigDecimal netSales, Long bills,
+                          BigDecimal discounts, BigDecimal tax, Long clients) {
+}
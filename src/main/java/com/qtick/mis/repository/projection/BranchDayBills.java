@@ -0,0 +1,16 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Bill KPIs of one branch on one day.
+ *
+ * @param day the bill date
+ * @param branchId the branch, or {@code null} for bills without a branch
+ * @param grossSales sum of gross amounts
+ * @param netSales sum of paid amounts
+ * @param bills number of bills
+ */
+public record BranchDayBills(LocalDate day, Long branchId, BigDecimal grossSales, BigDecimal netSales, Long bills) {
+}
@@ -0,0 +1,13 @@
+package com.qtick.mis.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Row count of one branch on one day.
+ *
+ * @param day the day
+ * @param branchId the branch, or {@code null} for rows without a branch
+ * @param count number of rows
+ */
+public record BranchDayCount(LocalDate day, Long branchId, Long count) {
+}
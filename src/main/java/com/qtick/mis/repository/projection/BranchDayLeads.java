@@ -0,0 +1,15 @@
+package com.qtick.mis.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Enquiry KPIs of one branch on one day.
+ *
+ * @param day the creation date
+ * @param branchId the branch, or {@code null} for enquiries without a branch
+ * @param newLeads enquiries in the NEW stage
+ * @param totalLeads all enquiries
+ * @param missedLeads missed enquiries
+ */
+public record BranchDayLeads(LocalDate day, Long branchId, Long newLeads, Long totalLeads, Long missedLeads) {
+}
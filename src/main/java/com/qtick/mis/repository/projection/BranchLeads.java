@@ -0,0 +1,12 @@
+package com.qtick.mis.repository.projection;
+
+/**
+ * Enquiry totals of one branch.
+ *
+ * @param branchId the branch, or {@code null} for enquiries without a branch
+ * @param newLeads enquiries in the NEW stage
+ * @param totalLeads all enquiries
+ * @param missedLeads missed enquiries
+ */
+public record BranchLeads(Long branchId, Long newLeads, Long totalLeads, Long missedLeads) {
+}
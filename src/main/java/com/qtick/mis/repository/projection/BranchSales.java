@@ -0,0 +1,14 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bill performance of one branch.
+ *
+ * @param branchId the branch
+ * @param bills number of bills
+ * @param netSales sum of net amounts
+ * @param avgBill average net amount
+ */
+public record BranchSales(Long branchId, Long bills, BigDecimal netSales, Double avgBill) {
+}
@@ -0,0 +1,17 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bill item revenue of one service in one branch on one day, as stored in the service revenue aggregate.
+ *
+ * @param branchId the branch, or 0 for bills without a branch
+ * @param serviceId the service
+ * @param serviceName the service name
+ * @param revenue sum of item totals
+ * @param jobs number of items
+ * @param visits number of distinct clients billed for the service
+ */
+public record BranchServiceDay(Long branchId, Long serviceId, String serviceName, BigDecimal revenue,
+                               Long jobs, Long visits) {
+}
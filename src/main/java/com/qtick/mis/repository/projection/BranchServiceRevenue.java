@@ -0,0 +1,15 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bill item revenue of one service in one branch.
+ *
+ * @param branchId the branch, or {@code null} for bills without a branch
+ * @param serviceId the service
+ * @param serviceName the service name
+ * @param revenue sum of item totals
+ * @param jobs number of items
+ */
+public record BranchServiceRevenue(Long branchId, Long serviceId, String serviceName, BigDecimal revenue, Long jobs) {
+}
@@ -0,0 +1,15 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bill revenue of one staff member in one branch.
+ *
+ * @param branchId the branch, or {@code null} for bills without a branch
+ * @param staffId the staff member
+ * @param staffName the staff name
+ * @param revenue sum of net amounts
+ * @param jobs number of bills
+ */
+public record BranchStaffRevenue(Long branchId, Long staffId, String staffName, BigDecimal revenue, Long jobs) {
+}
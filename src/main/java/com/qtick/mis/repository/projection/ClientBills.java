@@ -0,0 +1,13 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bill count and revenue of one client.
+ *
+ * @param custId the client
+ * @param bills number of bills
+ * @param revenue sum of gross amounts
+ */
+public record ClientBills(Long custId, Long bills, BigDecimal revenue) {
+}
@@ -0,0 +1,14 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bill count and net sales of one client.
+ *
+ * @param custId the client
+ * @param name the client name
+ * @param bills number of bills
+ * @param netSales sum of net amounts
+ */
+public record ClientSales(Long custId, String name, Long bills, BigDecimal netSales) {
+}
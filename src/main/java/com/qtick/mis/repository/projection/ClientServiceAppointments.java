@@ -0,0 +1,13 @@
+package com.qtick.mis.repository.projection;
+
+/**
+ * Appointments of one service for one client.
+ *
+ * @param custId the client
+ * @param serviceId the service, or {@code null} for appointments without one
+ * @param serviceName the service name
+ * @param appointments number of appointments
+ * @param walkIns walk-in appointments
+ */
+public record ClientServiceAppointments(Long custId, Long serviceId, String serviceName, Long appointments, Long walkIns) {
+}
@@ -0,0 +1,15 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bills and item revenue of one service for one client.
+ *
+ * @param custId the client
+ * @param serviceId the service, or {@code null} for items without one
+ * @param serviceName the service name
+ * @param bills number of distinct bills
+ * @param revenue sum of item totals
+ */
+public record ClientServiceBills(Long custId, Long serviceId, String serviceName, Long bills, BigDecimal revenue) {
+}
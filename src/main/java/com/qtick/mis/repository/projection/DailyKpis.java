@@ -0,0 +1,58 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Additive dashboard KPIs of one branch on one day, or of any sum of branch-days.
+ *
+ * @param branchId the branch, or {@code null} for bills without a branch and for sums
+ * @param grossSales sum of gross bill amounts
+ * @param netSales sum of paid bill amounts
+ * @param bills number of bills
+ * @param newLeads enquiries in the NEW stage
+ * @param totalLeads all enquiries
+ * @param missedLeads missed enquiries
+ * @param appointments number of appointments
+ */
+public record DailyKpis(Long branchId, BigDecimal grossSales, BigDecimal netSales, int bills,
+                        int newLeads, int totalLeads, int missedLeads, int appointments) {
+
+    public static final DailyKpis ZERO = empty(null);
+
+    /**
+     * KPIs of a branch-day without activity.
+     */
+    public static DailyKpis empty(Long branchId) {
+        return new DailyKpis(branchId, BigDecimal.ZERO, BigDecimal.ZERO, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Copy with the bill KPIs of the same branch-day.
+     */
+    public DailyKpis withBills(BigDecimal grossSales, BigDecimal netSales, int bills) {
+        return new DailyKpis(branchId, grossSales, netSales, bills, newLeads, totalLeads, missedLeads, appointments);
+    }
+
+    /**
+     * Copy with the enquiry KPIs of the same branch-day.
+     */
+    public DailyKpis withLeads(int newLeads, int totalLeads, int missedLeads) {
+        return new DailyKpis(branchId, grossSales, netSales, bills, newLeads, totalLeads, missedLeads, appointments);
+    }
+
+    /**
+     * Copy with the appointment count of the same branch-day.
+     */
+    public DailyKpis withAppointments(int appointments) {
+        return new DailyKpis(branchId, grossSales, netSales, bills, newLeads, totalLeads, missedLeads, appointments);
+    }
+
+    /**
+     * Sums two KPI sets; the result belongs to no single branch.
+     */
+    public DailyKpis plus(DailyKpis other) {
+        return new DailyKpis(null, grossSales.add(other.grossSales), netSales.add(other.netSales),
+                             bills + other.bills, newLeads + other.newLeads, totalLeads + other.totalLeads,
+                             missedLeads + other.missedLeads, appointments + other.appointments);
+    }
+}
@@ -0,0 +1,16 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Bill revenue of one staff member on one day.
+ *
+ * @param day the bill date
+ * @param staffId the staff member
+ * @param staffName the staff name
+ * @param revenue sum of net amounts
+ * @param jobs number of bills
+ */
+public record DayStaffRevenue(LocalDate day, Long staffId, String staffName, BigDecimal revenue, Long jobs) {
+}
@@ -0,0 +1,11 @@
+package com.qtick.mis.repository.projection;
+
+/**
+ * Row count of one group of a GROUP BY query.
+ *
+ * @param key the grouping value, such as a stage, source, branch ID or day
+ * @param count number of rows in the group
+ * @param <K> type of the grouping value
+ */
+public record GroupCount<K>(K key, Long count) {
+}
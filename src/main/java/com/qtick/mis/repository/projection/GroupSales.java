@@ -0,0 +1,14 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bill count and net sales of one group of a GROUP BY query.
+ *
+ * @param key the grouping value, such as a payment mode, day or hour
+ * @param bills number of bills
+ * @param netSales sum of net amounts
+ * @param <K> type of the grouping value
+ */
+public record GroupSales<K>(K key, Long bills, BigDecimal netSales) {
+}
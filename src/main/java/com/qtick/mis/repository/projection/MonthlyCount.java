@@ -0,0 +1,11 @@
+package com.qtick.mis.repository.projection;
+
+/**
+ * Row count of one calendar month.
+ *
+ * @param year the year
+ * @param month the month of the year, 1 to 12
+ * @param count number of rows
+ */
+public record MonthlyCount(Integer year, Integer month, Long count) {
+}
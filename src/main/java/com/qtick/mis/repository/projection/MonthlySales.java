@@ -0,0 +1,14 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bill count and net sales of one calendar month.
+ *
+ * @param year the year
+ * @param month the month of the year, 1 to 12
+ * @param bills number of bills
+ * @param netSales sum of net amounts
+ */
+public record MonthlySales(Integer year, Integer month, Long bills, BigDecimal netSales) {
+}
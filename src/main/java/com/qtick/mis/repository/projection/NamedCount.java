@@ -0,0 +1,11 @@
+package com.qtick.mis.repository.projection;
+
+/**
+ * Row count of one staff member, client or service, with its name.
+ *
+ * @param id the staff, client or service ID
+ * @param name the name
+ * @param count number of rows
+ */
+public record NamedCount(Long id, String name, Long count) {
+}
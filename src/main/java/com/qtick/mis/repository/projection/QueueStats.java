@@ -0,0 +1,17 @@
+package com.qtick.mis.repository.projection;
+
+/**
+ * Queue and view statistics summed over day_q_report rows of any period type.
+ *
+ * @param served customers served
+ * @param sales sales amount
+ * @param netSales net sales amount
+ * @param queued customers queued
+ * @param missed customers missed
+ * @param leftQ customers who left the queue
+ * @param cancelled cancelled queue entries
+ * @param viewCount business profile views
+ */
+public record QueueStats(Long served, Double sales, Double netSales, Long queued,
+                         Long missed, Long leftQ, Long cancelled, Long viewCount) {
+}
@@ -0,0 +1,15 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bill performance of one staff member.
+ *
+ * @param staffId the staff member
+ * @param staffName the staff name
+ * @param bills number of bills
+ * @param netSales sum of net amounts
+ * @param avgBill average net amount
+ */
+public record StaffSales(Long staffId, String staffName, Long bills, BigDecimal netSales, Double avgBill) {
+}
@@ -0,0 +1,29 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * One ranked service of a native ranking query, read through an interface
+ * projection because native queries cannot use constructor expressions.
+ * Getter names match the column aliases of the query.
+ */
+public interface TopServiceRow {
+
+    Long getServiceId();
+
+    String getServiceName();
+
+    BigDecimal getRevenue();
+
+    Long getJobs();
+
+    /**
+     * Client visits, counting a client once per day they were billed for the service.
+     */
+    Long getVisits();
+
+    /**
+     * Revenue of all services in the range, not only the ranked ones.
+     */
+    BigDecimal getTotalRevenue();
+}
@@ -0,0 +1,14 @@
+package com.qtick.mis.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Snapshot totals of one time bucket, produced by a server-side aggregation.
+ *
+ * @param bucketStart first day of the bucket
+ * @param totals summed values keyed by snapshot field name
+ */
+public record TrendBucket(LocalDate bucketStart, Map<String, BigDecimal> totals) {
+}
@@ -0,0 +1,12 @@
+package com.qtick.mis.repository.projection;
+
+/**
+ * Appointment count and average duration of one staff member or service.
+ *
+ * @param id the staff or service ID
+ * @param name the name
+ * @param appointments number of appointments
+ * @param avgDurationMinutes average duration, or {@code null} when no duration is recorded
+ */
+public record UtilizationStats(Long id, String name, Long appointments, Double avgDurationMinutes) {
+}
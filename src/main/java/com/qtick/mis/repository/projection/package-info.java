@@ -0,0 +1,6 @@
+/**
+ * Typed read models returned by repository queries.
+ * Contains records populated through JPQL constructor expressions, and
+ * interface projections for native queries.
+ */
+package com.qtick.mis.repository.projection;
@@ -0,0 +1,114 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.dto.dashboard.BusinessDetailsDto;
+import com.qtick.mis.dto.dashboard.DailyJobStatsDto;
+import com.qtick.mis.dto.dashboard.ServiceBreakdownDto;
+import com.qtick.mis.entity.Client;
+import com.qtick.mis.repository.projection.ClientBills;
+import com.qtick.mis.repository.projection.ClientServiceAppointments;
+import com.qtick.mis.repository.projection.ClientServiceBills;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds {@link BusinessDetailsDto} objects for a page of business clients from
+ * aggregate rows grouped by client, so the daily statistics of every client on
+ * the page come from the same few queries.
+ */
+@Component
+public class BusinessDetailsAssembler {
+
+    /**
+     * Assembles the business details of a page of clients.
+     *
+     * @param clients the clients on the page, in display order
+     * @param date the day the statistics cover
+     * @param billRows bills and revenue per client
+     * @param appointmentServiceRows appointments and walk-ins per client and service
+     * @param billServiceRows bills and revenue per client and service
+     * @return one business details object per client, in the order of {@code clients}
+     */
+    public List<BusinessDetailsDto> assemble(List<Client> clients, LocalDate date,
+                                             List<ClientBills> billRows,
+                                             List<ClientServiceAppointments> appointmentServiceRows,
+                                             List<ClientServiceBills> billServiceRows) {
+        Map<Long, DailyJobStatsDto> stats = new HashMap<>();
+        Map<Long, Map<Object, ServiceBreakdownDto>> breakdowns = new HashMap<>();
+        for (Client client : clients) {
+            stats.put(client.getCustId(), new DailyJobStatsDto(date, 0, 0, 0, BigDecimal.ZERO));
+            breakdowns.put(client.getCustId(), new LinkedHashMap<>());
+        }
+
+        for (ClientBills row : billRows) {
+            DailyJobStatsDto dailyStats = stats.get(row.custId());
+            if (dailyStats != null) {
+                dailyStats.setTotalBills(dailyStats.getTotalBills() + toInt(row.bills()));
+                dailyStats.setTotalRevenue(dailyStats.getTotalRevenue().add(orZero(row.revenue())));
+            }
+        }
+
+        for (ClientServiceAppointments row : appointmentServiceRows) {
+            DailyJobStatsDto dailyStats = stats.get(row.custId());
+            if (dailyStats == null) {
+                continue;
+            }
+            int appointments = toInt(row.appointments());
+            int walkIns = toInt(row.walkIns());
+            dailyStats.setTotalAppointments(dailyStats.getTotalAppointments() + appointments);
+            dailyStats.setTotalWalkIns(dailyStats.getTotalWalkIns() + walkIns);
+            ServiceBreakdownDto service = service(breakdowns.get(row.custId()), row.serviceId(), row.serviceName());
+            service.setAppointmentCount(service.getAppointmentCount() + appointments);
+            service.setWalkInCount(service.getWalkInCount() + walkIns);
+        }
+
+        for (ClientServiceBills row : billServiceRows) {
+            Map<Object, ServiceBreakdownDto> breakdown = breakdowns.get(row.custId());
+            if (breakdown == null) {
+                continue;
+            }
+            ServiceBreakdownDto service = service(breakdown, row.serviceId(), row.serviceName());
+            service.setBillCount(service.getBillCount() + toInt(row.bills()));
+            service.setRevenue(service.getRevenue().add(orZero(row.revenue())));
+        }
+
+        List<BusinessDetailsDto> result = new ArrayList<>(clients.size());
+        for (Client client : clients) {
+            BusinessDetailsDto business = new BusinessDetailsDto(
+                    client.getCustId(), client.getBusinessName(), client.getBusinessType());
+            business.setContactPerson(client.getContactPerson());
+            business.setPhone(client.getPhone());
+            business.setEmail(client.getEmail());
+            business.setLastVisit(client.getLastVisitDate() != null ? client.getLastVisitDate().toLocalDate() : null);
+
+            DailyJobStatsDto dailyStats = stats.get(client.getCustId());
+            dailyStats.setServiceBreakdown(new ArrayList<>(breakdowns.get(client.getCustId()).values()));
+            business.setDailyStats(dailyStats);
+            result.add(business);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the breakdown entry of a service, keyed by service ID or by name when the ID is missing.
+     */
+    private static ServiceBreakdownDto service(Map<Object, ServiceBreakdownDto> breakdown,
+                                               Long serviceId, String serviceName) {
+        Object key = serviceId != null ? serviceId : serviceName;
+        return breakdown.computeIfAbsent(key, k -> new ServiceBreakdownDto(serviceName, 0, 0, 0, BigDecimal.ZERO));
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static int toInt(Long value) {
+        return value != null ? value.intValue() : 0;
+    }
+}
@@ -0,0 +1,136 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
+import com.qtick.mis.event.DashboardDataChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory cache of dashboard summaries keyed by tenant and date range.
+ * Ranges that ended before the tenant's today rarely change and are kept for
+ * a long TTL, so back-dated writes made by other applications are picked up
+ * eventually; ranges that include today expire after a short TTL. Each entry
+ * records the freshness bound it was computed under, and a request requiring
+ * data newer than that bound recomputes instead of reading the entry. Entries
+ * are copied in and out so callers may mutate the returned summary.
+ */
+@Component
+public class ClosedPeriodSummaryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClosedPeriodSummaryCache.class);
+
+    private final Clock clock;
+    private final Duration openTtl;
+    private final Duration closedTtl;
+    private final Map<Key, Entry> entries;
+
+    @Autowired
+    public ClosedPeriodSummaryCache(@Value("${app.dashboard.summary-cache.open-ttl:60s}") Duration openTtl,
+                                    @Value("${app.dashboard.summary-cache.closed-ttl:1h}") Duration closedTtl,
+                                    @Value("${app.dashboard.summary-cache.max-entries:10000}") int maxEntries) {
+        this(Clock.systemUTC(), openTtl, closedTtl, maxEntries);
+    }
+
+    ClosedPeriodSummaryCache(Clock clock, Duration openTtl, Duration closedTtl, int maxEntries) {
+        this.clock = clock;
+        this.openTtl = openTtl;
+        this.closedTtl = closedTtl;
+        // Access-ordered map evicting the least recently used entry beyond the bound
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets a cached summary.
+     *
+     * @param bizId the business ID
+     * @param startDate first day of the range
+     * @param endDate last day of the range
+     * @param requiredSince the earliest data change the summary must reflect, or {@code null} to accept any
+     * @return a copy of the cached summary, or {@code null} when absent, expired or older than required
+     */
+    public DashboardSummaryDto get(Long bizId, LocalDate startDate, LocalDate endDate, Instant requiredSince) {
+        Key key = new Key(bizId, startDate, endDate);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (!clock.instant().isBefore(entry.expiresAt())) {
+                entries.remove(key);
+                return null;
+            }
+            if (requiredSince != null && (entry.freshSince() == null || entry.freshSince().isBefore(requiredSince))) {
+                return null;
+            }
+            return copy(entry.summary());
+        }
+    }
+
+    /**
+     * Caches the KPIs of a summary. Ranges ending before today in the given zone use the closed-period TTL.
+     *
+     * @param bizId the business ID
+     * @param startDate first day of the range
+     * @param endDate last day of the range
+     * @param zone the tenant's timezone
+     * @param freshSince the freshness bound the summary was computed under, or {@code null} if none
+     * @param summary the summary to cache
+     */
+    public void put(Long bizId, LocalDate startDate, LocalDate endDate, ZoneId zone, Instant freshSince,
+                    DashboardSummaryDto summary) {
+        boolean closed = endDate.isBefore(LocalDate.now(clock.withZone(zone)));
+        Instant expiresAt = clock.instant().plus(closed ? closedTtl : openTtl);
+        synchronized (entries) {
+            entries.put(new Key(bizId, startDate, endDate), new Entry(copy(summary), expiresAt, freshSince));
+        }
+    }
+
+    /**
+     * Removes every cached range of a business that contains the given date.
+     *
+     * @param bizId the business ID
+     * @param date the changed date, or {@code null} to remove all ranges of the business
+     */
+    public void invalidate(Long bizId, LocalDate date) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.bizId().equals(bizId)
+                    && (date == null || (!date.isBefore(key.startDate()) && !date.isAfter(key.endDate()))));
+        }
+    }
+
+    @EventListener
+    public void onDashboardDataChanged(DashboardDataChangedEvent event) {
+        logger.debug("Invalidating cached summaries for bizId: {}, date: {}", event.bizId(), event.date());
+        invalidate(event.bizId(), event.date());
+    }
+
+    private static DashboardSummaryDto copy(DashboardSummaryDto summary) {
+        return new DashboardSummaryDto(summary.getGrossSales(), summary.getNetSales(), summary.getBills(),
+                                     summary.getAvgBill(), summary.getNewLeads(), summary.getTotalLeads(),
+                                     summary.getMissedLeads(), summary.getAppointments(),
+                                     summary.getReturningCustomers());
+    }
+
+    private record Key(Long bizId, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private record Entry(DashboardSummaryDto summary, Instant expiresAt, Instant freshSince) {
+    }
+}
@@ -0,0 +1,279 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.datasource.ReplicaReadContextHolder;
+import com.qtick.mis.dto.dashboard.TrendDataDto;
+import com.qtick.mis.dto.dashboard.WidgetResultDto;
+import com.qtick.mis.dto.dashboard.WidgetSpecDto;
+import com.qtick.mis.exception.DashboardTimeoutException;
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Computes the widgets of a dashboard page in one request. Widgets run
+ * concurrently on virtual threads as the caller's tenant and with the caller's
+ * replica read marker, through the same {@link RequestCoalescer} operations as
+ * the single-widget endpoints. Identical widgets are computed once, and trend
+ * widgets over the same range and period share one aggregation of all their
+ * metrics. Each computation has its own timeout; a failing or late widget is
+ * reported in its own result without failing the others, and computations are
+ * only cancelled once every widget sharing them has been answered.
+ */
+@Service
+public class DashboardBatchService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardBatchService.class);
+
+    public static final String SUMMARY = "summary";
+    public static final String TRENDS = "trends";
+    public static final String TOP_SERVICES = "top-services";
+    public static final String TOP_STAFF = "top-staff";
+    public static final String BUSINESS_VIEW_COUNT = "business-view-count";
+
+    static final String DEFAULT_SORT_BY = "revenue";
+    static final int DEFAULT_LIMIT = 5;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Value("${app.dashboard.batch.timeout:10s}")
+    private Duration timeout;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Computes every widget as the current tenant.
+     *
+     * @param widgets the widgets to compute
+     * @return one result per widget, in request order
+     */
+    public List<WidgetResultDto> execute(List<WidgetSpecDto> widgets) {
+        TenantContext context = TenantContextHolder.getContext();
+        boolean replicaReads = ReplicaReadContextHolder.isEnabled();
+        Map<List<Object>, Set<String>> trendMetrics = collectTrendMetrics(widgets);
+
+        // Start every distinct computation before waiting for any
+        Map<List<Object>, Computation> computations = new HashMap<>();
+        List<Object> pending = new ArrayList<>(widgets.size());
+        for (WidgetSpecDto widget : widgets) {
+            try {
+                Widget planned = plan(widget, trendMetrics);
+                Computation computation = computations.computeIfAbsent(planned.key(),
+                        key -> new Computation(executor.submit(asCaller(context, replicaReads, planned.computation())),
+                                               System.nanoTime() + timeout.toNanos()));
+                pending.add(new Pending(computation, planned.extract()));
+            } catch (IllegalArgumentException e) {
+                pending.add(e);
+            }
+        }
+
+        List<WidgetResultDto> results = new ArrayList<>(widgets.size());
+        for (int i = 0; i < widgets.size(); i++) {
+            results.add(await(widgets.get(i), pending.get(i)));
+        }
+
+        // Every widget has been answered, so late computations are no longer needed by anyone
+        computations.values().forEach(computation -> computation.future().cancel(true));
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Groups the metrics of trend widgets by range and period.
+     */
+    private static Map<List<Object>, Set<String>> collectTrendMetrics(List<WidgetSpecDto> widgets) {
+        Map<List<Object>, Set<String>> metrics = new HashMap<>();
+        for (WidgetSpecDto widget : widgets) {
+            if (TRENDS.equals(widget.getType()) && widget.getMetrics() != null && widget.getPeriod() != null) {
+                for (String metric : widget.getMetrics()) {
+                    try {
+                        metrics.computeIfAbsent(trendKey(widget), key -> new LinkedHashSet<>())
+                               .add(TrendMetric.fromName(metric).getMetricName());
+                    } catch (IllegalArgumentException e) {
+                        // Reported against the widget when it is planned
+                    }
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Resolves a widget to the computation it needs and how its result is taken from it.
+     *
+     * @throws IllegalArgumentException if the widget is malformed
+     */
+    private Widget plan(WidgetSpecDto widget, Map<List<Object>, Set<String>> trendMetrics) {
+        String type = widget.getType();
+        if (type == null || widget.getStartDate() == null || widget.getEndDate() == null) {
+            throw new IllegalArgumentException("Widget type, startDate and endDate are required");
+        }
+        String sortBy = widget.getSortBy() != null ? widget.getSortBy() : DEFAULT_SORT_BY;
+        Integer limit = widget.getLimit() != null ? widget.getLimit() : DEFAULT_LIMIT;
+
+        return switch (type) {
+            case SUMMARY -> planSummary(widget);
+            case TRENDS -> planTrends(widget, trendMetrics);
+            case TOP_SERVICES -> new Widget(
+                    List.of(TOP_SERVICES, widget.getStartDate(), widget.getEndDate(), sortBy, limit),
+                    () -> requestCoalescer.execute("topServices",
+                            () -> dashboardService.getTopServices(widget.getStartDate(), widget.getEndDate(), sortBy, limit),
+                            widget.getStartDate(), widget.getEndDate(), sortBy, limit),
+                    Function.identity());
+            case TOP_STAFF -> new Widget(
+                    List.of(TOP_STAFF, widget.getStartDate(), widget.getEndDate(), sortBy, limit),
+                    () -> requestCoalescer.execute("topStaff",
+                            () -> dashboardService.getTopStaff(widget.getStartDate(), widget.getEndDate(), sortBy, limit),
+                            widget.getStartDate(), widget.getEndDate(), sortBy, limit),
+                    Function.identity());
+            case BUSINESS_VIEW_COUNT -> new Widget(
+                    List.of(BUSINESS_VIEW_COUNT, widget.getStartDate(), widget.getEndDate()),
+                    () -> requestCoalescer.execute("businessViewCount",
+                            () -> dashboardService.getBusinessViewCount(widget.getStartDate(), widget.getEndDate()),
+                            widget.getStartDate(), widget.getEndDate()),
+                    Function.identity());
+            default -> throw new IllegalArgumentException("Unsupported widget type: " + type);
+        };
+    }
+
+    private Widget planSummary(WidgetSpecDto widget) {
+        Set<SummaryField> fields = SummaryField.parse(widget.getFields());
+        return new Widget(
+                List.of(SUMMARY, widget.getStartDate(), widget.getEndDate(),
+                        String.valueOf(widget.getComparisonStartDate()), String.valueOf(widget.getComparisonEndDate()),
+                        fields),
+                () -> requestCoalescer.execute("summary",
+                        () -> dashboardService.getSummary(widget.getStartDate(), widget.getEndDate(),
+                                                          widget.getComparisonStartDate(), widget.getComparisonEndDate(),
+                                                          fields),
+                        widget.getStartDate(), widget.getEndDate(),
+                        widget.getComparisonStartDate(), widget.getComparisonEndDate(), fields),
+                Function.identity());
+    }
+
+    /**
+     * Plans a trend widget as its share of the aggregation of all trend metrics over its range and period.
+     */
+    private Widget planTrends(WidgetSpecDto widget, Map<List<Object>, Set<String>> trendMetrics) {
+        if (widget.getMetrics() == null || widget.getMetrics().isEmpty() || widget.getPeriod() == null) {
+            throw new IllegalArgumentException("Trend widgets require metrics and period");
+        }
+        Set<String> own = new LinkedHashSet<>();
+        for (String metric : widget.getMetrics()) {
+            own.add(TrendMetric.fromName(metric).getMetricName());
+        }
+        List<Object> key = trendKey(widget);
+        List<String> metrics = List.copyOf(trendMetrics.get(key));
+        return new Widget(key,
+                () -> requestCoalescer.execute("trends",
+                        () -> dashboardService.getTrends(metrics, widget.getStartDate(), widget.getEndDate(), widget.getPeriod()),
+                        metrics, widget.getStartDate(), widget.getEndDate(), widget.getPeriod()),
+                shared -> ((List<?>) shared).stream()
+                        .filter(point -> own.contains(((TrendDataDto) point).getMetric()))
+                        .toList());
+    }
+
+    private static List<Object> trendKey(WidgetSpecDto widget) {
+        return List.of(TRENDS, widget.getStartDate(), widget.getEndDate(), widget.getPeriod());
+    }
+
+    /**
+     * Waits for a widget's computation until its timeout. A late computation is left
+     * running, since identical widgets later in the request may share it.
+     */
+    private WidgetResultDto await(WidgetSpecDto widget, Object pending) {
+        if (pending instanceof IllegalArgumentException e) {
+            return failure(widget, 400, e.getMessage());
+        }
+        Pending waiting = (Pending) pending;
+        Computation computation = waiting.computation();
+        try {
+            Object result = computation.future().get(
+                    Math.max(0, computation.deadlineNanos() - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return new WidgetResultDto(widget.getId(), widget.getType(), 200, waiting.extract().apply(result), null);
+        } catch (TimeoutException e) {
+            return failure(widget, 504, "Widget did not complete before the request deadline");
+        } catch (CancellationException e) {
+            return failure(widget, 503, "Widget was cancelled");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failure(widget, 503, "Widget was interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IllegalArgumentException) {
+                return failure(widget, 400, cause.getMessage());
+            }
+            if (cause instanceof DashboardTimeoutException) {
+                return failure(widget, 504, cause.getMessage());
+            }
+            logger.error("Dashboard widget {} of type {} failed", widget.getId(), widget.getType(), cause);
+            return failure(widget, 500, "Widget failed");
+        }
+    }
+
+    private static WidgetResultDto failure(WidgetSpecDto widget, int status, String error) {
+        return new WidgetResultDto(widget.getId(), widget.getType(), status, null, error);
+    }
+
+    /**
+     * Runs a computation with the caller's tenant context and replica read marker, which are thread-bound.
+     */
+    private static Callable<Object> asCaller(TenantContext context, boolean replicaReads, Callable<Object> computation) {
+        return () -> {
+            TenantContextHolder.setContext(context);
+            if (replicaReads) {
+                ReplicaReadContextHolder.enable();
+            }
+            try {
+                return computation.call();
+            } finally {
+                TenantContextHolder.clearContext();
+                ReplicaReadContextHolder.clear();
+            }
+        };
+    }
+
+    /**
+     * A widget resolved to a computation, identified by key so identical ones are shared.
+     */
+    private record Widget(List<Object> key, Callable<Object> computation, Function<Object, Object> extract) {
+    }
+
+    /**
+     * A started computation and the time by which the widgets sharing it give up on it.
+     */
+    private record Computation(Future<Object> future, long deadlineNanos) {
+    }
+
+    private record Pending(Computation computation, Function<Object, Object> extract) {
+    }
+}
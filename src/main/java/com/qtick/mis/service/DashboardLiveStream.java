@@ -0,0 +1,345 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.datasource.ReplicaReadContextHolder;
+import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
+import com.qtick.mis.event.DashboardDataChangedEvent;
+import com.qtick.mis.repository.projection.DailyKpis;
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes today's dashboard summary to subscribed clients over Server-Sent Events.
+ * Each tenant with subscribers keeps running counters for its current day,
+ * refreshed once per committed bill, appointment or enquiry change and on every
+ * heartbeat. A heartbeat refresh requires the day's buckets to be newer than
+ * the day's watermark, so writes made through other instances or services
+ * show up within one heartbeat rather than when the cached buckets expire. Each
+ * refresh is fanned out to all subscribers of the tenant: the first event is
+ * the full summary, later events carry only the KPIs that changed. A slow
+ * subscriber holds at most one pending summary, so intermediate updates are
+ * coalesced rather than queued. All sending runs on virtual threads; refreshes
+ * carry the replica read marker of the request that opened the tenant's stream.
+ */
+@Component
+public class DashboardLiveStream implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardLiveStream.class);
+
+    static final String SUMMARY_EVENT = "summary";
+    static final String DELTA_EVENT = "delta";
+
+    /**
+     * KPIs kept live; returning customers is a distinct count and is left to the summary endpoint.
+     */
+    static final Set<SummaryField> LIVE_FIELDS = EnumSet.complementOf(EnumSet.of(SummaryField.RETURNING_CUSTOMERS));
+
+    private static final Set<SummaryField.Source> LIVE_SOURCES = SummaryField.sourcesOf(LIVE_FIELDS);
+
+    @Autowired
+    private DayBucketCache dayBucketCache;
+
+    @Autowired
+    private DashboardWatermarkService watermarkService;
+
+    @Value("${app.dashboard.stream.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${app.dashboard.stream.reconnect-delay:PT5S}")
+    private Duration reconnectDelay;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentMap<Long, TenantStream> tenants = new ConcurrentHashMap<>();
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * Subscribes the current tenant to live updates of today's summary.
+     *
+     * @return the emitter streaming the updates
+     */
+    public SseEmitter subscribe() {
+        TenantContext context = TenantContextHolder.getContext();
+        Long bizId = context.getBizId();
+        ZoneId zone = zoneOf(context.getTimezone());
+        boolean replicaReads = ReplicaReadContextHolder.isEnabled();
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(bizId, emitter);
+        TenantStream tenant = tenants.compute(bizId, (id, existing) -> {
+            TenantStream stream = existing != null ? existing : new TenantStream(id, zone, replicaReads);
+            stream.subscribers.add(subscriber);
+            return stream;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        logger.debug("Live dashboard subscriber added for bizId: {}, subscribers: {}",
+                     bizId, tenant.subscribers.size());
+
+        DashboardSummaryDto current = tenant.current;
+        if (current != null && current.getPeriodStart().equals(tenant.today())) {
+            subscriber.offer(current);
+        } else {
+            tenant.requestRefresh(null);
+        }
+        return emitter;
+    }
+
+    /**
+     * Refreshes the counters of a tenant with subscribers when today's data changed.
+     */
+    @EventListener
+    public void onDashboardDataChanged(DashboardDataChangedEvent event) {
+        TenantStream tenant = tenants.get(event.bizId());
+        if (tenant == null || (event.date() != null && !event.date().equals(tenant.today()))) {
+            return;
+        }
+        // Buckets loaded before the write committed are stale
+        tenant.requestRefresh(clock.instant());
+    }
+
+    /**
+     * Keeps connections open through proxies and catches up with day rollover
+     * and with writes made through other instances.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        for (TenantStream tenant : tenants.values()) {
+            tenant.requestCatchUp();
+            tenant.subscribers.forEach(Subscriber::heartbeat);
+        }
+    }
+
+    /**
+     * Gets the number of tenants with at least one subscriber.
+     */
+    public int getTenantCount() {
+        return tenants.size();
+    }
+
+    @Override
+    public void destroy() {
+        tenants.values().forEach(tenant -> tenant.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        executor.shutdownNow();
+    }
+
+    /**
+     * Computes the event to send after {@code previous}: the full summary for a new
+     * day, only the changed KPIs otherwise, or {@code null} when nothing changed.
+     */
+    static DashboardSummaryDto delta(DashboardSummaryDto previous, DashboardSummaryDto next) {
+        DashboardSummaryDto delta = copy(next);
+        boolean sameDay = previous != null && next.getPeriodStart().equals(previous.getPeriodStart());
+        boolean changed = !sameDay;
+        for (SummaryField field : SummaryField.values()) {
+            if (!LIVE_FIELDS.contains(field)
+                    || (sameDay && field.valueOf(next).compareTo(field.valueOf(previous)) == 0)) {
+                field.clear(delta);
+            } else {
+                changed = true;
+            }
+        }
+        return changed ? delta : null;
+    }
+
+    private static DashboardSummaryDto copy(DashboardSummaryDto summary) {
+        DashboardSummaryDto copy = new DashboardSummaryDto(summary.getGrossSales(), summary.getNetSales(),
+                summary.getBills(), summary.getAvgBill(), summary.getNewLeads(), summary.getTotalLeads(),
+                summary.getMissedLeads(), summary.getAppointments(), summary.getReturningCustomers());
+        copy.setPeriodStart(summary.getPeriodStart());
+        copy.setPeriodEnd(summary.getPeriodEnd());
+        return copy;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        tenants.computeIfPresent(subscriber.bizId, (id, stream) -> {
+            stream.subscribers.remove(subscriber);
+            return stream.subscribers.isEmpty() ? null : stream;
+        });
+    }
+
+    private static ZoneId zoneOf(String timezone) {
+        try {
+            return timezone != null ? ZoneId.of(timezone) : ZoneId.systemDefault();
+        } catch (DateTimeException e) {
+            return ZoneId.systemDefault();
+        }
+    }
+
+    /**
+     * Running counters of one tenant's current day and its subscribers.
+     * Refresh requests arriving while a refresh runs are folded into one more run.
+     */
+    private final class TenantStream {
+
+        private final Long bizId;
+        private final ZoneId zone;
+        private final boolean replicaReads;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final AtomicReference<Instant> requiredSince = new AtomicReference<>();
+        private volatile boolean catchUp;
+        private volatile boolean dirty;
+        private volatile DashboardSummaryDto current;
+
+        TenantStream(Long bizId, ZoneId zone, boolean replicaReads) {
+            this.bizId = bizId;
+            this.zone = zone;
+            this.replicaReads = replicaReads;
+        }
+
+        LocalDate today() {
+            return LocalDate.now(clock.withZone(zone));
+        }
+
+        /**
+         * Requests a refresh that first reads the day's watermark, which is done on the refresh thread.
+         */
+        void requestCatchUp() {
+            catchUp = true;
+            requestRefresh(null);
+        }
+
+        void requestRefresh(Instant since) {
+            if (since != null) {
+                requireSince(since);
+            }
+            dirty = true;
+            if (refreshing.compareAndSet(false, true)) {
+                executor.execute(this::refresh);
+            }
+        }
+
+        private void refresh() {
+            if (replicaReads) {
+                ReplicaReadContextHolder.enable();
+            }
+            try {
+                while (dirty) {
+                    dirty = false;
+                    LocalDate today = today();
+                    if (catchUp) {
+                        catchUp = false;
+                        Instant changed = watermarkService.requiredSince(bizId, today, today);
+                        if (changed != null) {
+                            requireSince(changed);
+                        }
+                    }
+                    DailyKpis kpis = dayBucketCache.sum(bizId, today, today, requiredSince.get(), LIVE_SOURCES);
+                    DashboardSummaryDto summary = DashboardService.summaryOf(kpis, 0);
+                    summary.setPeriodStart(today);
+                    summary.setPeriodEnd(today);
+                    current = summary;
+                    subscribers.forEach(subscriber -> subscriber.offer(summary));
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to refresh live dashboard for bizId: {}", bizId, e);
+            } finally {
+                ReplicaReadContextHolder.clear();
+                refreshing.set(false);
+                if (dirty && refreshing.compareAndSet(false, true)) {
+                    executor.execute(this::refresh);
+                }
+            }
+        }
+
+        private void requireSince(Instant since) {
+            requiredSince.accumulateAndGet(since, (a, b) -> a == null || b.isAfter(a) ? b : a);
+        }
+    }
+
+    /**
+     * One connection. Only the latest summary is kept pending, and the next event
+     * is computed against the last one actually sent.
+     */
+    private final class Subscriber {
+
+        private final Long bizId;
+        private final SseEmitter emitter;
+        private final AtomicReference<DashboardSummaryDto> pending = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        private DashboardSummaryDto lastSent;
+
+        Subscriber(Long bizId, SseEmitter emitter) {
+            this.bizId = bizId;
+            this.emitter = emitter;
+        }
+
+        void offer(DashboardSummaryDto summary) {
+            pending.set(summary);
+            schedule();
+        }
+
+        void heartbeat() {
+            heartbeatDue = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                executor.execute(this::send);
+            }
+        }
+
+        private void send() {
+            try {
+                DashboardSummaryDto next;
+                while ((next = pending.getAndSet(null)) != null || heartbeatDue) {
+                    boolean beat = heartbeatDue;
+                    heartbeatDue = false;
+                    DashboardSummaryDto event = next != null ? delta(lastSent, next) : null;
+                    if (event != null) {
+                        boolean full = lastSent == null || !next.getPeriodStart().equals(lastSent.getPeriodStart());
+                        SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                                .name(full ? SUMMARY_EVENT : DELTA_EVENT)
+                                .data(event);
+                        if (lastSent == null) {
+                            builder.reconnectTime(reconnectDelay.toMillis());
+                        }
+                        emitter.send(builder);
+                        lastSent = next;
+                    } else if (beat) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away
+                logger.debug("Live dashboard subscriber disconnected: {}", e.getMessage());
+                unsubscribe(this);
+                emitter.completeWithError(e);
+                pending.set(null);
+                heartbeatDue = false;
+            } finally {
+                sending.set(false);
+                if ((pending.get() != null || heartbeatDue) && sending.compareAndSet(false, true)) {
+                    executor.execute(this::send);
+                }
+            }
+        }
+    }
+}
@@ -1,36 +1,59 @@
 package com.qtick.mis.service;
 
+import com.qtick.mis.cache.CacheFreshness;
+import com.qtick.mis.config.CacheConfig;
 import com.qtick.mis.dto.dashboard.BusinessDetailsDto;
-import com.qtick.mis.dto.dashboard.DailyJobStatsDto;
 import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
 import com.qtick.mis.dto.dashboard.BusinessViewCountDto;
-import com.qtick.mis.dto.dashboard.ServiceBreakdownDto;
 import com.qtick.mis.dto.dashboard.TopServiceDto;
 import com.qtick.mis.dto.dashboard.TopStaffDto;
 import com.qtick.mis.dto.dashboard.TrendDataDto;
-import com.qtick.mis.document.DashboardSnapshot;
+import com.qtick.mis.entity.Client;
+import com.qtick.mis.exception.InvalidCursorException;
 import com.qtick.mis.mapper.DashboardMapper;
+import com.qtick.mis.repository.KeysetCursor;
 import com.qtick.mis.repository.jpa.AppointmentRepository;
 import com.qtick.mis.repository.jpa.BillRepository;
 import com.qtick.mis.repository.jpa.ClientRepository;
 import com.qtick.mis.repository.jpa.EnquiryRepository;
 import com.qtick.mis.repository.jpa.DayQReportRepository;
+import com.qtick.mis.repository.jpa.ServiceDailyRevenueRepository;
 import com.qtick.mis.repository.mongo.DashboardSnapshotRepository;
+import com.qtick.mis.repository.mongo.TrendGranularity;
+import com.qtick.mis.repository.projection.DailyKpis;
+import com.qtick.mis.repository.projection.QueueStats;
+import com.qtick.mis.repository.projection.TopServiceRow;
+import com.qtick.mis.repository.projection.TrendBucket;
 import com.qtick.mis.security.TenantContext;
 import com.qtick.mis.security.TenantContextHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.DateTimeException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
 
 @Service
 public class DashboardService {
@@ -63,42 +86,103 @@ public class DashboardService {
 
     @Autowired
     private DayQReportRepository dayQReportRepository;
+
+    @Autowired
+    private KpiExecutor kpiExecutor;
+
+    @Autowired
+    private SnapshotComposer snapshotComposer;
+
+    @Autowired
+    private ClosedPeriodSummaryCache summaryCache;
+    
+    @Autowired
+    private BusinessDetailsAssembler businessDetailsAssembler;
+    
+    @Autowired
+    private ServiceDailyRevenueRepository serviceDailyRevenueRepository;
+    
+    @Autowired
+    private StaffLeaderboardService staffLeaderboardService;
+    
+    @Autowired
+    private PeriodRangeDecomposer periodRangeDecomposer;
+    
+    @Autowired
+    private DayQReportRollup dayQReportRollup;
+    
+    @Autowired
+    private DayBucketCache dayBucketCache;
     
     /**
-     * Get dashboard summary with KPI calculations and comparison logic
+     * Get dashboard summary with KPI calculations and comparison logic.
+     * Live KPIs are summed from per-day buckets rather than cached per range,
+     * so a change to one day does not invalidate every range containing it.
      */
     public DashboardSummaryDto getSummary(LocalDate startDate, LocalDate endDate,
                                          LocalDate comparisonStartDate, LocalDate comparisonEndDate) {
+        return getSummary(startDate, endDate, comparisonStartDate, comparisonEndDate, SummaryField.ALL);
+    }
+    
+    /**
+     * Get the selected KPIs of the dashboard summary and their comparison deltas.
+     * Only the tables behind the selected KPIs are queried; unselected KPIs and
+     * deltas are left null so they are omitted from the response.
+     */
+    public DashboardSummaryDto getSummary(LocalDate startDate, LocalDate endDate,
+                                         LocalDate comparisonStartDate, LocalDate comparisonEndDate,
+                                         Set<SummaryField> fields) {
         if (useMockData) {
-            return mockDashboardService.getSummary(startDate, endDate, comparisonStartDate, comparisonEndDate);
+            DashboardSummaryDto summary = mockDashboardService.getSummary(
+                startDate, endDate, comparisonStartDate, comparisonEndDate);
+            retainFields(summary, fields);
+            return summary;
         }
         TenantContext context = TenantContextHolder.getContext();
         Long bizId = context.getBizId();
         
-        logger.info("Getting dashboard summary for bizId: {}, period: {} to {}", 
-                   bizId, startDate, endDate);
+        logger.info("Getting dashboard summary for bizId: {}, period: {} to {}, fields: {}", 
+                   bizId, startDate, endDate, fields.size() == SummaryField.ALL.size() ? "all" : fields);
+        
+        ZoneId zone = resolveZone(context);
+        // Cached summaries older than the response's data watermark must not be served under its ETag
+        Instant requiredSince = CacheFreshness.requiredSince();
+        Set<SummaryField.Source> sources = SummaryField.sourcesOf(fields);
+        // Only complete summaries are cached per range
+        boolean complete = fields.containsAll(SummaryField.ALL);
+        
+        // Start the comparison period queries first so they overlap with the current period.
+        // Comparison periods are nearly always closed, so they are usually served from cache.
+        KpiExecutor.Batch batch = kpiExecutor.newBatch();
+        DashboardSummaryDto comparison = null;
+        PendingSummary pendingComparison = null;
+        if (comparisonStartDate != null && comparisonEndDate != null) {
+            comparison = summaryCache.get(bizId, comparisonStartDate, comparisonEndDate, requiredSince);
+            if (comparison == null) {
+                pendingComparison = submitSummaryQueries(batch, bizId, comparisonStartDate, comparisonEndDate, sources);
+            }
+        }
         
-        // Try to get from snapshot first
-        Optional<DashboardSnapshot> snapshot = snapshotRepository
-            .findByBizIdAndSnapshotDateBetween(bizId, startDate, endDate)
-            .stream()
-            .findFirst();
+        DashboardSummaryDto summary = summaryCache.get(bizId, startDate, endDate, requiredSince);
+        if (summary == null) {
+            summary = computeSummary(batch, bizId, startDate, endDate, sources);
+            if (complete) {
+                summaryCache.put(bizId, startDate, endDate, zone, requiredSince, summary);
+            }
+        }
         
-        DashboardSummaryDto summary;
-        if (snapshot.isPresent()) {
-            logger.debug("Using cached snapshot for dashboard summary");
-            summary = dashboardMapper.toSummaryDto(snapshot.get());
-        } else {
-            logger.debug("Computing dashboard summary on-the-fly");
-            summary = computeSummaryFromDatabase(bizId, startDate, endDate);
+        if (pendingComparison != null) {
+            comparison = pendingComparison.join();
+            if (complete) {
+                summaryCache.put(bizId, comparisonStartDate, comparisonEndDate, zone, requiredSince, comparison);
+            }
         }
         
         // Calculate comparison deltas if comparison period provided
-        if (comparisonStartDate != null && comparisonEndDate != null) {
-            DashboardSummaryDto comparisonSummary = computeSummaryFromDatabase(
-                bizId, comparisonStartDate, comparisonEndDate);
-            calculateDeltas(summary, comparisonSummary);
+        if (comparison != null) {
+            calculateDeltas(summary, comparison, fields);
         }
+        retainFields(summary, fields);
         
         summary.setPeriodStart(startDate);
         summary.setPeriodEnd(endDate);
@@ -107,59 +191,40 @@ public class DashboardService {
     }
     
     /**
-     * Get trend data with time series data aggregation
+     * Get trend series for one or more metrics, bucketed by day, ISO week or calendar month.
+     * All metrics are summed from the daily snapshots in a single aggregation; buckets
+     * without snapshots are reported as zero so every series has the same dates.
      */
-    public List<TrendDataDto> getTrends(String metric, LocalDate startDate, LocalDate endDate, String period) {
+    @Cacheable(cacheNames = CacheConfig.TRENDS, keyGenerator = "tenantKeyGenerator", sync = true)
+    public List<TrendDataDto> getTrends(List<String> metrics, LocalDate startDate, LocalDate endDate, String period) {
         if (useMockData) {
-            return mockDashboardService.getTrends(metric, startDate, endDate, period);
+            return mockDashboardService.getTrends(String.join(",", metrics), startDate, endDate, period);
         }
         TenantContext context = TenantContextHolder.getContext();
         Long bizId = context.getBizId();
         
-        logger.info("Getting trends for metric: {}, bizId: {}, period: {}", metric, bizId, period);
+        logger.info("Getting trends for metrics: {}, bizId: {}, period: {}", metrics, bizId, period);
         
-        List<DashboardSnapshot> snapshots = snapshotRepository
-            .findByBizIdAndSnapshotDateBetweenOrderBySnapshotDateAsc(bizId, startDate, endDate);
+        TrendGranularity granularity = TrendGranularity.fromPeriod(period);
+        List<TrendMetric> trendMetrics = metrics.stream()
+            .map(TrendMetric::fromName)
+            .distinct()
+            .toList();
+        Set<String> fields = new LinkedHashSet<>();
+        trendMetrics.forEach(metric -> fields.addAll(metric.getSourceFields()));
         
-        List<TrendDataDto> trends = new ArrayList<>();
+        Map<LocalDate, Map<String, BigDecimal>> totalsByBucket = new HashMap<>();
+        for (TrendBucket bucket : snapshotRepository.aggregateTrends(bizId, startDate, endDate, granularity, fields)) {
+            totalsByBucket.put(bucket.bucketStart(), bucket.totals());
+        }
         
-        for (DashboardSnapshot snapshot : snapshots) {
-            TrendDataDto trend = new TrendDataDto();
-            trend.setDate(snapshot.getSnapshotDate());
-            trend.setMetric(metric);
-            trend.setPeriod(period);
-            
-            // Set value based on metric type
-            switch (metric.toLowerCase()) {
-                case "grosssales":
-                    trend.setValue(snapshot.getGrossSales());
-                    break;
-                case "netsales":
-                    trend.setValue(snapshot.getNetSales());
-                    break;
-                case "bills":
-                    trend.setValue(new BigDecimal(snapshot.getBills()));
-                    break;
-                case "avgbill":
-                    trend.setValue(snapshot.getAvgBill());
-                    break;
-                case "newleads":
-                    trend.setValue(new BigDecimal(snapshot.getNewLeads()));
-                    break;
-                case "totalleads":
-                    trend.setValue(new BigDecimal(snapshot.getTotalLeads()));
-                    break;
-                case "appointments":
-                    trend.setValue(new BigDecimal(snapshot.getAppointments()));
-                    break;
-                case "returningcustomers":
-                    trend.setValue(new BigDecimal(snapshot.getReturningCustomers()));
-                    break;
-                default:
-                    trend.setValue(BigDecimal.ZERO);
+        List<TrendDataDto> trends = new ArrayList<>();
+        for (TrendMetric metric : trendMetrics) {
+            for (LocalDate bucket = granularity.bucketStart(startDate); !bucket.isAfter(endDate);
+                 bucket = granularity.next(bucket)) {
+                BigDecimal value = metric.valueOf(totalsByBucket.getOrDefault(bucket, Map.of()));
+                trends.add(new TrendDataDto(bucket, metric.getMetricName(), value, period));
             }
-            
-            trends.add(trend);
         }
         
         return trends;
@@ -168,6 +233,7 @@ public class DashboardService {
     /**
      * Get top services with ranking algorithms
      */
+    @Cacheable(cacheNames = CacheConfig.TOP_SERVICES, keyGenerator = "tenantKeyGenerator", sync = true)
     public List<TopServiceDto> getTopServices(LocalDate startDate, LocalDate endDate,
                                             String sortBy, Integer limit) {
         if (useMockData) {
@@ -178,22 +244,23 @@ public class DashboardService {
         
         logger.info("Getting top services for bizId: {}, sortBy: {}, limit: {}", bizId, sortBy, limit);
         
-        // Get service performance data from bills
-        List<Object[]> serviceData = billRepository.findTopServicesByRevenue(
-            bizId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), limit);
+        // Ranking and the range total both come from the daily aggregate in one query
+        List<TopServiceRow> serviceData = serviceDailyRevenueRepository.findTopServices(
+            bizId, startDate, endDate, sortBy != null ? sortBy.toLowerCase() : "revenue",
+            limit != null ? limit : 10);
         
         List<TopServiceDto> topServices = new ArrayList<>();
-        BigDecimal totalRevenue = getTotalRevenue(bizId, startDate, endDate);
         
         int rank = 1;
-        for (Object[] data : serviceData) {
+        for (TopServiceRow data : serviceData) {
             TopServiceDto service = new TopServiceDto();
-            service.setServiceId((Long) data[0]);
-            service.setServiceName((String) data[1]);
-            service.setRevenue((BigDecimal) data[2]);
-            service.setJobs(((Number) data[3]).intValue());
+            service.setServiceId(data.getServiceId());
+            service.setServiceName(data.getServiceName());
+            service.setRevenue(orZero(data.getRevenue()));
+            service.setJobs(data.getJobs() != null ? data.getJobs().intValue() : 0);
             
             // Calculate contribution percentage
+            BigDecimal totalRevenue = orZero(data.getTotalRevenue());
             if (totalRevenue.compareTo(BigDecimal.ZERO) > 0) {
                 BigDecimal contribution = service.getRevenue()
                     .divide(totalRevenue, 4, RoundingMode.HALF_UP)
@@ -213,6 +280,7 @@ public class DashboardService {
     /**
      * Get top staff with performance metrics
      */
+    @Cacheable(cacheNames = CacheConfig.TOP_STAFF, keyGenerator = "tenantKeyGenerator", sync = true)
     public List<TopStaffDto> getTopStaff(LocalDate startDate, LocalDate endDate,
                                        String sortBy, Integer limit) {
         if (useMockData) {
@@ -223,20 +291,18 @@ public class DashboardService {
         
         logger.info("Getting top staff for bizId: {}, sortBy: {}, limit: {}", bizId, sortBy, limit);
         
-        // Get staff performance data from appointments and bills
-        List<Object[]> staffData = appointmentRepository.findTopStaffByRevenue(
-            bizId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), limit);
+        List<StaffLeaderboard.StaffScore> scores = staffLeaderboardService.top(
+            bizId, startDate, endDate, sortBy, limit != null ? limit : 10, resolveZone(context));
         
         List<TopStaffDto> topStaff = new ArrayList<>();
         
         int rank = 1;
-        for (Object[] data : staffData) {
+        for (StaffLeaderboard.StaffScore score : scores) {
             TopStaffDto staff = new TopStaffDto();
-            staff.setStaffId((Long) data[0]);
-            staff.setStaffName((String) data[1]);
-            staff.setRevenue((BigDecimal) data[2]);
-            staff.setJobs(((Number) data[3]).intValue());
-            staff.setRating((BigDecimal) data[4]);
+            staff.setStaffId(score.staffId());
+            staff.setStaffName(score.staffName());
+            staff.setRevenue(score.revenue());
+            staff.setJobs(score.jobs());
             staff.setRank(rank++);
             topStaff.add(staff);
         }
@@ -245,43 +311,91 @@ public class DashboardService {
     }
     
     /**
-     * Get business details with daily job statistics
+     * Get business details with daily job statistics for one page of business clients.
+     * The statistics of all clients on the page are loaded with one grouped query per
+     * table, so the number of queries does not grow with the page size.
      */
-    public List<BusinessDetailsDto> getBusinessDetails(String businessType, LocalDate date) {
+    public List<BusinessDetailsDto> getBusinessDetails(String businessType, LocalDate date, Pageable pageable) {
         if (useMockData) {
             return mockDashboardService.getBusinessDetails(businessType, date);
         }
         TenantContext context = TenantContextHolder.getContext();
         Long bizId = context.getBizId();
         
-        logger.info("Getting business details for bizId: {}, businessType: {}, date: {}", 
-                   bizId, businessType, date);
+        logger.info("Getting business details for bizId: {}, businessType: {}, date: {}, page: {}", 
+                   bizId, businessType, date, pageable);
         
-        // Get business clients filtered by business type
-        List<Object[]> businessData = clientRepository.findBusinessClientsByType(bizId, businessType);
+        // The query defines the order; drop any client-supplied sort
+        List<Client> clients = clientRepository.findBusinessClientsByType(
+            bizId, businessType, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        return assembleBusinessDetails(bizId, clients, date);
+    }
+    
+    /**
+     * Get business details with daily job statistics for the business clients after a cursor.
+     * The page is read by seeking past the cursor's last visit and client ID rather than
+     * skipping rows, and no total is counted, so every page costs the same.
+     *
+     * @param cursor the cursor of the previous page, or {@code null} or blank for the first page
+     * @param size the page size
+     * @return the page, positioned for {@link KeysetCursor#next}
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public Window<BusinessDetailsDto> getBusinessDetailsAfter(String businessType, LocalDate date,
+                                                              String cursor, int size) {
+        if (useMockData) {
+            return Window.from(mockDashboardService.getBusinessDetails(businessType, date), ScrollPosition::offset);
+        }
+        TenantContext context = TenantContextHolder.getContext();
+        Long bizId = context.getBizId();
         
-        List<BusinessDetailsDto> businessDetails = new ArrayList<>();
+        logger.info("Getting business details for bizId: {}, businessType: {}, date: {}, after cursor, size: {}", 
+                   bizId, businessType, date, size);
         
-        for (Object[] data : businessData) {
-            BusinessDetailsDto business = new BusinessDetailsDto();
-            business.setCustId((Long) data[0]);
-            business.setBusinessName((String) data[1]);
-            business.setBusinessType((String) data[2]);
-            business.setContactPerson((String) data[3]);
-            business.setPhone((String) data[4]);
-            business.setEmail((String) data[5]);
-            business.setLastVisit((LocalDate) data[6]);
-            
-            // Get daily job statistics for this business
-            DailyJobStatsDto dailyStats = getDailyJobStats(bizId, business.getCustId(), date);
-            business.setDailyStats(dailyStats);
-            
-            businessDetails.add(business);
+        // One extra row tells whether there is a next page
+        Limit limit = Limit.of(size + 1);
+        List<Client> clients;
+        if (cursor == null || cursor.isBlank()) {
+            clients = clientRepository.findBusinessClientsByType(bizId, businessType, PageRequest.of(0, size + 1));
+        } else {
+            Map<String, Object> after = KeysetCursor.decode(cursor);
+            if (!(after.get("custId") instanceof Long custId)) {
+                throw new InvalidCursorException();
+            }
+            clients = after.get("lastVisitDate") instanceof LocalDateTime lastVisitDate
+                ? clientRepository.findBusinessClientsByTypeAfter(bizId, businessType, lastVisitDate, custId, limit)
+                : clientRepository.findNeverVisitedBusinessClientsByTypeAfter(bizId, businessType, custId, limit);
         }
         
-        return businessDetails;
+        boolean hasNext = clients.size() > size;
+        List<Client> page = hasNext ? clients.subList(0, size) : clients;
+        return Window.from(assembleBusinessDetails(bizId, page, date),
+                           index -> ScrollPosition.forward(businessClientKeys(page.get(index))), hasNext);
+    }
+    
+    private static Map<String, Object> businessClientKeys(Client client) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("lastVisitDate", client.getLastVisitDate());
+        keys.put("custId", client.getCustId());
+        return keys;
+    }
+    
+    private List<BusinessDetailsDto> assembleBusinessDetails(Long bizId, List<Client> clients, LocalDate date) {
+        if (clients.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Long> custIds = clients.stream().map(Client::getCustId).toList();
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.plusDays(1).atStartOfDay();
+        
+        return businessDetailsAssembler.assemble(clients, date,
+            billRepository.summarizeByClientsOnDate(bizId, custIds, date),
+            appointmentRepository.findServiceBreakdownByClients(bizId, custIds, start, end),
+            billRepository.findServiceBreakdownByClients(bizId, custIds, date));
     }
 
+    @Cacheable(cacheNames = CacheConfig.BUSINESS_VIEW_COUNT, keyGenerator = "tenantKeyGenerator", sync = true)
     public BusinessViewCountDto getBusinessViewCount(LocalDate startDate, LocalDate endDate) {
         if (useMockData) {
             return mockDashboardService.getBusinessViewCount(startDate, endDate);
@@ -291,85 +405,145 @@ public class DashboardService {
 
         logger.info("Getting business view count for bizId: {}, period: {} to {}", bizId, startDate, endDate);
 
-        int startPeriod = toPeriodId(startDate);
-        int endPeriod = toPeriodId(endDate);
+        // Whole years and months come from rollup rows, so any range reads a few dozen rows
+        List<Integer> dayIds = new ArrayList<>();
+        List<Integer> monthIds = new ArrayList<>();
+        List<Integer> yearIds = new ArrayList<>();
+        for (PeriodRangeDecomposer.PeriodRange range : periodRangeDecomposer.decompose(
+                startDate, endDate, dayQReportRollup.getCoverage())) {
+            switch (range.periodType()) {
+                case PeriodRangeDecomposer.YEAR -> yearIds.addAll(range.periodIds());
+                case PeriodRangeDecomposer.MONTH -> monthIds.addAll(range.periodIds());
+                default -> dayIds.addAll(range.periodIds());
+            }
+        }
 
-        Object[] stats = dayQReportRepository.aggregateStats(bizId, "D", startPeriod, endPeriod);
+        QueueStats stats = dayQReportRepository.sumAcrossPeriods(
+            bizId, orNone(dayIds), orNone(monthIds), orNone(yearIds));
 
         BusinessViewCountDto dto = new BusinessViewCountDto();
         dto.setBizId(bizId);
         dto.setStartDate(startDate);
         dto.setEndDate(endDate);
-
-        if (stats != null) {
-            dto.setServed(((Number) stats[0]).intValue());
-            dto.setSales(stats[1] != null ? ((Number) stats[1]).doubleValue() : 0.0);
-            dto.setNetSales(stats[2] != null ? ((Number) stats[2]).doubleValue() : 0.0);
-            dto.setQueued(((Number) stats[3]).intValue());
-            dto.setMissed(((Number) stats[4]).intValue());
-            dto.setLeftQ(((Number) stats[5]).intValue());
-            dto.setCancelled(((Number) stats[6]).intValue());
-            dto.setViewCount(((Number) stats[7]).intValue());
-        }
+        dto.setServed(stats.served().intValue());
+        dto.setSales(stats.sales());
+        dto.setNetSales(stats.netSales());
+        dto.setQueued(stats.queued().intValue());
+        dto.setMissed(stats.missed().intValue());
+        dto.setLeftQ(stats.leftQ().intValue());
+        dto.setCancelled(stats.cancelled().intValue());
+        dto.setViewCount(stats.viewCount().intValue());
 
         return dto;
     }
 
-    private int toPeriodId(LocalDate date) {
-        return Integer.parseInt(date.format(java.time.format.DateTimeFormatter.BASIC_ISO_DATE));
+    /**
+     * Period IDs for an IN list, which must not be empty; no period has ID -1
+     */
+    private static List<Integer> orNone(List<Integer> periodIds) {
+        return periodIds.isEmpty() ? List.of(-1) : periodIds;
     }
     
     /**
-     * Compute dashboard summary from database when snapshot not available
+     * Compose a summary from precomputed snapshots and compute only the uncovered days live
      */
-    private DashboardSummaryDto computeSummaryFromDatabase(Long bizId, LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
-        
-        // Calculate KPIs from database
-        BigDecimal grossSales = billRepository.sumTotalAmountByBizIdAndDateRange(bizId, start, end);
-        BigDecimal netSales = billRepository.sumPaidAmountByBizIdAndDateRange(bizId, start, end);
-        Integer bills = billRepository.countByBizIdAndDateRange(bizId, start, end);
-        Integer newLeads = enquiryRepository.countNewEnquiriesByBizIdAndDateRange(bizId, start, end);
-        Integer totalLeads = enquiryRepository.countByBizIdAndDateRange(bizId, start, end);
-        Integer missedLeads = enquiryRepository.countMissedEnquiriesByBizIdAndDateRange(bizId, start, end);
-        Integer appointments = appointmentRepository.countByBizIdAndDateRange(bizId, start, end);
-        Integer returningCustomers = clientRepository.countReturningCustomersByBizIdAndDateRange(bizId, start, end);
-        
-        // Calculate average bill
-        BigDecimal avgBill = BigDecimal.ZERO;
-        if (bills > 0 && grossSales != null) {
-            avgBill = grossSales.divide(new BigDecimal(bills), 2, RoundingMode.HALF_UP);
+    private DashboardSummaryDto computeSummary(KpiExecutor.Batch batch, Long bizId,
+                                               LocalDate startDate, LocalDate endDate,
+                                               Set<SummaryField.Source> sources) {
+        SnapshotComposer.Composition composition = snapshotComposer.compose(
+            snapshotRepository.findTenantSnapshotsInRange(bizId, startDate, endDate), startDate, endDate);
+        
+        if (composition.snapshots().isEmpty()) {
+            logger.debug("Computing dashboard summary on-the-fly");
+            return submitSummaryQueries(batch, bizId, startDate, endDate, sources).join();
+        }
+        logger.debug("Composing dashboard summary from {} snapshots and {} live gaps",
+                    composition.snapshots().size(), composition.gaps().size());
+        return composeSummary(batch, bizId, startDate, endDate, composition, sources);
+    }
+    
+    /**
+     * Resolve the tenant's timezone, falling back to the application default
+     */
+    private ZoneId resolveZone(TenantContext context) {
+        try {
+            return ZoneId.of(context.getTimezone());
+        } catch (DateTimeException e) {
+            logger.warn("Invalid timezone '{}' for bizId: {}, using default", context.getTimezone(), context.getBizId());
+            return ZoneId.systemDefault();
+        }
+    }
+    
+    /**
+     * Merge the composed snapshots with live summaries of the uncovered days
+     */
+    private DashboardSummaryDto composeSummary(KpiExecutor.Batch batch, Long bizId,
+                                               LocalDate startDate, LocalDate endDate,
+                                               SnapshotComposer.Composition composition,
+                                               Set<SummaryField.Source> sources) {
+        // Returning customers is a distinct count, so it is always computed over the whole range
+        Future<Integer> returningCustomers = sources.contains(SummaryField.Source.CLIENTS)
+            ? batch.submit("returningCustomers",
+                () -> clientRepository.countReturningCustomersByBizIdAndDateRange(bizId, startDate, endDate))
+            : null;
+        Set<SummaryField.Source> gapSources = EnumSet.copyOf(sources);
+        gapSources.remove(SummaryField.Source.CLIENTS);
+        List<PendingSummary> pendingGaps = composition.gaps().stream()
+            .map(gap -> submitSummaryQueries(batch, bizId, gap.start(), gap.end(), gapSources))
+            .toList();
+        
+        List<DashboardSummaryDto> gaps = pendingGaps.stream()
+            .map(PendingSummary::join)
+            .toList();
+        DashboardSummaryDto summary = snapshotComposer.merge(composition.snapshots(), gaps);
+        Integer returning = returningCustomers != null ? batch.await("returningCustomers", returningCustomers) : null;
+        summary.setReturningCustomers(returning != null ? returning : 0);
+        return summary;
+    }
+    
+    /**
+     * Submit the independent KPI queries of the given tables for a period so they run concurrently
+     */
+    private PendingSummary submitSummaryQueries(KpiExecutor.Batch batch, Long bizId,
+                                                LocalDate startDate, LocalDate endDate,
+                                                Set<SummaryField.Source> sources) {
+        // The freshness bound is request-scoped, so it is read before leaving the request thread
+        Instant requiredSince = CacheFreshness.requiredSince();
+        
+        // One task per table, so each grouped query runs concurrently and is timed on its own
+        Map<String, Future<DailyKpis>> kpis = new LinkedHashMap<>();
+        for (SummaryField.Source source : sources) {
+            if (DayBucketCache.BUCKET_SOURCES.contains(source)) {
+                String kpi = source.name().toLowerCase();
+                kpis.put(kpi, batch.submit(kpi, () -> dayBucketCache.sumSource(bizId, startDate, endDate, requiredSince, source)));
+            }
         }
         
-        // Handle null values
-        grossSales = grossSales != null ? grossSales : BigDecimal.ZERO;
-        netSales = netSales != null ? netSales : BigDecimal.ZERO;
-        bills = bills != null ? bills : 0;
-        newLeads = newLeads != null ? newLeads : 0;
-        totalLeads = totalLeads != null ? totalLeads : 0;
-        missedLeads = missedLeads != null ? missedLeads : 0;
-        appointments = appointments != null ? appointments : 0;
-        returningCustomers = returningCustomers != null ? returningCustomers : 0;
-        
-        return new DashboardSummaryDto(grossSales, netSales, bills, avgBill, 
-                                     newLeads, totalLeads, missedLeads, 
-                                     appointments, returningCustomers);
+        return new PendingSummary(batch, kpis,
+            sources.contains(SummaryField.Source.CLIENTS)
+                ? batch.submit("returningCustomers", () -> clientRepository.countReturningCustomersByBizIdAndDateRange(bizId, startDate, endDate))
+                : null);
     }
     
     /**
-     * Calculate percentage deltas between current and comparison periods
+     * Calculate percentage deltas between current and comparison periods for the selected KPIs
      */
-    private void calculateDeltas(DashboardSummaryDto current, DashboardSummaryDto comparison) {
-        current.setGrossSalesDelta(calculatePercentageDelta(current.getGrossSales(), comparison.getGrossSales()));
-        current.setNetSalesDelta(calculatePercentageDelta(current.getNetSales(), comparison.getNetSales()));
-        current.setBillsDelta(calculatePercentageDelta(new BigDecimal(current.getBills()), new BigDecimal(comparison.getBills())));
-        current.setAvgBillDelta(calculatePercentageDelta(current.getAvgBill(), comparison.getAvgBill()));
-        current.setNewLeadsDelta(calculatePercentageDelta(new BigDecimal(current.getNewLeads()), new BigDecimal(comparison.getNewLeads())));
-        current.setTotalLeadsDelta(calculatePercentageDelta(new BigDecimal(current.getTotalLeads()), new BigDecimal(comparison.getTotalLeads())));
-        current.setMissedLeadsDelta(calculatePercentageDelta(new BigDecimal(current.getMissedLeads()), new BigDecimal(comparison.getMissedLeads())));
-        current.setAppointmentsDelta(calculatePercentageDelta(new BigDecimal(current.getAppointments()), new BigDecimal(comparison.getAppointments())));
-        current.setReturningCustomersDelta(calculatePercentageDelta(new BigDecimal(current.getReturningCustomers()), new BigDecimal(comparison.getReturningCustomers())));
+    private void calculateDeltas(DashboardSummaryDto current, DashboardSummaryDto comparison,
+                                 Set<SummaryField> fields) {
+        for (SummaryField field : fields) {
+            field.setDelta(current, calculatePercentageDelta(field.valueOf(current), field.valueOf(comparison)));
+        }
+    }
+    
+    /**
+     * Clear the KPIs that were not selected, which may hold zeros or cached values
+     */
+    private static void retainFields(DashboardSummaryDto summary, Set<SummaryField> fields) {
+        for (SummaryField field : SummaryField.values()) {
+            if (!fields.contains(field)) {
+                field.clear(summary);
+            }
+        }
     }
     
     /**
@@ -386,57 +560,46 @@ public class DashboardService {
     }
     
     /**
-     * Get total revenue for contribution calculations
+     * Treat an amount the ranking left empty, such as a range without revenue, as zero
      */
-    private BigDecimal getTotalRevenue(Long bizId, LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
-        
-        BigDecimal total = billRepository.sumTotalAmountByBizIdAndDateRange(bizId, start, end);
-        return total != null ? total : BigDecimal.ZERO;
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
     }
     
     /**
-     * Get daily job statistics for a specific business client
+     * Build a summary from summed KPIs, deriving the average bill
      */
-    private DailyJobStatsDto getDailyJobStats(Long bizId, Long custId, LocalDate date) {
-        LocalDateTime start = date.atStartOfDay();
-        LocalDateTime end = date.plusDays(1).atStartOfDay();
-        
-        // Get daily statistics for this client
-        Object[] stats = appointmentRepository.findDailyJobStatsByClient(bizId, custId, start, end);
-        
-        DailyJobStatsDto dailyStats = new DailyJobStatsDto();
-        dailyStats.setDate(date);
-        
-        if (stats != null) {
-            dailyStats.setTotalAppointments(((Number) stats[0]).intValue());
-            dailyStats.setTotalWalkIns(((Number) stats[1]).intValue());
-            dailyStats.setTotalBills(((Number) stats[2]).intValue());
-            dailyStats.setTotalRevenue((BigDecimal) stats[3]);
-        } else {
-            dailyStats.setTotalAppointments(0);
-            dailyStats.setTotalWalkIns(0);
-            dailyStats.setTotalBills(0);
-            dailyStats.setTotalRevenue(BigDecimal.ZERO);
+    static DashboardSummaryDto summaryOf(DailyKpis kpis, int returningCustomers) {
+        BigDecimal avgBill = BigDecimal.ZERO;
+        if (kpis.bills() > 0) {
+            avgBill = kpis.grossSales().divide(new BigDecimal(kpis.bills()), 2, RoundingMode.HALF_UP);
         }
         
-        // Get service breakdown
-        List<Object[]> serviceBreakdown = billRepository.findServiceBreakdownByClient(bizId, custId, start, end);
-        List<ServiceBreakdownDto> breakdown = new ArrayList<>();
-        
-        for (Object[] service : serviceBreakdown) {
-            ServiceBreakdownDto serviceDto = new ServiceBreakdownDto();
-            serviceDto.setServiceName((String) service[0]);
-            serviceDto.setAppointmentCount(((Number) service[1]).intValue());
-            serviceDto.setWalkInCount(((Number) service[2]).intValue());
-            serviceDto.setBillCount(((Number) service[3]).intValue());
-            serviceDto.setRevenue((BigDecimal) service[4]);
-            breakdown.add(serviceDto);
+        return new DashboardSummaryDto(kpis.grossSales(), kpis.netSales(), kpis.bills(), avgBill,
+                                     kpis.newLeads(), kpis.totalLeads(), kpis.missedLeads(),
+                                     kpis.appointments(), returningCustomers);
+    }
+    
+    /**
+     * KPIs of one period that are in flight on a {@link KpiExecutor.Batch}
+     */
+    private record PendingSummary(KpiExecutor.Batch batch,
+                                  Map<String, Future<DailyKpis>> kpis,
+                                  Future<Integer> returningCustomers) {
+        
+        DashboardSummaryDto join() {
+            DailyKpis kpis = DailyKpis.ZERO;
+            for (Map.Entry<String, Future<DailyKpis>> source : this.kpis.entrySet()) {
+                kpis = kpis.plus(batch.await(source.getKey(), source.getValue()));
+            }
+            int returningCustomers = this.returningCustomers != null
+                ? orZero(batch.await("returningCustomers", this.returningCustomers))
+                : 0;
+            return summaryOf(kpis, returningCustomers);
         }
         
-        dailyStats.setServiceBreakdown(breakdown);
-        
-        return dailyStats;
+        private static int orZero(Number value) {
+            return value != null ? value.intValue() : 0;
+        }
     }
 }
\ No newline at end of file
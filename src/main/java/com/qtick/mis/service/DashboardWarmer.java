@@ -0,0 +1,139 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.datasource.ReplicaReadContextHolder;
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Scheduled job that precomputes the default dashboard views of each tenant
+ * shortly before it opens, so the first loads of the day are cache hits and
+ * find warm database buffers. Opening times are predicted from past accesses
+ * in the tenant's timezone, falling back to a configured default. Due tenants
+ * are warmed most frequently used first, a bounded number per run and with
+ * bounded concurrency. Each local day of a tenant is claimed through the
+ * shared {@link TenantAccessTracker}, so it is warmed once by one instance.
+ * The aggregations read from a replica, keeping them off the primary while
+ * billing opens.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.warmup.enabled", havingValue = "true")
+public class DashboardWarmer implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardWarmer.class);
+
+    static final String SORT_BY = "revenue";
+    static final int TOP_LIMIT = 5;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private TenantAccessTracker accessTracker;
+
+    @Value("${app.cache.warmup.default-opening:09:00}")
+    private String defaultOpening;
+
+    @Value("${app.cache.warmup.lead-time:PT30M}")
+    private Duration leadTime;
+
+    @Value("${app.cache.warmup.max-tenants-per-run:20}")
+    private int maxTenantsPerRun;
+
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Clock clock = Clock.systemUTC();
+
+    public DashboardWarmer(@Value("${app.cache.warmup.concurrency:2}") int concurrency) {
+        this.permits = new Semaphore(concurrency);
+    }
+
+    /**
+     * Starts warming the tenants whose warm-up window has opened.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.warmup.interval:PT1M}")
+    public void warmDueTenants() {
+        int started = 0;
+        for (TenantAccessTracker.TenantActivity tenant : accessTracker.byFrequency()) {
+            if (started >= maxTenantsPerRun) {
+                break;
+            }
+            ZonedDateTime now = clock.instant().atZone(tenant.zone());
+            LocalDate day = now.toLocalDate();
+            if (!isDue(tenant, now) || !accessTracker.claimWarmUp(tenant.bizId(), day)) {
+                continue;
+            }
+            executor.execute(() -> warm(tenant, day));
+            started++;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Whether the local time lies in the window of lead time before the tenant's opening.
+     */
+    boolean isDue(TenantAccessTracker.TenantActivity tenant, ZonedDateTime now) {
+        LocalTime opening = tenant.predictedOpening() != null
+                ? tenant.predictedOpening() : LocalTime.parse(defaultOpening);
+        LocalTime time = now.toLocalTime();
+        LocalTime windowStart = opening.minus(leadTime);
+        // A window crossing midnight is not warmed
+        return windowStart.isBefore(opening) && !time.isBefore(windowStart) && time.isBefore(opening);
+    }
+
+    /**
+     * Computes the default views through the cached service: today, yesterday and
+     * week to date, each with its comparison period, and today's and this week's rankings.
+     */
+    void warm(TenantAccessTracker.TenantActivity tenant, LocalDate today) {
+        TenantContextHolder.setContext(new TenantContext(null, tenant.bizId(), Set.of(), Set.of(),
+                tenant.zone().getId(), "dashboard-warmer"));
+        ReplicaReadContextHolder.enable();
+        try {
+            permits.acquire();
+            try {
+                LocalDate yesterday = today.minusDays(1);
+                LocalDate weekStart = today.with(DayOfWeek.MONDAY);
+                dashboardService.getSummary(today, today, yesterday, yesterday);
+                dashboardService.getSummary(yesterday, yesterday, yesterday.minusDays(1), yesterday.minusDays(1));
+                dashboardService.getSummary(weekStart, today, weekStart.minusWeeks(1), today.minusWeeks(1));
+                dashboardService.getTopServices(today, today, SORT_BY, TOP_LIMIT);
+                dashboardService.getTopServices(weekStart, today, SORT_BY, TOP_LIMIT);
+                dashboardService.getTopStaff(today, today, SORT_BY, TOP_LIMIT);
+                dashboardService.getTopStaff(weekStart, today, SORT_BY, TOP_LIMIT);
+                logger.debug("Warmed dashboard views for bizId: {}", tenant.bizId());
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Dashboard warm-up failed for bizId: {}", tenant.bizId(), e);
+        } finally {
+            ReplicaReadContextHolder.clear();
+            TenantContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.cache.CacheFreshness;
+import com.qtick.mis.document.DashboardSnapshot;
+import com.qtick.mis.repository.jpa.BillRepository;
+import com.qtick.mis.repository.mongo.DashboardSnapshotRepository;
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Derives dashboard ETags from the time data behind a date range last changed.
+ * The watermark is the latest update of the range's bills, appointments,
+ * enquiries, clients, service revenue aggregates and snapshots, read with one
+ * SQL and one Mongo query. Deletions, and rows moved to another day, are
+ * recorded per tenant-day in {@code dashboard_removals} so they move it too. A matching ETag lets a polling client be answered
+ * without running any dashboard aggregation.
+ */
+@Component
+public class DashboardWatermarkService {
+
+    /**
+     * Allowance for rows whose update time precedes their commit; values cached
+     * within it of the watermark may not have seen the change.
+     */
+    private static final Duration COMMIT_DELAY = Duration.ofSeconds(5);
+
+    @Value("${app.use-mock-data:false}")
+    private boolean useMockData;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private DashboardSnapshotRepository snapshotRepository;
+
+    /**
+     * Gets the strong ETag of a dashboard response for the current tenant, and requires
+     * cached values used to build the response to be newer than the watermark.
+     *
+     * @param operation the endpoint, so different responses over the same range differ
+     * @param startDate the first day whose data the response depends on
+     * @param endDate the last day whose data the response depends on
+     * @param params the request parameters
+     * @return the quoted ETag, or {@code null} when responses are not conditional
+     */
+    public String etag(String operation, LocalDate startDate, LocalDate endDate, Object... params) {
+        if (useMockData) {
+            return null;
+        }
+        TenantContext context = TenantContextHolder.getContext();
+        Long bizId = context.getBizId();
+
+        Instant changedAt = latestChange(bizId, startDate, endDate);
+        if (changedAt != null) {
+            CacheFreshness.requireSince(requiredSince(changedAt));
+        }
+
+        int scope = Objects.hash(operation, context.getBranchIds() != null
+                ? new TreeSet<>(context.getBranchIds()).toString() : null, Arrays.deepHashCode(params));
+        return "\"" + bizId + "-" + (changedAt != null ? changedAt.toEpochMilli() : 0)
+                + "-" + Integer.toHexString(scope) + "\"";
+    }
+
+    /**
+     * Gets the time cached values of a range must be loaded after to include its latest
+     * change, or {@code null} if the range has no data.
+     */
+    Instant requiredSince(Long bizId, LocalDate startDate, LocalDate endDate) {
+        Instant changedAt = latestChange(bizId, startDate, endDate);
+        return changedAt != null ? requiredSince(changedAt) : null;
+    }
+
+    private static Instant requiredSince(Instant changedAt) {
+        return changedAt.plus(COMMIT_DELAY);
+    }
+
+    /**
+     * Gets the latest change to data behind a range, or {@code null} if the range has no data.
+     */
+    Instant latestChange(Long bizId, LocalDate startDate, LocalDate endDate) {
+        LocalDateTime latest = billRepository.findLatestChangeInRange(bizId, startDate, endDate,
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+
+        List<DashboardSnapshot> snapshots = snapshotRepository.findLatestUpdatedInRange(
+                bizId, startDate, endDate, PageRequest.of(0, 1));
+        if (!snapshots.isEmpty() && snapshots.get(0).getUpdatedAt() != null) {
+            LocalDateTime snapshotUpdate = snapshots.get(0).getUpdatedAt();
+            if (latest == null || snapshotUpdate.isAfter(latest)) {
+                latest = snapshotUpdate;
+            }
+        }
+        return latest != null ? latest.atZone(ZoneId.systemDefault()).toInstant() : null;
+    }
+}
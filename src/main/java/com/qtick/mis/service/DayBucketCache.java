@@ -0,0 +1,244 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.cache.TenantKeyGenerator;
+import com.qtick.mis.cache.TwoTierCache;
+import com.qtick.mis.config.CacheConfig;
+import com.qtick.mis.event.DashboardDataChangedEvent;
+import com.qtick.mis.repository.jpa.AppointmentRepository;
+import com.qtick.mis.repository.jpa.BillRepository;
+import com.qtick.mis.repository.jpa.EnquiryRepository;
+import com.qtick.mis.repository.projection.BranchDayBills;
+import com.qtick.mis.repository.projection.BranchDayCount;
+import com.qtick.mis.repository.projection.BranchDayLeads;
+import com.qtick.mis.repository.projection.DailyKpis;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Additive summary KPIs cached per tenant, day and table. Each day bucket holds
+ * one row per branch, so a range is summed from its day buckets and only the
+ * missing days are queried, with one grouped query for the span between the
+ * first and last missing day. Buckets of different tables are independent, so
+ * callers can load each table's KPIs concurrently and only the tables behind
+ * the requested KPIs are queried. The buckets of a range are read from the
+ * two-tier cache in one batch. A change to a day evicts that day's buckets;
+ * every cached range around it stays valid. Without a cache manager every
+ * range is queried.
+ */
+@Component
+public class DayBucketCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DayBucketCache.class);
+
+    /**
+     * Tables summed per day; distinct counts such as returning customers cannot be.
+     */
+    public static final Set<SummaryField.Source> BUCKET_SOURCES = Collections.unmodifiableSet(EnumSet.of(
+            SummaryField.Source.BILLS, SummaryField.Source.ENQUIRIES, SummaryField.Source.APPOINTMENTS));
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private EnquiryRepository enquiryRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * Sums the KPIs of all branches over a date range, one table after another.
+     *
+     * @param bizId the business ID
+     * @param startDate first day of the range
+     * @param endDate last day of the range
+     * @param requiredSince buckets loaded before this time are reloaded, or {@code null} to accept any
+     * @param sources the tables whose KPIs are needed; KPIs of other tables may be zero
+     * @return the summed KPIs
+     */
+    public DailyKpis sum(Long bizId, LocalDate startDate, LocalDate endDate, Instant requiredSince,
+                         Set<SummaryField.Source> sources) {
+        DailyKpis total = DailyKpis.ZERO;
+        for (SummaryField.Source source : sources) {
+            if (BUCKET_SOURCES.contains(source)) {
+                total = total.plus(sumSource(bizId, startDate, endDate, requiredSince, source));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Sums the KPIs of one table for all branches over a date range.
+     *
+     * @param bizId the business ID
+     * @param startDate first day of the range
+     * @param endDate last day of the range
+     * @param requiredSince buckets loaded before this time are reloaded, or {@code null} to accept any
+     * @param source one of {@link #BUCKET_SOURCES}
+     * @return the summed KPIs, zero for other tables
+     */
+    public DailyKpis sumSource(Long bizId, LocalDate startDate, LocalDate endDate, Instant requiredSince,
+                               SummaryField.Source source) {
+        Cache cache = cache();
+        Map<Object, Object> cached = cached(cache, bizId, startDate, endDate, source);
+        Map<LocalDate, DayBucket> buckets = new HashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            DayBucket bucket = cached.get(key(bizId, day, source)) instanceof DayBucket found ? found : null;
+            if (bucket != null && (requiredSince == null || !bucket.loadedAt().isBefore(requiredSince))) {
+                buckets.put(day, bucket);
+            } else {
+                firstMissing = firstMissing == null ? day : firstMissing;
+                lastMissing = day;
+            }
+        }
+
+        if (firstMissing != null) {
+            Map<LocalDate, DayBucket> loaded = load(bizId, firstMissing, lastMissing, source);
+            buckets.putAll(loaded);
+            if (cache != null) {
+                loaded.forEach((day, bucket) -> cache.put(key(bizId, day, source), bucket));
+            }
+        }
+
+        DailyKpis total = DailyKpis.ZERO;
+        for (DayBucket bucket : buckets.values()) {
+            total = total.plus(bucket.total());
+        }
+        return total;
+    }
+
+    /**
+     * Evicts the buckets of the changed day, or every bucket of the tenant when the day is unknown.
+     */
+    @EventListener
+    public void onDashboardDataChanged(DashboardDataChangedEvent event) {
+        Cache cache = cache();
+        if (cache == null) {
+            return;
+        }
+        logger.debug("Evicting day buckets for bizId: {}, date: {}", event.bizId(), event.date());
+        if (event.date() != null) {
+            for (SummaryField.Source source : BUCKET_SOURCES) {
+                cache.evictIfPresent(key(event.bizId(), event.date(), source));
+            }
+        } else if (cache instanceof TwoTierCache twoTier) {
+            twoTier.evictTenant(event.bizId());
+        } else {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Loads a bucket for every day of a range from one table, empty for days without activity.
+     */
+    private Map<LocalDate, DayBucket> load(Long bizId, LocalDate startDate, LocalDate endDate,
+                                           SummaryField.Source source) {
+        Instant loadedAt = clock.instant();
+        Map<LocalDate, Map<Long, DailyKpis>> rows = new HashMap<>();
+
+        switch (source) {
+            case BILLS -> {
+                for (BranchDayBills row : billRepository.summarizeKpisByDayAndBranch(bizId, startDate, endDate)) {
+                    rows.computeIfAbsent(row.day(), day -> new HashMap<>())
+                        .put(row.branchId(), DailyKpis.empty(row.branchId())
+                            .withBills(row.grossSales(), row.netSales(), row.bills().intValue()));
+                }
+            }
+            case ENQUIRIES -> {
+                for (BranchDayLeads row : enquiryRepository.summarizeKpisByDayAndBranch(
+                        bizId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay())) {
+                    rows.computeIfAbsent(row.day(), day -> new HashMap<>())
+                        .put(row.branchId(), DailyKpis.empty(row.branchId())
+                            .withLeads(row.newLeads().intValue(), row.totalLeads().intValue(), row.missedLeads().intValue()));
+                }
+            }
+            case APPOINTMENTS -> {
+                for (BranchDayCount row : appointmentRepository.countByDayAndBranch(
+                        bizId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay())) {
+                    rows.computeIfAbsent(row.day(), day -> new HashMap<>())
+                        .put(row.branchId(), DailyKpis.empty(row.branchId())
+                            .withAppointments(row.count().intValue()));
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported day bucket source: " + source);
+        }
+
+        Map<LocalDate, DayBucket> buckets = new HashMap<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            buckets.put(day, new DayBucket(new ArrayList<>(rows.getOrDefault(day, Map.of()).values()), loadedAt));
+        }
+        return buckets;
+    }
+
+    /**
+     * Reads the cached buckets of a range, in one batch from a two-tier cache.
+     */
+    private static Map<Object, Object> cached(Cache cache, Long bizId, LocalDate startDate, LocalDate endDate,
+                                              SummaryField.Source source) {
+        if (cache == null) {
+            return Map.of();
+        }
+        List<String> keys = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            keys.add(key(bizId, day, source));
+        }
+        if (cache instanceof TwoTierCache twoTier) {
+            return twoTier.getAll(keys);
+        }
+        Map<Object, Object> cached = new HashMap<>();
+        for (String key : keys) {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                cached.put(key, wrapper.get());
+            }
+        }
+        return cached;
+    }
+
+    private Cache cache() {
+        return cacheManager != null ? cacheManager.getCache(CacheConfig.DAY_BUCKETS) : null;
+    }
+
+    static String key(Long bizId, LocalDate day, SummaryField.Source source) {
+        return TenantKeyGenerator.tenantPrefix(bizId) + ":" + day + ":" + source.name().toLowerCase();
+    }
+
+    /**
+     * The KPIs of one table for one tenant-day, one row per branch.
+     *
+     * @param branches the KPIs of each branch with activity on the day; KPIs of other tables are zero
+     * @param loadedAt when the rows were read from the database
+     */
+    public record DayBucket(List<DailyKpis> branches, Instant loadedAt) {
+
+        DailyKpis total() {
+            DailyKpis total = DailyKpis.ZERO;
+            for (DailyKpis branch : branches) {
+                total = total.plus(branch);
+            }
+            return total;
+        }
+    }
+}
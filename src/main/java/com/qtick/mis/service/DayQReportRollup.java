@@ -0,0 +1,102 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.repository.jpa.DayQReportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Scheduled job that rolls day_q_report day rows up into month ("M") and
+ * year ("Y") rows for every tenant. The first run after startup backfills a
+ * window of closed months; later runs refresh only the most recent ones.
+ * Each period is replaced in one transaction, so readers never see it missing.
+ * The months and years written by this instance are exposed as the coverage
+ * that range queries may read rollups for.
+ */
+@Component
+public class DayQReportRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(DayQReportRollup.class);
+
+    @Autowired
+    private DayQReportRepository dayQReportRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.dayq-rollup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.dayq-rollup.backfill-months:24}")
+    private int backfillMonths;
+
+    @Value("${app.dayq-rollup.refresh-months:2}")
+    private int refreshMonths;
+
+    private volatile PeriodRangeDecomposer.Coverage coverage;
+
+    /**
+     * Rolls up the closed months and years of the backfill or refresh window.
+     */
+    @Scheduled(fixedDelayString = "${app.dayq-rollup.interval:PT6H}",
+               initialDelayString = "${app.dayq-rollup.initial-delay:PT1M}")
+    public void rollUpAll() {
+        if (enabled) {
+            rollUp(LocalDate.now());
+        }
+    }
+
+    /**
+     * Rolls up the closed months and years before the given day.
+     *
+     * @param today the first day that is not yet closed
+     */
+    public void rollUp(LocalDate today) {
+        PeriodRangeDecomposer.Coverage current = coverage;
+        YearMonth lastMonth = YearMonth.from(today).minusMonths(1);
+        YearMonth firstMonth = lastMonth.minusMonths((current == null ? backfillMonths : refreshMonths) - 1L);
+        int lastYear = today.getYear() - 1;
+
+        try {
+            for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+                replace(PeriodRangeDecomposer.MONTH, month.atDay(1), month.atEndOfMonth());
+            }
+            for (int year = firstMonth.getYear(); year <= lastYear; year++) {
+                replace(PeriodRangeDecomposer.YEAR, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+            }
+        } catch (RuntimeException e) {
+            // Keep the previous coverage; the next run retries
+            logger.error("Day queue report rollup failed", e);
+            return;
+        }
+
+        coverage = current == null
+                ? new PeriodRangeDecomposer.Coverage(firstMonth, lastMonth, firstMonth.getYear(), lastYear)
+                : new PeriodRangeDecomposer.Coverage(current.firstMonth(), lastMonth, current.firstYear(), lastYear);
+        logger.info("Rolled up day queue reports for {} to {}", firstMonth, lastMonth);
+    }
+
+    /**
+     * Gets the months and years rolled up so far, or {@code null} before the first run.
+     */
+    public PeriodRangeDecomposer.Coverage getCoverage() {
+        return coverage;
+    }
+
+    private void replace(String periodType, LocalDate startDate, LocalDate endDate) {
+        int periodId = PeriodRangeDecomposer.periodId(periodType, startDate);
+        int startDay = PeriodRangeDecomposer.periodId(PeriodRangeDecomposer.DAY, startDate);
+        int endDay = PeriodRangeDecomposer.periodId(PeriodRangeDecomposer.DAY, endDate);
+        transactionTemplate.executeWithoutResult(status -> {
+            dayQReportRepository.deleteByPeriod(periodType, periodId);
+            dayQReportRepository.insertRollup(periodType, periodId, startDay, endDay);
+        });
+    }
+}
@@ -0,0 +1,200 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.entity.Appointment;
+import com.qtick.mis.entity.Bill;
+import com.qtick.mis.entity.BillItem;
+import com.qtick.mis.entity.Client;
+import com.qtick.mis.repository.jpa.AppointmentRepository;
+import com.qtick.mis.repository.jpa.BillRepository;
+import com.qtick.mis.repository.jpa.ClientRepository;
+import com.qtick.mis.security.TenantContextHolder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service for exporting bills, appointments and clients of the current tenant.
+ * Rows are read through repository streams with a JDBC fetch size and written
+ * to the output as they arrive; each entity is detached once written, so the
+ * persistence context and the heap stay flat however many rows are exported.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    static final List<String> BILL_COLUMNS = List.of(
+            "id", "billNumber", "billDate", "branchId", "clientId", "status", "paymentMode",
+            "grossAmount", "discountAmount", "taxAmount", "netAmount", "paidAmount", "balanceAmount",
+            "staffId", "staffName", "createdOn");
+
+    static final String BILL_ITEMS = "items";
+
+    static final List<String> BILL_ITEM_COLUMNS = List.of(
+            "id", "serviceId", "serviceName", "quantity", "unitPrice", "discountAmount", "taxAmount",
+            "totalAmount", "staffId", "staffName");
+
+    static final List<String> APPOINTMENT_COLUMNS = List.of(
+            "id", "appointmentDate", "endTime", "branchId", "clientId", "serviceId", "serviceName",
+            "staffId", "staffName", "status", "appointmentType", "durationMinutes", "bookingSource",
+            "checkedInAt", "checkedOutAt", "createdOn");
+
+    static final List<String> CLIENT_COLUMNS = List.of(
+            "custId", "name", "email", "phone", "gender", "city", "state", "country", "businessName",
+            "businessType", "loyaltyPoints", "status", "lastVisitDate", "createdOn");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    /**
+     * Exports the bills of a date range with their items.
+     *
+     * @return the number of bills written
+     */
+    @Transactional(readOnly = true)
+    public long exportBills(LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream out)
+            throws IOException {
+        Long bizId = TenantContextHolder.getContext().getBizId();
+        logger.debug("Exporting bills for bizId: {}, period: {} to {}", bizId, startDate, endDate);
+
+        try (Stream<Object[]> rows = billRepository.streamWithItemsByBizIdAndBillDateBetween(bizId, startDate, endDate);
+             ExportWriter writer = ExportWriter.create(format, out, BILL_COLUMNS, BILL_ITEMS, BILL_ITEM_COLUMNS)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            Bill bill = null;
+            Long clientId = null;
+            List<BillItem> items = new ArrayList<>();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                // Rows of one bill are adjacent and share its managed instance
+                if (row[0] != bill) {
+                    writeBill(writer, bill, clientId, items);
+                    bill = (Bill) row[0];
+                    clientId = (Long) row[2];
+                }
+                if (row[1] != null) {
+                    items.add((BillItem) row[1]);
+                }
+            }
+            writeBill(writer, bill, clientId, items);
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * Exports the appointments of a date range.
+     *
+     * @return the number of appointments written
+     */
+    @Transactional(readOnly = true)
+    public long exportAppointments(LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream out)
+            throws IOException {
+        Long bizId = TenantContextHolder.getContext().getBizId();
+        logger.debug("Exporting appointments for bizId: {}, period: {} to {}", bizId, startDate, endDate);
+
+        try (Stream<Object[]> rows = appointmentRepository.streamByBizIdAndAppointmentDateRange(
+                     bizId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+             ExportWriter writer = ExportWriter.create(format, out, APPOINTMENT_COLUMNS)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                Appointment appointment = (Appointment) row[0];
+                writer.write(appointmentValues(appointment, (Long) row[1]), List.of());
+                entityManager.detach(appointment);
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * Exports all clients.
+     *
+     * @return the number of clients written
+     */
+    @Transactional(readOnly = true)
+    public long exportClients(ExportFormat format, OutputStream out) throws IOException {
+        Long bizId = TenantContextHolder.getContext().getBizId();
+        logger.debug("Exporting clients for bizId: {}", bizId);
+
+        try (Stream<Client> clients = clientRepository.streamByBizIdOrderByCustId(bizId);
+             ExportWriter writer = ExportWriter.create(format, out, CLIENT_COLUMNS)) {
+            Iterator<Client> iterator = clients.iterator();
+            while (iterator.hasNext()) {
+                Client client = iterator.next();
+                writer.write(clientValues(client), List.of());
+                entityManager.detach(client);
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    private void writeBill(ExportWriter writer, Bill bill, Long clientId, List<BillItem> items) throws IOException {
+        if (bill == null) {
+            return;
+        }
+        List<Object[]> nested = new ArrayList<>(items.size());
+        for (BillItem item : items) {
+            nested.add(billItemValues(item));
+        }
+        writer.write(billValues(bill, clientId), nested);
+        items.forEach(entityManager::detach);
+        items.clear();
+        entityManager.detach(bill);
+    }
+
+    private static Object[] billValues(Bill bill, Long clientId) {
+        return new Object[] {
+                bill.getId(), bill.getBillNumber(), bill.getBillDate(), bill.getBranchId(), clientId,
+                bill.getStatus(), bill.getPaymentMode(), bill.getGrossAmount(), bill.getDiscountAmount(),
+                bill.getTaxAmount(), bill.getNetAmount(), bill.getPaidAmount(), bill.getBalanceAmount(),
+                bill.getStaffId(), bill.getStaffName(), bill.getCreatedOn()
+        };
+    }
+
+    private static Object[] billItemValues(BillItem item) {
+        return new Object[] {
+                item.getId(), item.getServiceId(), item.getServiceName(), item.getQuantity(), item.getUnitPrice(),
+                item.getDiscountAmount(), item.getTaxAmount(), item.getTotalAmount(), item.getStaffId(),
+                item.getStaffName()
+        };
+    }
+
+    private static Object[] appointmentValues(Appointment appointment, Long clientId) {
+        return new Object[] {
+                appointment.getId(), appointment.getAppointmentDate(), appointment.getEndTime(),
+                appointment.getBranchId(), clientId, appointment.getServiceId(), appointment.getServiceName(),
+                appointment.getStaffId(), appointment.getStaffName(), appointment.getStatus(),
+                appointment.getAppointmentType(), appointment.getDurationMinutes(), appointment.getBookingSource(),
+                appointment.getCheckedInAt(), appointment.getCheckedOutAt(), appointment.getCreatedOn()
+        };
+    }
+
+    private static Object[] clientValues(Client client) {
+        return new Object[] {
+                client.getCustId(), client.getName(), client.getEmail(), client.getPhone(), client.getGender(),
+                client.getCity(), client.getState(), client.getCountry(), client.getBusinessName(),
+                client.getBusinessType(), client.getLoyaltyPoints(), client.getStatus(), client.getLastVisitDate(),
+                client.getCreatedOn()
+        };
+    }
+}
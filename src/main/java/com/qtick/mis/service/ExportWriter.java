@@ -0,0 +1,211 @@
+package com.qtick.mis.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes export rows to an output stream as they are produced, flushing every
+ * few hundred rows so the response is sent in chunks and nothing but the
+ * current row is held in memory. A row may carry nested rows, such as the
+ * items of a bill. Closing the writer flushes it but leaves the stream open.
+ */
+abstract class ExportWriter implements Closeable {
+
+    static final int FLUSH_ROWS = 500;
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    protected final List<String> columns;
+    protected final String nestedName;
+    protected final List<String> nestedColumns;
+    private long rowCount;
+
+    private ExportWriter(List<String> columns, String nestedName, List<String> nestedColumns) {
+        this.columns = columns;
+        this.nestedName = nestedName;
+        this.nestedColumns = nestedColumns;
+    }
+
+    /**
+     * Creates a writer for rows without nested rows.
+     */
+    static ExportWriter create(ExportFormat format, OutputStream out, List<String> columns) throws IOException {
+        return create(format, out, columns, null, List.of());
+    }
+
+    /**
+     * Creates a writer for rows with nested rows.
+     *
+     * @param nestedName    name of the nested rows, used as CSV column prefix and JSON field
+     * @param nestedColumns columns of the nested rows
+     */
+    static ExportWriter create(ExportFormat format, OutputStream out, List<String> columns,
+                               String nestedName, List<String> nestedColumns) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(out, columns, nestedName, nestedColumns);
+            case NDJSON -> new Ndjson(out, columns, nestedName, nestedColumns);
+        };
+    }
+
+    /**
+     * Writes one row.
+     *
+     * @param values values in column order
+     * @param nested nested rows, each in nested column order; may be empty
+     */
+    void write(Object[] values, List<Object[]> nested) throws IOException {
+        writeRow(values, nested);
+        if (++rowCount % FLUSH_ROWS == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Gets the number of rows written, not counting nested rows.
+     */
+    long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    protected abstract void writeRow(Object[] values, List<Object[]> nested) throws IOException;
+
+    protected abstract void flush() throws IOException;
+
+    private static final class Csv extends ExportWriter {
+
+        private final Writer writer;
+
+        Csv(OutputStream out, List<String> columns, String nestedName, List<String> nestedColumns) throws IOException {
+            super(columns, nestedName, nestedColumns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            StringBuilder header = new StringBuilder();
+            for (String column : columns) {
+                append(header, column);
+            }
+            for (String column : nestedColumns) {
+                append(header, nestedName + "." + column);
+            }
+            writer.write(header.append('\n').toString());
+        }
+
+        @Override
+        protected void writeRow(Object[] values, List<Object[]> nested) throws IOException {
+            if (nested.isEmpty()) {
+                writeLine(values, null);
+            }
+            for (Object[] nestedValues : nested) {
+                writeLine(values, nestedValues);
+            }
+        }
+
+        private void writeLine(Object[] values, Object[] nestedValues) throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (Object value : values) {
+                append(line, value);
+            }
+            for (int i = 0; i < nestedColumns.size(); i++) {
+                append(line, nestedValues != null ? nestedValues[i] : null);
+            }
+            writer.write(line.append('\n').toString());
+        }
+
+        private static void append(StringBuilder line, Object value) {
+            if (!line.isEmpty()) {
+                line.append(',');
+            }
+            String text = text(value);
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                line.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(text);
+            }
+        }
+
+        private static String text(Object value) {
+            if (value == null) {
+                return "";
+            } else if (value instanceof BigDecimal decimal) {
+                return decimal.toPlainString();
+            } else if (value instanceof Enum<?> constant) {
+                return constant.name();
+            }
+            return value.toString();
+        }
+
+        @Override
+        protected void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class Ndjson extends ExportWriter {
+
+        private final JsonGenerator generator;
+
+        Ndjson(OutputStream out, List<String> columns, String nestedName, List<String> nestedColumns) throws IOException {
+            super(columns, nestedName, nestedColumns);
+            this.generator = JSON_FACTORY.createGenerator(out);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        protected void writeRow(Object[] values, List<Object[]> nested) throws IOException {
+            generator.writeStartObject();
+            writeFields(columns, values);
+            if (nestedName != null) {
+                generator.writeArrayFieldStart(nestedName);
+                for (Object[] nestedValues : nested) {
+                    generator.writeStartObject();
+                    writeFields(nestedColumns, nestedValues);
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeFields(List<String> names, Object[] values) throws IOException {
+            for (int i = 0; i < names.size(); i++) {
+                generator.writeFieldName(names.get(i));
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Enum<?> constant) {
+                    generator.writeString(constant.name());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+        }
+
+        @Override
+        protected void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.qtick.mis.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * {@link StaffLeaderboard} held in process memory, for deployments without Redis.
+ * Each tenant-day keeps one skip list per metric; a bounded number of days is
+ * retained, evicting the least recently used. A day stops counting as loaded
+ * once the reload interval has passed, so closed days are refreshed periodically
+ * even when a change event was missed.
+ */
+public class InMemoryStaffLeaderboard implements StaffLeaderboard {
+
+    private static final Comparator<StaffScore> BY_REVENUE = Comparator
+            .comparing(StaffScore::revenue).reversed()
+            .thenComparing(StaffScore::staffId);
+
+    private static final Comparator<StaffScore> BY_JOBS = Comparator
+            .comparingInt(StaffScore::jobs).reversed()
+            .thenComparing(StaffScore::staffId);
+
+    private final Clock clock;
+    private final Duration reloadAfter;
+    private final Map<DayKey, DayBoard> days;
+
+    public InMemoryStaffLeaderboard(int maxDays, Duration reloadAfter) {
+        this(Clock.systemUTC(), maxDays, reloadAfter);
+    }
+
+    InMemoryStaffLeaderboard(Clock clock, int maxDays, Duration reloadAfter) {
+        this.clock = clock;
+        this.reloadAfter = reloadAfter;
+        // Access-ordered map evicting the least recently used day beyond the bound
+        this.days = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DayKey, DayBoard> eldest) {
+                return size() > maxDays;
+            }
+        };
+    }
+
+    @Override
+    public void replaceDay(Long bizId, LocalDate date, Collection<StaffScore> scores) {
+        DayBoard board = new DayBoard(scores, clock.instant());
+        synchronized (days) {
+            days.put(new DayKey(bizId, date), board);
+        }
+    }
+
+    @Override
+    public void evictDay(Long bizId, LocalDate date) {
+        synchronized (days) {
+            days.remove(new DayKey(bizId, date));
+        }
+    }
+
+    @Override
+    public Set<LocalDate> loadedDays(Long bizId, LocalDate startDate, LocalDate endDate) {
+        Instant loadedSince = clock.instant().minus(reloadAfter);
+        Set<LocalDate> loaded = new HashSet<>();
+        synchronized (days) {
+            for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                DayBoard board = days.get(new DayKey(bizId, day));
+                if (board != null && board.loadedAt().isAfter(loadedSince)) {
+                    loaded.add(day);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public List<StaffScore> top(Long bizId, LocalDate startDate, LocalDate endDate, Metric metric, int limit) {
+        List<DayBoard> boards = new ArrayList<>();
+        synchronized (days) {
+            for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                DayBoard board = days.get(new DayKey(bizId, day));
+                if (board != null) {
+                    boards.add(board);
+                }
+            }
+        }
+
+        if (boards.size() == 1) {
+            return head(boards.get(0).ranked(metric), limit);
+        }
+
+        // Union of the days, summing each staff member's scores
+        Map<Long, StaffScore> totals = new HashMap<>();
+        for (DayBoard board : boards) {
+            for (StaffScore score : board.byRevenue()) {
+                totals.merge(score.staffId(), score, StaffScore::plus);
+            }
+        }
+
+        Comparator<StaffScore> order = comparator(metric);
+        PriorityQueue<StaffScore> best = new PriorityQueue<>(order.reversed());
+        for (StaffScore score : totals.values()) {
+            best.add(score);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<StaffScore> result = new ArrayList<>(best);
+        result.sort(order);
+        return result;
+    }
+
+    private static List<StaffScore> head(NavigableSet<StaffScore> ranked, int limit) {
+        List<StaffScore> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        Iterator<StaffScore> iterator = ranked.iterator();
+        while (iterator.hasNext() && result.size() < limit) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    private static Comparator<StaffScore> comparator(Metric metric) {
+        return metric == Metric.JOBS ? BY_JOBS : BY_REVENUE;
+    }
+
+    private record DayKey(Long bizId, LocalDate date) {
+    }
+
+    /**
+     * Scores of one tenant-day, ranked by each metric.
+     */
+    private record DayBoard(NavigableSet<StaffScore> byRevenue, NavigableSet<StaffScore> byJobs, Instant loadedAt) {
+
+        DayBoard(Collection<StaffScore> scores, Instant loadedAt) {
+            this(new ConcurrentSkipListSet<>(BY_REVENUE), new ConcurrentSkipListSet<>(BY_JOBS), loadedAt);
+            byRevenue.addAll(scores);
+            byJobs.addAll(scores);
+        }
+
+        NavigableSet<StaffScore> ranked(Metric metric) {
+            return metric == Metric.JOBS ? byJobs : byRevenue;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.config.TimezoneConfig;
+import com.qtick.mis.security.TenantContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link TenantAccessTracker} held in process memory, for deployments without
+ * Redis. It only sees the accesses served by this instance and starts empty
+ * after a restart.
+ */
+public class InMemoryTenantAccessTracker implements TenantAccessTracker {
+
+    private final Map<Long, Activity> activities = new ConcurrentHashMap<>();
+    private final Map<Long, ZoneId> zones = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDate> warmedDays = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public InMemoryTenantAccessTracker() {
+        this(Clock.systemUTC());
+    }
+
+    InMemoryTenantAccessTracker(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void record(TenantContext context) {
+        if (context == null || context.getBizId() == null) {
+            return;
+        }
+        ZoneId zone = TenantAccessTracker.zoneOf(context.getTimezone());
+        zones.put(context.getBizId(), zone);
+        Activity activity = activities.computeIfAbsent(context.getBizId(), bizId -> new Activity(bizId));
+        synchronized (activity) {
+            activity.record(clock.instant(), zone);
+        }
+    }
+
+    @Override
+    public List<TenantActivity> byFrequency() {
+        Instant now = clock.instant();
+        activities.values().removeIf(activity -> activity.lastAccess.plus(IDLE_LIMIT).isBefore(now));
+
+        List<TenantActivity> result = new ArrayList<>();
+        for (Activity activity : activities.values()) {
+            synchronized (activity) {
+                result.add(new TenantActivity(activity.bizId, activity.zone,
+                        activity.decayedScore(now), TenantAccessTracker.medianOpening(List.copyOf(activity.firstAccesses))));
+            }
+        }
+        result.sort(Comparator.comparingDouble(TenantActivity::score).reversed());
+        return result;
+    }
+
+    @Override
+    public ZoneId zoneFor(Long bizId) {
+        return zones.getOrDefault(bizId, TimezoneConfig.APPLICATION_ZONE);
+    }
+
+    @Override
+    public boolean claimWarmUp(Long bizId, LocalDate day) {
+        return !day.equals(warmedDays.put(bizId, day));
+    }
+
+    private static final class Activity {
+
+        private final Long bizId;
+        private final Deque<LocalTime> firstAccesses = new ArrayDeque<>();
+        private ZoneId zone;
+        private double score;
+        private Instant lastAccess;
+        private LocalDate lastAccessDay;
+
+        private Activity(Long bizId) {
+            this.bizId = bizId;
+        }
+
+        void record(Instant now, ZoneId zone) {
+            score = lastAccess != null ? decayedScore(now) + 1 : 1;
+            lastAccess = now;
+            this.zone = zone;
+
+            ZonedDateTime local = now.atZone(zone);
+            if (!local.toLocalDate().equals(lastAccessDay)) {
+                lastAccessDay = local.toLocalDate();
+                firstAccesses.addLast(local.toLocalTime());
+                if (firstAccesses.size() > OPENING_SAMPLES) {
+                    firstAccesses.removeFirst();
+                }
+            }
+        }
+
+        double decayedScore(Instant now) {
+            double halfLives = (double) Duration.between(lastAccess, now).toMillis() / HALF_LIFE.toMillis();
+            return score * Math.pow(0.5, halfLives);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.datasource.ReplicaReadContextHolder;
+import com.qtick.mis.exception.DashboardTimeoutException;
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs independent KPI queries concurrently on virtual threads.
+ * Each task inherits the caller's tenant context and replica read marker, is
+ * timed individually and shares the deadline of the {@link Batch} it was
+ * submitted to.
+ */
+@Component
+public class KpiExecutor implements DisposableBean {
+
+    static final String TIMER_NAME = "dashboard.kpi.query";
+    static final String TIMEOUT_COUNTER_NAME = "dashboard.kpi.timeouts";
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MeterRegistry meterRegistry;
+    private final Duration deadline;
+    private final Semaphore permits;
+
+    public KpiExecutor(MeterRegistry meterRegistry,
+                       @Value("${app.dashboard.kpi-deadline:5s}") Duration deadline,
+                       @Value("${app.dashboard.kpi-max-concurrency:32}") int maxConcurrency) {
+        this.meterRegistry = meterRegistry;
+        this.deadline = deadline;
+        // Bounds in-flight queries so a burst of dashboards cannot drain the connection pool
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Starts a new batch whose deadline begins now.
+     *
+     * @return a batch to submit KPI queries to
+     */
+    public Batch newBatch() {
+        return new Batch(System.nanoTime() + deadline.toNanos());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A group of KPI queries belonging to one request and sharing one deadline.
+     */
+    public final class Batch {
+
+        private final long deadlineNanos;
+        private final List<Future<?>> futures = new CopyOnWriteArrayList<>();
+
+        private Batch(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Submits a KPI query for concurrent execution.
+         *
+         * @param kpi the KPI name, used as the timer tag
+         * @param query the query to run
+         * @return a future for the query result
+         */
+        public <T> Future<T> submit(String kpi, Callable<T> query) {
+            TenantContext context = TenantContextHolder.getContext();
+            boolean replicaReads = ReplicaReadContextHolder.isEnabled();
+            Timer timer = Timer.builder(TIMER_NAME)
+                    .tag("kpi", kpi)
+                    .register(meterRegistry);
+
+            Future<T> future = executor.submit(() -> {
+                TenantContextHolder.setContext(context);
+                if (replicaReads) {
+                    ReplicaReadContextHolder.enable();
+                }
+                permits.acquire();
+                try {
+                    return timer.recordCallable(query);
+                } finally {
+                    permits.release();
+                    TenantContextHolder.clearContext();
+                    ReplicaReadContextHolder.clear();
+                }
+            });
+            futures.add(future);
+            return future;
+        }
+
+        /**
+         * Waits for a submitted query within the remaining batch deadline.
+         * On timeout every outstanding query of the batch is cancelled.
+         *
+         * @param kpi the KPI name, used for error reporting
+         * @param future the future returned by {@link #submit}
+         * @return the query result
+         */
+        public <T> T await(String kpi, Future<T> future) {
+            try {
+                return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | CancellationException e) {
+                cancelAll();
+                Counter.builder(TIMEOUT_COUNTER_NAME).tag("kpi", kpi).register(meterRegistry).increment();
+                throw new DashboardTimeoutException(kpi, e);
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new DashboardTimeoutException(kpi, e);
+            } catch (ExecutionException e) {
+                cancelAll();
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Dashboard KPI '" + kpi + "' failed", e.getCause());
+            }
+        }
+
+        private void cancelAll() {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.qtick.mis.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Covers a date range with the fewest day_q_report rows by using whole years
+ * and whole months where rollups exist, and days for the remainder.
+ * Consecutive periods of the same type are merged, so a range decomposes into
+ * at most two day ranges, two month ranges and one year range.
+ */
+@Component
+public class PeriodRangeDecomposer {
+
+    public static final String DAY = "D";
+    public static final String MONTH = "M";
+    public static final String YEAR = "Y";
+
+    private static final DateTimeFormatter MONTH_ID = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * Decomposes a range.
+     *
+     * @param startDate first day, inclusive
+     * @param endDate last day, inclusive
+     * @param coverage months and years that have rollup rows, or {@code null} to use days only
+     * @return the period ranges in date order
+     */
+    public List<PeriodRange> decompose(LocalDate startDate, LocalDate endDate, Coverage coverage) {
+        List<PeriodRange> ranges = new ArrayList<>();
+        LocalDate cursor = startDate;
+        while (!cursor.isAfter(endDate)) {
+            String type;
+            LocalDate last;
+            LocalDate yearEnd = cursor.withDayOfYear(cursor.lengthOfYear());
+            LocalDate monthEnd = cursor.withDayOfMonth(cursor.lengthOfMonth());
+            if (cursor.getDayOfYear() == 1 && !yearEnd.isAfter(endDate)
+                    && coverage != null && coverage.hasYear(cursor.getYear())) {
+                type = YEAR;
+                last = yearEnd;
+            } else if (cursor.getDayOfMonth() == 1 && !monthEnd.isAfter(endDate)
+                    && coverage != null && coverage.hasMonth(YearMonth.from(cursor))) {
+                type = MONTH;
+                last = monthEnd;
+            } else {
+                type = DAY;
+                last = cursor;
+            }
+
+            PeriodRange previous = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (previous != null && previous.periodType().equals(type)) {
+                ranges.set(ranges.size() - 1, new PeriodRange(type, previous.startDate(), last));
+            } else {
+                ranges.add(new PeriodRange(type, cursor, last));
+            }
+            cursor = last.plusDays(1);
+        }
+        return ranges;
+    }
+
+    /**
+     * Gets the day_q_report period ID of a date: yyyyMMdd for days, yyyyMM for months and yyyy for years.
+     */
+    public static int periodId(String periodType, LocalDate date) {
+        return switch (periodType) {
+            case DAY -> Integer.parseInt(date.format(DateTimeFormatter.BASIC_ISO_DATE));
+            case MONTH -> Integer.parseInt(date.format(MONTH_ID));
+            case YEAR -> date.getYear();
+            default -> throw new IllegalArgumentException("Unsupported period type: " + periodType);
+        };
+    }
+
+    /**
+     * Consecutive periods of one type, from the period containing {@code startDate}
+     * to the period ending on {@code endDate}.
+     */
+    public record PeriodRange(String periodType, LocalDate startDate, LocalDate endDate) {
+
+        public int startId() {
+            return periodId(periodType, startDate);
+        }
+
+        public int endId() {
+            return periodId(periodType, endDate);
+        }
+
+        /**
+         * Gets the ID of every period in the range.
+         */
+        public List<Integer> periodIds() {
+            List<Integer> ids = new ArrayList<>();
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = next(date)) {
+                ids.add(periodId(periodType, date));
+            }
+            return ids;
+        }
+
+        private LocalDate next(LocalDate date) {
+            return switch (periodType) {
+                case YEAR -> date.plusYears(1);
+                case MONTH -> date.plusMonths(1);
+                default -> date.plusDays(1);
+            };
+        }
+    }
+
+    /**
+     * Months and years whose rollup rows have been written.
+     */
+    public record Coverage(YearMonth firstMonth, YearMonth lastMonth, int firstYear, int lastYear) {
+
+        public boolean hasMonth(YearMonth month) {
+            return !month.isBefore(firstMonth) && !month.isAfter(lastMonth);
+        }
+
+        public boolean hasYear(int year) {
+            return year >= firstYear && year <= lastYear;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.qtick.mis.service;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * {@link StaffLeaderboard} stored in Redis sorted sets, shared by all instances.
+ * Every tenant-day has one sorted set per metric, keyed by staff ID, plus a
+ * marker recording that the day has been loaded. The marker expires after the
+ * reload interval, so closed days are reloaded periodically even when a change
+ * event was missed, while the scores themselves are kept for the retention
+ * period. Multi-day ranges are answered
+ * with ZUNIONSTORE into short-lived keys. The tenant ID is a hash tag so that
+ * all keys of a tenant live in the same cluster slot.
+ */
+public class RedisStaffLeaderboard implements StaffLeaderboard {
+
+    private static final String PREFIX = "leaderboard:staff:";
+    private static final Duration UNION_TTL = Duration.ofSeconds(30);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration retention;
+    private final Duration reloadAfter;
+
+    public RedisStaffLeaderboard(StringRedisTemplate redisTemplate, Duration retention, Duration reloadAfter) {
+        this.redisTemplate = redisTemplate;
+        this.retention = retention;
+        this.reloadAfter = reloadAfter;
+    }
+
+    @Override
+    public void replaceDay(Long bizId, LocalDate date, Collection<StaffScore> scores) {
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                redis.multi();
+                redis.delete(List.of(key(bizId, date, Metric.REVENUE), key(bizId, date, Metric.JOBS)));
+                for (StaffScore score : scores) {
+                    String member = score.staffId().toString();
+                    redis.opsForZSet().add(key(bizId, date, Metric.REVENUE), member, score.revenue().doubleValue());
+                    redis.opsForZSet().add(key(bizId, date, Metric.JOBS), member, score.jobs());
+                    if (score.staffName() != null) {
+                        redis.opsForHash().put(namesKey(bizId), member, score.staffName());
+                    }
+                }
+                redis.expire(key(bizId, date, Metric.REVENUE), retention);
+                redis.expire(key(bizId, date, Metric.JOBS), retention);
+                redis.expire(namesKey(bizId), retention);
+                redis.opsForValue().set(loadedKey(bizId, date), "1", reloadAfter);
+                return redis.exec();
+            }
+        });
+    }
+
+    @Override
+    public void evictDay(Long bizId, LocalDate date) {
+        redisTemplate.delete(List.of(loadedKey(bizId, date),
+                                     key(bizId, date, Metric.REVENUE), key(bizId, date, Metric.JOBS)));
+    }
+
+    @Override
+    public Set<LocalDate> loadedDays(Long bizId, LocalDate startDate, LocalDate endDate) {
+        List<LocalDate> dates = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            dates.add(day);
+            keys.add(loadedKey(bizId, day));
+        }
+        List<String> markers = redisTemplate.opsForValue().multiGet(keys);
+        Set<LocalDate> loaded = new HashSet<>();
+        for (int i = 0; i < dates.size(); i++) {
+            if (markers != null && markers.get(i) != null) {
+                loaded.add(dates.get(i));
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public List<StaffScore> top(Long bizId, LocalDate startDate, LocalDate endDate, Metric metric, int limit) {
+        Metric other = metric == Metric.JOBS ? Metric.REVENUE : Metric.JOBS;
+        List<String> temporary = new ArrayList<>();
+        try {
+            String rankedKey = rangeKey(bizId, startDate, endDate, metric, temporary);
+            String otherKey = rangeKey(bizId, startDate, endDate, other, temporary);
+
+            Set<ZSetOperations.TypedTuple<String>> ranked =
+                    redisTemplate.opsForZSet().reverseRangeWithScores(rankedKey, 0, limit - 1L);
+            if (ranked == null || ranked.isEmpty()) {
+                return List.of();
+            }
+
+            Object[] members = ranked.stream().map(ZSetOperations.TypedTuple::getValue).toArray();
+            List<Double> otherScores = redisTemplate.opsForZSet().score(otherKey, members);
+            List<Object> names = redisTemplate.opsForHash().multiGet(namesKey(bizId), List.of(members));
+
+            List<StaffScore> result = new ArrayList<>(members.length);
+            int i = 0;
+            for (ZSetOperations.TypedTuple<String> tuple : ranked) {
+                double rankedScore = tuple.getScore() != null ? tuple.getScore() : 0;
+                double otherScore = otherScores != null && otherScores.get(i) != null ? otherScores.get(i) : 0;
+                double revenue = metric == Metric.REVENUE ? rankedScore : otherScore;
+                double jobs = metric == Metric.JOBS ? rankedScore : otherScore;
+                result.add(new StaffScore(Long.valueOf(tuple.getValue()), (String) names.get(i),
+                                          BigDecimal.valueOf(revenue).setScale(2, RoundingMode.HALF_UP),
+                                          (int) Math.round(jobs)));
+                i++;
+            }
+            return result;
+        } finally {
+            if (!temporary.isEmpty()) {
+                redisTemplate.delete(temporary);
+            }
+        }
+    }
+
+    /**
+     * Key holding a metric summed over a range: the day's own set for one day, otherwise a union.
+     */
+    private String rangeKey(Long bizId, LocalDate startDate, LocalDate endDate, Metric metric, List<String> temporary) {
+        if (startDate.equals(endDate)) {
+            return key(bizId, startDate, metric);
+        }
+        List<String> dayKeys = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            dayKeys.add(key(bizId, day, metric));
+        }
+        String destination = PREFIX + "{" + bizId + "}:union:" + UUID.randomUUID() + ":" + metric.name().toLowerCase();
+        temporary.add(destination);
+        redisTemplate.opsForZSet().unionAndStore(dayKeys.get(0), dayKeys.subList(1, dayKeys.size()),
+                                                 destination, Aggregate.SUM);
+        redisTemplate.expire(destination, UNION_TTL);
+        return destination;
+    }
+
+    private static String key(Long bizId, LocalDate date, Metric metric) {
+        return PREFIX + "{" + bizId + "}:" + date + ":" + metric.name().toLowerCase();
+    }
+
+    private static String loadedKey(Long bizId, LocalDate date) {
+        return PREFIX + "{" + bizId + "}:" + date + ":loaded";
+    }
+
+    private static String namesKey(Long bizId) {
+        return PREFIX + "{" + bizId + "}:names";
+    }
+}
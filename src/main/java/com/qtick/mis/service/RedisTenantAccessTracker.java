@@ -0,0 +1,164 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.security.TenantContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link TenantAccessTracker} stored in Redis, shared by all instances and
+ * kept across deploys. Scores live in one sorted set as
+ * {@code sum(2^(t / half-life))} over the access times t, so recording an
+ * access is a single increment and ranking by the stored score equals ranking
+ * by the decayed count; the decayed count is the stored score divided by
+ * {@code 2^(now / half-life)}. Times are measured from a fixed epoch, which
+ * keeps the scores within double range for well over a decade. Last access
+ * times sit in a second sorted set for the idle cut-off, timezones in a hash
+ * that is never expired, and the recent first accesses in a short list per
+ * tenant.
+ */
+public class RedisTenantAccessTracker implements TenantAccessTracker {
+
+    private static final String PREFIX = "tenant-access:";
+    private static final String SCORES_KEY = PREFIX + "scores";
+    private static final String LAST_ACCESS_KEY = PREFIX + "last-access";
+    private static final String ZONES_KEY = PREFIX + "zones";
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Duration DAY_MARKER_TTL = Duration.ofDays(2);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+
+    public RedisTenantAccessTracker(StringRedisTemplate redisTemplate) {
+        this(redisTemplate, Clock.systemUTC());
+    }
+
+    RedisTenantAccessTracker(StringRedisTemplate redisTemplate, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public void record(TenantContext context) {
+        if (context == null || context.getBizId() == null) {
+            return;
+        }
+        Long bizId = context.getBizId();
+        String member = bizId.toString();
+        ZoneId zone = TenantAccessTracker.zoneOf(context.getTimezone());
+        Instant now = clock.instant();
+        ZonedDateTime local = now.atZone(zone);
+
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                redis.opsForZSet().incrementScore(SCORES_KEY, member, growth(now));
+                redis.opsForZSet().add(LAST_ACCESS_KEY, member, now.toEpochMilli());
+                redis.opsForHash().put(ZONES_KEY, member, zone.getId());
+                redis.opsForValue().setIfAbsent(dayKey(bizId, local.toLocalDate()), "1", DAY_MARKER_TTL);
+                return null;
+            }
+        });
+
+        // The first access of the tenant's local day is an opening sample
+        if (Boolean.TRUE.equals(results.get(results.size() - 1))) {
+            redisTemplate.opsForList().leftPush(openingsKey(bizId), local.toLocalTime().toString());
+            redisTemplate.opsForList().trim(openingsKey(bizId), 0, OPENING_SAMPLES - 1L);
+        }
+    }
+
+    @Override
+    public List<TenantActivity> byFrequency() {
+        Instant now = clock.instant();
+        ZSetOperations<String, String> zSet = redisTemplate.opsForZSet();
+        Set<String> idle = zSet.rangeByScore(LAST_ACCESS_KEY, Double.NEGATIVE_INFINITY,
+                                             now.minus(IDLE_LIMIT).toEpochMilli());
+        if (idle != null && !idle.isEmpty()) {
+            zSet.remove(LAST_ACCESS_KEY, idle.toArray());
+            zSet.remove(SCORES_KEY, idle.toArray());
+        }
+
+        Set<ZSetOperations.TypedTuple<String>> ranked = zSet.reverseRangeWithScores(SCORES_KEY, 0, -1);
+        if (ranked == null || ranked.isEmpty()) {
+            return List.of();
+        }
+        List<Object> members = ranked.stream().map(tuple -> (Object) tuple.getValue()).toList();
+        List<Object> zones = redisTemplate.opsForHash().multiGet(ZONES_KEY, members);
+        List<Object> openings = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                for (Object member : members) {
+                    redis.opsForList().range(openingsKey(Long.valueOf((String) member)), 0, -1);
+                }
+                return null;
+            }
+        });
+
+        double current = growth(now);
+        List<TenantActivity> result = new ArrayList<>(members.size());
+        int i = 0;
+        for (ZSetOperations.TypedTuple<String> tuple : ranked) {
+            double score = tuple.getScore() != null ? tuple.getScore() / current : 0;
+            result.add(new TenantActivity(Long.valueOf(tuple.getValue()),
+                    TenantAccessTracker.zoneOf((String) zones.get(i)), score,
+                    TenantAccessTracker.medianOpening(firstAccesses(openings.get(i)))));
+            i++;
+        }
+        return result;
+    }
+
+    @Override
+    public ZoneId zoneFor(Long bizId) {
+        Object zone = redisTemplate.opsForHash().get(ZONES_KEY, bizId.toString());
+        return TenantAccessTracker.zoneOf((String) zone);
+    }
+
+    @Override
+    public boolean claimWarmUp(Long bizId, LocalDate day) {
+        return Boolean.TRUE.equals(
+                redisTemplate.opsForValue().setIfAbsent(warmedKey(bizId, day), "1", DAY_MARKER_TTL));
+    }
+
+    /**
+     * Weight of an access at the given time, doubling every half-life after the epoch.
+     */
+    private static double growth(Instant at) {
+        return Math.pow(2, (double) Duration.between(EPOCH, at).toMillis() / HALF_LIFE.toMillis());
+    }
+
+    private static List<LocalTime> firstAccesses(Object values) {
+        if (!(values instanceof List<?> list)) {
+            return List.of();
+        }
+        return list.stream().map(value -> LocalTime.parse((String) value)).toList();
+    }
+
+    private static String openingsKey(Long bizId) {
+        return PREFIX + "{" + bizId + "}:openings";
+    }
+
+    private static String dayKey(Long bizId, LocalDate day) {
+        return PREFIX + "{" + bizId + "}:accessed:" + day;
+    }
+
+    private static String warmedKey(Long bizId, LocalDate day) {
+        return PREFIX + "{" + bizId + "}:warmed:" + day;
+    }
+}
@@ -0,0 +1,106 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.cache.CacheFreshness;
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight computation among concurrent identical dashboard calls.
+ * Calls are identical when they have the same tenant, branch scope, operation
+ * and parameters. The first caller computes the result on its own thread; callers
+ * arriving before it finishes wait for the same result or failure. Nothing is
+ * kept once the computation completes, so this caps database load per distinct
+ * query without serving stale data.
+ */
+@Component
+public class RequestCoalescer {
+
+    static final String COUNTER_NAME = "dashboard.coalescer.calls";
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs a computation, or joins an identical one already running.
+     *
+     * @param operation the operation name, used in the key and as the metric tag
+     * @param computation the computation to run
+     * @param params the parameters that, with the tenant and operation, identify the call
+     * @return the computed result, shared with any coalesced callers
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Supplier<T> computation, Object... params) {
+        String key = key(operation, params);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            count(operation, "coalesced");
+            return (T) join(existing);
+        }
+
+        count(operation, "executed");
+        try {
+            T result = computation.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // Waiters see the same exception as the caller that ran the computation
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static String key(String operation, Object... params) {
+        TenantContext context = TenantContextHolder.getContext();
+        StringJoiner key = new StringJoiner("|");
+        key.add(context != null ? String.valueOf(context.getBizId()) : "");
+        key.add(context != null && context.getBranchIds() != null
+                ? new TreeSet<>(context.getBranchIds()).toString() : "[]");
+        key.add(operation);
+        // Calls required to see a newer data change must not join an older computation
+        key.add(String.valueOf(CacheFreshness.requiredSince()));
+        for (Object param : params) {
+            key.add(String.valueOf(param));
+        }
+        return key.toString();
+    }
+
+    private void count(String operation, String outcome) {
+        Counter.builder(COUNTER_NAME)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,104 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.entity.ServiceDailyRevenue;
+import com.qtick.mis.repository.jpa.DashboardRemovalRepository;
+import com.qtick.mis.repository.jpa.ServiceDailyRevenueRepository;
+import com.qtick.mis.repository.projection.BranchServiceDay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the service_daily_revenue aggregate by rebuilding one tenant-day
+ * at a time from bills and bill items. A rebuild compares the day's rows with
+ * the bills and only inserts, updates or deletes the rows that differ, in one
+ * transaction, so readers see either the old or the new day, repeated
+ * rebuilds are harmless and an unchanged day keeps its update times. New rows
+ * are upserted on their unique scope, so two instances rebuilding the same
+ * day at once cannot insert a row twice.
+ */
+@Component
+public class ServiceRevenueRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceRevenueRollup.class);
+
+    @Autowired
+    private ServiceDailyRevenueRepository serviceDailyRevenueRepository;
+
+    @Autowired
+    private DashboardRemovalRepository dashboardRemovalRepository;
+
+    /**
+     * Rebuilds the service revenue rows of one tenant and day.
+     *
+     * @param bizId the business ID
+     * @param date the day to rebuild
+     * @return the number of rows inserted, updated or deleted
+     */
+    @Transactional
+    public int refreshDay(Long bizId, LocalDate date) {
+        Map<RowKey, ServiceDailyRevenue> stale = new HashMap<>();
+        for (ServiceDailyRevenue row : serviceDailyRevenueRepository.findByBizIdAndRevenueDate(bizId, date)) {
+            stale.put(new RowKey(row.getBranchId(), row.getServiceId()), row);
+        }
+
+        int changed = 0;
+        for (BranchServiceDay source : serviceDailyRevenueRepository.summarizeBillsOnDate(bizId, date)) {
+            ServiceDailyRevenue row = stale.remove(new RowKey(source.branchId(), source.serviceId()));
+            if (row == null) {
+                row = new ServiceDailyRevenue(bizId, source.branchId(), date, source.serviceId(), source.serviceName());
+                apply(row, source);
+                row.setUpdatedOn(LocalDateTime.now());
+                serviceDailyRevenueRepository.upsert(row);
+                changed++;
+            } else if (apply(row, source)) {
+                // Written by dirty checking on commit
+                changed++;
+            }
+        }
+        if (!stale.isEmpty()) {
+            serviceDailyRevenueRepository.deleteAll(stale.values());
+            // Deleted rows leave no update time, so the dashboard watermark reads the removal
+            dashboardRemovalRepository.recordRemoval(bizId, date, LocalDateTime.now());
+            changed += stale.size();
+        }
+
+        logger.debug("Rebuilt service revenue for bizId: {}, date: {}, rows changed: {}", bizId, date, changed);
+        return changed;
+    }
+
+    /**
+     * Copies the values of a source row that differ, returning whether any did.
+     */
+    private static boolean apply(ServiceDailyRevenue row, BranchServiceDay source) {
+        boolean changed = false;
+        if (!Objects.equals(row.getServiceName(), source.serviceName())) {
+            row.setServiceName(source.serviceName());
+            changed = true;
+        }
+        if (row.getRevenue() == null || row.getRevenue().compareTo(source.revenue()) != 0) {
+            row.setRevenue(source.revenue());
+            changed = true;
+        }
+        if (row.getJobs() == null || row.getJobs() != source.jobs().intValue()) {
+            row.setJobs(source.jobs().intValue());
+            changed = true;
+        }
+        if (row.getVisits() == null || row.getVisits() != source.visits().intValue()) {
+            row.setVisits(source.visits().intValue());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private record RowKey(Long branchId, Long serviceId) {
+    }
+}
@@ -0,0 +1,296 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.document.DashboardSnapshot;
+import com.qtick.mis.repository.projection.BranchAppointments;
+import com.qtick.mis.repository.projection.BranchBills;
+import com.qtick.mis.repository.projection.BranchLeads;
+import com.qtick.mis.repository.projection.BranchServiceRevenue;
+import com.qtick.mis.repository.projection.BranchStaffRevenue;
+import com.qtick.mis.repository.projection.GroupCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds tenant-level and branch-level {@link DashboardSnapshot} documents from
+ * grouped aggregate rows, and rolls daily snapshots up into longer periods.
+ */
+@Component
+public class SnapshotAssembler {
+
+    public static final String DAILY = "daily";
+    public static final String WEEKLY = "weekly";
+    public static final String MONTHLY = "monthly";
+
+    private final int topN;
+
+    public SnapshotAssembler(@Value("${app.snapshots.top-n:10}") int topN) {
+        this.topN = topN;
+    }
+
+    /**
+     * Starts assembling the snapshots of one tenant for one period.
+     *
+     * @param bizId the business ID
+     * @param snapshotDate the last day of the period
+     * @param period daily, weekly or monthly
+     * @return an empty scope to add aggregates to
+     */
+    public Scope newScope(Long bizId, LocalDate snapshotDate, String period) {
+        return new Scope(bizId, snapshotDate, period);
+    }
+
+    /**
+     * Accumulates the snapshots of one tenant and period. Rows added through the
+     * {@code add*Rows} methods carry the branch ID in their first column and count
+     * towards both that branch and the tenant total.
+     */
+    public final class Scope {
+
+        private final Long bizId;
+        private final LocalDate snapshotDate;
+        private final String period;
+        private final DashboardSnapshot tenant;
+        private final Map<Long, DashboardSnapshot> branches = new LinkedHashMap<>();
+        private final Map<Long, Map<Long, DashboardSnapshot.ServiceMetric>> services = new LinkedHashMap<>();
+        private final Map<Long, Map<Long, DashboardSnapshot.StaffMetric>> staff = new LinkedHashMap<>();
+
+        private Scope(Long bizId, LocalDate snapshotDate, String period) {
+            this.bizId = bizId;
+            this.snapshotDate = snapshotDate;
+            this.period = period;
+            this.tenant = new DashboardSnapshot(bizId, snapshotDate, period);
+        }
+
+        /**
+         * Adds the bill totals of each branch.
+         */
+        public Scope addBillRows(List<BranchBills> rows) {
+            for (BranchBills row : rows) {
+                for (DashboardSnapshot target : targets(row.branchId())) {
+                    target.setGrossSales(target.getGrossSales().add(orZero(row.grossSales())));
+                    target.setNetSales(target.getNetSales().add(orZero(row.netSales())));
+                    target.setBills(target.getBills() + toInt(row.bills()));
+                    target.setTotalDiscounts(target.getTotalDiscounts().add(orZero(row.discounts())));
+                    target.setTotalTax(target.getTotalTax().add(orZero(row.tax())));
+                }
+                // Distinct clients only add up within a branch; the tenant count is set separately
+                if (row.branchId() != null) {
+                    DashboardSnapshot branch = branch(row.branchId());
+                    branch.setActiveCustomers(branch.getActiveCustomers() + toInt(row.clients()));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Adds the enquiry totals of each branch.
+         */
+        public Scope addEnquiryRows(List<BranchLeads> rows) {
+            for (BranchLeads row : rows) {
+                for (DashboardSnapshot target : targets(row.branchId())) {
+                    target.setNewLeads(target.getNewLeads() + toInt(row.newLeads()));
+                    target.setTotalLeads(target.getTotalLeads() + toInt(row.totalLeads()));
+                    target.setMissedLeads(target.getMissedLeads() + toInt(row.missedLeads()));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Adds the appointment totals of each branch.
+         */
+        public Scope addAppointmentRows(List<BranchAppointments> rows) {
+            for (BranchAppointments row : rows) {
+                for (DashboardSnapshot target : targets(row.branchId())) {
+                    target.setAppointments(target.getAppointments() + toInt(row.appointments()));
+                    target.setWalkIns(target.getWalkIns() + toInt(row.walkIns()));
+                    target.setCompletedAppointments(target.getCompletedAppointments() + toInt(row.completed()));
+                    target.setCancelledAppointments(target.getCancelledAppointments() + toInt(row.cancelled()));
+                    target.setNoShows(target.getNoShows() + toInt(row.noShows()));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Adds returning customers counted per branch; the tenant count is set separately.
+         */
+        public Scope addReturningCustomerRows(List<GroupCount<Long>> rows) {
+            for (GroupCount<Long> row : rows) {
+                if (row.key() != null) {
+                    DashboardSnapshot branch = branch(row.key());
+                    branch.setReturningCustomers(branch.getReturningCustomers() + toInt(row.count()));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Adds the revenue and jobs of each service per branch.
+         */
+        public Scope addServiceRows(List<BranchServiceRevenue> rows) {
+            for (BranchServiceRevenue row : rows) {
+                for (Long key : keys(row.branchId())) {
+                    DashboardSnapshot.ServiceMetric metric = services
+                            .computeIfAbsent(key, k -> new LinkedHashMap<>())
+                            .computeIfAbsent(row.serviceId(), id -> new DashboardSnapshot.ServiceMetric(
+                                    id, row.serviceName(), BigDecimal.ZERO, 0));
+                    metric.setRevenue(metric.getRevenue().add(orZero(row.revenue())));
+                    metric.setJobs(metric.getJobs() + toInt(row.jobs()));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Adds the revenue and jobs of each staff member per branch.
+         */
+        public Scope addStaffRows(List<BranchStaffRevenue> rows) {
+            for (BranchStaffRevenue row : rows) {
+                for (Long key : keys(row.branchId())) {
+                    DashboardSnapshot.StaffMetric metric = staff
+                            .computeIfAbsent(key, k -> new LinkedHashMap<>())
+                            .computeIfAbsent(row.staffId(), id -> new DashboardSnapshot.StaffMetric(
+                                    id, row.staffName(), BigDecimal.ZERO, 0));
+                    metric.setRevenue(metric.getRevenue().add(orZero(row.revenue())));
+                    metric.setJobs(metric.getJobs() + toInt(row.jobs()));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Sets the tenant-wide distinct customer counts, which cannot be summed from branch rows.
+         */
+        public Scope setTenantCustomers(int returningCustomers, int activeCustomers, int newCustomers) {
+            tenant.setReturningCustomers(returningCustomers);
+            tenant.setActiveCustomers(activeCustomers);
+            tenant.setNewCustomers(newCustomers);
+            return this;
+        }
+
+        /**
+         * Sums the counters of shorter-period snapshots into this scope, each into the
+         * snapshot of the same branch. Distinct customer counts are summed as well and
+         * therefore approximate for periods longer than a day.
+         */
+        public Scope addSnapshots(List<DashboardSnapshot> snapshots) {
+            for (DashboardSnapshot source : snapshots) {
+                DashboardSnapshot target = source.getBranchId() == null ? tenant : branch(source.getBranchId());
+                target.setGrossSales(target.getGrossSales().add(orZero(source.getGrossSales())));
+                target.setNetSales(target.getNetSales().add(orZero(source.getNetSales())));
+                target.setBills(target.getBills() + orZero(source.getBills()));
+                target.setNewLeads(target.getNewLeads() + orZero(source.getNewLeads()));
+                target.setTotalLeads(target.getTotalLeads() + orZero(source.getTotalLeads()));
+                target.setMissedLeads(target.getMissedLeads() + orZero(source.getMissedLeads()));
+                target.setAppointments(target.getAppointments() + orZero(source.getAppointments()));
+                target.setReturningCustomers(target.getReturningCustomers() + orZero(source.getReturningCustomers()));
+                target.setWalkIns(target.getWalkIns() + orZero(source.getWalkIns()));
+                target.setCompletedAppointments(target.getCompletedAppointments() + orZero(source.getCompletedAppointments()));
+                target.setCancelledAppointments(target.getCancelledAppointments() + orZero(source.getCancelledAppointments()));
+                target.setNoShows(target.getNoShows() + orZero(source.getNoShows()));
+                target.setTotalDiscounts(target.getTotalDiscounts().add(orZero(source.getTotalDiscounts())));
+                target.setTotalTax(target.getTotalTax().add(orZero(source.getTotalTax())));
+                target.setNewCustomers(target.getNewCustomers() + orZero(source.getNewCustomers()));
+                target.setActiveCustomers(target.getActiveCustomers() + orZero(source.getActiveCustomers()));
+            }
+            return this;
+        }
+
+        /**
+         * Finishes the scope, deriving average bill and ranking the top services and staff.
+         *
+         * @return the tenant-level snapshot first, followed by one snapshot per branch
+         */
+        public List<DashboardSnapshot> build() {
+            List<DashboardSnapshot> result = new ArrayList<>();
+            result.add(finish(null, tenant));
+            branches.forEach((branchId, snapshot) -> result.add(finish(branchId, snapshot)));
+            return result;
+        }
+
+        private DashboardSnapshot finish(Long key, DashboardSnapshot snapshot) {
+            if (snapshot.getBills() > 0) {
+                snapshot.setAvgBill(snapshot.getGrossSales().divide(
+                        new BigDecimal(snapshot.getBills()), 2, RoundingMode.HALF_UP));
+            }
+            BigDecimal total = snapshot.getGrossSales();
+
+            List<DashboardSnapshot.ServiceMetric> topServices = new ArrayList<>(
+                    services.getOrDefault(key, Map.of()).values());
+            topServices.sort(Comparator.comparing(DashboardSnapshot.ServiceMetric::getRevenue).reversed());
+            topServices = new ArrayList<>(topServices.subList(0, Math.min(topN, topServices.size())));
+            for (int i = 0; i < topServices.size(); i++) {
+                topServices.get(i).setRank(i + 1);
+                topServices.get(i).setContribution(contribution(topServices.get(i).getRevenue(), total));
+            }
+            snapshot.setTopServices(topServices);
+
+            List<DashboardSnapshot.StaffMetric> topStaff = new ArrayList<>(
+                    staff.getOrDefault(key, Map.of()).values());
+            topStaff.sort(Comparator.comparing(DashboardSnapshot.StaffMetric::getRevenue).reversed());
+            topStaff = new ArrayList<>(topStaff.subList(0, Math.min(topN, topStaff.size())));
+            for (int i = 0; i < topStaff.size(); i++) {
+                topStaff.get(i).setRank(i + 1);
+            }
+            snapshot.setTopStaff(topStaff);
+            return snapshot;
+        }
+
+        /**
+         * Snapshots a row counts towards: the tenant total and, when present, its branch.
+         */
+        private List<DashboardSnapshot> targets(Long branchId) {
+            return branchId == null ? List.of(tenant) : List.of(tenant, branch(branchId));
+        }
+
+        /**
+         * Metric map keys a row counts towards; {@code null} denotes the tenant total.
+         */
+        private List<Long> keys(Long branchId) {
+            if (branchId == null) {
+                return Collections.singletonList(null);
+            }
+            branch(branchId);
+            return Arrays.asList(null, branchId);
+        }
+
+        private DashboardSnapshot branch(Long branchId) {
+            return branches.computeIfAbsent(branchId, id -> {
+                DashboardSnapshot snapshot = new DashboardSnapshot(bizId, snapshotDate, period);
+                snapshot.setBranchId(id);
+                return snapshot;
+            });
+        }
+    }
+
+    private static BigDecimal contribution(BigDecimal revenue, BigDecimal total) {
+        if (total == null || total.compareTo(BigDecimal.ZERO) == 0) {
+            return BigDecimal.ZERO;
+        }
+        return revenue.multiply(new BigDecimal("100")).divide(total, 2, RoundingMode.HALF_UP);
+    }
+
+    private static int toInt(Long value) {
+        return value != null ? value.intValue() : 0;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
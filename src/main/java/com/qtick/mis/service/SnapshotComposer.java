@@ -0,0 +1,179 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.document.DashboardSnapshot;
+import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Composes a dashboard summary for an arbitrary date range from precomputed
+ * daily, weekly and monthly snapshots.
+ * Picks the combination that leaves the fewest days uncovered and, among those,
+ * reads the fewest documents; the remaining days are reported as gaps to be
+ * computed from live data.
+ */
+@Component
+public class SnapshotComposer {
+
+    /**
+     * Selects the snapshots covering a range.
+     *
+     * @param candidates tenant-level snapshots dated within the range
+     * @param startDate first day of the range, inclusive
+     * @param endDate last day of the range, inclusive
+     * @return the chosen snapshots and the uncovered day ranges
+     */
+    public Composition compose(Collection<DashboardSnapshot> candidates, LocalDate startDate, LocalDate endDate) {
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days <= 0) {
+            return new Composition(List.of(), List.of());
+        }
+
+        // Snapshots usable at each end position, keyed by the day index after their last day
+        List<List<Candidate>> endingAt = new ArrayList<>(days + 1);
+        for (int i = 0; i <= days; i++) {
+            endingAt.add(new ArrayList<>());
+        }
+        for (DashboardSnapshot snapshot : candidates) {
+            LocalDate coverageStart = coverageStart(snapshot);
+            if (coverageStart == null || coverageStart.isBefore(startDate) || snapshot.getSnapshotDate().isAfter(endDate)) {
+                continue;
+            }
+            int from = (int) ChronoUnit.DAYS.between(startDate, coverageStart);
+            int to = (int) ChronoUnit.DAYS.between(startDate, snapshot.getSnapshotDate()) + 1;
+            endingAt.get(to).add(new Candidate(snapshot, from));
+        }
+
+        // Minimum cover of the prefix [0, i): uncovered days first, documents read second
+        int[] uncovered = new int[days + 1];
+        int[] documents = new int[days + 1];
+        Candidate[] choice = new Candidate[days + 1];
+        for (int i = 1; i <= days; i++) {
+            uncovered[i] = uncovered[i - 1] + 1;
+            documents[i] = documents[i - 1];
+            choice[i] = null;
+            for (Candidate candidate : endingAt.get(i)) {
+                int u = uncovered[candidate.from()];
+                int d = documents[candidate.from()] + 1;
+                if (u < uncovered[i] || (u == uncovered[i] && d < documents[i])) {
+                    uncovered[i] = u;
+                    documents[i] = d;
+                    choice[i] = candidate;
+                }
+            }
+        }
+
+        List<DashboardSnapshot> snapshots = new ArrayList<>();
+        List<DateRange> gaps = new ArrayList<>();
+        int i = days;
+        while (i > 0) {
+            if (choice[i] != null) {
+                snapshots.add(choice[i].snapshot());
+                i = choice[i].from();
+            } else {
+                int gapEnd = i;
+                while (i > 0 && choice[i] == null) {
+                    i--;
+                }
+                gaps.add(new DateRange(startDate.plusDays(i), startDate.plusDays(gapEnd - 1L)));
+            }
+        }
+        Collections.reverse(snapshots);
+        Collections.reverse(gaps);
+        return new Composition(snapshots, gaps);
+    }
+
+    /**
+     * Sums the additive KPIs of snapshots and live-computed gap summaries and
+     * recomputes the average bill. Returning customers is a distinct count that
+     * cannot be summed across periods and is left for the caller to set.
+     *
+     * @param snapshots snapshots chosen by {@link #compose}
+     * @param gaps summaries computed for the uncovered ranges
+     * @return the merged summary
+     */
+    public DashboardSummaryDto merge(List<DashboardSnapshot> snapshots, List<DashboardSummaryDto> gaps) {
+        BigDecimal grossSales = BigDecimal.ZERO;
+        BigDecimal netSales = BigDecimal.ZERO;
+        int bills = 0;
+        int newLeads = 0;
+        int totalLeads = 0;
+        int missedLeads = 0;
+        int appointments = 0;
+
+        for (DashboardSnapshot snapshot : snapshots) {
+            grossSales = grossSales.add(orZero(snapshot.getGrossSales()));
+            netSales = netSales.add(orZero(snapshot.getNetSales()));
+            bills += orZero(snapshot.getBills());
+            newLeads += orZero(snapshot.getNewLeads());
+            totalLeads += orZero(snapshot.getTotalLeads());
+            missedLeads += orZero(snapshot.getMissedLeads());
+            appointments += orZero(snapshot.getAppointments());
+        }
+        for (DashboardSummaryDto gap : gaps) {
+            grossSales = grossSales.add(orZero(gap.getGrossSales()));
+            netSales = netSales.add(orZero(gap.getNetSales()));
+            bills += orZero(gap.getBills());
+            newLeads += orZero(gap.getNewLeads());
+            totalLeads += orZero(gap.getTotalLeads());
+            missedLeads += orZero(gap.getMissedLeads());
+            appointments += orZero(gap.getAppointments());
+        }
+
+        BigDecimal avgBill = BigDecimal.ZERO;
+        if (bills > 0) {
+            avgBill = grossSales.divide(new BigDecimal(bills), 2, RoundingMode.HALF_UP);
+        }
+
+        return new DashboardSummaryDto(grossSales, netSales, bills, avgBill,
+                                     newLeads, totalLeads, missedLeads,
+                                     appointments, 0);
+    }
+
+    /**
+     * First day covered by a snapshot; the snapshot date is the last day of its period.
+     */
+    private LocalDate coverageStart(DashboardSnapshot snapshot) {
+        LocalDate date = snapshot.getSnapshotDate();
+        if (date == null || snapshot.getPeriod() == null) {
+            return null;
+        }
+        return switch (snapshot.getPeriod()) {
+            case "daily" -> date;
+            case "weekly" -> date.minusDays(6);
+            case "monthly" -> date.withDayOfMonth(1);
+            default -> null;
+        };
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private record Candidate(DashboardSnapshot snapshot, int from) {
+    }
+
+    /**
+     * An inclusive range of days.
+     */
+    public record DateRange(LocalDate start, LocalDate end) {
+    }
+
+    /**
+     * Snapshots chosen to cover a range, in date order, and the days left uncovered.
+     */
+    public record Composition(List<DashboardSnapshot> snapshots, List<DateRange> gaps) {
+    }
+}
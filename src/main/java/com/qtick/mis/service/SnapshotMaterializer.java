@@ -0,0 +1,328 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.config.TimezoneConfig;
+import com.qtick.mis.document.DashboardSnapshot;
+import com.qtick.mis.document.MaterializationWatermark;
+import com.qtick.mis.repository.jpa.AppointmentRepository;
+import com.qtick.mis.repository.jpa.BillRepository;
+import com.qtick.mis.repository.jpa.ClientRepository;
+import com.qtick.mis.repository.jpa.EnquiryRepository;
+import com.qtick.mis.repository.mongo.DashboardSnapshotRepository;
+import com.qtick.mis.repository.mongo.MaterializationWatermarkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Scheduled job that materializes {@link DashboardSnapshot} documents.
+ * For each tenant it builds the daily snapshots of every closed day after its
+ * watermark, tenant-wide and per branch, and rolls completed ISO weeks and
+ * calendar months up into weekly and monthly snapshots. The service revenue
+ * aggregate is rebuilt for the same days, and for today on a shorter interval.
+ * Days before the snapshot backfill are rolled up into the service revenue
+ * aggregate by a second watermark, oldest first, after the snapshots are current.
+ * Tenants are processed on a bounded worker pool and each run materializes a
+ * limited number of days per tenant, so catching up after downtime cannot
+ * starve other tenants. A tenant's days close in the timezone it last used,
+ * as shared by the {@link TenantAccessTracker}.
+ * <p>
+ * Bills, appointments and enquiries are written by other services, so each
+ * run first scans the tenant's rows updated since its previous scan, plus the
+ * days rows were removed from, and rewinds the watermark to before the
+ * earliest changed day. Every instance runs the job; a tenant is claimed on
+ * its watermark before it is processed, so only one instance works on it at
+ * a time, and snapshots are written with atomic upserts.
+ */
+@Component
+@ConditionalOnProperty(name = "app.snapshots.materializer.enabled", havingValue = "true")
+public class SnapshotMaterializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotMaterializer.class);
+
+    static final String JOB = "dashboard-snapshots";
+    static final String SERVICE_REVENUE_HISTORY_JOB = "service-revenue-history";
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private EnquiryRepository enquiryRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private DashboardSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private MaterializationWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private SnapshotAssembler snapshotAssembler;
+
+    @Autowired
+    private ServiceRevenueRollup serviceRevenueRollup;
+
+    @Autowired
+    private TenantAccessTracker accessTracker;
+
+    @Autowired
+    @Qualifier("snapshotExecutor")
+    private Executor snapshotExecutor;
+
+    @Value("${app.snapshots.materializer.backfill-days:90}")
+    private int backfillDays;
+
+    @Value("${app.snapshots.materializer.max-days-per-run:31}")
+    private int maxDaysPerRun;
+
+    @Value("${app.snapshots.materializer.claim-lease:PT15M}")
+    private Duration claimLease;
+
+    @Value("${app.snapshots.materializer.change-scan-overlap:PT1M}")
+    private Duration changeScanOverlap;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * Creates the snapshot scope index, which upserts from several instances rely on.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        snapshotRepository.ensureScopeIndex();
+    }
+
+    /**
+     * Materializes every tenant up to its yesterday.
+     */
+    @Scheduled(fixedDelayString = "${app.snapshots.materializer.interval:PT15M}",
+               initialDelayString = "${app.snapshots.materializer.initial-delay:PT1M}")
+    public void materializeAll() {
+        List<Long> bizIds = clientRepository.findDistinctBizIds();
+        logger.info("Materializing dashboard snapshots for {} tenants", bizIds.size());
+
+        CompletableFuture<?>[] tenants = bizIds.stream()
+                .map(bizId -> CompletableFuture.runAsync(
+                        () -> materializeTenant(bizId, today(bizId).minusDays(1)), snapshotExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(tenants).join();
+    }
+
+    /**
+     * Keeps today's service revenue aggregate current; closed days are rebuilt with their snapshots.
+     */
+    @Scheduled(fixedDelayString = "${app.snapshots.materializer.open-day-interval:PT5M}",
+               initialDelayString = "${app.snapshots.materializer.initial-delay:PT1M}")
+    public void refreshOpenDay() {
+        for (Long bizId : clientRepository.findDistinctBizIds()) {
+            try {
+                serviceRevenueRollup.refreshDay(bizId, today(bizId));
+            } catch (RuntimeException e) {
+                logger.error("Service revenue refresh failed for bizId: {}", bizId, e);
+            }
+        }
+    }
+
+    /**
+     * Materializes the days after a tenant's watermark, up to the per-run limit,
+     * unless another instance holds the tenant.
+     *
+     * @param bizId the business ID
+     * @param throughDate the last closed day to materialize
+     */
+    public void materializeTenant(Long bizId, LocalDate throughDate) {
+        try {
+            watermarkRepository.initialize(JOB, bizId, throughDate.minusDays(backfillDays));
+            Optional<MaterializationWatermark> claimed = watermarkRepository.claim(JOB, bizId, instanceId, claimLease);
+            if (claimed.isEmpty()) {
+                logger.debug("Snapshots of bizId: {} are being materialized by another instance", bizId);
+                return;
+            }
+            try {
+                materializeClaimed(bizId, claimed.get(), throughDate);
+            } finally {
+                watermarkRepository.release(JOB, bizId, instanceId);
+            }
+        } catch (RuntimeException e) {
+            // Leave the watermark where it is; the next run retries from there
+            logger.error("Snapshot materialization failed for bizId: {}", bizId, e);
+        }
+    }
+
+    private void materializeClaimed(Long bizId, MaterializationWatermark claimed, LocalDate throughDate) {
+        LocalDate watermark = rewindToChanges(bizId, claimed);
+
+        LocalDate day = watermark.plusDays(1);
+        int processed = 0;
+        while (!day.isAfter(throughDate) && processed < maxDaysPerRun) {
+            materializeDay(bizId, day);
+            if (!watermarkRepository.advance(JOB, bizId, watermark, day)) {
+                // Moved by another instance after the claim expired; the next run resumes from there
+                logger.debug("Snapshot watermark of bizId: {} moved during the run", bizId);
+                break;
+            }
+            watermark = day;
+            day = day.plusDays(1);
+            processed++;
+        }
+
+        if (processed > 0) {
+            logger.info("Materialized {} days of snapshots for bizId: {}, watermark: {}",
+                       processed, bizId, watermark);
+        }
+        if (processed < maxDaysPerRun) {
+            backfillServiceRevenue(bizId, throughDate.minusDays(backfillDays), maxDaysPerRun - processed);
+        }
+    }
+
+    /**
+     * Rolls up the service revenue of the days from the tenant's first bill up to the
+     * snapshot backfill, a limited number of days per run, each in its own transaction.
+     * Once caught up it follows the backfill start, whose days are already rolled up
+     * with their snapshots, so those repeats write nothing.
+     */
+    private void backfillServiceRevenue(Long bizId, LocalDate endDate, int maxDays) {
+        LocalDate firstBillDate = billRepository.findFirstBillDate(bizId);
+        LocalDate watermark = watermarkRepository.initialize(SERVICE_REVENUE_HISTORY_JOB, bizId,
+                firstBillDate != null && firstBillDate.isBefore(endDate) ? firstBillDate.minusDays(1) : endDate);
+
+        LocalDate day = watermark.plusDays(1);
+        int processed = 0;
+        while (!day.isAfter(endDate) && processed < maxDays) {
+            serviceRevenueRollup.refreshDay(bizId, day);
+            if (!watermarkRepository.advance(SERVICE_REVENUE_HISTORY_JOB, bizId, watermark, day)) {
+                break;
+            }
+            watermark = day;
+            day = day.plusDays(1);
+            processed++;
+        }
+
+        if (processed > 1) {
+            logger.info("Rolled up {} days of service revenue history for bizId: {}, watermark: {}",
+                       processed, bizId, watermark);
+        }
+    }
+
+    /**
+     * Rewinds the watermark to before the earliest day whose bills, appointments or
+     * enquiries were updated, or lost rows, since the previous scan, and returns the
+     * watermark to resume from. The scan reaches back by the overlap, so rows committed
+     * shortly after their update time are not missed. A tenant's first scan only
+     * records its time, as its days are all materialized from the sources anyway.
+     */
+    private LocalDate rewindToChanges(Long bizId, MaterializationWatermark claimed) {
+        // Update times are written in the application zone
+        LocalDateTime scannedAt = LocalDateTime.now(clock.withZone(TimezoneConfig.APPLICATION_ZONE));
+        LocalDate watermark = claimed.getWatermarkDate();
+
+        if (claimed.getChangesScannedAt() != null) {
+            LocalDateTime since = claimed.getChangesScannedAt().minus(changeScanOverlap);
+            LocalDate changed = Stream.of(
+                            billRepository.findFirstBillDateUpdatedAfter(bizId, since),
+                            billRepository.findFirstRemovalDateAfter(bizId, since),
+                            toDate(appointmentRepository.findFirstAppointmentDateUpdatedAfter(bizId, since)),
+                            toDate(enquiryRepository.findFirstCreatedOnUpdatedAfter(bizId, since)))
+                    .filter(Objects::nonNull)
+                    .min(LocalDate::compareTo)
+                    .orElse(null);
+            if (changed != null && !changed.isAfter(watermark) && watermarkRepository.rewind(JOB, bizId, changed)) {
+                logger.debug("Rewound snapshot watermark for bizId: {} to before {}", bizId, changed);
+                watermark = changed.minusDays(1);
+            }
+        }
+
+        watermarkRepository.markChangesScanned(JOB, bizId, scannedAt);
+        return watermark;
+    }
+
+    /**
+     * Today in the tenant's timezone.
+     */
+    private LocalDate today(Long bizId) {
+        return LocalDate.now(clock.withZone(accessTracker.zoneFor(bizId)));
+    }
+
+    private void materializeDay(Long bizId, LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.plusDays(1).atStartOfDay();
+
+        List<DashboardSnapshot> snapshots = snapshotAssembler.newScope(bizId, date, SnapshotAssembler.DAILY)
+                .addBillRows(billRepository.summarizeByBranchOnDate(bizId, date))
+                .addEnquiryRows(enquiryRepository.summarizeByBranch(bizId, start, end))
+                .addAppointmentRows(appointmentRepository.summarizeByBranch(bizId, start, end))
+                .addReturningCustomerRows(clientRepository.countReturningCustomersByBranchOnDate(bizId, date))
+                .addServiceRows(billRepository.sumServiceRevenueByBranch(bizId, date, date))
+                .addStaffRows(billRepository.sumStaffRevenueByBranch(bizId, date, date))
+                .setTenantCustomers(
+                        toInt(clientRepository.countReturningCustomersByBizIdAndDateRange(bizId, date, date)),
+                        toInt(billRepository.getUniqueClientCount(bizId, date, date)),
+                        toInt(clientRepository.countNewClientsBetween(bizId, start, end)))
+                .build();
+        snapshots.forEach(snapshotRepository::upsertScope);
+        serviceRevenueRollup.refreshDay(bizId, date);
+
+        if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            rollUp(bizId, date.minusDays(6), date, SnapshotAssembler.WEEKLY);
+        }
+        if (date.equals(YearMonth.from(date).atEndOfMonth())) {
+            rollUp(bizId, date.withDayOfMonth(1), date, SnapshotAssembler.MONTHLY);
+        }
+    }
+
+    private void rollUp(Long bizId, LocalDate startDate, LocalDate endDate, String period) {
+        List<DashboardSnapshot> dailies = snapshotRepository
+                .findByBizIdAndPeriodAndSnapshotDateBetweenOrderBySnapshotDateDesc(
+                        bizId, SnapshotAssembler.DAILY, startDate, endDate);
+
+        // Only roll up periods whose every day has been materialized, e.g. not the first week of a backfill
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        long tenantDays = dailies.stream().filter(snapshot -> snapshot.getBranchId() == null).count();
+        if (tenantDays < days) {
+            logger.debug("Skipping {} rollup for bizId: {} ending {}, {} of {} days materialized",
+                        period, bizId, endDate, tenantDays, days);
+            return;
+        }
+
+        snapshotAssembler.newScope(bizId, endDate, period)
+                .addSnapshots(dailies)
+                .addServiceRows(billRepository.sumServiceRevenueByBranch(bizId, startDate, endDate))
+                .addStaffRows(billRepository.sumStaffRevenueByBranch(bizId, startDate, endDate))
+                .build()
+                .forEach(snapshotRepository::upsertScope);
+    }
+
+    private static LocalDate toDate(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toLocalDate() : null;
+    }
+
+    private static int toInt(Number value) {
+        return value != null ? value.intValue() : 0;
+    }
+}
@@ -0,0 +1,83 @@
+package com.qtick.mis.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-tenant, per-day staff scores kept in sorted structures so that top-N
+ * lookups do not scan bills. Ranges spanning several days are answered by
+ * summing the daily scores.
+ */
+public interface StaffLeaderboard {
+
+    /**
+     * Replaces the scores of one tenant and day.
+     *
+     * @param bizId the business ID
+     * @param date the day
+     * @param scores the scores of every staff member with activity on the day; may be empty
+     */
+    void replaceDay(Long bizId, LocalDate date, Collection<StaffScore> scores);
+
+    /**
+     * Removes a day so that it is reloaded on next use.
+     */
+    void evictDay(Long bizId, LocalDate date);
+
+    /**
+     * Gets the days of a range whose scores are present and were loaded
+     * recently enough to be served without reloading.
+     */
+    Set<LocalDate> loadedDays(Long bizId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Ranks staff over a range.
+     *
+     * @param bizId the business ID
+     * @param startDate first day of the range
+     * @param endDate last day of the range
+     * @param metric the score to rank by
+     * @param limit maximum number of entries
+     * @return the best staff first, with every score summed over the range
+     */
+    List<StaffScore> top(Long bizId, LocalDate startDate, LocalDate endDate, Metric metric, int limit);
+
+    /**
+     * Scores a leaderboard can rank by.
+     */
+    enum Metric {
+        REVENUE,
+        JOBS;
+
+        /**
+         * Parses the dashboard sortBy parameter, ranking by revenue when it is absent.
+         * Staff ratings are not scored, so sortBy=rating is rejected rather than
+         * silently ranked by revenue.
+         *
+         * @throws IllegalArgumentException if the metric is not supported
+         */
+        public static Metric fromSortBy(String sortBy) {
+            if (sortBy == null || "revenue".equalsIgnoreCase(sortBy)) {
+                return REVENUE;
+            }
+            if ("jobs".equalsIgnoreCase(sortBy)) {
+                return JOBS;
+            }
+            throw new IllegalArgumentException("Unsupported staff sortBy: " + sortBy);
+        }
+    }
+
+    /**
+     * Scores of one staff member.
+     */
+    record StaffScore(Long staffId, String staffName, BigDecimal revenue, int jobs) {
+
+        StaffScore plus(StaffScore other) {
+            return new StaffScore(staffId, staffName != null ? staffName : other.staffName(),
+                                  revenue.add(other.revenue()), jobs + other.jobs());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.event.DashboardDataChangedEvent;
+import com.qtick.mis.repository.jpa.BillRepository;
+import com.qtick.mis.repository.projection.DayStaffRevenue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers staff rankings from the {@link StaffLeaderboard}, loading days into
+ * it on demand. Closed days are loaded once and kept until their data changes
+ * or the leaderboard's closed-day TTL passes; today, in the tenant's timezone,
+ * is reloaded on every request since bills are still being written.
+ * All missing days of a request are loaded with a single grouped query.
+ */
+@Component
+public class StaffLeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaffLeaderboardService.class);
+
+    @Autowired
+    private StaffLeaderboard staffLeaderboard;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * Ranks staff over a range.
+     *
+     * @param bizId the business ID
+     * @param startDate first day of the range
+     * @param endDate last day of the range
+     * @param sortBy revenue or jobs
+     * @param limit maximum number of entries
+     * @param zone the tenant's timezone, deciding which day is still open
+     * @return the best staff first
+     * @throws IllegalArgumentException if sortBy is not supported
+     */
+    public List<StaffLeaderboard.StaffScore> top(Long bizId, LocalDate startDate, LocalDate endDate,
+                                                 String sortBy, int limit, ZoneId zone) {
+        StaffLeaderboard.Metric metric = StaffLeaderboard.Metric.fromSortBy(sortBy);
+        LocalDate today = LocalDate.now(clock.withZone(zone));
+        Set<LocalDate> loaded = staffLeaderboard.loadedDays(bizId, startDate, endDate);
+
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (!loaded.contains(day) || !day.isBefore(today)) {
+                missing.add(day);
+            }
+        }
+        if (!missing.isEmpty()) {
+            load(bizId, missing);
+        }
+
+        return staffLeaderboard.top(bizId, startDate, endDate, metric, limit);
+    }
+
+    /**
+     * Drops a changed day so that the next request reloads it.
+     */
+    @EventListener
+    public void onDashboardDataChanged(DashboardDataChangedEvent event) {
+        if (event.date() != null) {
+            staffLeaderboard.evictDay(event.bizId(), event.date());
+        }
+    }
+
+    private void load(Long bizId, List<LocalDate> days) {
+        LocalDate first = days.get(0);
+        LocalDate last = days.get(days.size() - 1);
+        logger.debug("Loading staff leaderboard for bizId: {}, {} days between {} and {}",
+                    bizId, days.size(), first, last);
+
+        Map<LocalDate, Map<Long, StaffLeaderboard.StaffScore>> scoresByDay = new HashMap<>();
+        for (DayStaffRevenue row : billRepository.sumStaffRevenueByDay(bizId, first, last)) {
+            StaffLeaderboard.StaffScore score = new StaffLeaderboard.StaffScore(
+                    row.staffId(), row.staffName(),
+                    row.revenue() != null ? row.revenue() : BigDecimal.ZERO, row.jobs().intValue());
+            scoresByDay.computeIfAbsent(row.day(), day -> new LinkedHashMap<>())
+                    .merge(score.staffId(), score, StaffLeaderboard.StaffScore::plus);
+        }
+
+        // Days without bills are stored empty so they are not queried again
+        for (LocalDate day : days) {
+            staffLeaderboard.replaceDay(bizId, day, scoresByDay.getOrDefault(day, Map.of()).values());
+        }
+    }
+}
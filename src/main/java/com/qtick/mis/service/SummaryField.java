@@ -0,0 +1,137 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * KPIs of the dashboard summary that a client may select with {@code fields=},
+ * with the table each one is computed from and accessors for its value and delta.
+ */
+public enum SummaryField {
+
+    GROSS_SALES("grossSales", Source.BILLS, DashboardSummaryDto::getGrossSales,
+            summary -> summary.setGrossSales(null), DashboardSummaryDto::setGrossSalesDelta),
+    NET_SALES("netSales", Source.BILLS, DashboardSummaryDto::getNetSales,
+            summary -> summary.setNetSales(null), DashboardSummaryDto::setNetSalesDelta),
+    BILLS("bills", Source.BILLS, summary -> decimal(summary.getBills()),
+            summary -> summary.setBills(null), DashboardSummaryDto::setBillsDelta),
+    AVG_BILL("avgBill", Source.BILLS, DashboardSummaryDto::getAvgBill,
+            summary -> summary.setAvgBill(null), DashboardSummaryDto::setAvgBillDelta),
+    NEW_LEADS("newLeads", Source.ENQUIRIES, summary -> decimal(summary.getNewLeads()),
+            summary -> summary.setNewLeads(null), DashboardSummaryDto::setNewLeadsDelta),
+    TOTAL_LEADS("totalLeads", Source.ENQUIRIES, summary -> decimal(summary.getTotalLeads()),
+            summary -> summary.setTotalLeads(null), DashboardSummaryDto::setTotalLeadsDelta),
+    MISSED_LEADS("missedLeads", Source.ENQUIRIES, summary -> decimal(summary.getMissedLeads()),
+            summary -> summary.setMissedLeads(null), DashboardSummaryDto::setMissedLeadsDelta),
+    APPOINTMENTS("appointments", Source.APPOINTMENTS, summary -> decimal(summary.getAppointments()),
+            summary -> summary.setAppointments(null), DashboardSummaryDto::setAppointmentsDelta),
+    RETURNING_CUSTOMERS("returningCustomers", Source.CLIENTS, summary -> decimal(summary.getReturningCustomers()),
+            summary -> summary.setReturningCustomers(null), DashboardSummaryDto::setReturningCustomersDelta);
+
+    /**
+     * Table a KPI is computed from; each one costs a query per uncached range.
+     */
+    public enum Source {
+        BILLS, ENQUIRIES, APPOINTMENTS, CLIENTS
+    }
+
+    public static final Set<SummaryField> ALL = Collections.unmodifiableSet(EnumSet.allOf(SummaryField.class));
+
+    private final String fieldName;
+    private final Source source;
+    private final Function<DashboardSummaryDto, BigDecimal> value;
+    private final Consumer<DashboardSummaryDto> clear;
+    private final BiConsumer<DashboardSummaryDto, BigDecimal> delta;
+
+    SummaryField(String fieldName, Source source, Function<DashboardSummaryDto, BigDecimal> value,
+                 Consumer<DashboardSummaryDto> clear, BiConsumer<DashboardSummaryDto, BigDecimal> delta) {
+        this.fieldName = fieldName;
+        this.source = source;
+        this.value = value;
+        this.clear = clear;
+        this.delta = delta;
+    }
+
+    /**
+     * Gets the JSON field name used by the API.
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Gets the table the KPI is computed from.
+     */
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the KPI's value in a summary as a decimal, zero when absent.
+     */
+    public BigDecimal valueOf(DashboardSummaryDto summary) {
+        BigDecimal result = value.apply(summary);
+        return result != null ? result : BigDecimal.ZERO;
+    }
+
+    /**
+     * Removes the KPI from a summary so it is left out of the response.
+     */
+    public void clear(DashboardSummaryDto summary) {
+        clear.accept(summary);
+    }
+
+    /**
+     * Sets the KPI's comparison delta on a summary.
+     */
+    public void setDelta(DashboardSummaryDto summary, BigDecimal percentage) {
+        delta.accept(summary, percentage);
+    }
+
+    /**
+     * Parses the requested field names case-insensitively.
+     *
+     * @param names field names, e.g. grossSales; {@code null} or empty selects every field
+     * @return the selected fields
+     */
+    public static Set<SummaryField> parse(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return ALL;
+        }
+        Set<SummaryField> fields = EnumSet.noneOf(SummaryField.class);
+        for (String name : names) {
+            fields.add(fromName(name.trim()));
+        }
+        return fields;
+    }
+
+    /**
+     * Gets the tables needed to compute the given fields.
+     */
+    public static Set<Source> sourcesOf(Collection<SummaryField> fields) {
+        Set<Source> sources = EnumSet.noneOf(Source.class);
+        fields.forEach(field -> sources.add(field.source));
+        return sources;
+    }
+
+    private static SummaryField fromName(String name) {
+        for (SummaryField field : values()) {
+            if (field.fieldName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported summary field: " + name);
+    }
+
+    private static BigDecimal decimal(Integer value) {
+        return value != null ? new BigDecimal(value) : null;
+    }
+}
@@ -0,0 +1,84 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.config.TimezoneConfig;
+import com.qtick.mis.security.TenantContext;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Tracks how often each tenant opens the dashboard, and when. Access counts
+ * decay with a one-week half-life, so the ranking follows recent use. The
+ * local time of each day's first access is kept for the last week; their
+ * median predicts when the tenant opens. The timezone a tenant last used is
+ * kept after it goes idle, for background jobs that need its local day.
+ */
+public interface TenantAccessTracker {
+
+    Duration HALF_LIFE = Duration.ofDays(7);
+    Duration IDLE_LIMIT = Duration.ofDays(30);
+    int OPENING_SAMPLES = 7;
+
+    /**
+     * Records a dashboard access by a tenant.
+     */
+    void record(TenantContext context);
+
+    /**
+     * Gets the tenants accessed within the last 30 days, most frequently accessed first.
+     */
+    List<TenantActivity> byFrequency();
+
+    /**
+     * Gets the timezone a tenant last accessed the dashboard with, or the
+     * application zone, which tokens without a timezone default to, for
+     * tenants never seen.
+     */
+    ZoneId zoneFor(Long bizId);
+
+    /**
+     * Claims the warm-up of a tenant's local day, so that only one instance warms it.
+     *
+     * @param bizId the business ID
+     * @param day the tenant's local day
+     * @return whether the claim succeeded; {@code false} if the day was already claimed
+     */
+    boolean claimWarmUp(Long bizId, LocalDate day);
+
+    /**
+     * Parses a tenant's timezone, falling back to the application zone.
+     */
+    static ZoneId zoneOf(String timezone) {
+        try {
+            return timezone != null ? ZoneId.of(timezone) : TimezoneConfig.APPLICATION_ZONE;
+        } catch (DateTimeException e) {
+            return TimezoneConfig.APPLICATION_ZONE;
+        }
+    }
+
+    /**
+     * Median of the recorded first-access times, or {@code null} without any.
+     */
+    static LocalTime medianOpening(List<LocalTime> firstAccesses) {
+        if (firstAccesses.isEmpty()) {
+            return null;
+        }
+        List<LocalTime> sorted = firstAccesses.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+
+    /**
+     * Recent dashboard use of a tenant.
+     *
+     * @param bizId the tenant
+     * @param zone the tenant's timezone
+     * @param score the decayed access count
+     * @param predictedOpening the predicted local opening time, or {@code null} before any access
+     */
+    record TenantActivity(Long bizId, ZoneId zone, double score, LocalTime predictedOpening) {
+    }
+}
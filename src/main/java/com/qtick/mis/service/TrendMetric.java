@@ -0,0 +1,84 @@
+package com.qtick.mis.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Metrics available as dashboard trends, with the snapshot fields each one is derived from.
+ */
+public enum TrendMetric {
+
+    GROSS_SALES("grossSales"),
+    NET_SALES("netSales"),
+    BILLS("bills"),
+    AVG_BILL("avgBill", "grossSales", "bills") {
+        @Override
+        public BigDecimal valueOf(Map<String, BigDecimal> totals) {
+            BigDecimal bills = totals.getOrDefault("bills", BigDecimal.ZERO);
+            if (bills.compareTo(BigDecimal.ZERO) == 0) {
+                return BigDecimal.ZERO;
+            }
+            return totals.getOrDefault("grossSales", BigDecimal.ZERO).divide(bills, 2, RoundingMode.HALF_UP);
+        }
+    },
+    NEW_LEADS("newLeads"),
+    TOTAL_LEADS("totalLeads"),
+    MISSED_LEADS("missedLeads"),
+    APPOINTMENTS("appointments"),
+    RETURNING_CUSTOMERS("returningCustomers"),
+    WALK_INS("walkIns"),
+    NO_SHOWS("noShows");
+
+    private final String metricName;
+    private final List<String> sourceFields;
+
+    TrendMetric(String metricName) {
+        this(metricName, metricName);
+    }
+
+    TrendMetric(String metricName, String... sourceFields) {
+        this.metricName = metricName;
+        this.sourceFields = List.of(sourceFields);
+    }
+
+    /**
+     * Gets the metric name used by the API.
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+
+    /**
+     * Gets the snapshot fields that must be summed to compute this metric.
+     */
+    public List<String> getSourceFields() {
+        return sourceFields;
+    }
+
+    /**
+     * Computes the metric from the summed snapshot fields of one bucket.
+     *
+     * @param totals summed values keyed by snapshot field name; empty for a bucket without data
+     * @return the metric value
+     */
+    public BigDecimal valueOf(Map<String, BigDecimal> totals) {
+        return totals.getOrDefault(metricName, BigDecimal.ZERO);
+    }
+
+    /**
+     * Parses a metric name case-insensitively.
+     *
+     * @param name the metric name, e.g. grossSales
+     * @return the matching metric
+     */
+    public static TrendMetric fromName(String name) {
+        for (TrendMetric metric : values()) {
+            if (metric.metricName.equalsIgnoreCase(name)) {
+                return metric;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported trend metric: " + name);
+    }
+}
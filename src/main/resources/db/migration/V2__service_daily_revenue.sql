@@ -0,0 +1,18 @@
+-- Daily revenue per tenant, branch and service, rebuilt from bills and bill_items
+CREATE TABLE service_daily_revenue (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    biz_id BIGINT NOT NULL,
+    -- 0 for bills without a branch, so the row's scope can be a unique key
+    branch_id BIGINT NOT NULL DEFAULT 0,
+    revenue_date DATE NOT NULL,
+    service_id BIGINT NOT NULL,
+    service_name VARCHAR(100) NULL,
+    revenue DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    jobs INT NOT NULL DEFAULT 0,
+    clients INT NOT NULL DEFAULT 0,
+    updated_on DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_sdr_scope UNIQUE (biz_id, branch_id, revenue_date, service_id)
+);
+
+CREATE INDEX idx_sdr_biz_date_service ON service_daily_revenue (biz_id, revenue_date, service_id);
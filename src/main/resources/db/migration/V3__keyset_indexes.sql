@@ -0,0 +1,4 @@
+-- Seek orders of the keyset listings; InnoDB appends the primary key as the tie-breaker
+CREATE INDEX idx_appointment_biz_staff_date ON appointments (biz_id, staff_id, appointment_date);
+
+CREATE INDEX idx_client_biz_type_visit ON clients (biz_id, business_type, last_visit_date);
@@ -0,0 +1,4 @@
+-- A service's clients summed over days count returning clients once per day, so the column holds visits
+ALTER TABLE service_daily_revenue RENAME COLUMN clients TO visits;
+
+-- Days before the aggregate was maintained are rolled up by the snapshot materializer, a chunk of days per run
@@ -0,0 +1,20 @@
+-- Covering indexes for the dashboard watermark: MAX(updated_on) of a tenant's date range is read from the index alone
+CREATE INDEX idx_bill_biz_date_updated ON bills (biz_id, bill_date, updated_on);
+
+CREATE INDEX idx_appointment_biz_date_updated ON appointments (biz_id, appointment_date, updated_on);
+
+CREATE INDEX idx_enquiry_biz_created_updated ON enquiries (biz_id, created_on, updated_on);
+
+CREATE INDEX idx_client_biz_created_updated ON clients (biz_id, created_on, updated_on);
+
+CREATE INDEX idx_sdr_biz_date_updated ON service_daily_revenue (biz_id, revenue_date, updated_on);
+
+-- Deleted rows leave no updated_on behind, so removals from a tenant-day are recorded for the watermark.
+-- The services owning bills, appointments, enquiries and clients record the days they delete rows from
+-- or move rows out of; this service records the days it deletes service_daily_revenue rows from.
+CREATE TABLE dashboard_removals (
+    biz_id BIGINT NOT NULL,
+    data_date DATE NOT NULL,
+    removed_on DATETIME(6) NOT NULL,
+    PRIMARY KEY (biz_id, data_date)
+);
@@ -0,0 +1,8 @@
+-- Snapshot rewinds: the earliest business day of a tenant's rows changed since the last run is read from the index alone
+CREATE INDEX idx_bill_biz_updated_date ON bills (biz_id, updated_on, bill_date);
+
+CREATE INDEX idx_appointment_biz_updated_date ON appointments (biz_id, updated_on, appointment_date);
+
+CREATE INDEX idx_enquiry_biz_updated_created ON enquiries (biz_id, updated_on, created_on);
+
+CREATE INDEX idx_removal_biz_removed ON dashboard_removals (biz_id, removed_on, data_date);
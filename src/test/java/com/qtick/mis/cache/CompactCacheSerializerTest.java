@@ -0,0 +1,94 @@
+package com.qtick.mis.cache;
+
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
+import com.qtick.mis.dto.dashboard.TopServiceDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CompactCacheSerializer}.
+ */
+class CompactCacheSerializerTest {
+
+    private final CompactCacheSerializer serializer = new CompactCacheSerializer(1024);
+
+    @Test
+    void shouldRoundTripDashboardDtos() {
+        // Given
+        DashboardSummaryDto summary = new DashboardSummaryDto(new BigDecimal("1250.50"), new BigDecimal("1100.00"),
+                12, new BigDecimal("104.21"), 3, 10, 1, 8, 4);
+        summary.setPeriodStart(LocalDate.of(2024, 3, 1));
+        summary.setPeriodEnd(LocalDate.of(2024, 3, 15));
+
+        // When
+        Object read = serializer.deserialize(serializer.serialize(new StaleWhileRevalidateCache.Stamped(summary, 42L)));
+
+        // Then
+        StaleWhileRevalidateCache.Stamped stamped = assertInstanceOf(StaleWhileRevalidateCache.Stamped.class, read);
+        assertEquals(42L, stamped.writtenAt());
+        DashboardSummaryDto copy = assertInstanceOf(DashboardSummaryDto.class, stamped.value());
+        assertEquals(0, new BigDecimal("1250.50").compareTo(copy.getGrossSales()));
+        assertEquals(12, copy.getBills());
+        assertEquals(LocalDate.of(2024, 3, 15), copy.getPeriodEnd());
+    }
+
+    @Test
+    void shouldDeflateLargeValuesAndStaySmallerThanJson() {
+        // Given
+        List<TopServiceDto> services = topServices(50);
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        json.configure(mapper -> mapper.registerModule(new JavaTimeModule()));
+
+        // When
+        byte[] bytes = serializer.serialize(services);
+
+        // Then
+        assertEquals(CompactCacheSerializer.FLAG_DEFLATED, bytes[2]);
+        assertTrue(bytes.length < json.serialize(services).length / 3);
+        List<?> copy = assertInstanceOf(List.class, serializer.deserialize(bytes));
+        assertEquals(50, copy.size());
+        assertEquals("Service 49", ((TopServiceDto) copy.get(49)).getServiceName());
+    }
+
+    @Test
+    void shouldReadOtherVersionsAndFormatsAsMiss() {
+        // Given
+        byte[] bytes = serializer.serialize(topServices(1));
+        bytes[1] = (byte) (CompactCacheSerializer.SCHEMA_VERSION + 1);
+
+        // Then
+        assertNull(serializer.deserialize(bytes));
+        assertNull(serializer.deserialize("{\"@class\":\"java.util.ArrayList\"}".getBytes()));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    void shouldRejectTypesOutsideTheAllowList() {
+        // Given - a JDK type no cached DTO uses
+        byte[] bytes = serializer.serialize(List.of(URI.create("https://example.com")));
+
+        // Then
+        assertEquals(List.of(LocalDate.of(2024, 3, 1)),
+                serializer.deserialize(serializer.serialize(List.of(LocalDate.of(2024, 3, 1)))));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+
+    private static List<TopServiceDto> topServices(int count) {
+        List<TopServiceDto> services = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            services.add(new TopServiceDto((long) i, "Service " + i, new BigDecimal("1000.00").subtract(BigDecimal.valueOf(i)),
+                    10 + i, new BigDecimal("2.50")));
+        }
+        return services;
+    }
+}
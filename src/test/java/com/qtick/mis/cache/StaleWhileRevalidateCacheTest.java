@@ -0,0 +1,168 @@
+package com.qtick.mis.cache;
+
+import com.qtick.mis.datasource.ReplicaReadContextHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link StaleWhileRevalidateCache}.
+ */
+class StaleWhileRevalidateCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private StaleWhileRevalidateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StaleWhileRevalidateCache(new ConcurrentMapCache("summary", false),
+                Duration.ofSeconds(30), refreshes::add, clock);
+    }
+
+    @Test
+    void shouldServeFreshValueWithoutRefreshing() {
+        // Given
+        assertEquals("v1", cache.get("123:k", this::load));
+
+        // When
+        clock.advance(Duration.ofSeconds(29));
+
+        // Then
+        assertEquals("v1", cache.get("123:k", this::load));
+        assertTrue(refreshes.isEmpty());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldServeStaleValueWhileOneRefreshRuns() {
+        // Given
+        cache.get("123:k", this::load);
+        clock.advance(Duration.ofSeconds(31));
+
+        // When - many readers after the soft TTL
+        for (int i = 0; i < 5; i++) {
+            assertEquals("v1", cache.get("123:k", this::load));
+        }
+
+        // Then - a single refresh was scheduled and replaces the value once it runs
+        assertEquals(1, refreshes.size());
+        refreshes.get(0).run();
+        assertEquals("v2", cache.get("123:k", this::load));
+        assertEquals(2, loads.get());
+        assertEquals(1, refreshes.size());
+    }
+
+    @Test
+    void shouldKeepStaleValueWhenRefreshFails() {
+        // Given
+        cache.get("123:k", this::load);
+        clock.advance(Duration.ofMinutes(1));
+
+        // When
+        cache.get("123:k", () -> {
+            throw new IllegalStateException("database down");
+        });
+        refreshes.get(0).run();
+
+        // Then - and a later read may refresh again
+        assertEquals("v1", cache.get("123:k", this::load));
+        assertEquals(2, refreshes.size());
+    }
+
+    @Test
+    void shouldRecomputeValuesWrittenBeforeRequiredFreshness() {
+        // Given - a fresh value written before the data changed
+        cache.get("123:k", this::load);
+        clock.advance(Duration.ofSeconds(10));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            // When
+            CacheFreshness.requireSince(clock.instant().minusSeconds(5));
+
+            // Then - loaded synchronously rather than served stale
+            assertEquals("v2", cache.get("123:k", this::load));
+            assertTrue(refreshes.isEmpty());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void shouldRefreshWithCallersReplicaReadMarker() {
+        // Given
+        cache.get("123:k", this::load);
+        clock.advance(Duration.ofMinutes(1));
+        List<Boolean> replicaReads = new ArrayList<>();
+        ReplicaReadContextHolder.enable();
+        try {
+            cache.get("123:k", () -> {
+                replicaReads.add(ReplicaReadContextHolder.isEnabled());
+                return load();
+            });
+        } finally {
+            ReplicaReadContextHolder.clear();
+        }
+
+        // When
+        refreshes.get(0).run();
+
+        // Then - and the refreshing thread is left without the marker
+        assertEquals(List.of(true), replicaReads);
+        assertFalse(ReplicaReadContextHolder.isEnabled());
+    }
+
+    @Test
+    void shouldUnwrapValuesForPlainReads() {
+        // When
+        cache.put("123:k", "value");
+
+        // Then
+        assertEquals("value", cache.get("123:k").get());
+        assertEquals("value", cache.get("123:k", String.class));
+        assertNull(cache.get("123:missing"));
+    }
+
+    private String load() {
+        return "v" + loads.incrementAndGet();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-03-15T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
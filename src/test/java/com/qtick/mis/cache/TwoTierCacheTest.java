@@ -0,0 +1,144 @@
+package com.qtick.mis.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TwoTierCache}.
+ */
+class TwoTierCacheTest {
+
+    private ConcurrentMapCache remote;
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final List<String> published = new ArrayList<>();
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("trends", false);
+        local = Caffeine.newBuilder().maximumSize(100).build();
+        cache = new TwoTierCache("trends", local, remote,
+                (name, scope, key) -> published.add(name + "|" + scope + "|" + key));
+    }
+
+    @Test
+    void shouldPromoteRemoteHitsToLocalTier() {
+        // Given - written by another node
+        remote.put("123:getTrends:a", "value");
+
+        // When
+        Object first = cache.get("123:getTrends:a").get();
+        remote.evict("123:getTrends:a");
+        Object second = cache.get("123:getTrends:a").get();
+
+        // Then - the second read is served from L1
+        assertEquals("value", first);
+        assertEquals("value", second);
+        assertEquals("loaded", cache.get("123:other", () -> "loaded"));
+        assertEquals("loaded", remote.get("123:other").get());
+        assertEquals("loaded", local.getIfPresent("123:other"));
+    }
+
+    @Test
+    void shouldShareOneLoadPerKeyWithoutBlockingOtherKeys() throws Exception {
+        // Given - a slow load of one key is in flight
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> cache.get("123:a", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await();
+            return "a";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<Object> second = CompletableFuture.supplyAsync(() -> cache.get("123:a", () -> {
+            loads.incrementAndGet();
+            return "again";
+        }));
+        Object other = cache.get("123:b", () -> "b");
+        release.countDown();
+
+        // Then - the other key loaded meanwhile and the second reader got the first load
+        assertEquals("b", other);
+        assertEquals("a", first.get(5, TimeUnit.SECONDS));
+        assertEquals("a", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldReadSeveralKeysFromBothTiers() {
+        // Given - one key on this node, one written by another node and one missing
+        cache.put("123:a", "a");
+        remote.put("123:b", "b");
+
+        // When
+        Map<Object, Object> values = cache.getAll(List.of("123:a", "123:b", "123:c"));
+
+        // Then
+        assertEquals(Map.of("123:a", "a", "123:b", "b"), values);
+        assertEquals("b", local.getIfPresent("123:b"));
+    }
+
+    @Test
+    void shouldEvictBothTiersAndPublish() {
+        // Given
+        cache.put("123:getTrends:a", "value");
+
+        // When
+        cache.evict("123:getTrends:a");
+
+        // Then
+        assertNull(cache.get("123:getTrends:a"));
+        assertEquals(List.of("trends|KEY|123:getTrends:a"), published);
+    }
+
+    @Test
+    void shouldEvictOnlyTheTenantsEntries() {
+        // Given
+        cache.put("123:getTrends:a", "first");
+        cache.put("1234:getTrends:a", "other tenant");
+
+        // When
+        cache.evictTenant(123L);
+
+        // Then
+        assertNull(cache.get("123:getTrends:a"));
+        assertEquals("other tenant", cache.get("1234:getTrends:a").get());
+        assertEquals(List.of("trends|TENANT|123:"), published);
+    }
+
+    @Test
+    void shouldDropOnlyLocalEntriesOnRemoteInvalidation() {
+        // Given
+        cache.put("123:getTrends:a", "value");
+
+        // When
+        cache.invalidateLocal(TwoTierCache.Scope.KEY, "123:getTrends:a");
+
+        // Then - L2 still has it and nothing is re-broadcast
+        assertNull(local.getIfPresent("123:getTrends:a"));
+        assertEquals("value", cache.get("123:getTrends:a").get());
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void shouldWeighCollectionsByElementCount() {
+        assertEquals(1, TwoTierCacheManager.weigh("value"));
+        assertEquals(4, TwoTierCacheManager.weigh(List.of(1, 2, 3)));
+    }
+}
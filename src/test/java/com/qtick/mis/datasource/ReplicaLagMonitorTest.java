@@ -0,0 +1,154 @@
+package com.qtick.mis.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ReplicaLagMonitor}.
+ */
+class ReplicaLagMonitorTest {
+
+    private static final String LAG_QUERY = "SHOW REPLICA STATUS";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldKeepOnlyReplicasWithinThreshold() throws Exception {
+        // Given
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("fresh", replica(2L));
+        replicas.put("lagging", replica(30L));
+        replicas.put("stopped", replica(null));
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicas, Duration.ofSeconds(5), LAG_QUERY, meterRegistry);
+
+        // When
+        assertEquals(List.of(), monitor.getHealthyReplicas());
+        monitor.check();
+
+        // Then
+        assertEquals(List.of("fresh"), monitor.getHealthyReplicas());
+        assertEquals(30.0, meterRegistry.get(ReplicaLagMonitor.LAG_GAUGE_NAME).tag("replica", "lagging").gauge().value());
+        assertTrue(Double.isNaN(meterRegistry.get(ReplicaLagMonitor.LAG_GAUGE_NAME).tag("replica", "stopped").gauge().value()));
+    }
+
+    @Test
+    void shouldDropReplicaWhenCheckFails() throws Exception {
+        // Given
+        DataSource replica = replica(1L);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(Map.of("replica-1", replica), Duration.ofSeconds(5),
+                LAG_QUERY, meterRegistry);
+        monitor.check();
+        assertEquals(List.of("replica-1"), monitor.getHealthyReplicas());
+
+        // When
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        monitor.check();
+
+        // Then
+        assertEquals(List.of(), monitor.getHealthyReplicas());
+    }
+
+    @Test
+    void shouldTreatServerWithoutReplicationAsLagging() throws Exception {
+        // Given
+        DataSource replica = replica(0L);
+        ResultSet status = replica.getConnection().createStatement().executeQuery(LAG_QUERY);
+        when(status.next()).thenReturn(false);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(Map.of("replica-1", replica), Duration.ofSeconds(5),
+                LAG_QUERY, meterRegistry);
+
+        // When
+        monitor.check();
+
+        // Then
+        assertEquals(List.of(), monitor.getHealthyReplicas());
+        assertTrue(Double.isNaN(meterRegistry.get(ReplicaLagMonitor.LAG_GAUGE_NAME).tag("replica", "replica-1").gauge().value()));
+    }
+
+    @Test
+    void shouldReadLagColumnOfOlderServers() throws Exception {
+        // Given
+        DataSource replica = replica(3L);
+        ResultSet status = replica.getConnection().createStatement().executeQuery(LAG_QUERY);
+        when(status.findColumn("Seconds_Behind_Source")).thenThrow(new SQLException("Column not found"));
+        when(status.findColumn("Seconds_Behind_Master")).thenReturn(2);
+        when(status.getObject(2)).thenReturn(3L);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(Map.of("replica-1", replica), Duration.ofSeconds(5),
+                LAG_QUERY, meterRegistry);
+
+        // When
+        monitor.check();
+
+        // Then
+        assertEquals(List.of("replica-1"), monitor.getHealthyReplicas());
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenLastCheckIsStale() throws Exception {
+        // Given
+        Instant checkedAt = Instant.parse("2024-03-15T10:00:00Z");
+        AtomicReference<Instant> now = new AtomicReference<>(checkedAt);
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(Map.of("replica-1", replica(0L)), Duration.ofSeconds(5),
+                LAG_QUERY, meterRegistry, clock);
+        monitor.check();
+
+        // When
+        now.set(checkedAt.plusSeconds(5));
+        List<String> recent = monitor.getHealthyReplicas();
+        now.set(checkedAt.plusSeconds(6));
+        List<String> stale = monitor.getHealthyReplicas();
+
+        // Then - checks have stopped, so the replica's current lag is unknown
+        assertEquals(List.of("replica-1"), recent);
+        assertEquals(List.of(), stale);
+    }
+
+    private static DataSource replica(Long lagSeconds) throws SQLException {
+        ResultSet status = mock(ResultSet.class);
+        when(status.next()).thenReturn(true);
+        when(status.findColumn("Seconds_Behind_Source")).thenReturn(1);
+        when(status.getObject(1)).thenReturn(lagSeconds);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(status);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenReturn(connection);
+        return replica;
+    }
+}
@@ -0,0 +1,110 @@
+package com.qtick.mis.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ReplicaRoutingDataSource}.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DataSource primary;
+    private DataSource replica1;
+    private DataSource replica2;
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        primary = mock(DataSource.class);
+        replica1 = mock(DataSource.class);
+        replica2 = mock(DataSource.class);
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        when(lagMonitor.getHealthyReplicas()).thenReturn(List.of("replica-1", "replica-2"));
+        when(lagMonitor.getReplica("replica-1")).thenReturn(replica1);
+        when(lagMonitor.getReplica("replica-2")).thenReturn(replica2);
+        dataSource = new ReplicaRoutingDataSource(primary, lagMonitor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        ReplicaReadContextHolder.clear();
+    }
+
+    @Test
+    void shouldUsePrimaryOutsideReadOnlyWork() {
+        assertSame(primary, dataSource.determineTarget());
+        assertEquals(1.0, routes("primary"));
+    }
+
+    @Test
+    void shouldAlternateReplicasForReadOnlyTransactions() {
+        // Given
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When / Then
+        assertSame(replica1, dataSource.determineTarget());
+        assertSame(replica2, dataSource.determineTarget());
+        assertSame(replica1, dataSource.determineTarget());
+        assertEquals(3.0, routes("replica"));
+    }
+
+    @Test
+    void shouldUseReplicaForMarkedThreadOutsideTransactions() {
+        ReplicaReadContextHolder.enable();
+
+        assertSame(replica1, dataSource.determineTarget());
+    }
+
+    @Test
+    void shouldKeepReadWriteTransactionsOnPrimaryForMarkedThread() {
+        // Given
+        ReplicaReadContextHolder.enable();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // When / Then
+        assertSame(primary, dataSource.determineTarget());
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicasLag() {
+        // Given
+        when(lagMonitor.getHealthyReplicas()).thenReturn(List.of());
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When / Then
+        assertSame(primary, dataSource.determineTarget());
+        assertEquals(1.0, routes("primary-fallback"));
+    }
+
+    @Test
+    void shouldUnwrapToPrimary() throws Exception {
+        // Given
+        Map<?, ?> pool = mock(Map.class);
+        when(primary.unwrap(Map.class)).thenReturn(pool);
+
+        // When / Then
+        assertSame(pool, dataSource.unwrap(Map.class));
+        assertSame(dataSource, dataSource.unwrap(ReplicaRoutingDataSource.class));
+    }
+
+    private double routes(String route) {
+        return meterRegistry.get(ReplicaRoutingDataSource.ROUTE_COUNTER_NAME).tag("route", route).counter().count();
+    }
+}
@@ -0,0 +1,108 @@
+package com.qtick.mis.event;
+
+import com.qtick.mis.entity.Appointment;
+import com.qtick.mis.entity.Bill;
+import com.qtick.mis.entity.Client;
+import com.qtick.mis.entity.Enquiry;
+import com.qtick.mis.entity.EnquiryStage;
+import com.qtick.mis.entity.EnquiryStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DashboardDataChangeListener}.
+ */
+class DashboardDataChangeListenerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 15);
+
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    private final DashboardDataChangeListener listener = new DashboardDataChangeListener();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldReportBusinessDateOfEachEntity() {
+        // Given
+        Client client = new Client(123L, "John Doe", "9876543210", "john@example.com");
+        Bill bill = new Bill(123L, client, "B-001", DATE, new BigDecimal("10.00"), new BigDecimal("10.00"));
+        Appointment appointment = new Appointment(123L, client, DATE.atTime(18, 30), 11L, "Haircut");
+        Enquiry enquiry = new Enquiry(123L, "Jane", "9876543211", null, EnquiryStage.LEAD, EnquiryStatus.ACTIVE);
+        enquiry.setCreatedOn(LocalDateTime.of(2024, 3, 14, 23, 59));
+
+        // Then
+        assertEquals(new DashboardDataChangedEvent(123L, DATE), DashboardDataChangeListener.eventFor(bill));
+        assertEquals(new DashboardDataChangedEvent(123L, DATE), DashboardDataChangeListener.eventFor(appointment));
+        assertEquals(new DashboardDataChangedEvent(123L, DATE.minusDays(1)), DashboardDataChangeListener.eventFor(enquiry));
+        assertNull(DashboardDataChangeListener.eventFor(client));
+    }
+
+    @Test
+    void shouldPublishDistinctEventsAfterCommit() {
+        // Given
+        ReflectionTestUtils.setField(listener, "eventPublisher", publisher);
+        Client client = new Client(123L, "John Doe", "9876543210", "john@example.com");
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When - two bills of the same day written in one transaction
+        listener.onWrite(new Bill(123L, client, "B-001", DATE, new BigDecimal("10.00"), new BigDecimal("10.00")));
+        listener.onWrite(new Bill(123L, client, "B-002", DATE, new BigDecimal("20.00"), new BigDecimal("20.00")));
+
+        // Then
+        verifyNoInteractions(publisher);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        verify(publisher, times(1)).publishEvent(new DashboardDataChangedEvent(123L, DATE));
+        assertFalse(TransactionSynchronizationManager.hasResource(
+                DashboardDataChangeListener.class.getName() + ".pending"));
+    }
+
+    @Test
+    void shouldPublishImmediatelyOutsideTransaction() {
+        // Given
+        ReflectionTestUtils.setField(listener, "eventPublisher", publisher);
+        Client client = new Client(123L, "John Doe", "9876543210", "john@example.com");
+
+        // When
+        listener.onWrite(new Appointment(123L, client, DATE.atStartOfDay(), 11L, "Haircut"));
+
+        // Then
+        verify(publisher).publishEvent(new DashboardDataChangedEvent(123L, DATE));
+    }
+
+    @Test
+    void shouldReportDayLeftByMovedBill() {
+        // Given - a bill loaded on one day and corrected to the next
+        ReflectionTestUtils.setField(listener, "eventPublisher", publisher);
+        Client client = new Client(123L, "John Doe", "9876543210", "john@example.com");
+        Bill bill = new Bill(123L, client, "B-001", DATE, new BigDecimal("10.00"), new BigDecimal("10.00"));
+        listener.onLoad(bill);
+        bill.setBillDate(DATE.plusDays(1));
+
+        // When
+        listener.onWrite(bill);
+        listener.onWrite(bill);
+
+        // Then - the old day is reported once, with the new one
+        verify(publisher).publishEvent(new DashboardDataChangedEvent(123L, DATE));
+        verify(publisher, times(2)).publishEvent(new DashboardDataChangedEvent(123L, DATE.plusDays(1)));
+        verifyNoMoreInteractions(publisher);
+    }
+}
@@ -0,0 +1,66 @@
+package com.qtick.mis.repository;
+
+import com.qtick.mis.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KeysetCursor}.
+ */
+class KeysetCursorTest {
+
+    @Test
+    void shouldRoundTripTypedKeysInOrder() {
+        // Given
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("billDate", LocalDate.of(2024, 3, 15));
+        keys.put("lastVisitDate", null);
+        keys.put("createdAt", LocalDateTime.of(2024, 3, 15, 10, 30, 15));
+        keys.put("name", "A|B=C");
+        keys.put("id", 42L);
+
+        // When
+        String cursor = KeysetCursor.encode(keys);
+
+        // Then
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+        assertEquals(List.copyOf(keys.entrySet()), List.copyOf(KeysetCursor.decode(cursor).entrySet()));
+    }
+
+    @Test
+    void shouldStartFromTheBeginningWithoutCursor() {
+        assertTrue(KeysetCursor.position(null).isInitial());
+        assertTrue(KeysetCursor.position("").isInitial());
+    }
+
+    @Test
+    void shouldRejectMalformedCursors() {
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("YWJj"));
+    }
+
+    @Test
+    void shouldExposeNextCursorOnlyWhenMorePagesExist() {
+        // Given
+        List<Long> ids = List.of(7L, 9L);
+        Window<Long> more = Window.from(ids, index -> ScrollPosition.forward(Map.of("id", ids.get(index))), true);
+        Window<Long> last = Window.from(ids, index -> ScrollPosition.forward(Map.of("id", ids.get(index))), false);
+
+        // When
+        KeysetScrollPosition next = KeysetCursor.position(KeysetCursor.next(more));
+
+        // Then
+        assertEquals(Map.of("id", 9L), next.getKeys());
+        assertNull(KeysetCursor.next(last));
+    }
+}
@@ -0,0 +1,270 @@
+package com.qtick.mis.repository.jpa;
+
+import com.qtick.mis.entity.Bill;
+import com.qtick.mis.entity.BillItem;
+import com.qtick.mis.entity.BillPayment;
+import com.qtick.mis.entity.Client;
+import com.qtick.mis.entity.DashboardRemoval;
+import com.qtick.mis.entity.PaymentMode;
+import com.qtick.mis.repository.projection.BranchBills;
+import com.qtick.mis.repository.projection.BranchDayBills;
+import com.qtick.mis.repository.projection.ClientBills;
+import com.qtick.mis.repository.projection.ClientServiceBills;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BillRepository.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class BillRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    private final LocalDate today = LocalDate.of(2024, 3, 15);
+
+    private Long clientId;
+
+    private Long otherClientId;
+
+    @BeforeEach
+    void setUp() {
+        Client client = new Client(123L, "John Doe", "9876543210", "john@example.com");
+        entityManager.persistAndFlush(client);
+
+        Bill bill1 = new Bill(123L, client, "B-001", today, new BigDecimal("100.00"), new BigDecimal("90.00"));
+        bill1.setPaidAmount(new BigDecimal("90.00"));
+        bill1.addItem(new BillItem(bill1, 11L, "Haircut", 1, new BigDecimal("40.00")));
+        bill1.addItem(new BillItem(bill1, 12L, "Shave", 2, new BigDecimal("30.00")));
+
+        Bill bill2 = new Bill(123L, client, "B-002", today.minusDays(1), new BigDecimal("250.50"), new BigDecimal("250.50"));
+        bill2.setPaidAmount(new BigDecimal("100.00"));
+
+        bill2.setBranchId(201L);
+
+        Bill outOfRange = new Bill(123L, client, "B-003", today.minusDays(30), new BigDecimal("999.00"), new BigDecimal("999.00"));
+
+        Client otherClient = new Client(456L, "Bob Johnson", "9876543212", "bob@example.com");
+        entityManager.persistAndFlush(otherClient);
+        Bill otherTenant = new Bill(456L, otherClient, "B-101", today, new BigDecimal("500.00"), new BigDecimal("500.00"));
+        otherTenant.addItem(new BillItem(otherTenant, 11L, "Haircut", 1, new BigDecimal("500.00")));
+
+        entityManager.persistAndFlush(bill1);
+        entityManager.persistAndFlush(bill2);
+        entityManager.persistAndFlush(outOfRange);
+        entityManager.persistAndFlush(otherTenant);
+        clientId = client.getCustId();
+        otherClientId = otherClient.getCustId();
+    }
+
+    @Test
+    void shouldSummarizeKpisByDayAndBranch() {
+        // When
+        List<BranchDayBills> rows = billRepository.summarizeKpisByDayAndBranch(123L, today.minusDays(6), today);
+
+        // Then - one row per day, the bill without a branch reported under null
+        assertEquals(2, rows.size());
+        BranchDayBills yesterday = rows.stream().filter(row -> row.branchId() != null).findFirst().orElseThrow();
+        assertEquals(201L, yesterday.branchId());
+        assertEquals(0, new BigDecimal("250.50").compareTo(yesterday.grossSales()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(yesterday.netSales()));
+        assertEquals(1L, yesterday.bills());
+        BranchDayBills todayRow = rows.stream().filter(row -> row.branchId() == null).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("100.00").compareTo(todayRow.grossSales()));
+        assertNotEquals(yesterday.day(), todayRow.day());
+    }
+
+    @Test
+    void shouldSummarizeKpisLikePerKpiQueries() {
+        // Given
+        LocalDate start = today.minusDays(6);
+        LocalDate end = today;
+
+        // When
+        List<BranchDayBills> rows = billRepository.summarizeKpisByDayAndBranch(123L, start, end);
+
+        // Then - the summed rows equal the per-KPI queries they replace
+        BigDecimal grossSales = rows.stream().map(BranchDayBills::grossSales).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal netSales = rows.stream().map(BranchDayBills::netSales).reduce(BigDecimal.ZERO, BigDecimal::add);
+        long bills = rows.stream().mapToLong(BranchDayBills::bills).sum();
+        assertEquals(0, billRepository.sumTotalAmountByBizIdAndDateRange(123L, start, end).compareTo(grossSales));
+        assertEquals(0, billRepository.sumPaidAmountByBizIdAndDateRange(123L, start, end).compareTo(netSales));
+        assertEquals(billRepository.countByBizIdAndDateRange(123L, start, end).longValue(), bills);
+        assertEquals(0, new BigDecimal("350.50").compareTo(grossSales));
+        assertEquals(0, new BigDecimal("190.00").compareTo(netSales));
+        assertEquals(2L, bills);
+    }
+
+    @Test
+    void shouldSummarizeByBranchOnDate() {
+        // When
+        List<BranchBills> rows = billRepository.summarizeByBranchOnDate(123L, today.minusDays(1));
+
+        // Then
+        assertEquals(1, rows.size());
+        assertEquals(201L, rows.get(0).branchId());
+        assertEquals(0, new BigDecimal("250.50").compareTo(rows.get(0).grossSales()));
+        assertEquals(1L, rows.get(0).bills());
+    }
+
+    @Test
+    void shouldSummarizeRequestedClientsOnDate() {
+        // Given - the other tenant's client is requested too but must not leak in
+        List<Long> custIds = List.of(clientId, otherClientId);
+
+        // When
+        List<ClientBills> bills = billRepository.summarizeByClientsOnDate(123L, custIds, today);
+        List<ClientServiceBills> services = billRepository.findServiceBreakdownByClients(123L, custIds, today);
+
+        // Then
+        assertEquals(1, bills.size());
+        assertEquals(clientId, bills.get(0).custId());
+        assertEquals(1L, bills.get(0).bills());
+        assertEquals(0, new BigDecimal("100.00").compareTo(bills.get(0).revenue()));
+
+        assertEquals(2, services.size());
+        assertTrue(services.stream().allMatch(row -> clientId.equals(row.custId()) && Long.valueOf(1L).equals(row.bills())));
+        ClientServiceBills shave = services.stream().filter(row -> Long.valueOf(12L).equals(row.serviceId())).findFirst().orElseThrow();
+        assertEquals("Shave", shave.serviceName());
+        assertEquals(0, new BigDecimal("60.00").compareTo(shave.revenue()));
+    }
+
+    @Test
+    void shouldFindLatestChangeInRange() {
+        // Given
+        LocalDate start = today.minusDays(6);
+        LocalDateTime latestBill = billRepository.findAll().stream()
+                .filter(bill -> bill.getBizId().equals(123L) && !bill.getBillDate().isBefore(start))
+                .map(Bill::getUpdatedOn)
+                .max(LocalDateTime::compareTo)
+                .orElseThrow();
+
+        // When
+        LocalDateTime latest = billRepository.findLatestChangeInRange(123L, start, today,
+                start.atStartOfDay(), today.plusDays(1).atStartOfDay());
+        LocalDateTime none = billRepository.findLatestChangeInRange(789L, start, today,
+                start.atStartOfDay(), today.plusDays(1).atStartOfDay());
+
+        // Then
+        assertEquals(latestBill.withNano(0), latest.withNano(0));
+        assertNull(none);
+    }
+
+    @Test
+    void shouldMoveLatestChangeWhenRowsAreRemoved() {
+        // Given - the owning service records a removal after every remaining row was written
+        LocalDate start = today.minusDays(6);
+        LocalDateTime removedOn = LocalDateTime.of(2030, 1, 1, 9, 0);
+        entityManager.persistAndFlush(new DashboardRemoval(123L, today, removedOn));
+        entityManager.persistAndFlush(new DashboardRemoval(123L, today.plusDays(1), removedOn.plusHours(1)));
+
+        // When
+        LocalDateTime latest = billRepository.findLatestChangeInRange(123L, start, today,
+                start.atStartOfDay(), today.plusDays(1).atStartOfDay());
+
+        // Then - removals from days outside the range are ignored
+        assertEquals(removedOn, latest);
+    }
+
+    @Test
+    void shouldFindFirstDayChangedAfter() {
+        // Given
+        LocalDateTime removedOn = LocalDateTime.of(2030, 1, 1, 9, 0);
+        entityManager.persistAndFlush(new DashboardRemoval(123L, today.minusDays(40), removedOn.minusHours(1)));
+        entityManager.persistAndFlush(new DashboardRemoval(123L, today.minusDays(2), removedOn));
+
+        // When
+        LocalDate changed = billRepository.findFirstBillDateUpdatedAfter(123L, LocalDateTime.now().minusHours(1));
+        LocalDate unchanged = billRepository.findFirstBillDateUpdatedAfter(123L, LocalDateTime.now().plusHours(1));
+        LocalDate removed = billRepository.findFirstRemovalDateAfter(123L, removedOn.minusMinutes(30));
+
+        // Then - only rows written after the given time count
+        assertEquals(today.minusDays(30), changed);
+        assertNull(unchanged);
+        assertEquals(today.minusDays(2), removed);
+    }
+
+    @Test
+    void shouldScrollBillsByKeysetWithoutCounting() {
+        // When
+        Window<Bill> first = billRepository.findByBizIdOrderByBillDateDescIdDesc(123L, ScrollPosition.keyset(), Limit.of(2));
+        Window<Bill> second = billRepository.findByBizIdOrderByBillDateDescIdDesc(
+                123L, first.positionAt(first.size() - 1), Limit.of(2));
+
+        // Then
+        assertEquals(List.of("B-001", "B-002"), first.map(Bill::getBillNumber).getContent());
+        assertTrue(first.hasNext());
+        assertEquals(List.of("B-003"), second.map(Bill::getBillNumber).getContent());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void shouldLoadPageWithItemsAndPaymentsInThreeQueries() {
+        // Given
+        persistBills(777L, 60);
+
+        // When
+        List<Bill> page = StatementCounter.assertAtMost(3,
+                () -> billRepository.findPageWithItemsAndPaymentsByBizId(777L, PageRequest.of(0, 50)));
+        boolean complete = StatementCounter.assertAtMost(0, () -> hasOneItemAndPaymentEach(page));
+
+        // Then - newest first, every bill with its item and payment
+        assertEquals(50, page.size());
+        assertEquals("N-060", page.get(0).getBillNumber());
+        assertTrue(complete);
+    }
+
+    @Test
+    void shouldBatchFetchItemsAndPaymentsOfPlainPage() {
+        // Given
+        persistBills(777L, 50);
+        List<Bill> page = billRepository.findByBizIdOrderByBillDateDesc(777L, PageRequest.of(0, 50)).getContent();
+
+        // When - one batch query per association rather than two per bill
+        boolean complete = StatementCounter.assertAtMost(2, () -> hasOneItemAndPaymentEach(page));
+
+        // Then
+        assertEquals(50, page.size());
+        assertTrue(complete);
+    }
+
+    /**
+     * Initializes the items and payments of every bill, as rendering them would.
+     */
+    private static boolean hasOneItemAndPaymentEach(List<Bill> bills) {
+        return bills.stream().allMatch(bill -> bill.getItems().size() == 1 && bill.getPayments().size() == 1);
+    }
+
+    private void persistBills(Long bizId, int count) {
+        Client client = entityManager.persistAndFlush(new Client(bizId, "Page Client", "9876500000", "page@example.com"));
+        for (int i = 1; i <= count; i++) {
+            Bill bill = new Bill(bizId, client, String.format("N-%03d", i), today.minusDays(count - i),
+                    new BigDecimal("10.00"), new BigDecimal("10.00"));
+            bill.addItem(new BillItem(bill, 11L, "Haircut", 1, new BigDecimal("10.00")));
+            bill.addPayment(new BillPayment(bill, new BigDecimal("10.00"), PaymentMode.CASH, today.atStartOfDay()));
+            entityManager.persist(bill);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -8,11 +8,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -356,4 +358,35 @@ class ClientRepositoryTest {
         assertEquals(2, page.getTotalPages());
         assertEquals(1, page.getContent().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSeekBusinessClientsInOffsetOrder() {
+        // Given - a tie on last visit and a client that never visited
+        LocalDateTime visit = LocalDateTime.of(2024, 3, 10, 9, 0);
+        for (String name : List.of("Tie A", "Tie B", "Never")) {
+            Client client = new Client(123L, name, "9" + Math.abs(name.hashCode()), null);
+            client.setBusinessType("Retail");
+            client.setLastVisitDate(name.equals("Never") ? null : visit);
+            entityManager.persistAndFlush(client);
+        }
+        List<Long> expected = clientRepository.findBusinessClientsByType(123L, "Retail", PageRequest.of(0, 10))
+                .stream().map(Client::getCustId).toList();
+
+        // When - walking pages of two by seeking past the last client of each page
+        List<Long> seen = new ArrayList<>();
+        List<Client> page = clientRepository.findBusinessClientsByType(123L, "Retail", PageRequest.of(0, 2));
+        while (!page.isEmpty()) {
+            page.forEach(client -> seen.add(client.getCustId()));
+            Client last = page.get(page.size() - 1);
+            page = last.getLastVisitDate() != null
+                    ? clientRepository.findBusinessClientsByTypeAfter(123L, "Retail", last.getLastVisitDate(),
+                                                                      last.getCustId(), Limit.of(2))
+                    : clientRepository.findNeverVisitedBusinessClientsByTypeAfter(123L, "Retail",
+                                                                                  last.getCustId(), Limit.of(2));
+        }
+
+        // Then
+        assertEquals(4, expected.size());
+        assertEquals(expected, seen);
+    }
+}
@@ -0,0 +1,86 @@
+package com.qtick.mis.repository.jpa;
+
+import com.qtick.mis.entity.DayQReport;
+import com.qtick.mis.repository.projection.QueueStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DayQReportRepository.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class DayQReportRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DayQReportRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(row(123L, 20240130, "D", 2, 10.0, 5));
+        entityManager.persist(row(123L, 20240131, "D", 3, 20.0, 7));
+        entityManager.persist(row(123L, 20240201, "D", 4, 40.0, 11));
+        entityManager.persist(row(456L, 20240131, "D", 9, 90.0, 9));
+        entityManager.flush();
+    }
+
+    @Test
+    void shouldRollUpDaysPerTenant() {
+        // When - rolled up twice to show a rollup replaces the previous one
+        repository.deleteByPeriod("M", 202401);
+        repository.insertRollup("M", 202401, 20240101, 20240131);
+        repository.deleteByPeriod("M", 202401);
+        int written = repository.insertRollup("M", 202401, 20240101, 20240131);
+
+        // Then
+        assertEquals(2, written);
+        QueueStats month = repository.sumAcrossPeriods(123L, List.of(-1), List.of(202401), List.of(-1));
+        assertEquals(5L, month.served());
+        assertEquals(30.0, month.sales());
+        assertEquals(12L, month.viewCount());
+    }
+
+    @Test
+    void shouldSumMixedPeriodTypes() {
+        // Given
+        repository.insertRollup("M", 202401, 20240101, 20240131);
+
+        // When
+        QueueStats stats = repository.sumAcrossPeriods(123L, List.of(20240201), List.of(202401), List.of(-1));
+        QueueStats none = repository.sumAcrossPeriods(123L, List.of(-1), List.of(-1), List.of(2023));
+
+        // Then
+        assertEquals(9L, stats.served());
+        assertEquals(70.0, stats.sales());
+        assertEquals(23L, stats.viewCount());
+        assertEquals(0L, none.served());
+        assertEquals(0.0, none.sales());
+    }
+
+    private static DayQReport row(Long bizId, int periodId, String periodType, int served, double sales, int peeped) {
+        DayQReport report = new DayQReport();
+        report.setBizId(bizId);
+        report.setPeriodId(periodId);
+        report.setPeriodType(periodType);
+        report.setServed(served);
+        report.setSales(sales);
+        report.setNetSales(sales);
+        report.setQueued(served);
+        report.setMissed(0);
+        report.setLeftQ(0);
+        report.setCancelled(0);
+        report.setPeeped(peeped);
+        return report;
+    }
+}
@@ -3,6 +3,11 @@ package com.qtick.mis.repository.jpa;
 import com.qtick.mis.entity.Enquiry;
 import com.qtick.mis.entity.EnquiryStage;
 import com.qtick.mis.entity.EnquiryStatus;
+import com.qtick.mis.entity.EnquiryThread;
+import com.qtick.mis.entity.ThreadDirection;
+import com.qtick.mis.entity.ThreadType;
+import com.qtick.mis.repository.projection.BranchDayLeads;
+import com.qtick.mis.repository.projection.GroupCount;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +17,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -92,6 +98,26 @@ class EnquiryRepositoryTest {
         assertFalse(notFound.isPresent());
     }
 
+    @Test
+    void shouldFindWithThreadsInOneQuery() {
+        // Given
+        testEnquiry1.addThread(new EnquiryThread(testEnquiry1, ThreadType.NOTE, "Asked for pricing",
+                ThreadDirection.INBOUND, 101L, "Agent"));
+        testEnquiry1.addThread(new EnquiryThread(testEnquiry1, ThreadType.PHONE_CALL, "Called back",
+                ThreadDirection.OUTBOUND, 101L, "Agent"));
+        entityManager.persistAndFlush(testEnquiry1);
+        entityManager.clear();
+
+        // When
+        Optional<Enquiry> found = StatementCounter.assertAtMost(1,
+                () -> enquiryRepository.findWithThreadsByIdAndBizId(testEnquiry1.getId(), 123L));
+
+        // Then
+        assertTrue(found.isPresent());
+        assertEquals(2, StatementCounter.assertAtMost(0, () -> found.get().getThreads().size()));
+        assertFalse(enquiryRepository.findWithThreadsByIdAndBizId(testEnquiry1.getId(), 456L).isPresent());
+    }
+
     @Test
     void shouldFindByBizIdAndStage() {
         // When
@@ -194,15 +220,15 @@ class EnquiryRepositoryTest {
     @Test
     void shouldCountEnquiriesByStage() {
         // When
-        List<Object[]> stageCount = enquiryRepository.countEnquiriesByStage(123L);
+        List<GroupCount<EnquiryStage>> stageCount = enquiryRepository.countEnquiriesByStage(123L);
 
         // Then
         assertEquals(2, stageCount.size());
         // Results should contain LEAD and QUALIFIED stages with count 1 each
         boolean foundLead = false, foundQualified = false;
-        for (Object[] result : stageCount) {
-            EnquiryStage stage = (EnquiryStage) result[0];
-            Long count = (Long) result[1];
+        for (GroupCount<EnquiryStage> result : stageCount) {
+            EnquiryStage stage = result.key();
+            Long count = result.count();
             if (stage == EnquiryStage.LEAD) {
                 foundLead = true;
                 assertEquals(1L, count);
@@ -215,6 +241,20 @@ class EnquiryRepositoryTest {
         assertTrue(foundQualified);
     }
 
+    @Test
+    void shouldCountEnquiriesByDateAndHour() {
+        // When
+        LocalDateTime startDate = LocalDateTime.now().minusDays(1);
+        List<GroupCount<LocalDate>> byDate = enquiryRepository.countEnquiriesByDate(123L, startDate);
+        List<GroupCount<Integer>> byHour = enquiryRepository.countEnquiriesByHour(123L, startDate);
+
+        // Then - both enquiries of the tenant were created just now
+        assertEquals(2L, byDate.stream().mapToLong(GroupCount::count).sum());
+        assertNotNull(byDate.get(0).key());
+        assertEquals(2L, byHour.stream().mapToLong(GroupCount::count).sum());
+        assertTrue(byHour.stream().allMatch(row -> row.key() >= 0 && row.key() < 24));
+    }
+
     @Test
     void shouldCountNewEnquiries() {
         // When
@@ -278,4 +318,39 @@ class EnquiryRepositoryTest {
         assertEquals(2, page.getTotalPages());
         assertEquals(1, page.getContent().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSummarizeKpisByDayAndBranch() {
+        // Given
+        LocalDateTime start = LocalDate.now().minusDays(1).atStartOfDay();
+        LocalDateTime end = start.plusDays(3);
+
+        // When
+        List<BranchDayLeads> rows = enquiryRepository.summarizeKpisByDayAndBranch(123L, start, end);
+
+        // Then - both enquiries were created on the same day in branch 201
+        assertEquals(1, rows.size());
+        assertNotNull(rows.get(0).day());
+        assertEquals(201L, rows.get(0).branchId());
+        assertEquals(2L, rows.get(0).totalLeads());
+    }
+
+    @Test
+    void shouldSummarizeKpisLikePerKpiQueries() {
+        // Given - the per-KPI queries include the range end, the grouped query does not
+        LocalDateTime start = LocalDate.now().minusDays(1).atStartOfDay();
+        LocalDateTime end = start.plusDays(3);
+
+        // When
+        List<BranchDayLeads> rows = enquiryRepository.summarizeKpisByDayAndBranch(123L, start, end);
+
+        // Then - the summed rows equal the per-KPI queries they replace
+        assertEquals(enquiryRepository.countNewEnquiriesByBizIdAndDateRange(123L, start, end).longValue(),
+                rows.stream().mapToLong(BranchDayLeads::newLeads).sum());
+        assertEquals(enquiryRepository.countByBizIdAndDateRange(123L, start, end).longValue(),
+                rows.stream().mapToLong(BranchDayLeads::totalLeads).sum());
+        assertEquals(enquiryRepository.countMissedEnquiriesByBizIdAndDateRange(123L, start, end).longValue(),
+                rows.stream().mapToLong(BranchDayLeads::missedLeads).sum());
+        assertEquals(2L, rows.stream().mapToLong(BranchDayLeads::totalLeads).sum());
+    }
+}
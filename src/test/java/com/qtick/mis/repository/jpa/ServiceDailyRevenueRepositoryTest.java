@@ -0,0 +1,126 @@
+package com.qtick.mis.repository.jpa;
+
+import com.qtick.mis.entity.Bill;
+import com.qtick.mis.entity.BillItem;
+import com.qtick.mis.entity.Client;
+import com.qtick.mis.entity.ServiceDailyRevenue;
+import com.qtick.mis.repository.projection.BranchServiceDay;
+import com.qtick.mis.repository.projection.TopServiceRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ServiceDailyRevenueRepository.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ServiceDailyRevenueRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ServiceDailyRevenueRepository repository;
+
+    private final LocalDate today = LocalDate.of(2024, 3, 15);
+
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        client = new Client(123L, "John Doe", "9876543210", "john@example.com");
+        Client other = new Client(123L, "Jane Smith", "9876543211", "jane@example.com");
+        entityManager.persist(client);
+        entityManager.persist(other);
+
+        Bill first = new Bill(123L, client, "B-001", today, new BigDecimal("130.00"), new BigDecimal("130.00"));
+        first.setBranchId(201L);
+        first.addItem(new BillItem(first, 11L, "Haircut", 1, new BigDecimal("40.00")));
+        first.addItem(new BillItem(first, 12L, "Colour", 1, new BigDecimal("90.00")));
+
+        Bill second = new Bill(123L, other, "B-002", today, new BigDecimal("80.00"), new BigDecimal("80.00"));
+        second.setBranchId(201L);
+        second.addItem(new BillItem(second, 11L, "Haircut", 2, new BigDecimal("40.00")));
+
+        Bill yesterday = new Bill(123L, client, "B-003", today.minusDays(1), new BigDecimal("60.00"), new BigDecimal("60.00"));
+        yesterday.addItem(new BillItem(yesterday, 13L, "Shave", 2, new BigDecimal("30.00")));
+
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.persist(yesterday);
+        entityManager.flush();
+    }
+
+    @Test
+    void shouldSummarizeDayFromBills() {
+        // When
+        List<BranchServiceDay> rows = repository.summarizeBillsOnDate(123L, today);
+
+        // Then
+        assertEquals(2, rows.size());
+        BranchServiceDay haircut = rows.stream().filter(row -> row.serviceId() == 11L).findFirst().orElseThrow();
+        assertEquals(201L, haircut.branchId());
+        assertEquals("Haircut", haircut.serviceName());
+        assertEquals(0, new BigDecimal("120.00").compareTo(haircut.revenue()));
+        assertEquals(2L, haircut.jobs());
+        assertEquals(2L, haircut.visits());
+    }
+
+    @Test
+    void shouldRankAndTotalInOneQuery() {
+        // Given
+        store(today);
+        store(today.minusDays(1));
+
+        // When
+        List<TopServiceRow> top = repository.findTopServices(123L, today.minusDays(1), today, "revenue", 2);
+        List<TopServiceRow> byJobs = repository.findTopServices(123L, today.minusDays(1), today, "jobs", 1);
+
+        // Then - the total covers services beyond the limit
+        assertEquals(2, top.size());
+        assertEquals(List.of(11L, 12L), top.stream().map(TopServiceRow::getServiceId).toList());
+        assertEquals(0, new BigDecimal("270.00").compareTo(top.get(0).getTotalRevenue()));
+        assertEquals(2L, top.get(0).getVisits());
+        assertEquals(1, byJobs.size());
+        assertEquals(11L, byJobs.get(0).getServiceId());
+    }
+
+    @Test
+    void shouldCountReturningClientOncePerDayAsVisits() {
+        // Given - the client billed for a shave yesterday comes back for one today
+        Bill again = new Bill(123L, client, "B-004", today, new BigDecimal("30.00"), new BigDecimal("30.00"));
+        again.addItem(new BillItem(again, 13L, "Shave", 1, new BigDecimal("30.00")));
+        entityManager.persistAndFlush(again);
+        store(today);
+        store(today.minusDays(1));
+
+        // When
+        List<TopServiceRow> top = repository.findTopServices(123L, today.minusDays(1), today, "revenue", 10);
+
+        // Then
+        TopServiceRow shave = top.stream().filter(row -> row.getServiceId() == 13L).findFirst().orElseThrow();
+        assertEquals(2L, shave.getVisits());
+    }
+
+    private void store(LocalDate date) {
+        for (BranchServiceDay row : repository.summarizeBillsOnDate(123L, date)) {
+            ServiceDailyRevenue revenue = new ServiceDailyRevenue(123L, row.branchId(), date, row.serviceId(),
+                    row.serviceName());
+            revenue.setRevenue(row.revenue());
+            revenue.setJobs(row.jobs().intValue());
+            revenue.setVisits(row.visits().intValue());
+            entityManager.persist(revenue);
+        }
+        entityManager.flush();
+    }
+}
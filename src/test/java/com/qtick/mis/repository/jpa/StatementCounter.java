@@ -0,0 +1,41 @@
+package com.qtick.mis.repository.jpa;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Records the SQL statements Hibernate prepares on the current thread. It is
+ * the statement inspector of the test profile, so any test can guard a call
+ * against issuing one query per parent row.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        statements.get().add(sql);
+        return sql;
+    }
+
+    /**
+     * Runs a call and fails if it issues more than the given number of statements.
+     *
+     * @param max  the most statements the call may issue
+     * @param call the call to run
+     * @return the result of the call
+     */
+    public static <T> T assertAtMost(int max, Supplier<T> call) {
+        statements.get().clear();
+        T result = call.get();
+        List<String> issued = List.copyOf(statements.get());
+        assertTrue(issued.size() <= max, () -> "Expected at most " + max + " statements but " + issued.size()
+                + " were issued:\n" + String.join("\n", issued));
+        return result;
+    }
+}
@@ -5,8 +5,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
@@ -341,6 +344,22 @@ class ActivityEventRepositoryTest {
         assertEquals(1, page.getContent().size());
     }
 
+    @Test
+    void shouldScrollByKeysetWithoutCounting() {
+        // When
+        Window<ActivityEvent> first = activityEventRepository.findByBizIdOrderByCreatedAtDescIdDesc(
+                123L, ScrollPosition.keyset(), Limit.of(1));
+        Window<ActivityEvent> second = activityEventRepository.findByBizIdOrderByCreatedAtDescIdDesc(
+                123L, first.positionAt(0), Limit.of(1));
+
+        // Then
+        assertEquals(1, first.size());
+        assertTrue(first.hasNext());
+        assertEquals(1, second.size());
+        assertFalse(second.hasNext());
+        assertNotEquals(first.getContent().get(0).getId(), second.getContent().get(0).getId());
+    }
+
     @Test
     void shouldFindRecentActivities() {
         // When
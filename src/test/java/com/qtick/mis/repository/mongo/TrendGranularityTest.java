@@ -0,0 +1,44 @@
+package com.qtick.mis.repository.mongo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TrendGranularity}.
+ */
+class TrendGranularityTest {
+
+    @Test
+    void shouldStartWeeksOnMondayAcrossYearBoundary() {
+        // Given - Friday 2021-01-01 belongs to ISO week 53 of 2020
+        LocalDate date = LocalDate.of(2021, 1, 1);
+
+        // When
+        LocalDate bucketStart = TrendGranularity.WEEK.bucketStart(date);
+
+        // Then
+        assertEquals(LocalDate.of(2020, 12, 28), bucketStart);
+        assertEquals(bucketStart, TrendGranularity.WEEK.fromKey(2020, 53));
+        assertEquals(LocalDate.of(2021, 1, 4), TrendGranularity.WEEK.next(bucketStart));
+    }
+
+    @Test
+    void shouldConvertGroupKeysBackToBucketStarts() {
+        assertEquals(LocalDate.of(2024, 3, 1), TrendGranularity.DAY.fromKey(2024, 61));
+        assertEquals(LocalDate.of(2024, 3, 1), TrendGranularity.MONTH.fromKey(2024, 3));
+        assertEquals(LocalDate.of(2024, 4, 1), TrendGranularity.MONTH.next(TrendGranularity.MONTH.bucketStart(
+                LocalDate.of(2024, 3, 31))));
+    }
+
+    @Test
+    void shouldParseApiPeriods() {
+        assertEquals(TrendGranularity.DAY, TrendGranularity.fromPeriod("day"));
+        assertEquals(TrendGranularity.WEEK, TrendGranularity.fromPeriod("Weekly"));
+        assertEquals(TrendGranularity.MONTH, TrendGranularity.fromPeriod("month"));
+        assertThrows(IllegalArgumentException.class, () -> TrendGranularity.fromPeriod("quarter"));
+        assertThrows(IllegalArgumentException.class, () -> TrendGranularity.fromPeriod(null));
+    }
+}
@@ -0,0 +1,97 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.dto.dashboard.BusinessDetailsDto;
+import com.qtick.mis.dto.dashboard.DailyJobStatsDto;
+import com.qtick.mis.dto.dashboard.ServiceBreakdownDto;
+import com.qtick.mis.entity.Client;
+import com.qtick.mis.repository.projection.ClientBills;
+import com.qtick.mis.repository.projection.ClientServiceAppointments;
+import com.qtick.mis.repository.projection.ClientServiceBills;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BusinessDetailsAssembler}.
+ */
+class BusinessDetailsAssemblerTest {
+
+    private final BusinessDetailsAssembler assembler = new BusinessDetailsAssembler();
+
+    private final LocalDate date = LocalDate.of(2024, 3, 15);
+
+    @Test
+    void shouldMergeGroupedRowsPerClient() {
+        // Given
+        Client acme = client(1L, "Acme");
+        acme.setLastVisitDate(LocalDateTime.of(2024, 3, 14, 10, 30));
+        Client globex = client(2L, "Globex");
+
+        List<ClientBills> billRows = List.of(
+                new ClientBills(1L, 3L, new BigDecimal("150.00")));
+        List<ClientServiceAppointments> appointmentRows = List.of(
+                new ClientServiceAppointments(1L, 11L, "Haircut", 2L, 1L),
+                new ClientServiceAppointments(1L, 12L, "Shave", 1L, 0L),
+                new ClientServiceAppointments(2L, 11L, "Haircut", 1L, 1L));
+        List<ClientServiceBills> billServiceRows = List.of(
+                new ClientServiceBills(1L, 11L, "Haircut", 2L, new BigDecimal("100.00")),
+                new ClientServiceBills(1L, 13L, "Colour", 1L, new BigDecimal("50.00")));
+
+        // When
+        List<BusinessDetailsDto> details = assembler.assemble(
+                List.of(acme, globex), date, billRows, appointmentRows, billServiceRows);
+
+        // Then
+        assertEquals(2, details.size());
+        BusinessDetailsDto first = details.get(0);
+        assertEquals(1L, first.getCustId());
+        assertEquals(LocalDate.of(2024, 3, 14), first.getLastVisit());
+
+        DailyJobStatsDto stats = first.getDailyStats();
+        assertEquals(date, stats.getDate());
+        assertEquals(3, stats.getTotalAppointments());
+        assertEquals(1, stats.getTotalWalkIns());
+        assertEquals(3, stats.getTotalBills());
+        assertEquals(0, new BigDecimal("150.00").compareTo(stats.getTotalRevenue()));
+
+        List<ServiceBreakdownDto> breakdown = stats.getServiceBreakdown();
+        assertEquals(List.of("Haircut", "Shave", "Colour"),
+                breakdown.stream().map(ServiceBreakdownDto::getServiceName).toList());
+        assertEquals(2, breakdown.get(0).getAppointmentCount());
+        assertEquals(2, breakdown.get(0).getBillCount());
+        assertEquals(0, new BigDecimal("100.00").compareTo(breakdown.get(0).getRevenue()));
+        assertEquals(0, breakdown.get(2).getAppointmentCount());
+
+        DailyJobStatsDto second = details.get(1).getDailyStats();
+        assertEquals(1, second.getTotalWalkIns());
+        assertEquals(0, second.getTotalBills());
+        assertEquals(0, BigDecimal.ZERO.compareTo(second.getTotalRevenue()));
+    }
+
+    @Test
+    void shouldReturnZeroStatsForClientsWithoutActivity() {
+        // When
+        List<BusinessDetailsDto> details = assembler.assemble(
+                List.of(client(1L, "Acme")), date, List.of(), List.of(), List.of());
+
+        // Then
+        DailyJobStatsDto stats = details.get(0).getDailyStats();
+        assertEquals(0, stats.getTotalAppointments());
+        assertEquals(0, stats.getTotalBills());
+        assertTrue(stats.getServiceBreakdown().isEmpty());
+        assertNull(details.get(0).getLastVisit());
+    }
+
+    private static Client client(Long custId, String businessName) {
+        Client client = new Client(123L, businessName, "98765432" + custId, null);
+        client.setCustId(custId);
+        client.setBusinessName(businessName);
+        client.setBusinessType("Corporate");
+        return client;
+    }
+}
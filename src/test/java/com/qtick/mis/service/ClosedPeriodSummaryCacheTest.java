@@ -0,0 +1,179 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
+import com.qtick.mis.event.DashboardDataChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ClosedPeriodSummaryCache}.
+ */
+class ClosedPeriodSummaryCacheTest {
+
+    private static final ZoneId SINGAPORE = ZoneId.of("Asia/Singapore");
+
+    // 2024-03-15 17:00 UTC is already 2024-03-16 in Singapore
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-03-15T17:00:00Z"));
+    private final ClosedPeriodSummaryCache cache = new ClosedPeriodSummaryCache(clock, Duration.ofSeconds(60),
+            Duration.ofHours(1), 3);
+
+    @Test
+    void shouldKeepClosedPeriodsUntilClosedTtl() {
+        // Given
+        cache.put(123L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15), SINGAPORE, null, summary("100.00"));
+
+        // When / Then
+        clock.advance(Duration.ofMinutes(59));
+        assertNotNull(cache.get(123L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15), null));
+        clock.advance(Duration.ofMinutes(1));
+        assertNull(cache.get(123L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15), null));
+    }
+
+    @Test
+    void shouldSkipEntriesOlderThanRequiredFreshness() {
+        // Given
+        Instant watermark = Instant.parse("2024-03-15T16:00:00Z");
+        cache.put(123L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), SINGAPORE, watermark, summary("1.00"));
+        cache.put(456L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), SINGAPORE, null, summary("1.00"));
+
+        // When / Then
+        assertNotNull(cache.get(123L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), watermark));
+        assertNull(cache.get(123L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), watermark.plusSeconds(1)));
+        assertNull(cache.get(456L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), watermark));
+        assertNotNull(cache.get(456L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), null));
+    }
+
+    @Test
+    void shouldExpireOpenPeriodsAfterTtl() {
+        // Given - the range ends on the tenant's today
+        cache.put(123L, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 16), SINGAPORE, null, summary("100.00"));
+        assertNotNull(cache.get(123L, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 16), null));
+
+        // When
+        clock.advance(Duration.ofSeconds(61));
+
+        // Then
+        assertNull(cache.get(123L, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 16), null));
+    }
+
+    @Test
+    void shouldUseTenantTimezoneForToday() {
+        // Given - March 15 is still today in UTC but already closed in Singapore
+        cache.put(123L, LocalDate.of(2024, 3, 15), LocalDate.of(2024, 3, 15), ZoneOffset.UTC, null, summary("1.00"));
+        cache.put(456L, LocalDate.of(2024, 3, 15), LocalDate.of(2024, 3, 15), SINGAPORE, null, summary("1.00"));
+
+        // When
+        clock.advance(Duration.ofMinutes(5));
+
+        // Then
+        assertNull(cache.get(123L, LocalDate.of(2024, 3, 15), LocalDate.of(2024, 3, 15), null));
+        assertNotNull(cache.get(456L, LocalDate.of(2024, 3, 15), LocalDate.of(2024, 3, 15), null));
+    }
+
+    @Test
+    void shouldReturnIndependentCopies() {
+        // Given
+        DashboardSummaryDto original = summary("100.00");
+        cache.put(123L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), SINGAPORE, null, original);
+
+        // When
+        original.setGrossSales(BigDecimal.ONE);
+        DashboardSummaryDto cached = cache.get(123L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), null);
+        cached.setGrossSalesDelta(BigDecimal.TEN);
+
+        // Then
+        DashboardSummaryDto again = cache.get(123L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), null);
+        assertEquals(new BigDecimal("100.00"), again.getGrossSales());
+        assertNull(again.getGrossSalesDelta());
+    }
+
+    @Test
+    void shouldInvalidateRangesContainingChangedDate() {
+        // Given
+        cache.put(123L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), SINGAPORE, null, summary("1.00"));
+        cache.put(123L, LocalDate.of(2024, 3, 8), LocalDate.of(2024, 3, 14), SINGAPORE, null, summary("2.00"));
+        cache.put(456L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), SINGAPORE, null, summary("3.00"));
+
+        // When
+        cache.onDashboardDataChanged(new DashboardDataChangedEvent(123L, LocalDate.of(2024, 3, 5)));
+
+        // Then
+        assertNull(cache.get(123L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), null));
+        assertNotNull(cache.get(123L, LocalDate.of(2024, 3, 8), LocalDate.of(2024, 3, 14), null));
+        assertNotNull(cache.get(456L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), null));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedBeyondBound() {
+        // Given
+        cache.put(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), SINGAPORE, null, summary("1.00"));
+        cache.put(2L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), SINGAPORE, null, summary("1.00"));
+        cache.put(3L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), SINGAPORE, null, summary("1.00"));
+        cache.get(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null);
+
+        // When
+        cache.put(4L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), SINGAPORE, null, summary("1.00"));
+
+        // Then
+        assertNotNull(cache.get(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null));
+        assertNull(cache.get(2L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null));
+    }
+
+    private DashboardSummaryDto summary(String grossSales) {
+        return new DashboardSummaryDto(new BigDecimal(grossSales), new BigDecimal(grossSales), 1,
+                new BigDecimal(grossSales), 0, 0, 0, 0, 0);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            MutableClock outer = this;
+            return new Clock() {
+                @Override
+                public ZoneId getZone() {
+                    return zone;
+                }
+
+                @Override
+                public Clock withZone(ZoneId other) {
+                    return outer.withZone(other);
+                }
+
+                @Override
+                public Instant instant() {
+                    return outer.instant();
+                }
+            };
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
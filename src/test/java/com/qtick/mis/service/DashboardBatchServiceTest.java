@@ -0,0 +1,183 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.datasource.ReplicaReadContextHolder;
+import com.qtick.mis.dto.dashboard.BusinessViewCountDto;
+import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
+import com.qtick.mis.dto.dashboard.TopServiceDto;
+import com.qtick.mis.dto.dashboard.TrendDataDto;
+import com.qtick.mis.dto.dashboard.WidgetResultDto;
+import com.qtick.mis.dto.dashboard.WidgetSpecDto;
+import com.qtick.mis.exception.DashboardTimeoutException;
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DashboardBatchService}.
+ */
+class DashboardBatchServiceTest {
+
+    private final LocalDate start = LocalDate.of(2024, 3, 1);
+    private final LocalDate end = LocalDate.of(2024, 3, 7);
+
+    private DashboardBatchService batchService;
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = mock(DashboardService.class);
+        batchService = new DashboardBatchService();
+        ReflectionTestUtils.setField(batchService, "dashboardService", dashboardService);
+        ReflectionTestUtils.setField(batchService, "requestCoalescer", new RequestCoalescer(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(batchService, "timeout", Duration.ofSeconds(5));
+        TenantContextHolder.setContext(new TenantContext(1L, 123L, Set.of(), Set.of(), "Asia/Singapore", "user"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.destroy();
+        TenantContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldShareTrendAggregationAndIdenticalWidgets() {
+        // Given
+        when(dashboardService.getTrends(anyList(), any(), any(), any())).thenReturn(List.of(
+                new TrendDataDto(start, "grossSales", new BigDecimal("10.00"), "day"),
+                new TrendDataDto(start, "bills", new BigDecimal("2"), "day")));
+        AtomicReference<Long> tenant = new AtomicReference<>();
+        when(dashboardService.getTopServices(start, end, "revenue", 5)).thenAnswer(invocation -> {
+            tenant.set(TenantContextHolder.getContext().getBizId());
+            return List.of(new TopServiceDto());
+        });
+
+        // When
+        List<WidgetResultDto> results = batchService.execute(List.of(
+                trends("sales-trend", "grossSales"),
+                trends("bills-trend", "bills"),
+                widget("services", DashboardBatchService.TOP_SERVICES),
+                widget("services-again", DashboardBatchService.TOP_SERVICES)));
+
+        // Then
+        assertEquals(List.of(200, 200, 200, 200), results.stream().map(WidgetResultDto::getStatus).toList());
+        assertEquals(List.of("grossSales"), metricsOf(results.get(0)));
+        assertEquals(List.of("bills"), metricsOf(results.get(1)));
+        verify(dashboardService, times(1)).getTrends(List.of("grossSales", "bills"), start, end, "day");
+        verify(dashboardService, times(1)).getTopServices(start, end, "revenue", 5);
+        assertEquals(123L, tenant.get());
+    }
+
+    @Test
+    void shouldReportErrorsPerWidget() {
+        // Given
+        when(dashboardService.getSummary(start, end, null, null, SummaryField.ALL)).thenReturn(new DashboardSummaryDto());
+        when(dashboardService.getTopStaff(any(), any(), any(), any())).thenThrow(new IllegalStateException("boom"));
+        when(dashboardService.getBusinessViewCount(start, end))
+                .thenThrow(new DashboardTimeoutException("viewCount", null));
+
+        // When
+        List<WidgetResultDto> results = batchService.execute(List.of(
+                widget("summary", DashboardBatchService.SUMMARY),
+                widget("staff", DashboardBatchService.TOP_STAFF),
+                widget("views", DashboardBatchService.BUSINESS_VIEW_COUNT),
+                widget("unknown", "heatmap"),
+                trends("bad-metric", "nonsense")));
+
+        // Then
+        assertEquals(List.of(200, 500, 504, 400, 400), results.stream().map(WidgetResultDto::getStatus).toList());
+        assertNotNull(results.get(0).getData());
+        assertEquals("Widget failed", results.get(1).getError());
+        assertEquals("Unsupported widget type: heatmap", results.get(3).getError());
+        assertEquals("bad-metric", results.get(4).getId());
+        verify(dashboardService, never()).getTrends(anyList(), any(), any(), any());
+    }
+
+    @Test
+    void shouldReportWidgetsMissingTheDeadline() {
+        // Given
+        ReflectionTestUtils.setField(batchService, "timeout", Duration.ofMillis(50));
+        when(dashboardService.getBusinessViewCount(start, end)).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return new BusinessViewCountDto();
+        });
+
+        // When
+        List<WidgetResultDto> results = batchService.execute(List.of(
+                widget("views", DashboardBatchService.BUSINESS_VIEW_COUNT)));
+
+        // Then
+        assertEquals(504, results.get(0).getStatus());
+        assertNull(results.get(0).getData());
+    }
+
+    @Test
+    void shouldReportEveryIdenticalWidgetMissingTheDeadline() {
+        // Given - two widgets share one slow computation
+        ReflectionTestUtils.setField(batchService, "timeout", Duration.ofMillis(50));
+        when(dashboardService.getBusinessViewCount(start, end)).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return new BusinessViewCountDto();
+        });
+
+        // When
+        List<WidgetResultDto> results = batchService.execute(List.of(
+                widget("views", DashboardBatchService.BUSINESS_VIEW_COUNT),
+                widget("views-again", DashboardBatchService.BUSINESS_VIEW_COUNT)));
+
+        // Then - the first widget's timeout did not cancel the computation under the second
+        assertEquals(List.of(504, 504), results.stream().map(WidgetResultDto::getStatus).toList());
+        verify(dashboardService, times(1)).getBusinessViewCount(start, end);
+    }
+
+    @Test
+    void shouldRunWidgetsWithCallersReplicaReadMarker() {
+        // Given
+        AtomicReference<Boolean> replicaReads = new AtomicReference<>();
+        when(dashboardService.getBusinessViewCount(start, end)).thenAnswer(invocation -> {
+            replicaReads.set(ReplicaReadContextHolder.isEnabled());
+            return new BusinessViewCountDto();
+        });
+        ReplicaReadContextHolder.enable();
+
+        // When
+        try {
+            batchService.execute(List.of(widget("views", DashboardBatchService.BUSINESS_VIEW_COUNT)));
+        } finally {
+            ReplicaReadContextHolder.clear();
+        }
+
+        // Then
+        assertTrue(replicaReads.get());
+    }
+
+    private WidgetSpecDto widget(String id, String type) {
+        return new WidgetSpecDto(id, type, start, end);
+    }
+
+    private WidgetSpecDto trends(String id, String metric) {
+        WidgetSpecDto widget = widget(id, DashboardBatchService.TRENDS);
+        widget.setMetrics(List.of(metric));
+        widget.setPeriod("day");
+        return widget;
+    }
+
+    private static List<String> metricsOf(WidgetResultDto result) {
+        return ((List<?>) result.getData()).stream().map(point -> ((TrendDataDto) point).getMetric()).toList();
+    }
+}
@@ -0,0 +1,157 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.datasource.ReplicaReadContextHolder;
+import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
+import com.qtick.mis.event.DashboardDataChangedEvent;
+import com.qtick.mis.repository.projection.DailyKpis;
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DashboardLiveStream}.
+ */
+class DashboardLiveStreamTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+    private static final Instant NOW = Instant.parse("2024-03-15T06:00:00Z");
+
+    private DashboardLiveStream stream;
+    private DayBucketCache dayBucketCache;
+    private DashboardWatermarkService watermarkService;
+
+    @BeforeEach
+    void setUp() {
+        dayBucketCache = mock(DayBucketCache.class);
+        when(dayBucketCache.sum(eq(123L), any(), any(), any(), any())).thenReturn(DailyKpis.ZERO);
+        watermarkService = mock(DashboardWatermarkService.class);
+        stream = new DashboardLiveStream();
+        ReflectionTestUtils.setField(stream, "dayBucketCache", dayBucketCache);
+        ReflectionTestUtils.setField(stream, "watermarkService", watermarkService);
+        ReflectionTestUtils.setField(stream, "timeout", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(stream, "reconnectDelay", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(stream, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+        TenantContextHolder.setContext(new TenantContext(1L, 123L, Set.of(), Set.of(), "Asia/Singapore", "user"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContextHolder.clearContext();
+        stream.destroy();
+    }
+
+    @Test
+    void shouldRefreshTodaysCountersOnceForAllSubscribers() {
+        // Given
+        stream.subscribe();
+        stream.subscribe();
+        verify(dayBucketCache, timeout(2000).atLeastOnce()).sum(eq(123L), eq(TODAY), eq(TODAY), isNull(), any());
+
+        // When - changes to other days or other tenants are ignored
+        stream.onDashboardDataChanged(new DashboardDataChangedEvent(123L, TODAY.minusDays(1)));
+        stream.onDashboardDataChanged(new DashboardDataChangedEvent(456L, TODAY));
+        stream.onDashboardDataChanged(new DashboardDataChangedEvent(123L, TODAY));
+
+        // Then - the counters are reloaded from data committed after the change
+        verify(dayBucketCache, timeout(2000)).sum(123L, TODAY, TODAY, NOW, SummaryField.sourcesOf(DashboardLiveStream.LIVE_FIELDS));
+        verify(dayBucketCache, never()).sum(eq(456L), any(), any(), any(), any());
+        assertEquals(1, stream.getTenantCount());
+    }
+
+    @Test
+    void shouldRequireBucketsNewerThanTodaysWatermarkOnHeartbeat() {
+        // Given - today's data was changed through another instance
+        stream.subscribe();
+        verify(dayBucketCache, timeout(2000)).sum(eq(123L), eq(TODAY), eq(TODAY), isNull(), any());
+        Instant requiredSince = NOW.minusSeconds(30);
+        when(watermarkService.requiredSince(123L, TODAY, TODAY)).thenReturn(requiredSince);
+
+        // When
+        stream.heartbeat();
+
+        // Then
+        verify(dayBucketCache, timeout(2000)).sum(eq(123L), eq(TODAY), eq(TODAY), eq(requiredSince), any());
+    }
+
+    @Test
+    void shouldRefreshWithSubscribersReplicaReadMarker() {
+        // Given
+        AtomicBoolean replicaReads = new AtomicBoolean();
+        when(dayBucketCache.sum(eq(123L), any(), any(), any(), any())).thenAnswer(invocation -> {
+            replicaReads.set(ReplicaReadContextHolder.isEnabled());
+            return DailyKpis.ZERO;
+        });
+        ReplicaReadContextHolder.enable();
+
+        // When
+        try {
+            stream.subscribe();
+        } finally {
+            ReplicaReadContextHolder.clear();
+        }
+
+        // Then
+        verify(dayBucketCache, timeout(2000)).sum(eq(123L), eq(TODAY), eq(TODAY), isNull(), any());
+        assertTrue(replicaReads.get());
+    }
+
+    @Test
+    void shouldSendOnlyChangedKpisWithinTheDay() {
+        // Given
+        DashboardSummaryDto previous = summary(TODAY, "100.00", 2, 3);
+        DashboardSummaryDto next = summary(TODAY, "150.00", 3, 3);
+
+        // When
+        DashboardSummaryDto delta = DashboardLiveStream.delta(previous, next);
+
+        // Then
+        assertEquals(0, new BigDecimal("150.00").compareTo(delta.getGrossSales()));
+        assertEquals(3, delta.getBills());
+        assertNull(delta.getAppointments());
+        assertNull(delta.getReturningCustomers());
+        assertNull(DashboardLiveStream.delta(next, summary(TODAY, "150.00", 3, 3)));
+    }
+
+    @Test
+    void shouldSendFullSummaryForFirstEventAndNewDay() {
+        // Given
+        DashboardSummaryDto yesterday = summary(TODAY.minusDays(1), "100.00", 2, 3);
+        DashboardSummaryDto today = summary(TODAY, "100.00", 2, 3);
+
+        // When
+        DashboardSummaryDto first = DashboardLiveStream.delta(null, today);
+        DashboardSummaryDto rollover = DashboardLiveStream.delta(yesterday, today);
+
+        // Then
+        assertEquals(3, first.getAppointments());
+        assertEquals(2, rollover.getBills());
+        assertEquals(TODAY, rollover.getPeriodStart());
+        assertNull(rollover.getReturningCustomers());
+    }
+
+    private static DashboardSummaryDto summary(LocalDate day, String grossSales, int bills, int appointments) {
+        DashboardSummaryDto summary = new DashboardSummaryDto(new BigDecimal(grossSales), new BigDecimal(grossSales),
+                bills, BigDecimal.ZERO, 0, 0, 0, appointments, 0);
+        summary.setPeriodStart(day);
+        summary.setPeriodEnd(day);
+        return summary;
+    }
+}
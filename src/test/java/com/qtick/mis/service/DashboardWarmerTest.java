@@ -0,0 +1,136 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.datasource.ReplicaReadContextHolder;
+import com.qtick.mis.security.TenantContextHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DashboardWarmer}.
+ */
+class DashboardWarmerTest {
+
+    private static final ZoneId SINGAPORE = ZoneId.of("Asia/Singapore");
+    private static final ZoneId LONDON = ZoneId.of("Europe/London");
+
+    private DashboardWarmer warmer;
+    private DashboardService dashboardService;
+    private TenantAccessTracker accessTracker;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = mock(DashboardService.class);
+        accessTracker = mock(TenantAccessTracker.class);
+        warmer = new DashboardWarmer(2);
+        ReflectionTestUtils.setField(warmer, "dashboardService", dashboardService);
+        ReflectionTestUtils.setField(warmer, "accessTracker", accessTracker);
+        ReflectionTestUtils.setField(warmer, "defaultOpening", "09:00");
+        ReflectionTestUtils.setField(warmer, "leadTime", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(warmer, "maxTenantsPerRun", 20);
+        when(accessTracker.claimWarmUp(any(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        warmer.destroy();
+    }
+
+    @Test
+    void shouldWarmTenantsInTheirOwnMorningOncePerDay() {
+        // Given - 08:40 in Singapore, 00:40 in London
+        at("2024-03-13T00:40:00Z");
+        when(accessTracker.byFrequency()).thenReturn(List.of(
+                new TenantAccessTracker.TenantActivity(1L, SINGAPORE, 5.0, null),
+                new TenantAccessTracker.TenantActivity(2L, LONDON, 3.0, null)));
+        when(accessTracker.claimWarmUp(1L, LocalDate.of(2024, 3, 13))).thenReturn(true, false);
+
+        // When
+        warmer.warmDueTenants();
+        warmer.warmDueTenants();
+
+        // Then - Wednesday's views, with week to date starting on Monday
+        LocalDate today = LocalDate.of(2024, 3, 13);
+        verify(dashboardService, timeout(2000)).getSummary(today, today, today.minusDays(1), today.minusDays(1));
+        verify(dashboardService, timeout(2000)).getSummary(
+                LocalDate.of(2024, 3, 11), today, LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 6));
+        verify(dashboardService, timeout(2000)).getTopStaff(LocalDate.of(2024, 3, 11), today, "revenue", 5);
+        verify(dashboardService, after(100).times(3)).getSummary(any(), any(), any(), any());
+        verify(accessTracker, never()).claimWarmUp(eq(2L), any());
+        assertNull(TenantContextHolder.getContext());
+    }
+
+    @Test
+    void shouldSkipTenantsWarmedByAnotherInstance() {
+        // Given - 08:40 in Singapore
+        at("2024-03-13T00:40:00Z");
+        when(accessTracker.byFrequency()).thenReturn(List.of(
+                new TenantAccessTracker.TenantActivity(1L, SINGAPORE, 5.0, null)));
+        when(accessTracker.claimWarmUp(any(), any())).thenReturn(false);
+
+        // When
+        warmer.warmDueTenants();
+
+        // Then
+        verify(dashboardService, after(100).never()).getSummary(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldWarmFromReplica() {
+        // Given
+        AtomicBoolean replicaReads = new AtomicBoolean();
+        when(dashboardService.getSummary(any(), any(), any(), any())).thenAnswer(invocation -> {
+            replicaReads.set(ReplicaReadContextHolder.isEnabled());
+            return null;
+        });
+
+        // When
+        warmer.warm(new TenantAccessTracker.TenantActivity(1L, SINGAPORE, 5.0, null), LocalDate.of(2024, 3, 13));
+
+        // Then
+        assertTrue(replicaReads.get());
+        assertFalse(ReplicaReadContextHolder.isEnabled());
+    }
+
+    @Test
+    void shouldUsePredictedOpeningAndLimitTenantsPerRun() {
+        // Given - 07:10 in Singapore; only tenants opening at 07:30 are due
+        at("2024-03-12T23:10:00Z");
+        ReflectionTestUtils.setField(warmer, "maxTenantsPerRun", 1);
+        TenantAccessTracker.TenantActivity early = new TenantAccessTracker.TenantActivity(1L, SINGAPORE, 5.0, LocalTime.of(7, 30));
+        TenantAccessTracker.TenantActivity late = new TenantAccessTracker.TenantActivity(2L, SINGAPORE, 9.0, null);
+        TenantAccessTracker.TenantActivity alsoEarly = new TenantAccessTracker.TenantActivity(3L, SINGAPORE, 1.0, LocalTime.of(7, 30));
+
+        // Then
+        assertTrue(warmer.isDue(early, Instant.parse("2024-03-12T23:10:00Z").atZone(SINGAPORE)));
+        assertFalse(warmer.isDue(late, Instant.parse("2024-03-12T23:10:00Z").atZone(SINGAPORE)));
+
+        // When
+        when(accessTracker.byFrequency()).thenReturn(List.of(late, early, alsoEarly));
+        warmer.warmDueTenants();
+
+        // Then - only the first due tenant was started
+        verify(dashboardService, timeout(2000).times(3)).getSummary(any(), any(), any(), any());
+        verify(dashboardService, after(100).times(3)).getSummary(any(), any(), any(), any());
+    }
+
+    private void at(String instant) {
+        ReflectionTestUtils.setField(warmer, "clock", Clock.fixed(Instant.parse(instant), ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,161 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.event.DashboardDataChangedEvent;
+import com.qtick.mis.repository.jpa.AppointmentRepository;
+import com.qtick.mis.repository.jpa.BillRepository;
+import com.qtick.mis.repository.jpa.EnquiryRepository;
+import com.qtick.mis.repository.projection.BranchDayBills;
+import com.qtick.mis.repository.projection.BranchDayCount;
+import com.qtick.mis.repository.projection.BranchDayLeads;
+import com.qtick.mis.repository.projection.DailyKpis;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DayBucketCache}.
+ */
+class DayBucketCacheTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 3, 11);
+    private static final Set<SummaryField.Source> ALL = SummaryField.sourcesOf(SummaryField.ALL);
+
+    private DayBucketCache cache;
+    private BillRepository billRepository;
+    private EnquiryRepository enquiryRepository;
+    private AppointmentRepository appointmentRepository;
+
+    @BeforeEach
+    void setUp() {
+        billRepository = mock(BillRepository.class);
+        enquiryRepository = mock(EnquiryRepository.class);
+        appointmentRepository = mock(AppointmentRepository.class);
+        cache = new DayBucketCache();
+        ReflectionTestUtils.setField(cache, "billRepository", billRepository);
+        ReflectionTestUtils.setField(cache, "enquiryRepository", enquiryRepository);
+        ReflectionTestUtils.setField(cache, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(cache, "cacheManager", new ConcurrentMapCacheManager());
+        ReflectionTestUtils.setField(cache, "clock", Clock.fixed(Instant.parse("2024-03-18T00:00:00Z"), ZoneOffset.UTC));
+
+        when(billRepository.summarizeKpisByDayAndBranch(eq(123L), any(), any())).thenReturn(List.of(
+                new BranchDayBills(MONDAY, 201L, new BigDecimal("100.00"), new BigDecimal("90.00"), 2L),
+                new BranchDayBills(MONDAY, 202L, new BigDecimal("50.00"), new BigDecimal("50.00"), 1L),
+                new BranchDayBills(MONDAY.plusDays(2), null, new BigDecimal("30.00"), new BigDecimal("30.00"), 1L)));
+        when(enquiryRepository.summarizeKpisByDayAndBranch(eq(123L), any(), any())).thenReturn(List.of(
+                new BranchDayLeads(MONDAY.plusDays(1), 201L, 1L, 3L, 1L)));
+        when(appointmentRepository.countByDayAndBranch(eq(123L), any(), any())).thenReturn(List.of(
+                new BranchDayCount(MONDAY, 201L, 4L)));
+    }
+
+    @Test
+    void shouldSumBranchesAndDaysOfRange() {
+        // When
+        DailyKpis kpis = cache.sum(123L, MONDAY, MONDAY.plusDays(6), null, ALL);
+
+        // Then
+        assertEquals(0, new BigDecimal("180.00").compareTo(kpis.grossSales()));
+        assertEquals(0, new BigDecimal("170.00").compareTo(kpis.netSales()));
+        assertEquals(4, kpis.bills());
+        assertEquals(1, kpis.newLeads());
+        assertEquals(3, kpis.totalLeads());
+        assertEquals(1, kpis.missedLeads());
+        assertEquals(4, kpis.appointments());
+        verify(billRepository).summarizeKpisByDayAndBranch(123L, MONDAY, MONDAY.plusDays(6));
+    }
+
+    @Test
+    void shouldServeOverlappingRangesFromCachedDays() {
+        // Given
+        cache.sum(123L, MONDAY, MONDAY.plusDays(6), null, ALL);
+
+        // When - a sub-range and a range reaching one day further
+        DailyKpis tuesday = cache.sum(123L, MONDAY.plusDays(1), MONDAY.plusDays(1), null, ALL);
+        cache.sum(123L, MONDAY.plusDays(3), MONDAY.plusDays(7), null, ALL);
+
+        // Then - only the uncached day was queried
+        assertEquals(3, tuesday.totalLeads());
+        assertEquals(0, tuesday.bills());
+        verify(billRepository).summarizeKpisByDayAndBranch(123L, MONDAY.plusDays(7), MONDAY.plusDays(7));
+        verify(billRepository, times(2)).summarizeKpisByDayAndBranch(eq(123L), any(), any());
+    }
+
+    @Test
+    void shouldReloadOnlyTheChangedDay() {
+        // Given
+        cache.sum(123L, MONDAY, MONDAY.plusDays(6), null, ALL);
+
+        // When
+        cache.onDashboardDataChanged(new DashboardDataChangedEvent(123L, MONDAY.plusDays(2)));
+        cache.sum(123L, MONDAY, MONDAY.plusDays(6), null, ALL);
+
+        // Then
+        verify(billRepository).summarizeKpisByDayAndBranch(123L, MONDAY.plusDays(2), MONDAY.plusDays(2));
+        verify(billRepository, times(2)).summarizeKpisByDayAndBranch(eq(123L), any(), any());
+    }
+
+    @Test
+    void shouldReloadDaysLoadedBeforeRequiredTime() {
+        // Given
+        cache.sum(123L, MONDAY, MONDAY, null, ALL);
+
+        // When
+        cache.sum(123L, MONDAY, MONDAY, Instant.parse("2024-03-18T00:00:00Z"), ALL);
+        cache.sum(123L, MONDAY, MONDAY, Instant.parse("2024-03-18T00:00:01Z"), ALL);
+
+        // Then
+        verify(billRepository, times(2)).summarizeKpisByDayAndBranch(123L, MONDAY, MONDAY);
+    }
+
+    @Test
+    void shouldQueryOnlyRequestedTables() {
+        // When
+        DailyKpis kpis = cache.sum(123L, MONDAY, MONDAY.plusDays(6), null, Set.of(SummaryField.Source.BILLS));
+
+        // Then
+        assertEquals(4, kpis.bills());
+        assertEquals(0, kpis.totalLeads());
+        verifyNoInteractions(enquiryRepository, appointmentRepository);
+    }
+
+    @Test
+    void shouldLoadOnlyTablesNotCachedYet() {
+        // Given
+        cache.sum(123L, MONDAY, MONDAY.plusDays(6), null, Set.of(SummaryField.Source.BILLS));
+
+        // When
+        DailyKpis kpis = cache.sum(123L, MONDAY, MONDAY.plusDays(6), null, ALL);
+        cache.sum(123L, MONDAY, MONDAY.plusDays(6), null, ALL);
+
+        // Then - cached bill buckets were kept and the other tables were loaded once
+        assertEquals(4, kpis.bills());
+        assertEquals(3, kpis.totalLeads());
+        assertEquals(4, kpis.appointments());
+        verify(billRepository, times(1)).summarizeKpisByDayAndBranch(eq(123L), any(), any());
+        verify(enquiryRepository, times(1)).summarizeKpisByDayAndBranch(eq(123L), any(), any());
+    }
+
+    @Test
+    void shouldSumOneTablePerCall() {
+        // When
+        DailyKpis appointments = cache.sumSource(123L, MONDAY, MONDAY.plusDays(6), null, SummaryField.Source.APPOINTMENTS);
+
+        // Then
+        assertEquals(4, appointments.appointments());
+        assertEquals(0, appointments.bills());
+        verifyNoInteractions(billRepository, enquiryRepository);
+    }
+}
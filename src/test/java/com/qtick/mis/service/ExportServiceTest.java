@@ -0,0 +1,160 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.entity.Appointment;
+import com.qtick.mis.entity.Bill;
+import com.qtick.mis.entity.BillItem;
+import com.qtick.mis.entity.Client;
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ExportService} against the test database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ExportService.class)
+class ExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExportService exportService;
+
+    private final LocalDate today = LocalDate.of(2024, 3, 15);
+
+    private Client client;
+    private Bill bill1;
+    private Bill bill2;
+    private Appointment appointment;
+
+    @BeforeEach
+    void setUp() {
+        TenantContextHolder.setContext(new TenantContext(1L, 123L, Set.of(), Set.of(), "Asia/Singapore", "user"));
+
+        client = new Client(123L, "Doe, John", "9876543210", "john@example.com");
+        entityManager.persistAndFlush(client);
+        Client otherClient = new Client(456L, "Bob Johnson", "9876543212", "bob@example.com");
+        entityManager.persistAndFlush(otherClient);
+
+        bill1 = new Bill(123L, client, "B-001", today, new BigDecimal("100.00"), new BigDecimal("90.00"));
+        bill1.addItem(new BillItem(bill1, 11L, "Haircut", 1, new BigDecimal("40.00")));
+        bill1.addItem(new BillItem(bill1, 12L, "Shave", 2, new BigDecimal("30.00")));
+        bill2 = new Bill(123L, client, "B-002", today.minusDays(1), new BigDecimal("250.50"), new BigDecimal("250.50"));
+        Bill outOfRange = new Bill(123L, client, "B-003", today.minusDays(30), new BigDecimal("999.00"), new BigDecimal("999.00"));
+        Bill otherTenant = new Bill(456L, otherClient, "B-101", today, new BigDecimal("500.00"), new BigDecimal("500.00"));
+        entityManager.persistAndFlush(bill1);
+        entityManager.persistAndFlush(bill2);
+        entityManager.persistAndFlush(outOfRange);
+        entityManager.persistAndFlush(otherTenant);
+
+        appointment = new Appointment(123L, client, today.atTime(10, 0), 11L, "Haircut");
+        entityManager.persistAndFlush(appointment);
+        entityManager.persistAndFlush(new Appointment(123L, client, today.plusDays(5).atTime(10, 0), 11L, "Haircut"));
+        entityManager.persistAndFlush(new Appointment(456L, otherClient, today.atTime(10, 0), 11L, "Haircut"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldExportBillsWithOneCsvLinePerItem() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long bills = exportService.exportBills(today.minusDays(6), today, ExportFormat.CSV, out);
+
+        // Then - bills are detached once written
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, bills);
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("id,billNumber,billDate,"));
+        assertTrue(lines[0].endsWith(",items.staffName"));
+        assertEquals(2, countContaining(lines, ",B-001,"));
+        assertEquals(1, countContaining(lines, ",B-002,"));
+        assertEquals(1, countContaining(lines, ",Haircut,"));
+        assertEquals(0, countContaining(lines, ",B-003,") + countContaining(lines, ",B-101,"));
+        assertFalse(entityManager.getEntityManager().contains(bill1));
+        assertFalse(entityManager.getEntityManager().contains(bill2));
+    }
+
+    @Test
+    void shouldExportBillsAsNdjsonWithNestedItems() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long bills = exportService.exportBills(today.minusDays(6), today, ExportFormat.NDJSON, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, bills);
+        assertEquals(2, lines.length);
+        String first = lines[0].contains("\"B-001\"") ? lines[0] : lines[1];
+        String second = first == lines[0] ? lines[1] : lines[0];
+        assertTrue(first.contains("\"clientId\":" + client.getCustId()));
+        assertTrue(first.contains("\"serviceName\":\"Haircut\""));
+        assertTrue(first.contains("\"serviceName\":\"Shave\""));
+        assertTrue(second.endsWith("\"items\":[]}"));
+    }
+
+    @Test
+    void shouldExportAppointmentsOfRange() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long appointments = exportService.exportAppointments(today, today, ExportFormat.NDJSON, out);
+
+        // Then
+        assertEquals(1, appointments);
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("{\"id\":" + appointment.getId() + ","));
+        assertFalse(entityManager.getEntityManager().contains(appointment));
+    }
+
+    @Test
+    void shouldExportClientsOfTenant() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long clients = exportService.exportClients(ExportFormat.CSV, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, clients);
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith(client.getCustId() + ",\"Doe, John\",john@example.com,9876543210,"));
+        assertFalse(entityManager.getEntityManager().contains(client));
+    }
+
+    private static long countContaining(String[] lines, String text) {
+        long count = 0;
+        for (String line : lines) {
+            if (line.contains(text)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,68 @@
+package com.qtick.mis.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ExportWriter}.
+ */
+class ExportWriterTest {
+
+    private static final List<String> COLUMNS = List.of("id", "name", "amount", "date");
+    private static final List<String> ITEM_COLUMNS = List.of("service", "quantity");
+
+    @Test
+    void shouldQuoteCsvValuesAndRepeatRowPerNestedRow() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        try (ExportWriter writer = ExportWriter.create(ExportFormat.CSV, out, COLUMNS, "items", ITEM_COLUMNS)) {
+            writer.write(new Object[] {1L, "Doe, \"JD\"", new BigDecimal("1E+2"), LocalDate.of(2024, 3, 15)},
+                         List.of(new Object[] {"Haircut", 1}, new Object[] {"Shave", 2}));
+            writer.write(new Object[] {2L, null, BigDecimal.ZERO, null}, List.of());
+            assertEquals(2, writer.getRowCount());
+        }
+
+        // Then
+        assertEquals("""
+                id,name,amount,date,items.service,items.quantity
+                1,"Doe, ""JD""\",100,2024-03-15,Haircut,1
+                1,"Doe, ""JD""\",100,2024-03-15,Shave,2
+                2,,0,,,
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerLineWithNestedArray() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        try (ExportWriter writer = ExportWriter.create(ExportFormat.NDJSON, out, COLUMNS, "items", ITEM_COLUMNS)) {
+            writer.write(new Object[] {1L, "Doe \"JD\"", new BigDecimal("100.50"), LocalDate.of(2024, 3, 15)},
+                         List.<Object[]>of(new Object[] {"Haircut", 1}));
+            writer.write(new Object[] {2L, null, BigDecimal.ZERO, null}, List.of());
+        }
+
+        // Then
+        assertEquals("""
+                {"id":1,"name":"Doe \\"JD\\"","amount":100.50,"date":"2024-03-15","items":[{"service":"Haircut","quantity":1}]}
+                {"id":2,"name":null,"amount":0,"date":null,"items":[]}
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldRejectUnsupportedFormat() {
+        assertEquals(ExportFormat.NDJSON, ExportFormat.fromName("ndjson"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromName("xlsx"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.service.StaffLeaderboard.Metric;
+import com.qtick.mis.service.StaffLeaderboard.StaffScore;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link InMemoryStaffLeaderboard}.
+ */
+class InMemoryStaffLeaderboardTest {
+
+    private final LocalDate monday = LocalDate.of(2024, 3, 11);
+
+    @Test
+    void shouldRankSingleDayByEitherMetric() {
+        // Given
+        InMemoryStaffLeaderboard leaderboard = new InMemoryStaffLeaderboard(100, Duration.ofHours(1));
+        leaderboard.replaceDay(123L, monday, List.of(
+                score(1L, "300.00", 2), score(2L, "100.00", 5), score(3L, "200.00", 1)));
+
+        // When
+        List<StaffScore> byRevenue = leaderboard.top(123L, monday, monday, Metric.REVENUE, 2);
+        List<StaffScore> byJobs = leaderboard.top(123L, monday, monday, Metric.JOBS, 10);
+
+        // Then
+        assertEquals(List.of(1L, 3L), byRevenue.stream().map(StaffScore::staffId).toList());
+        assertEquals(List.of(2L, 1L, 3L), byJobs.stream().map(StaffScore::staffId).toList());
+    }
+
+    @Test
+    void shouldSumScoresAcrossDays() {
+        // Given - staff 2 leads on neither day but has the best total
+        InMemoryStaffLeaderboard leaderboard = new InMemoryStaffLeaderboard(100, Duration.ofHours(1));
+        leaderboard.replaceDay(123L, monday, List.of(score(1L, "300.00", 1), score(2L, "250.00", 1)));
+        leaderboard.replaceDay(123L, monday.plusDays(1), List.of(score(3L, "400.00", 2), score(2L, "250.00", 3)));
+        leaderboard.replaceDay(456L, monday, List.of(score(9L, "999.00", 9)));
+
+        // When
+        List<StaffScore> top = leaderboard.top(123L, monday, monday.plusDays(6), Metric.REVENUE, 2);
+
+        // Then
+        assertEquals(List.of(2L, 3L), top.stream().map(StaffScore::staffId).toList());
+        assertEquals(0, new BigDecimal("500.00").compareTo(top.get(0).revenue()));
+        assertEquals(4, top.get(0).jobs());
+    }
+
+    @Test
+    void shouldReplaceEvictAndBoundDays() {
+        // Given
+        InMemoryStaffLeaderboard leaderboard = new InMemoryStaffLeaderboard(2, Duration.ofHours(1));
+        leaderboard.replaceDay(123L, monday, List.of(score(1L, "100.00", 1)));
+        leaderboard.replaceDay(123L, monday, List.of(score(2L, "50.00", 1)));
+        leaderboard.replaceDay(123L, monday.plusDays(1), List.of());
+
+        // When
+        List<StaffScore> replaced = leaderboard.top(123L, monday, monday, Metric.REVENUE, 10);
+        leaderboard.replaceDay(123L, monday.plusDays(2), List.of());
+        leaderboard.evictDay(123L, monday.plusDays(2));
+
+        // Then - reading Monday made Tuesday the least recently used day when the third was added
+        assertEquals(List.of(2L), replaced.stream().map(StaffScore::staffId).toList());
+        assertEquals(Set.of(monday), leaderboard.loadedDays(123L, monday, monday.plusDays(6)));
+    }
+
+    @Test
+    void shouldStopReportingDaysOlderThanReloadInterval() {
+        // Given
+        MutableClock clock = new MutableClock();
+        InMemoryStaffLeaderboard leaderboard = new InMemoryStaffLeaderboard(clock, 100, Duration.ofHours(1));
+        leaderboard.replaceDay(123L, monday, List.of(score(1L, "100.00", 1)));
+        clock.advance(Duration.ofMinutes(59));
+        Set<LocalDate> fresh = leaderboard.loadedDays(123L, monday, monday);
+
+        // When
+        clock.advance(Duration.ofMinutes(2));
+        Set<LocalDate> stale = leaderboard.loadedDays(123L, monday, monday);
+
+        // Then - the day is reported missing so the service reloads it
+        assertEquals(Set.of(monday), fresh);
+        assertEquals(Set.of(), stale);
+    }
+
+    private static StaffScore score(Long staffId, String revenue, int jobs) {
+        return new StaffScore(staffId, "Staff " + staffId, new BigDecimal(revenue), jobs);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-03-12T09:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.config.TimezoneConfig;
+import com.qtick.mis.security.TenantContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link InMemoryTenantAccessTracker}.
+ */
+class InMemoryTenantAccessTrackerTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-03-11T01:00:00Z"));
+    private final InMemoryTenantAccessTracker tracker = new InMemoryTenantAccessTracker(clock);
+
+    @Test
+    void shouldRankByRecentAccessFrequency() {
+        // Given - tenant 1 was busy two weeks ago, tenant 2 is busy now
+        for (int i = 0; i < 10; i++) {
+            tracker.record(context(1L));
+        }
+        clock.advance(Duration.ofDays(14));
+        for (int i = 0; i < 3; i++) {
+            tracker.record(context(2L));
+        }
+
+        // When
+        List<TenantAccessTracker.TenantActivity> ranking = tracker.byFrequency();
+
+        // Then - ten accesses two half-lives ago weigh less than three now
+        assertEquals(List.of(2L, 1L), ranking.stream().map(TenantAccessTracker.TenantActivity::bizId).toList());
+        assertEquals(2.5, ranking.get(1).score(), 0.01);
+        assertEquals(ZoneId.of("Asia/Singapore"), ranking.get(0).zone());
+    }
+
+    @Test
+    void shouldReportLastSeenZoneOrDefault() {
+        // Given
+        tracker.record(context(1L));
+
+        // Then
+        assertEquals(ZoneId.of("Asia/Singapore"), tracker.zoneFor(1L));
+        assertEquals(TimezoneConfig.APPLICATION_ZONE, tracker.zoneFor(2L));
+    }
+
+    @Test
+    void shouldPredictOpeningFromFirstAccessOfEachDay() {
+        // Given - first accesses at 09:00, 09:10 and 08:50 Singapore time, plus later ones
+        clock.set(Instant.parse("2024-03-11T01:00:00Z"));
+        tracker.record(context(1L));
+        clock.advance(Duration.ofHours(3));
+        tracker.record(context(1L));
+        clock.set(Instant.parse("2024-03-12T01:10:00Z"));
+        tracker.record(context(1L));
+        clock.set(Instant.parse("2024-03-13T00:50:00Z"));
+        tracker.record(context(1L));
+
+        // Then
+        assertEquals(LocalTime.of(9, 0), tracker.byFrequency().get(0).predictedOpening());
+    }
+
+    @Test
+    void shouldForgetIdleTenantsButKeepTheirZone() {
+        // Given
+        tracker.record(context(1L));
+        clock.advance(Duration.ofDays(31));
+
+        // Then
+        assertTrue(tracker.byFrequency().isEmpty());
+        assertEquals(ZoneId.of("Asia/Singapore"), tracker.zoneFor(1L));
+    }
+
+    @Test
+    void shouldClaimEachWarmUpDayOnce() {
+        // Given
+        LocalDate day = LocalDate.of(2024, 3, 11);
+
+        // Then
+        assertTrue(tracker.claimWarmUp(1L, day));
+        assertFalse(tracker.claimWarmUp(1L, day));
+        assertTrue(tracker.claimWarmUp(2L, day));
+        assertTrue(tracker.claimWarmUp(1L, day.plusDays(1)));
+    }
+
+    private static TenantContext context(Long bizId) {
+        return new TenantContext(1L, bizId, Set.of(), Set.of(), "Asia/Singapore", "user");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        void set(Instant instant) {
+            now = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
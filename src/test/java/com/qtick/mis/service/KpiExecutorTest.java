@@ -0,0 +1,125 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.datasource.ReplicaReadContextHolder;
+import com.qtick.mis.exception.DashboardTimeoutException;
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KpiExecutor}.
+ */
+class KpiExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        TenantContextHolder.clearContext();
+        ReplicaReadContextHolder.clear();
+    }
+
+    @Test
+    void shouldPropagateTenantContextToTasks() {
+        KpiExecutor executor = new KpiExecutor(meterRegistry, Duration.ofSeconds(5), 4);
+        TenantContextHolder.setContext(new TenantContext(1L, 123L, Set.of(), Set.of(), null, "user"));
+
+        KpiExecutor.Batch batch = executor.newBatch();
+        Future<Long> bizId = batch.submit("bizId", () -> TenantContextHolder.getContext().getBizId());
+        Future<Boolean> virtual = batch.submit("virtual", () -> Thread.currentThread().isVirtual());
+
+        assertEquals(123L, batch.await("bizId", bizId));
+        assertTrue(batch.await("virtual", virtual));
+        executor.destroy();
+    }
+
+    @Test
+    void shouldPropagateReplicaReadMarkerToTasks() {
+        KpiExecutor executor = new KpiExecutor(meterRegistry, Duration.ofSeconds(5), 4);
+
+        KpiExecutor.Batch batch = executor.newBatch();
+        Future<Boolean> unmarked = batch.submit("unmarked", ReplicaReadContextHolder::isEnabled);
+        ReplicaReadContextHolder.enable();
+        Future<Boolean> marked = batch.submit("marked", ReplicaReadContextHolder::isEnabled);
+
+        assertFalse(batch.await("unmarked", unmarked));
+        assertTrue(batch.await("marked", marked));
+        executor.destroy();
+    }
+
+    @Test
+    void shouldRunTasksConcurrently() {
+        KpiExecutor executor = new KpiExecutor(meterRegistry, Duration.ofSeconds(5), 4);
+        CountDownLatch latch = new CountDownLatch(2);
+
+        KpiExecutor.Batch batch = executor.newBatch();
+        Future<Boolean> first = batch.submit("first", () -> {
+            latch.countDown();
+            return latch.await(2, TimeUnit.SECONDS);
+        });
+        Future<Boolean> second = batch.submit("second", () -> {
+            latch.countDown();
+            return latch.await(2, TimeUnit.SECONDS);
+        });
+
+        assertTrue(batch.await("first", first));
+        assertTrue(batch.await("second", second));
+        executor.destroy();
+    }
+
+    @Test
+    void shouldTimeEachKpiSeparately() {
+        KpiExecutor executor = new KpiExecutor(meterRegistry, Duration.ofSeconds(5), 4);
+
+        KpiExecutor.Batch batch = executor.newBatch();
+        batch.await("grossSales", batch.submit("grossSales", () -> 1));
+        batch.await("bills", batch.submit("bills", () -> 2));
+
+        assertEquals(1, meterRegistry.get(KpiExecutor.TIMER_NAME).tag("kpi", "grossSales").timer().count());
+        assertEquals(1, meterRegistry.get(KpiExecutor.TIMER_NAME).tag("kpi", "bills").timer().count());
+        executor.destroy();
+    }
+
+    @Test
+    void shouldFailWhenDeadlineExpires() {
+        KpiExecutor executor = new KpiExecutor(meterRegistry, Duration.ofMillis(50), 4);
+
+        KpiExecutor.Batch batch = executor.newBatch();
+        Future<Integer> slow = batch.submit("slow", () -> {
+            Thread.sleep(5_000);
+            return 1;
+        });
+
+        DashboardTimeoutException exception = assertThrows(DashboardTimeoutException.class,
+                () -> batch.await("slow", slow));
+        assertEquals("slow", exception.getKpi());
+        assertTrue(slow.isCancelled());
+        assertEquals(1.0, meterRegistry.get(KpiExecutor.TIMEOUT_COUNTER_NAME).tag("kpi", "slow").counter().count());
+        executor.destroy();
+    }
+
+    @Test
+    void shouldRethrowQueryFailures() {
+        KpiExecutor executor = new KpiExecutor(meterRegistry, Duration.ofSeconds(5), 4);
+
+        KpiExecutor.Batch batch = executor.newBatch();
+        Future<Integer> failing = batch.submit("failing", () -> {
+            throw new IllegalArgumentException("bad query");
+        });
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> batch.await("failing", failing));
+        assertEquals("bad query", exception.getMessage());
+        executor.destroy();
+    }
+}
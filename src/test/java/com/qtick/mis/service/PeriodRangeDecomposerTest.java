@@ -0,0 +1,63 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.service.PeriodRangeDecomposer.Coverage;
+import com.qtick.mis.service.PeriodRangeDecomposer.PeriodRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PeriodRangeDecomposer}.
+ */
+class PeriodRangeDecomposerTest {
+
+    private final PeriodRangeDecomposer decomposer = new PeriodRangeDecomposer();
+
+    private final Coverage coverage = new Coverage(YearMonth.of(2020, 1), YearMonth.of(2024, 2), 2020, 2023);
+
+    @Test
+    void shouldUseYearsMonthsAndLeftoverDays() {
+        // When
+        List<PeriodRange> ranges = decomposer.decompose(
+                LocalDate.of(2021, 11, 20), LocalDate.of(2024, 2, 10), coverage);
+
+        // Then
+        assertEquals(List.of(
+                new PeriodRange("D", LocalDate.of(2021, 11, 20), LocalDate.of(2021, 11, 30)),
+                new PeriodRange("M", LocalDate.of(2021, 12, 1), LocalDate.of(2021, 12, 31)),
+                new PeriodRange("Y", LocalDate.of(2022, 1, 1), LocalDate.of(2023, 12, 31)),
+                new PeriodRange("M", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)),
+                new PeriodRange("D", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 10))), ranges);
+        assertEquals(List.of(2022, 2023), ranges.get(2).periodIds());
+        assertEquals(List.of(202112), ranges.get(1).periodIds());
+        assertEquals(20211120, ranges.get(0).startId());
+    }
+
+    @Test
+    void shouldFallBackToDaysOutsideCoverage() {
+        // When - March 2024 is closed but not rolled up yet
+        List<PeriodRange> ranges = decomposer.decompose(
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 31), coverage);
+
+        // Then
+        assertEquals(List.of(
+                new PeriodRange("M", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)),
+                new PeriodRange("D", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31))), ranges);
+        assertEquals(31, ranges.get(1).periodIds().size());
+    }
+
+    @Test
+    void shouldUseDaysOnlyWithoutCoverage() {
+        // When
+        List<PeriodRange> ranges = decomposer.decompose(
+                LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31), null);
+
+        // Then
+        assertEquals(List.of(new PeriodRange("D", LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31))), ranges);
+        assertTrue(decomposer.decompose(LocalDate.of(2023, 1, 2), LocalDate.of(2023, 1, 1), coverage).isEmpty());
+    }
+}
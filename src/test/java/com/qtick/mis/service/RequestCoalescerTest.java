@@ -0,0 +1,131 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.security.TenantContext;
+import com.qtick.mis.security.TenantContextHolder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RequestCoalescer}.
+ */
+class RequestCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(meterRegistry);
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private final LocalDate today = LocalDate.of(2024, 3, 15);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        TenantContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldShareOneComputationAmongConcurrentCallers() throws Exception {
+        // Given - the first computation blocks until every caller has arrived
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        List<Future<String>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            results.add(callers.submit(() -> asTenant(123L, () -> coalescer.execute("summary", () -> {
+                executions.incrementAndGet();
+                await(release);
+                return "summary";
+            }, today, today))));
+        }
+        waitForCoalesced(4);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("summary", result.get(2, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(1, count("executed"));
+        assertEquals(4, count("coalesced"));
+    }
+
+    @Test
+    void shouldPropagateFailureToEveryWaiter() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            results.add(callers.submit(() -> asTenant(123L, () -> coalescer.execute("summary", () -> {
+                await(release);
+                throw new IllegalStateException("query failed");
+            }, today, today))));
+        }
+        waitForCoalesced(2);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertEquals("query failed", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void shouldNotShareBetweenTenantsOrParameters() {
+        // When
+        String first = asTenant(123L, () -> coalescer.execute("summary", () -> "a", today, today));
+        String other = asTenant(456L, () -> coalescer.execute("summary", () -> "b", today, today));
+        String later = asTenant(123L, () -> coalescer.execute("summary", () -> "c", today, today));
+
+        // Then - completed computations are not reused
+        assertEquals(List.of("a", "b", "c"), List.of(first, other, later));
+        assertEquals(3, count("executed"));
+    }
+
+    private <T> T asTenant(Long bizId, Supplier<T> call) {
+        TenantContextHolder.setContext(new TenantContext(1L, bizId, Set.of(201L), Set.of(), null, "user"));
+        try {
+            return call.get();
+        } finally {
+            TenantContextHolder.clearContext();
+        }
+    }
+
+    private void waitForCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (count("coalesced") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private double count(String outcome) {
+        Counter counter = meterRegistry.find(RequestCoalescer.COUNTER_NAME).tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
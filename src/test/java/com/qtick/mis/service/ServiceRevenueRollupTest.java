@@ -0,0 +1,158 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.entity.Bill;
+import com.qtick.mis.entity.BillItem;
+import com.qtick.mis.entity.Client;
+import com.qtick.mis.entity.DashboardRemoval;
+import com.qtick.mis.entity.ServiceDailyRevenue;
+import com.qtick.mis.repository.jpa.ServiceDailyRevenueRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ServiceRevenueRollup} against the test database, in MySQL mode for its upserts.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:rollup;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@Import(ServiceRevenueRollup.class)
+class ServiceRevenueRollupTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ServiceRevenueRollup rollup;
+
+    @Autowired
+    private ServiceDailyRevenueRepository repository;
+
+    private final LocalDate today = LocalDate.of(2024, 3, 15);
+
+    private Bill colour;
+
+    @BeforeEach
+    void setUp() {
+        Client client = new Client(123L, "John Doe", "9876543210", "john@example.com");
+        entityManager.persist(client);
+
+        Bill haircut = new Bill(123L, client, "B-001", today, new BigDecimal("40.00"), new BigDecimal("40.00"));
+        haircut.addItem(new BillItem(haircut, 11L, "Haircut", 1, new BigDecimal("40.00")));
+        colour = new Bill(123L, client, "B-002", today, new BigDecimal("90.00"), new BigDecimal("90.00"));
+        colour.addItem(new BillItem(colour, 12L, "Colour", 1, new BigDecimal("90.00")));
+        entityManager.persist(haircut);
+        entityManager.persist(colour);
+        entityManager.flush();
+    }
+
+    @Test
+    void shouldLeaveUnchangedDayUntouched() {
+        // Given
+        assertEquals(2, refresh());
+        List<LocalDateTime> written = updateTimes();
+
+        // When
+        int changed = refresh();
+
+        // Then
+        assertEquals(0, changed);
+        assertEquals(written, updateTimes());
+    }
+
+    @Test
+    void shouldWriteOnlyChangedRows() {
+        // Given
+        refresh();
+        List<ServiceDailyRevenue> before = rows();
+
+        // When - the colour bill is corrected and the haircut bill is unchanged
+        entityManager.find(Bill.class, colour.getId()).getItems().get(0).setTotalAmount(new BigDecimal("80.00"));
+        entityManager.flush();
+        int changed = refresh();
+
+        // Then
+        assertEquals(1, changed);
+        List<ServiceDailyRevenue> after = rows();
+        assertEquals(before.get(0).getUpdatedOn(), after.get(0).getUpdatedOn());
+        assertEquals(0, new BigDecimal("80.00").compareTo(after.get(1).getRevenue()));
+    }
+
+    @Test
+    void shouldDeleteRowsOfServicesNoLongerBilled() {
+        // Given
+        refresh();
+
+        // When
+        entityManager.remove(entityManager.find(Bill.class, colour.getId()));
+        entityManager.flush();
+        int changed = refresh();
+
+        // Then - the emptied day is recorded for the dashboard watermark
+        assertEquals(1, changed);
+        assertEquals(List.of(11L), rows().stream().map(ServiceDailyRevenue::getServiceId).toList());
+        assertNotNull(entityManager.find(DashboardRemoval.class, new DashboardRemoval.Key(123L, today)));
+    }
+
+    @Test
+    void shouldUpdateRowInsertedByConcurrentRebuild() {
+        // Given - another instance inserted the haircut row after this rebuild read the day
+        refresh();
+        ServiceDailyRevenue concurrent = new ServiceDailyRevenue(123L, ServiceDailyRevenue.NO_BRANCH, today, 11L, "Haircut");
+        concurrent.setRevenue(new BigDecimal("45.00"));
+        concurrent.setJobs(1);
+        concurrent.setVisits(1);
+        concurrent.setUpdatedOn(LocalDateTime.now());
+
+        // When
+        repository.upsert(concurrent);
+        entityManager.clear();
+
+        // Then
+        List<ServiceDailyRevenue> rows = rows();
+        assertEquals(2, rows.size());
+        assertEquals(0, new BigDecimal("45.00").compareTo(rows.get(0).getRevenue()));
+    }
+
+    @Test
+    void shouldRollUpBillsWithoutBranchUnderBranchZero() {
+        // When
+        refresh();
+
+        // Then
+        assertTrue(rows().stream().allMatch(row -> row.getBranchId() == ServiceDailyRevenue.NO_BRANCH));
+    }
+
+    private int refresh() {
+        int changed = rollup.refreshDay(123L, today);
+        entityManager.flush();
+        entityManager.clear();
+        return changed;
+    }
+
+    private List<ServiceDailyRevenue> rows() {
+        return repository.findByBizIdAndRevenueDate(123L, today).stream()
+                .sorted(Comparator.comparing(ServiceDailyRevenue::getServiceId))
+                .toList();
+    }
+
+    private List<LocalDateTime> updateTimes() {
+        return rows().stream().map(ServiceDailyRevenue::getUpdatedOn).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.document.DashboardSnapshot;
+import com.qtick.mis.repository.projection.BranchAppointments;
+import com.qtick.mis.repository.projection.BranchBills;
+import com.qtick.mis.repository.projection.BranchLeads;
+import com.qtick.mis.repository.projection.BranchServiceRevenue;
+import com.qtick.mis.repository.projection.BranchStaffRevenue;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SnapshotAssembler}.
+ */
+class SnapshotAssemblerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 10);
+
+    private final SnapshotAssembler assembler = new SnapshotAssembler(2);
+
+    @Test
+    void shouldBuildTenantAndBranchSnapshotsFromRows() {
+        // When
+        List<DashboardSnapshot> snapshots = assembler.newScope(123L, DATE, SnapshotAssembler.DAILY)
+                .addBillRows(List.of(
+                        new BranchBills(10L, new BigDecimal("100.00"), new BigDecimal("80.00"), 2L, BigDecimal.ONE, BigDecimal.TEN, 2L),
+                        new BranchBills(null, new BigDecimal("50.00"), new BigDecimal("50.00"), 1L, BigDecimal.ZERO, BigDecimal.ZERO, 1L)))
+                .addAppointmentRows(List.of(new BranchAppointments(10L, 5L, 2L, 3L, 1L, 1L)))
+                .addEnquiryRows(List.of(new BranchLeads(20L, 1L, 4L, 0L)))
+                .setTenantCustomers(1, 3, 2)
+                .build();
+
+        // Then
+        assertEquals(3, snapshots.size());
+        DashboardSnapshot tenant = snapshots.get(0);
+        assertNull(tenant.getBranchId());
+        assertEquals(0, new BigDecimal("150.00").compareTo(tenant.getGrossSales()));
+        assertEquals(3, tenant.getBills());
+        assertEquals(0, new BigDecimal("50.00").compareTo(tenant.getAvgBill()));
+        assertEquals(2, tenant.getWalkIns());
+        assertEquals(1, tenant.getNoShows());
+        assertEquals(4, tenant.getTotalLeads());
+        assertEquals(3, tenant.getActiveCustomers());
+
+        DashboardSnapshot branch10 = snapshots.get(1);
+        assertEquals(10L, branch10.getBranchId());
+        assertEquals(0, new BigDecimal("100.00").compareTo(branch10.getGrossSales()));
+        assertEquals(5, branch10.getAppointments());
+        assertEquals(2, branch10.getActiveCustomers());
+
+        DashboardSnapshot branch20 = snapshots.get(2);
+        assertEquals(20L, branch20.getBranchId());
+        assertEquals(0, branch20.getBills());
+        assertEquals(4, branch20.getTotalLeads());
+    }
+
+    @Test
+    void shouldRankTopServicesAndStaff() {
+        // When
+        List<DashboardSnapshot> snapshots = assembler.newScope(123L, DATE, SnapshotAssembler.DAILY)
+                .addBillRows(List.of(new BranchBills(null, new BigDecimal("200.00"), BigDecimal.ZERO, 4L, BigDecimal.ZERO, BigDecimal.ZERO, 4L)))
+                .addServiceRows(List.of(
+                        new BranchServiceRevenue(null, 1L, "Haircut", new BigDecimal("50.00"), 1L),
+                        new BranchServiceRevenue(null, 2L, "Coloring", new BigDecimal("120.00"), 2L),
+                        new BranchServiceRevenue(null, 3L, "Shave", new BigDecimal("30.00"), 1L)))
+                .addStaffRows(List.of(new BranchStaffRevenue(null, 7L, "Alex", new BigDecimal("200.00"), 4L)))
+                .build();
+
+        // Then
+        DashboardSnapshot tenant = snapshots.get(0);
+        assertEquals(2, tenant.getTopServices().size());
+        assertEquals("Coloring", tenant.getTopServices().get(0).getServiceName());
+        assertEquals(1, tenant.getTopServices().get(0).getRank());
+        assertEquals(0, new BigDecimal("60.00").compareTo(tenant.getTopServices().get(0).getContribution()));
+        assertEquals("Haircut", tenant.getTopServices().get(1).getServiceName());
+        assertEquals(1, tenant.getTopStaff().size());
+        assertEquals(4, tenant.getTopStaff().get(0).getJobs());
+    }
+
+    @Test
+    void shouldRollUpDailySnapshotsPerBranch() {
+        // Given
+        DashboardSnapshot tenantDay1 = daily(null, "100.00", 2, 1);
+        DashboardSnapshot tenantDay2 = daily(null, "60.00", 1, 2);
+        DashboardSnapshot branchDay1 = daily(10L, "40.00", 1, 0);
+
+        // When
+        List<DashboardSnapshot> snapshots = assembler.newScope(123L, DATE, SnapshotAssembler.WEEKLY)
+                .addSnapshots(List.of(tenantDay1, tenantDay2, branchDay1))
+                .build();
+
+        // Then
+        assertEquals(2, snapshots.size());
+        DashboardSnapshot tenant = snapshots.get(0);
+        assertEquals(SnapshotAssembler.WEEKLY, tenant.getPeriod());
+        assertEquals(DATE, tenant.getSnapshotDate());
+        assertEquals(0, new BigDecimal("160.00").compareTo(tenant.getGrossSales()));
+        assertEquals(3, tenant.getBills());
+        assertEquals(0, new BigDecimal("53.33").compareTo(tenant.getAvgBill()));
+        assertEquals(3, tenant.getNoShows());
+        assertEquals(0, new BigDecimal("40.00").compareTo(snapshots.get(1).getGrossSales()));
+    }
+
+    private DashboardSnapshot daily(Long branchId, String grossSales, int bills, int noShows) {
+        DashboardSnapshot snapshot = new DashboardSnapshot(123L, DATE, SnapshotAssembler.DAILY);
+        snapshot.setBranchId(branchId);
+        snapshot.setGrossSales(new BigDecimal(grossSales));
+        snapshot.setBills(bills);
+        snapshot.setNoShows(noShows);
+        return snapshot;
+    }
+}
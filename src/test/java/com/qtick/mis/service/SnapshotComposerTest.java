@@ -0,0 +1,114 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.document.DashboardSnapshot;
+import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SnapshotComposer}.
+ */
+class SnapshotComposerTest {
+
+    private final SnapshotComposer composer = new SnapshotComposer();
+
+    @Test
+    void shouldPreferFewestDocumentsForFullCover() {
+        // Given - March 2024 as one monthly, four weeklies and 31 dailies
+        LocalDate start = LocalDate.of(2024, 3, 1);
+        LocalDate end = LocalDate.of(2024, 3, 31);
+        List<DashboardSnapshot> candidates = new ArrayList<>();
+        candidates.add(snapshot(end, "monthly", "100.00", 10));
+        for (int week = 1; week <= 4; week++) {
+            candidates.add(snapshot(start.plusDays(week * 7L - 1), "weekly", "20.00", 2));
+        }
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            candidates.add(snapshot(day, "daily", "3.00", 1));
+        }
+
+        // When
+        SnapshotComposer.Composition composition = composer.compose(candidates, start, end);
+
+        // Then
+        assertEquals(1, composition.snapshots().size());
+        assertEquals("monthly", composition.snapshots().get(0).getPeriod());
+        assertTrue(composition.gaps().isEmpty());
+    }
+
+    @Test
+    void shouldCombineGranularitiesAndReportGaps() {
+        // Given - Feb 25 to Mar 20 with a monthly for March 1-31 that overruns the range
+        LocalDate start = LocalDate.of(2024, 2, 25);
+        LocalDate end = LocalDate.of(2024, 3, 20);
+        List<DashboardSnapshot> candidates = List.of(
+            snapshot(LocalDate.of(2024, 3, 31), "monthly", "100.00", 10),
+            snapshot(LocalDate.of(2024, 3, 3), "weekly", "20.00", 2),
+            snapshot(LocalDate.of(2024, 3, 10), "weekly", "20.00", 2),
+            snapshot(LocalDate.of(2024, 3, 11), "daily", "3.00", 1),
+            snapshot(LocalDate.of(2024, 3, 12), "daily", "3.00", 1),
+            snapshot(LocalDate.of(2024, 3, 20), "daily", "3.00", 1));
+
+        // When
+        SnapshotComposer.Composition composition = composer.compose(candidates, start, end);
+
+        // Then
+        assertEquals(5, composition.snapshots().size());
+        assertEquals(List.of(
+            new SnapshotComposer.DateRange(LocalDate.of(2024, 2, 25), LocalDate.of(2024, 2, 25)),
+            new SnapshotComposer.DateRange(LocalDate.of(2024, 3, 13), LocalDate.of(2024, 3, 19))),
+            composition.gaps());
+    }
+
+    @Test
+    void shouldReturnWholeRangeAsGapWithoutSnapshots() {
+        // Given
+        LocalDate start = LocalDate.of(2024, 3, 1);
+        LocalDate end = LocalDate.of(2024, 3, 7);
+
+        // When
+        SnapshotComposer.Composition composition = composer.compose(List.of(), start, end);
+
+        // Then
+        assertTrue(composition.snapshots().isEmpty());
+        assertEquals(List.of(new SnapshotComposer.DateRange(start, end)), composition.gaps());
+    }
+
+    @Test
+    void shouldSumAdditiveFieldsAndRecomputeAverageBill() {
+        // Given
+        List<DashboardSnapshot> snapshots = List.of(
+            snapshot(LocalDate.of(2024, 3, 7), "weekly", "100.00", 3),
+            snapshot(LocalDate.of(2024, 3, 8), "daily", "50.00", 1));
+        DashboardSummaryDto gap = new DashboardSummaryDto(new BigDecimal("25.00"), new BigDecimal("20.00"), 2,
+            new BigDecimal("12.50"), 1, 4, 1, 5, 7);
+
+        // When
+        DashboardSummaryDto summary = composer.merge(snapshots, List.of(gap));
+
+        // Then
+        assertEquals(0, new BigDecimal("175.00").compareTo(summary.getGrossSales()));
+        assertEquals(0, new BigDecimal("170.00").compareTo(summary.getNetSales()));
+        assertEquals(6, summary.getBills());
+        assertEquals(0, new BigDecimal("29.17").compareTo(summary.getAvgBill()));
+        assertEquals(3, summary.getNewLeads());
+        assertEquals(8, summary.getTotalLeads());
+        assertEquals(5, summary.getAppointments());
+    }
+
+    private DashboardSnapshot snapshot(LocalDate date, String period, String grossSales, int bills) {
+        DashboardSnapshot snapshot = new DashboardSnapshot(123L, date, period);
+        snapshot.setGrossSales(new BigDecimal(grossSales));
+        snapshot.setNetSales(new BigDecimal(grossSales));
+        snapshot.setBills(bills);
+        snapshot.setNewLeads(1);
+        snapshot.setTotalLeads(2);
+        snapshot.setAppointments(0);
+        return snapshot;
+    }
+}
@@ -0,0 +1,184 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.document.MaterializationWatermark;
+import com.qtick.mis.repository.jpa.AppointmentRepository;
+import com.qtick.mis.repository.jpa.BillRepository;
+import com.qtick.mis.repository.jpa.ClientRepository;
+import com.qtick.mis.repository.jpa.EnquiryRepository;
+import com.qtick.mis.repository.mongo.DashboardSnapshotRepository;
+import com.qtick.mis.repository.mongo.MaterializationWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SnapshotMaterializer}.
+ */
+class SnapshotMaterializerTest {
+
+    private static final ZoneId SINGAPORE = ZoneId.of("Asia/Singapore");
+    private static final String JOB = SnapshotMaterializer.JOB;
+    private static final String HISTORY_JOB = SnapshotMaterializer.SERVICE_REVENUE_HISTORY_JOB;
+
+    private SnapshotMaterializer materializer;
+    private ClientRepository clientRepository;
+    private BillRepository billRepository;
+    private AppointmentRepository appointmentRepository;
+    private MaterializationWatermarkRepository watermarkRepository;
+    private ServiceRevenueRollup serviceRevenueRollup;
+    private TenantAccessTracker accessTracker;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = mock(ClientRepository.class);
+        watermarkRepository = mock(MaterializationWatermarkRepository.class);
+        serviceRevenueRollup = mock(ServiceRevenueRollup.class);
+        accessTracker = mock(TenantAccessTracker.class);
+        billRepository = mock(BillRepository.class);
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(clientRepository.findDistinctBizIds()).thenReturn(List.of(123L));
+        when(accessTracker.zoneFor(123L)).thenReturn(SINGAPORE);
+        when(watermarkRepository.initialize(eq(HISTORY_JOB), eq(123L), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+
+        materializer = new SnapshotMaterializer();
+        ReflectionTestUtils.setField(materializer, "billRepository", billRepository);
+        ReflectionTestUtils.setField(materializer, "enquiryRepository", mock(EnquiryRepository.class));
+        ReflectionTestUtils.setField(materializer, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(materializer, "clientRepository", clientRepository);
+        ReflectionTestUtils.setField(materializer, "snapshotRepository", mock(DashboardSnapshotRepository.class));
+        ReflectionTestUtils.setField(materializer, "watermarkRepository", watermarkRepository);
+        ReflectionTestUtils.setField(materializer, "snapshotAssembler", new SnapshotAssembler(10));
+        ReflectionTestUtils.setField(materializer, "serviceRevenueRollup", serviceRevenueRollup);
+        ReflectionTestUtils.setField(materializer, "accessTracker", accessTracker);
+        ReflectionTestUtils.setField(materializer, "snapshotExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(materializer, "backfillDays", 90);
+        ReflectionTestUtils.setField(materializer, "maxDaysPerRun", 31);
+        ReflectionTestUtils.setField(materializer, "claimLease", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(materializer, "changeScanOverlap", Duration.ofMinutes(1));
+        // 2024-03-15 17:00 UTC is already 2024-03-16 in Singapore
+        ReflectionTestUtils.setField(materializer, "clock",
+                Clock.fixed(Instant.parse("2024-03-15T17:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldMaterializeThroughYesterdayInTenantTimezone() {
+        // Given
+        claimWatermark(LocalDate.of(2024, 3, 13), null);
+        when(watermarkRepository.advance(eq(JOB), eq(123L), any(), any())).thenReturn(true);
+
+        // When
+        materializer.materializeAll();
+
+        // Then
+        verify(watermarkRepository).initialize(JOB, 123L, LocalDate.of(2024, 3, 15).minusDays(90));
+        verify(watermarkRepository, never()).rewind(any(), any(), any());
+        verify(watermarkRepository).advance(JOB, 123L, LocalDate.of(2024, 3, 13), LocalDate.of(2024, 3, 14));
+        verify(watermarkRepository).advance(JOB, 123L, LocalDate.of(2024, 3, 14), LocalDate.of(2024, 3, 15));
+        verify(watermarkRepository, times(2)).advance(eq(JOB), any(), any(), any());
+        verify(serviceRevenueRollup).refreshDay(123L, LocalDate.of(2024, 3, 15));
+    }
+
+    @Test
+    void shouldStopWhenWatermarkWasRewoundDuringRun() {
+        // Given
+        claimWatermark(LocalDate.of(2024, 3, 13), null);
+        when(watermarkRepository.advance(eq(JOB), eq(123L), any(), any())).thenReturn(false);
+
+        // When
+        materializer.materializeAll();
+
+        // Then - the rewound watermark is left for the next run
+        verify(watermarkRepository, times(1)).advance(eq(JOB), any(), any(), any());
+        verify(serviceRevenueRollup).refreshDay(123L, LocalDate.of(2024, 3, 14));
+        verify(serviceRevenueRollup, never()).refreshDay(123L, LocalDate.of(2024, 3, 15));
+    }
+
+    @Test
+    void shouldRefreshTodayInTenantTimezone() {
+        // When
+        materializer.refreshOpenDay();
+
+        // Then
+        verify(serviceRevenueRollup).refreshDay(123L, LocalDate.of(2024, 3, 16));
+    }
+
+    @Test
+    void shouldRewindToEarliestDayChangedSinceLastScan() {
+        // Given - a bill of 3 Mar and an appointment of 1 Mar were updated after the last scan
+        LocalDateTime lastScan = LocalDateTime.of(2024, 3, 16, 0, 30);
+        claimWatermark(LocalDate.of(2024, 3, 14), lastScan);
+        when(billRepository.findFirstBillDateUpdatedAfter(123L, lastScan.minusMinutes(1)))
+                .thenReturn(LocalDate.of(2024, 3, 3));
+        when(appointmentRepository.findFirstAppointmentDateUpdatedAfter(123L, lastScan.minusMinutes(1)))
+                .thenReturn(LocalDateTime.of(2024, 3, 1, 10, 0));
+        when(watermarkRepository.rewind(JOB, 123L, LocalDate.of(2024, 3, 1))).thenReturn(true);
+        when(watermarkRepository.advance(eq(JOB), eq(123L), any(), any())).thenReturn(true);
+
+        // When
+        materializer.materializeAll();
+
+        // Then - rebuilt from 1 Mar, and the scan time is recorded in the application zone
+        verify(watermarkRepository).advance(JOB, 123L, LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 1));
+        verify(watermarkRepository, times(15)).advance(eq(JOB), any(), any(), any());
+        verify(watermarkRepository).markChangesScanned(JOB, 123L, LocalDateTime.of(2024, 3, 16, 1, 0));
+        verify(watermarkRepository).release(JOB, 123L, (String) ReflectionTestUtils.getField(materializer, "instanceId"));
+    }
+
+    @Test
+    void shouldRollUpServiceRevenueHistoryFromFirstBill() {
+        // Given - snapshots are current and the first bill is a week before the snapshot backfill
+        LocalDate backfillStart = LocalDate.of(2024, 3, 15).minusDays(90);
+        claimWatermark(LocalDate.of(2024, 3, 15), null);
+        when(billRepository.findFirstBillDate(123L)).thenReturn(backfillStart.minusDays(6));
+        when(watermarkRepository.advance(eq(HISTORY_JOB), eq(123L), any(), any())).thenReturn(true);
+
+        // When
+        materializer.materializeAll();
+
+        // Then
+        verify(watermarkRepository).initialize(HISTORY_JOB, 123L, backfillStart.minusDays(7));
+        verify(serviceRevenueRollup).refreshDay(123L, backfillStart.minusDays(6));
+        verify(serviceRevenueRollup).refreshDay(123L, backfillStart);
+        verify(watermarkRepository, times(7)).advance(eq(HISTORY_JOB), any(), any(), any());
+        verify(watermarkRepository, never()).advance(eq(JOB), any(), any(), any());
+    }
+
+    @Test
+    void shouldSkipTenantClaimedByAnotherInstance() {
+        // Given
+        when(watermarkRepository.claim(eq(JOB), eq(123L), any(), any())).thenReturn(Optional.empty());
+
+        // When
+        materializer.materializeAll();
+
+        // Then
+        verify(watermarkRepository, never()).advance(any(), any(), any(), any());
+        verify(watermarkRepository, never()).markChangesScanned(any(), any(), any());
+        verify(watermarkRepository, never()).release(any(), any(), any());
+        verify(serviceRevenueRollup, never()).refreshDay(any(), any());
+    }
+
+    private void claimWatermark(LocalDate watermarkDate, LocalDateTime changesScannedAt) {
+        MaterializationWatermark watermark = new MaterializationWatermark(JOB, 123L, watermarkDate);
+        watermark.setChangesScannedAt(changesScannedAt);
+        when(watermarkRepository.initialize(eq(JOB), eq(123L), any())).thenReturn(watermarkDate);
+        when(watermarkRepository.claim(eq(JOB), eq(123L), any(), eq(Duration.ofMinutes(15))))
+                .thenReturn(Optional.of(watermark));
+    }
+}
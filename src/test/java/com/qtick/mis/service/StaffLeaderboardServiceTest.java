@@ -0,0 +1,102 @@
+package com.qtick.mis.service;
+
+import com.qtick.mis.event.DashboardDataChangedEvent;
+import com.qtick.mis.repository.jpa.BillRepository;
+import com.qtick.mis.repository.projection.DayStaffRevenue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link StaffLeaderboardService}.
+ */
+class StaffLeaderboardServiceTest {
+
+    private static final ZoneId SINGAPORE = ZoneId.of("Asia/Singapore");
+
+    private final LocalDate start = LocalDate.of(2024, 3, 11);
+    private final LocalDate end = LocalDate.of(2024, 3, 13);
+
+    private StaffLeaderboardService service;
+    private BillRepository billRepository;
+
+    @BeforeEach
+    void setUp() {
+        billRepository = mock(BillRepository.class);
+        service = new StaffLeaderboardService();
+        ReflectionTestUtils.setField(service, "staffLeaderboard", new InMemoryStaffLeaderboard(100, Duration.ofHours(1)));
+        ReflectionTestUtils.setField(service, "billRepository", billRepository);
+        // 2024-03-15 17:00 UTC is already 2024-03-16 in Singapore
+        ReflectionTestUtils.setField(service, "clock",
+                Clock.fixed(Instant.parse("2024-03-15T17:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldLoadMissingClosedDaysOnce() {
+        // Given
+        when(billRepository.sumStaffRevenueByDay(123L, start, end)).thenReturn(List.of(
+                new DayStaffRevenue(start, 1L, "Alice", new BigDecimal("100.00"), 2L),
+                new DayStaffRevenue(end, 1L, "Alice", new BigDecimal("50.00"), 1L),
+                new DayStaffRevenue(end, 2L, "Bob", new BigDecimal("120.00"), 4L)));
+
+        // When
+        List<StaffLeaderboard.StaffScore> first = service.top(123L, start, end, "revenue", 5, SINGAPORE);
+        List<StaffLeaderboard.StaffScore> second = service.top(123L, start, end, "jobs", 5, SINGAPORE);
+
+        // Then - one grouped query served both requests
+        verify(billRepository, times(1)).sumStaffRevenueByDay(any(), any(), any());
+        assertEquals(List.of(1L, 2L), first.stream().map(StaffLeaderboard.StaffScore::staffId).toList());
+        assertEquals(0, new BigDecimal("150.00").compareTo(first.get(0).revenue()));
+        assertEquals(List.of(2L, 1L), second.stream().map(StaffLeaderboard.StaffScore::staffId).toList());
+    }
+
+    @Test
+    void shouldReloadChangedDay() {
+        // Given
+        when(billRepository.sumStaffRevenueByDay(eq(123L), any(), any())).thenReturn(List.of());
+        service.top(123L, start, end, "revenue", 5, SINGAPORE);
+
+        // When
+        service.onDashboardDataChanged(new DashboardDataChangedEvent(123L, end));
+        service.top(123L, start, end, "revenue", 5, SINGAPORE);
+
+        // Then
+        verify(billRepository).sumStaffRevenueByDay(123L, end, end);
+    }
+
+    @Test
+    void shouldAlwaysReloadTodayInTenantTimezone() {
+        // Given
+        LocalDate today = LocalDate.of(2024, 3, 16);
+        when(billRepository.sumStaffRevenueByDay(eq(123L), any(), any())).thenReturn(List.of());
+
+        // When
+        service.top(123L, today, today, "revenue", 5, SINGAPORE);
+        service.top(123L, today, today, "revenue", 5, SINGAPORE);
+
+        // Then
+        verify(billRepository, times(2)).sumStaffRevenueByDay(123L, today, today);
+    }
+
+    @Test
+    void shouldRejectUnsupportedSortBy() {
+        // When / Then - ratings are not scored, so they must not silently rank by revenue
+        assertThrows(IllegalArgumentException.class,
+                () -> service.top(123L, start, end, "rating", 5, SINGAPORE));
+        verifyNoInteractions(billRepository);
+    }
+}
@@ -0,0 +1,56 @@
+package com.qtick.mis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qtick.mis.dto.dashboard.DashboardSummaryDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SummaryField}.
+ */
+class SummaryFieldTest {
+
+    @Test
+    void shouldSelectAllFieldsByDefault() {
+        assertEquals(SummaryField.ALL, SummaryField.parse(null));
+        assertEquals(SummaryField.ALL, SummaryField.parse(List.of()));
+        assertEquals(SummaryField.values().length, SummaryField.ALL.size());
+    }
+
+    @Test
+    void shouldParseFieldNamesAndTheirSources() {
+        // When
+        Set<SummaryField> fields = SummaryField.parse(List.of("grossSales", " BILLS", "returningCustomers"));
+
+        // Then
+        assertEquals(Set.of(SummaryField.GROSS_SALES, SummaryField.BILLS, SummaryField.RETURNING_CUSTOMERS), fields);
+        assertEquals(Set.of(SummaryField.Source.BILLS, SummaryField.Source.CLIENTS), SummaryField.sourcesOf(fields));
+        assertThrows(IllegalArgumentException.class, () -> SummaryField.parse(List.of("profit")));
+    }
+
+    @Test
+    void shouldOmitClearedFieldsFromJson() throws Exception {
+        // Given
+        DashboardSummaryDto summary = new DashboardSummaryDto();
+        summary.setGrossSales(new BigDecimal("120.00"));
+        summary.setBills(3);
+        SummaryField.GROSS_SALES.setDelta(summary, new BigDecimal("20.00"));
+
+        // When
+        SummaryField.BILLS.clear(summary);
+        String json = new ObjectMapper().writeValueAsString(summary);
+
+        // Then
+        assertEquals(0, new BigDecimal("120.00").compareTo(SummaryField.GROSS_SALES.valueOf(summary)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(SummaryField.BILLS.valueOf(summary)));
+        assertTrue(json.contains("\"grossSales\""));
+        assertTrue(json.contains("\"grossSalesDelta\""));
+        assertFalse(json.contains("\"bills\""));
+        assertFalse(json.contains("\"netSales\""));
+    }
+}